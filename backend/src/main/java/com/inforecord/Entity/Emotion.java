@@ -69,4 +69,19 @@ public class Emotion {
     
     public LocalDate getWeekEnd() { return weekEnd; }
     public void setWeekEnd(LocalDate weekEnd) { this.weekEnd = weekEnd; }
+
+    // 같은 값을 가진 새 감정 객체 (연관 Record는 참조만 복사)
+    public Emotion copy() {
+        Emotion copy = new Emotion();
+        copy.id = id;
+        copy.record = record;
+        copy.emotionType = emotionType;
+        copy.intensity = intensity;
+        copy.extractedDate = extractedDate;
+        copy.userId = userId;
+        copy.date = date;
+        copy.weekStart = weekStart;
+        copy.weekEnd = weekEnd;
+        return copy;
+    }
 }
\ No newline at end of file
@@ -118,6 +118,23 @@ public class Record {
     public Double getWeatherTemp() { return weatherTemp; }
     public void setWeatherTemp(Double weatherTemp) { this.weatherTemp = weatherTemp; }
 
+    /**
+     * 같은 값을 가진 새 기록 객체 (저장소가 내부 상태를 호출자와 공유하지 않도록 사용)
+     */
+    public Record copy() {
+        Record copy = new Record();
+        copy.id = id;
+        copy.content = content;
+        copy.recordDate = recordDate;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        copy.userId = userId;
+        copy.weatherDesc = weatherDesc;
+        copy.weatherIcon = weatherIcon;
+        copy.weatherTemp = weatherTemp;
+        return copy;
+    }
+
     /**
      * toString 메서드 (디버깅용)
      */
@@ -1,15 +1,34 @@
 package com.inforecord.config;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+import jakarta.annotation.PreDestroy;
+
 @Configuration
+@EnableScheduling
 public class AppConfig {
     
+    /**
+     * 감정분석 모델 HTTP 클라이언트의 비동기 처리 스레드 (컨텍스트 종료 시 정리)
+     *
+     * Executor 빈으로 등록하면 스프링 부트 기본 작업 실행기가 만들어지지 않으므로 필드로 보관합니다.
+     */
+    private ExecutorService emotionModelHttpExecutor;
+    
     @Bean
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
@@ -21,4 +40,38 @@ public class AppConfig {
     public RestTemplate restTemplate() {
         return new RestTemplate();
     }
-} 
\ No newline at end of file
+
+    /**
+     * 감정분석 모델(Flask) 전용 HTTP 클라이언트
+     *
+     * 하나의 HttpClient를 공유해 keep-alive 연결을 재사용하고, 연결/응답 시간 제한을 둡니다.
+     * 동시 호출 수는 EmotionModelClient의 bulkhead가 max-connections로 제한합니다.
+     */
+    @Bean
+    public RestTemplate emotionModelRestTemplate(
+            @Value("${emotion.model.connect-timeout-ms:1000}") long connectTimeoutMs,
+            @Value("${emotion.model.read-timeout-ms:5000}") long readTimeoutMs,
+            @Value("${emotion.model.max-connections:4}") int maxConnections) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        emotionModelHttpExecutor = Executors.newFixedThreadPool(maxConnections, runnable -> {
+            Thread thread = new Thread(runnable, "emotion-model-http-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(emotionModelHttpExecutor)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        return new RestTemplate(requestFactory);
+    }
+
+    @PreDestroy
+    public void shutdownEmotionModelHttpExecutor() {
+        if (emotionModelHttpExecutor != null) {
+            emotionModelHttpExecutor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.inforecord.config;
+
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.inforecord.Entity.Emotion;
+import com.inforecord.Entity.Record;
+import com.inforecord.persistence.EmotionCodec;
+import com.inforecord.persistence.JournalEngine;
+import com.inforecord.persistence.RecordCodec;
+
+/**
+ * 메모리 저장소(Record/Emotion)의 저널 영속화 설정
+ */
+@Configuration
+public class PersistenceConfig {
+
+    @Value("${persistence.enabled:true}")
+    private boolean enabled;
+
+    @Value("${persistence.dir:data}")
+    private String dir;
+
+    @Value("${persistence.segment-bytes:67108864}")
+    private long segmentBytes;
+
+    @Value("${persistence.group-commit-max-batch:512}")
+    private int groupCommitMaxBatch;
+
+    @Bean(destroyMethod = "close")
+    public JournalEngine<Record> recordJournal() {
+        return new JournalEngine<>("records", Path.of(dir), new RecordCodec(), enabled, segmentBytes, groupCommitMaxBatch);
+    }
+
+    @Bean(destroyMethod = "close")
+    public JournalEngine<Emotion> emotionJournal() {
+        return new JournalEngine<>("emotions", Path.of(dir), new EmotionCodec(), enabled, segmentBytes, groupCommitMaxBatch);
+    }
+}
@@ -1,11 +1,9 @@
 package com.inforecord.controller;
 
 import com.inforecord.dto.AIAnalysisDto;
-import com.inforecord.dto.EmotionDto;
-import com.inforecord.dto.RecordDto;
-import com.inforecord.service.AIAnalysisService;
-import com.inforecord.service.EmotionAnalysisService;
-import com.inforecord.service.RecordService;
+import com.inforecord.dto.EmotionTrendDto;
+import com.inforecord.service.EmotionTrendService;
+import com.inforecord.service.WeeklyReportService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,7 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
-import java.util.List;
+import java.time.format.DateTimeParseException;
 
 @RestController
 @RequestMapping("/api/ai-analysis")
@@ -23,40 +21,26 @@ public class AIAnalysisController {
     private static final Logger log = LoggerFactory.getLogger(AIAnalysisController.class);
     
     @Autowired
-    private AIAnalysisService aiAnalysisService;
+    private WeeklyReportService weeklyReportService;
     
     @Autowired
-    private RecordService recordService;
-    
-    @Autowired
-    private EmotionAnalysisService emotionAnalysisService;
+    private EmotionTrendService emotionTrendService;
     
     @GetMapping("/weekly")
     public ResponseEntity<AIAnalysisDto> getWeeklyAnalysis(
             @RequestParam(defaultValue = "default-user") String userId,
             @RequestParam(required = false) String startDate,
-            @RequestParam(required = false) String endDate) {
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String regionId) {
         
         try {
             log.info("주간 AI 분석 요청 - 사용자: {}, 기간: {} ~ {}", userId, startDate, endDate);
             
-            // 이번주 데이터 조회
-            List<RecordDto> currentWeekRecords = recordService.getWeeklyRecords(userId, startDate, endDate);
-            List<EmotionDto> currentWeekEmotions = emotionAnalysisService.getWeeklyEmotionSummary(userId, startDate, endDate);
-            
-            // 저번주 데이터 조회 (이번주 시작일에서 7일 전부터 이번주 시작일 전까지)
             LocalDate currentStart = startDate != null ? LocalDate.parse(startDate) : LocalDate.now().minusDays(7);
-            LocalDate previousStart = currentStart.minusDays(7);
-            LocalDate previousEnd = currentStart.minusDays(1);
-            
-            List<RecordDto> previousWeekRecords = recordService.getWeeklyRecords(userId, previousStart.toString(), previousEnd.toString());
-            List<EmotionDto> previousWeekEmotions = emotionAnalysisService.getWeeklyEmotionSummary(userId, previousStart.toString(), previousEnd.toString());
+            LocalDate currentEnd = endDate != null ? LocalDate.parse(endDate) : LocalDate.now();
             
-            // AI 분석 수행
-            AIAnalysisDto analysis = aiAnalysisService.analyzeWeeklyInsights(
-                currentWeekRecords, currentWeekEmotions,
-                previousWeekRecords, previousWeekEmotions
-            );
+            // 이미 끝난 기간은 데이터가 바뀌지 않는 한 캐시(또는 야간 사전 계산)된 결과 사용
+            AIAnalysisDto analysis = weeklyReportService.getWeeklyReport(userId, currentStart, currentEnd, regionId);
             
             log.info("주간 AI 분석 완료 - 사용자: {}", userId);
             return ResponseEntity.ok(analysis);
@@ -66,4 +50,27 @@ public class AIAnalysisController {
             return ResponseEntity.status(500).build();
         }
     }
+    
+    @GetMapping("/trend")
+    public ResponseEntity<EmotionTrendDto> getEmotionTrend(
+            @RequestParam(defaultValue = "default-user") String userId,
+            @RequestParam(defaultValue = "12") int weeks,
+            @RequestParam(required = false) String endDate) {
+        
+        try {
+            log.info("감정 추이 요청 - 사용자: {}, 주: {}, 종료일: {}", userId, weeks, endDate);
+            
+            LocalDate end = endDate != null ? LocalDate.parse(endDate) : LocalDate.now();
+            EmotionTrendDto trend = emotionTrendService.getTrend(userId, end, weeks);
+            
+            return ResponseEntity.ok(trend);
+            
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            log.warn("감정 추이 요청 값 오류 - 사용자: {}, {}", userId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("감정 추이 계산 중 오류 발생 - 사용자: {}", userId, e);
+            return ResponseEntity.status(500).build();
+        }
+    }
 } 
\ No newline at end of file
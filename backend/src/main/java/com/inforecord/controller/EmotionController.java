@@ -5,11 +5,13 @@ import com.inforecord.service.EmotionAnalysisService;
 import com.inforecord.service.RecordService;
 import com.inforecord.Entity.Record;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/emotions")
@@ -22,6 +24,9 @@ public class EmotionController {
     @Autowired
     private RecordService recordService;
     
+    @Value("${emotion.store.check-enabled:false}")
+    private boolean aggregateCheckEnabled;
+    
     @GetMapping("/daily")
     public ResponseEntity<List<EmotionDto>> getDailyEmotions(
             @RequestParam(defaultValue = "default-user") String userId) {
@@ -40,6 +45,17 @@ public class EmotionController {
         return ResponseEntity.ok(emotions);
     }
 
+    /**
+     * 증분 감정 집계를 전체 재계산 결과와 비교합니다. (운영 점검용, emotion.store.check-enabled가 꺼져 있으면 404)
+     */
+    @GetMapping("/aggregates/check")
+    public ResponseEntity<Map<String, Object>> checkAggregates() {
+        if (!aggregateCheckEnabled) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(emotionAnalysisService.verifyEmotionAggregates());
+    }
+
     @PostMapping
     public ResponseEntity<EmotionDto> saveEmotion(@RequestBody EmotionDto emotionDto) {
         try {
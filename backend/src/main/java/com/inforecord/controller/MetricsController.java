@@ -0,0 +1,36 @@
+package com.inforecord.controller;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.inforecord.metrics.StatsProvider;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 내부 컴포넌트 운영 지표 조회 API
+ */
+@RestController
+@RequestMapping("/api/metrics")
+@CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"}, allowCredentials = "false")
+@RequiredArgsConstructor
+public class MetricsController {
+
+    private final List<StatsProvider> statsProviders;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        Map<String, Object> metrics = new TreeMap<>();
+        for (StatsProvider provider : statsProviders) {
+            metrics.put(provider.getStatsName(), provider.getStats());
+        }
+        return ResponseEntity.ok(metrics);
+    }
+}
@@ -77,6 +77,21 @@ public class PlaceController {
         return ResponseEntity.ok(placeService.getAllPlaceSummaries());
     }
 
+    // 2-1. 지도 화면 범위 안의 장소 리스트 조회 (minLon > maxLon이면 날짜 변경선을 넘는 범위)
+    @GetMapping("/viewport")
+    public ResponseEntity<List<PlaceSummaryResponse>> getPlacesInViewport(
+            @RequestParam double minLat,
+            @RequestParam double maxLat,
+            @RequestParam double minLon,
+            @RequestParam double maxLon) {
+        try {
+            return ResponseEntity.ok(placeService.getPlaceSummariesInViewport(minLat, maxLat, minLon, maxLon));
+        } catch (IllegalArgumentException e) {
+            log.warn("지도 범위 조회 요청 값 오류: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // 3. 상세 조회
     @GetMapping("/{id}")
     public ResponseEntity<PlaceDetailResponse> getPlaceById(@PathVariable Long id) {
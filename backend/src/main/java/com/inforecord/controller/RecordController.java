@@ -2,7 +2,9 @@ package com.inforecord.controller;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -147,6 +149,30 @@ public class RecordController {
         }
     }
     
+    /**
+     * 특정 기록의 감정분석 진행 상태를 조회합니다.
+     * 
+     * @param recordId 기록 ID
+     * @param userId 사용자 ID
+     * @return 분석 상태 (PENDING/DONE/FAILED) 또는 404
+     */
+    @GetMapping("/id/{recordId}/analysis-status")
+    public ResponseEntity<Map<String, Object>> getAnalysisStatus(
+            @PathVariable Long recordId,
+            @RequestParam(defaultValue = "default-user") 
+            @NotBlank(message = "사용자 ID는 필수입니다")
+            String userId) {
+        
+        return recordService.getAnalysisStatus(recordId, userId)
+                .map(status -> {
+                    Map<String, Object> body = new LinkedHashMap<>();
+                    body.put("recordId", recordId);
+                    body.put("analysisStatus", status);
+                    return ResponseEntity.ok(body);
+                })
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
     /**
      * 현재 주의 모든 기록을 조회합니다.
      * 월요일부터 일요일까지의 기록을 반환합니다.
@@ -269,6 +295,9 @@ public class RecordController {
         } catch (DateTimeParseException e) {
             log.error("잘못된 날짜 형식: {}", request.getDate());
             return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            log.warn("기록 수정 충돌 - ID: {}, {}", recordId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             log.error("기록 수정 중 오류 발생 - ID: {}", recordId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
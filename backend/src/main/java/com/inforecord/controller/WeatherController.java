@@ -1,6 +1,7 @@
 package com.inforecord.controller;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.slf4j.Logger;
@@ -16,9 +17,15 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.inforecord.dto.WeatherBatchRequest;
+import com.inforecord.geo.Gazetteer;
+import com.inforecord.geo.Region;
 import com.inforecord.model.UserPreferences;
 import com.inforecord.service.WeatherService;
 
+import jakarta.validation.Valid;
+import reactor.core.publisher.Mono;
+
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"}, allowCredentials = "false")
@@ -32,44 +39,84 @@ public class WeatherController {
     @Autowired
     private WeatherService weatherService;
     
+    @Autowired
+    private Gazetteer gazetteer;
+    
     /**
      * 현재 위치와 날씨 정보 조회
+     * Mono를 반환해 Spring MVC 비동기 처리로 응답하므로 Open-Meteo 응답을 기다리는 동안 요청 스레드를 점유하지 않습니다.
      */
     @GetMapping("/weather/current")
-    public ResponseEntity<Map<String, Object>> getCurrentLocationAndWeather(
+    public Mono<ResponseEntity<Map<String, Object>>> getCurrentLocationAndWeather(
             @RequestParam(defaultValue = "37.5665") double latitude,
             @RequestParam(defaultValue = "126.9780") double longitude) {
         
         logger.info("현재 위치 및 날씨 조회 요청 - 위도: {}, 경도: {}", latitude, longitude);
         
-        try {
-            Map<String, Object> result = weatherService.getCurrentLocationAndWeather(latitude, longitude);
-            logger.info("현재 위치 및 날씨 조회 완료");
-            return ResponseEntity.ok(result);
-            
-        } catch (Exception e) {
-            logger.error("현재 위치 및 날씨 조회 실패", e);
-            return ResponseEntity.internalServerError().build();
-        }
+        return weatherService.getCurrentLocationAndWeatherAsync(latitude, longitude)
+                .map(result -> {
+                    logger.info("현재 위치 및 날씨 조회 완료");
+                    return ResponseEntity.ok(result);
+                })
+                .onErrorResume(e -> {
+                    logger.error("현재 위치 및 날씨 조회 실패", e);
+                    return Mono.just(ResponseEntity.internalServerError().build());
+                });
     }
     
     /**
      * 도시명으로 날씨 정보 조회
      */
     @GetMapping("/weather/city/{city}")
-    public ResponseEntity<Map<String, Object>> getWeatherByCity(@PathVariable String city) {
+    public Mono<ResponseEntity<Map<String, Object>>> getWeatherByCity(@PathVariable String city) {
         
         logger.info("도시별 날씨 조회 요청 - 도시: {}", city);
         
-        try {
-            Map<String, Object> weatherData = weatherService.getWeatherByCity(city);
-            logger.info("도시별 날씨 조회 완료 - 도시: {}", city);
-            return ResponseEntity.ok(weatherData);
-            
-        } catch (Exception e) {
-            logger.error("도시별 날씨 조회 실패 - 도시: {}", city, e);
-            return ResponseEntity.internalServerError().build();
-        }
+        return weatherService.getWeatherByCityAsync(city)
+                .map(weatherData -> {
+                    logger.info("도시별 날씨 조회 완료 - 도시: {}", city);
+                    return ResponseEntity.ok(weatherData);
+                })
+                .onErrorResume(e -> {
+                    logger.error("도시별 날씨 조회 실패 - 도시: {}", city, e);
+                    return Mono.just(ResponseEntity.internalServerError().build());
+                });
+    }
+    
+    /**
+     * 여러 좌표의 날씨 일괄 조회 (지도 표시용)
+     * 같은 격자 칸의 좌표와 캐시에 있는 칸은 Open-Meteo를 호출하지 않고, 나머지는 좌표 목록 하나로 묶어 조회합니다.
+     * 결과는 요청한 좌표 순서대로이며, 조회에 실패한 좌표는 error 항목으로 표시됩니다.
+     */
+    @PostMapping("/weather/batch")
+    public Mono<ResponseEntity<Map<String, Object>>> getWeatherBatch(@Valid @RequestBody WeatherBatchRequest request) {
+        
+        List<WeatherService.Coordinate> locations = request.getLocations().stream()
+                .map(location -> new WeatherService.Coordinate(location.getLatitude(), location.getLongitude()))
+                .toList();
+        logger.info("날씨 일괄 조회 요청 - 좌표 {}개", locations.size());
+        
+        return weatherService.getWeatherBatchAsync(locations)
+                .map(results -> {
+                    logger.info("날씨 일괄 조회 완료 - 좌표 {}개", results.size());
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("count", results.size());
+                    response.put("results", results);
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(e -> {
+                    logger.error("날씨 일괄 조회 실패", e);
+                    return Mono.just(ResponseEntity.internalServerError().build());
+                });
+    }
+    
+    /**
+     * 지역 이름 자동완성 (지명 사전에서 접두사로 검색)
+     */
+    @GetMapping("/weather/regions")
+    public ResponseEntity<List<Region>> searchRegions(@RequestParam String query,
+                                                      @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(gazetteer.search(query, Math.max(1, Math.min(limit, 50))));
     }
     
     @PostMapping("/user/preferences")
@@ -0,0 +1,31 @@
+package com.inforecord.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 여러 주에 걸친 감정 추이
+ *
+ * 분포는 감정 종류별 강도 합의 비율(%)이며 비율 내림차순으로 정렬됩니다. (주간 감정 요약과 같은 기준)
+ *
+ * @param startDate              첫 주 시작일 (week-start 요일)
+ * @param endDate                마지막 주 종료일 (week-start 전날 요일)
+ * @param overallDominantEmotion 전체 기간의 주요 감정 (감정 데이터가 없으면 null)
+ * @param overallDistribution    전체 기간의 감정 분포
+ * @param weeks                  주별 추이 (오래된 주부터)
+ */
+public record EmotionTrendDto(String userId, LocalDate startDate, LocalDate endDate,
+                              String overallDominantEmotion, Map<String, Double> overallDistribution,
+                              List<Week> weeks) {
+
+    /**
+     * @param emotionCount    그 주의 감정 데이터 수
+     * @param dominantEmotion 그 주의 주요 감정 (감정 데이터가 없으면 null)
+     * @param changes         직전 주 대비 감정별 비율 변화(%p), 두 주 중 하나라도 데이터가 없으면 비어 있음
+     * @param dominantChanged 직전 주와 주요 감정이 달라졌는지 (두 주 모두 데이터가 있을 때만 true 가능)
+     */
+    public record Week(LocalDate weekStart, LocalDate weekEnd, long emotionCount,
+                       Map<String, Double> distribution, String dominantEmotion,
+                       Map<String, Double> changes, boolean dominantChanged) {}
+}
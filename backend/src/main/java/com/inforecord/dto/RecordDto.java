@@ -2,6 +2,8 @@ package com.inforecord.dto;
 
 import java.time.LocalDate;
 
+import com.inforecord.model.AnalysisStatus;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -17,6 +19,7 @@ public class RecordDto {
     private String weatherDesc;
     private String weatherIcon;
     private Double weatherTemp;
+    private AnalysisStatus analysisStatus;
     
     // Getter 메서드들
     public Long getId() { return id; }
@@ -26,6 +29,7 @@ public class RecordDto {
     public String getWeatherDesc() { return weatherDesc; }
     public String getWeatherIcon() { return weatherIcon; }
     public Double getWeatherTemp() { return weatherTemp; }
+    public AnalysisStatus getAnalysisStatus() { return analysisStatus; }
     
     // Setter 메서드들
     public void setId(Long id) { this.id = id; }
@@ -35,4 +39,5 @@ public class RecordDto {
     public void setWeatherDesc(String weatherDesc) { this.weatherDesc = weatherDesc; }
     public void setWeatherIcon(String weatherIcon) { this.weatherIcon = weatherIcon; }
     public void setWeatherTemp(Double weatherTemp) { this.weatherTemp = weatherTemp; }
+    public void setAnalysisStatus(AnalysisStatus analysisStatus) { this.analysisStatus = analysisStatus; }
 }
\ No newline at end of file
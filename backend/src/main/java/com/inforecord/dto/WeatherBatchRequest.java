@@ -0,0 +1,33 @@
+package com.inforecord.dto;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+
+@Getter
+@Setter
+public class WeatherBatchRequest {
+
+    @NotEmpty(message = "조회할 좌표가 필요합니다.")
+    @Size(max = 200, message = "한 번에 200개 좌표까지 조회할 수 있습니다.")
+    private List<@Valid @NotNull(message = "좌표는 비어 있을 수 없습니다.") Location> locations;
+
+    @Getter
+    @Setter
+    public static class Location {
+
+        @NotNull(message = "위도는 필수입니다.")
+        @DecimalMin(value = "-90.0", message = "위도는 -90 이상이어야 합니다.")
+        @DecimalMax(value = "90.0", message = "위도는 90 이하여야 합니다.")
+        private Double latitude;
+
+        @NotNull(message = "경도는 필수입니다.")
+        @DecimalMin(value = "-180.0", message = "경도는 -180 이상이어야 합니다.")
+        @DecimalMax(value = "180.0", message = "경도는 180 이하여야 합니다.")
+        private Double longitude;
+    }
+}
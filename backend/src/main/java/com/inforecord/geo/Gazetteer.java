@@ -0,0 +1,197 @@
+package com.inforecord.geo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.inforecord.metrics.StatsProvider;
+
+/**
+ * 오프라인 지명 사전 (Gazetteer)
+ *
+ * 애플리케이션에 포함된 행정구역 데이터 파일(TSV)을 시작 시 한 번 읽어
+ * - 이름/별칭 -> 지역: 접두사 트라이 (도시명 검색, 자동완성)
+ * - 좌표 -> 가장 가까운 지역: k-d 트리 (역지오코딩)
+ * 로 색인합니다. 외부 API 호출 없이 메모리에서만 조회합니다.
+ */
+@Component
+public class Gazetteer implements StatsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(Gazetteer.class);
+
+    private final Map<String, Region> regionsById = new LinkedHashMap<>();
+    private final RegionNameTrie names = new RegionNameTrie();
+    private final RegionKdTree leaves;
+    private final double maxDistanceKm;
+
+    // 지표
+    private final AtomicLong nameLookups = new AtomicLong();
+    private final AtomicLong nameMisses = new AtomicLong();
+    private final AtomicLong ambiguousNames = new AtomicLong();
+    private final AtomicLong reverseLookups = new AtomicLong();
+    private final AtomicLong reverseMisses = new AtomicLong();
+
+    public Gazetteer(@Value("${weather.gazetteer.path:gazetteer/kr-regions.tsv}") String path,
+                     @Value("${weather.gazetteer.max-distance-km:40}") double maxDistanceKm) {
+        this.maxDistanceKm = maxDistanceKm;
+
+        Set<String> parentIds = new HashSet<>();
+        for (String[] columns : readRows(path)) {
+            Region region = toRegion(columns, path);
+            regionsById.put(region.id(), region);
+            if (region.parentId() != null) {
+                parentIds.add(region.parentId());
+            }
+            names.put(region.id(), region);
+            names.put(region.name(), region);
+            names.put(region.shortName(), region);
+            if (!columns[4].isBlank()) {
+                for (String alias : columns[4].split(",")) {
+                    names.put(alias, region);
+                }
+            }
+        }
+
+        // 하위 지역이 있는 지역(시/도)은 역지오코딩 대상에서 제외하고 가장 작은 단위로만 찾음
+        List<Region> leafRegions = new ArrayList<>();
+        for (Region region : regionsById.values()) {
+            if (!parentIds.contains(region.id())) {
+                leafRegions.add(region);
+            }
+        }
+        this.leaves = new RegionKdTree(leafRegions);
+        log.info("지명 사전 로드 완료 - 지역 {}개, 역지오코딩 대상 {}개, 이름 {}개", regionsById.size(), leaves.size(), names.keyCount());
+    }
+
+    public Optional<Region> findById(String id) {
+        return Optional.ofNullable(regionsById.get(id));
+    }
+
+    /**
+     * 이름, 짧은 이름, 별칭, 지역 ID로 지역을 찾습니다.
+     * 정확히 일치하는 이름이 없으면 두 글자 이상 입력에 한해 접두사가 일치하는 지역을 돌려줍니다.
+     * 접두사가 여러 지역에 일치하면(예: "경상" -> 경상북도, 경상남도) 임의로 고르지 않고 없는 것으로 봅니다.
+     */
+    public Optional<Region> findByName(String name) {
+        nameLookups.incrementAndGet();
+        List<Region> matches = names.exact(name);
+        if (matches.isEmpty() && RegionNameTrie.normalize(name).length() >= 2) {
+            matches = names.withPrefix(name, 2);
+            if (matches.size() > 1) {
+                ambiguousNames.incrementAndGet();
+                nameMisses.incrementAndGet();
+                return Optional.empty();
+            }
+        }
+        if (matches.isEmpty()) {
+            nameMisses.incrementAndGet();
+            return Optional.empty();
+        }
+        return Optional.of(matches.get(0));
+    }
+
+    /**
+     * 이름 자동완성 (짧은 이름부터 최대 limit개)
+     */
+    public List<Region> search(String prefix, int limit) {
+        nameLookups.incrementAndGet();
+        return names.withPrefix(prefix, limit);
+    }
+
+    /**
+     * 좌표에서 가장 가까운 지역 (max-distance-km보다 멀면 없음)
+     */
+    public Optional<Region> nearest(double latitude, double longitude) {
+        reverseLookups.incrementAndGet();
+        Region region = leaves.nearest(latitude, longitude);
+        if (region == null
+                || RegionKdTree.distanceKm(latitude, longitude, region.latitude(), region.longitude()) > maxDistanceKm) {
+            reverseMisses.incrementAndGet();
+            return Optional.empty();
+        }
+        return Optional.of(region);
+    }
+
+    @Override
+    public String getStatsName() {
+        return "weather.gazetteer";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("regions", regionsById.size());
+        stats.put("reverseIndexed", leaves.size());
+        stats.put("names", names.keyCount());
+        stats.put("nameLookups", nameLookups.get());
+        stats.put("nameMisses", nameMisses.get());
+        stats.put("ambiguousNames", ambiguousNames.get());
+        stats.put("reverseLookups", reverseLookups.get());
+        stats.put("reverseMisses", reverseMisses.get());
+        return stats;
+    }
+
+    private static List<String[]> readRows(String path) {
+        InputStream in = Gazetteer.class.getClassLoader().getResourceAsStream(path);
+        if (in == null) {
+            throw new IllegalStateException("지명 사전 파일을 찾을 수 없습니다: " + path);
+        }
+        List<String[]> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                rows.add(line.split("\t", -1));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("지명 사전 파일을 읽을 수 없습니다: " + path, e);
+        }
+        return rows;
+    }
+
+    /**
+     * 한 줄(id, parent, name, short, aliases, latitude, longitude)을 지역으로 변환합니다.
+     * 상위 지역은 파일에서 하위 지역보다 먼저 나와야 합니다.
+     */
+    private Region toRegion(String[] columns, String path) {
+        if (columns.length != 7) {
+            throw new IllegalStateException("지명 사전 형식 오류(" + path + "): " + String.join("\t", columns));
+        }
+        String id = columns[0].strip();
+        String parentId = columns[1].isBlank() ? null : columns[1].strip();
+        String name = columns[2].strip();
+        String shortName = columns[3].isBlank() ? name : columns[3].strip();
+
+        String displayName = shortName;
+        if (parentId != null) {
+            Region parent = regionsById.get(parentId);
+            if (parent == null) {
+                throw new IllegalStateException("지명 사전에 상위 지역이 없습니다(" + path + "): " + id + " -> " + parentId);
+            }
+            displayName = parent.shortName() + " " + name;
+        }
+        try {
+            return new Region(id, parentId, name, shortName, displayName,
+                    Double.parseDouble(columns[5].strip()), Double.parseDouble(columns[6].strip()));
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("지명 사전 좌표 형식 오류(" + path + "): " + id, e);
+        }
+    }
+}
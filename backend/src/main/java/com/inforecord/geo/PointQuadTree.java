@@ -0,0 +1,257 @@
+package com.inforecord.geo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 위경도 점을 담는 동적 사분 트리 (지도 화면 범위 조회용)
+ *
+ * 위도 [-90, 90] x 경도 [-180, 180] 영역을 잎 노드의 점이 LEAF_CAPACITY를 넘을 때마다 4등분합니다.
+ * 같은 좌표가 많이 쌓여도 MAX_DEPTH에서는 더 나누지 않습니다.
+ * 범위 조회는 겹치지 않는 칸을 건너뛰고 완전히 포함된 칸은 검사 없이 모두 담으므로 O(log n + k)입니다.
+ * 삭제 후 한 노드 아래 점이 LEAF_CAPACITY 이하가 되면 잎으로 다시 합칩니다.
+ * 조회는 읽기 잠금으로 동시에, 추가/삭제는 쓰기 잠금으로 하나씩 수행합니다.
+ */
+public final class PointQuadTree<T> {
+
+    static final int LEAF_CAPACITY = 16;
+    static final int MAX_DEPTH = 24;
+
+    private record Entry<T>(long id, double latitude, double longitude, T value) {}
+
+    private final Node<T> root = new Node<>(-90, 90, -180, 180, 0);
+    private final Map<Long, Entry<T>> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 점을 추가합니다. 같은 ID가 있으면 바꿉니다.
+     *
+     * @throws IllegalArgumentException 좌표가 범위를 벗어난 경우
+     */
+    public void put(long id, double latitude, double longitude, T value) {
+        checkLatitude(latitude);
+        checkLongitude(longitude);
+        Entry<T> entry = new Entry<>(id, latitude, longitude, value);
+        lock.writeLock().lock();
+        try {
+            Entry<T> previous = entries.put(id, entry);
+            if (previous != null) {
+                root.remove(previous);
+            }
+            root.insert(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * ID의 점을 삭제합니다. 없으면 false
+     */
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Entry<T> previous = entries.remove(id);
+            if (previous == null) {
+                return false;
+            }
+            root.remove(previous);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 범위(경계 포함) 안의 점을 반환합니다. (순서 없음)
+     * minLongitude가 maxLongitude보다 크면 날짜 변경선을 넘는 범위로 보고 두 구간으로 나눠 찾습니다.
+     *
+     * @throws IllegalArgumentException 좌표가 범위를 벗어나거나 minLatitude가 maxLatitude보다 큰 경우
+     */
+    public List<T> query(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+        checkLatitude(minLatitude);
+        checkLatitude(maxLatitude);
+        checkLongitude(minLongitude);
+        checkLongitude(maxLongitude);
+        if (minLatitude > maxLatitude) {
+            throw new IllegalArgumentException("최소 위도가 최대 위도보다 큽니다: " + minLatitude + " > " + maxLatitude);
+        }
+        List<T> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (minLongitude <= maxLongitude) {
+                root.query(minLatitude, maxLatitude, minLongitude, maxLongitude, result);
+            } else {
+                root.query(minLatitude, maxLatitude, minLongitude, 180, result);
+                root.query(minLatitude, maxLatitude, -180, maxLongitude, result);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * 트리 깊이 (지표용)
+     */
+    public int depth() {
+        lock.readLock().lock();
+        try {
+            return root.depth();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void checkLatitude(double latitude) {
+        if (!(latitude >= -90 && latitude <= 90)) {
+            throw new IllegalArgumentException("위도는 -90~90 사이여야 합니다: " + latitude);
+        }
+    }
+
+    private static void checkLongitude(double longitude) {
+        if (!(longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("경도는 -180~180 사이여야 합니다: " + longitude);
+        }
+    }
+
+    /**
+     * 한 칸 (자식 인덱스: 남서 0, 남동 1, 북서 2, 북동 3 / 가운데 선 위의 점은 북쪽/동쪽 칸)
+     */
+    private static final class Node<T> {
+        final double minLatitude;
+        final double maxLatitude;
+        final double minLongitude;
+        final double maxLongitude;
+        final int level;
+        int size;
+        List<Entry<T>> points = new ArrayList<>();
+        Node<T>[] children;
+
+        Node(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude, int level) {
+            this.minLatitude = minLatitude;
+            this.maxLatitude = maxLatitude;
+            this.minLongitude = minLongitude;
+            this.maxLongitude = maxLongitude;
+            this.level = level;
+        }
+
+        void insert(Entry<T> entry) {
+            size++;
+            if (children != null) {
+                childFor(entry).insert(entry);
+                return;
+            }
+            points.add(entry);
+            if (points.size() > LEAF_CAPACITY && level < MAX_DEPTH) {
+                split();
+            }
+        }
+
+        void remove(Entry<T> entry) {
+            size--;
+            if (children == null) {
+                points.remove(entry);
+                return;
+            }
+            childFor(entry).remove(entry);
+            if (size <= LEAF_CAPACITY) {
+                List<Entry<T>> merged = new ArrayList<>(size);
+                collect(merged);
+                children = null;
+                points = merged;
+            }
+        }
+
+        void query(double qMinLatitude, double qMaxLatitude, double qMinLongitude, double qMaxLongitude, List<T> result) {
+            if (size == 0 || qMaxLatitude < minLatitude || qMinLatitude > maxLatitude
+                    || qMaxLongitude < minLongitude || qMinLongitude > maxLongitude) {
+                return;
+            }
+            if (qMinLatitude <= minLatitude && qMaxLatitude >= maxLatitude
+                    && qMinLongitude <= minLongitude && qMaxLongitude >= maxLongitude) {
+                collectValues(result);
+                return;
+            }
+            if (children != null) {
+                for (Node<T> child : children) {
+                    child.query(qMinLatitude, qMaxLatitude, qMinLongitude, qMaxLongitude, result);
+                }
+                return;
+            }
+            for (Entry<T> entry : points) {
+                if (entry.latitude() >= qMinLatitude && entry.latitude() <= qMaxLatitude
+                        && entry.longitude() >= qMinLongitude && entry.longitude() <= qMaxLongitude) {
+                    result.add(entry.value());
+                }
+            }
+        }
+
+        int depth() {
+            if (children == null) {
+                return 1;
+            }
+            int deepest = 0;
+            for (Node<T> child : children) {
+                deepest = Math.max(deepest, child.depth());
+            }
+            return deepest + 1;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private void split() {
+            double midLatitude = (minLatitude + maxLatitude) / 2;
+            double midLongitude = (minLongitude + maxLongitude) / 2;
+            children = new Node[] {
+                new Node<>(minLatitude, midLatitude, minLongitude, midLongitude, level + 1),
+                new Node<>(minLatitude, midLatitude, midLongitude, maxLongitude, level + 1),
+                new Node<>(midLatitude, maxLatitude, minLongitude, midLongitude, level + 1),
+                new Node<>(midLatitude, maxLatitude, midLongitude, maxLongitude, level + 1)
+            };
+            for (Entry<T> entry : points) {
+                childFor(entry).insert(entry);
+            }
+            points = null;
+        }
+
+        private Node<T> childFor(Entry<T> entry) {
+            int index = (entry.latitude() >= (minLatitude + maxLatitude) / 2 ? 2 : 0)
+                    + (entry.longitude() >= (minLongitude + maxLongitude) / 2 ? 1 : 0);
+            return children[index];
+        }
+
+        private void collect(List<Entry<T>> result) {
+            if (children == null) {
+                result.addAll(points);
+                return;
+            }
+            for (Node<T> child : children) {
+                child.collect(result);
+            }
+        }
+
+        private void collectValues(List<T> result) {
+            if (children == null) {
+                for (Entry<T> entry : points) {
+                    result.add(entry.value());
+                }
+                return;
+            }
+            for (Node<T> child : children) {
+                child.collectValues(result);
+            }
+        }
+    }
+}
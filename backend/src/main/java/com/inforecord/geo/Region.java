@@ -0,0 +1,15 @@
+package com.inforecord.geo;
+
+/**
+ * 지명 사전의 행정구역 하나
+ *
+ * @param id          정규 지역 ID (시/도는 ISO 3166-2:KR 코드, 예: "KR-11", "KR-41-suwon")
+ * @param parentId    상위 지역 ID (시/도이면 null)
+ * @param name        공식 이름 (예: "서울특별시", "수원시")
+ * @param shortName   짧은 이름 (예: "서울", "수원")
+ * @param displayName 화면 표시용 이름 (예: "서울", "경기 수원시")
+ * @param latitude    대표 좌표 위도
+ * @param longitude   대표 좌표 경도
+ */
+public record Region(String id, String parentId, String name, String shortName, String displayName,
+                     double latitude, double longitude) {}
@@ -0,0 +1,115 @@
+package com.inforecord.geo;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 가장 가까운 지역을 찾는 3차원 k-d 트리
+ *
+ * 위경도를 단위 구 위의 (x, y, z) 좌표로 바꿔 저장하므로 직선(현) 거리 순서가
+ * 대권 거리 순서와 같고, 경도 왜곡 없이 정확한 최근접 지역을 찾습니다.
+ * 트리는 배열 하나에 암묵적으로 저장합니다. ([lo, hi) 구간의 가운데가 노드, 왼쪽/오른쪽 절반이 자식)
+ * 생성 후에는 읽기만 하므로 여러 스레드에서 동시에 조회해도 안전합니다.
+ */
+final class RegionKdTree {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private final Region[] regions;
+    private final double[][] points;
+
+    RegionKdTree(List<Region> source) {
+        Point[] sorted = source.stream().map(Point::of).toArray(Point[]::new);
+        build(sorted, 0, sorted.length, 0);
+        this.regions = new Region[sorted.length];
+        this.points = new double[sorted.length][];
+        for (int i = 0; i < sorted.length; i++) {
+            regions[i] = sorted[i].region;
+            points[i] = sorted[i].xyz;
+        }
+    }
+
+    int size() {
+        return regions.length;
+    }
+
+    /**
+     * 가장 가까운 지역 (비어 있으면 null)
+     */
+    Region nearest(double latitude, double longitude) {
+        if (regions.length == 0) {
+            return null;
+        }
+        double[] query = toXyz(latitude, longitude);
+        int[] best = {-1};
+        double[] bestDistance = {Double.POSITIVE_INFINITY};
+        search(0, regions.length, 0, query, best, bestDistance);
+        return regions[best[0]];
+    }
+
+    /**
+     * 두 좌표 사이의 대권 거리 (km, haversine)
+     */
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private void search(int lo, int hi, int axis, double[] query, int[] best, double[] bestDistance) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        double[] point = points[mid];
+        double dx = point[0] - query[0];
+        double dy = point[1] - query[1];
+        double dz = point[2] - query[2];
+        double distance = dx * dx + dy * dy + dz * dz;
+        if (distance < bestDistance[0]) {
+            bestDistance[0] = distance;
+            best[0] = mid;
+        }
+
+        double diff = query[axis] - point[axis];
+        int next = (axis + 1) % 3;
+        if (diff < 0) {
+            search(lo, mid, next, query, best, bestDistance);
+            if (diff * diff < bestDistance[0]) {
+                search(mid + 1, hi, next, query, best, bestDistance);
+            }
+        } else {
+            search(mid + 1, hi, next, query, best, bestDistance);
+            if (diff * diff < bestDistance[0]) {
+                search(lo, mid, next, query, best, bestDistance);
+            }
+        }
+    }
+
+    private static void build(Point[] points, int lo, int hi, int axis) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        Arrays.sort(points, lo, hi, Comparator.comparingDouble(p -> p.xyz[axis]));
+        int mid = (lo + hi) >>> 1;
+        int next = (axis + 1) % 3;
+        build(points, lo, mid, next);
+        build(points, mid + 1, hi, next);
+    }
+
+    private static double[] toXyz(double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double cosLat = Math.cos(lat);
+        return new double[] {cosLat * Math.cos(lon), cosLat * Math.sin(lon), Math.sin(lat)};
+    }
+
+    private record Point(Region region, double[] xyz) {
+        static Point of(Region region) {
+            return new Point(region, toXyz(region.latitude(), region.longitude()));
+        }
+    }
+}
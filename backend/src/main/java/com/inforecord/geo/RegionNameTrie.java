@@ -0,0 +1,107 @@
+package com.inforecord.geo;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 지역 이름 접두사 트라이
+ *
+ * 이름은 NFC 정규화, 소문자 변환, 공백 제거 후 글자 단위로 저장합니다.
+ * 접두사 검색은 짧은 이름부터(너비 우선) 돌려주므로 "서"를 입력하면 "서울"이 "서대문구"보다 먼저 나옵니다.
+ * 생성 후에는 읽기만 하므로 여러 스레드에서 동시에 조회해도 안전합니다.
+ */
+final class RegionNameTrie {
+
+    private final Node root = new Node();
+    private int keyCount;
+
+    void put(String name, Region region) {
+        String key = normalize(name);
+        if (key.isEmpty()) {
+            return;
+        }
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+        }
+        if (node.regions.isEmpty()) {
+            keyCount++;
+        }
+        if (!node.regions.contains(region)) {
+            node.regions.add(region);
+        }
+    }
+
+    /**
+     * 이름이 정확히 일치하는 지역 (사전에 먼저 나온 지역부터)
+     */
+    List<Region> exact(String name) {
+        Node node = find(normalize(name));
+        return node != null ? List.copyOf(node.regions) : List.of();
+    }
+
+    /**
+     * 이름이 접두사로 시작하는 지역을 최대 limit개 (짧은 이름부터, 중복 제외)
+     */
+    List<Region> withPrefix(String prefix, int limit) {
+        Node start = find(normalize(prefix));
+        if (start == null || limit <= 0) {
+            return List.of();
+        }
+        Set<Region> found = new LinkedHashSet<>();
+        Deque<Node> queue = new ArrayDeque<>();
+        queue.add(start);
+        while (!queue.isEmpty() && found.size() < limit) {
+            Node node = queue.poll();
+            for (Region region : node.regions) {
+                if (found.size() >= limit) {
+                    break;
+                }
+                found.add(region);
+            }
+            queue.addAll(node.children.values());
+        }
+        return new ArrayList<>(found);
+    }
+
+    int keyCount() {
+        return keyCount;
+    }
+
+    static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(name, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+        StringBuilder key = new StringBuilder(normalized.length());
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                key.append(c);
+            }
+        }
+        return key.toString();
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        return node;
+    }
+
+    private static final class Node {
+        // 너비 우선 검색 결과가 매번 같도록 글자 순서로 정렬
+        private final Map<Character, Node> children = new TreeMap<>();
+        private final List<Region> regions = new ArrayList<>(1);
+    }
+}
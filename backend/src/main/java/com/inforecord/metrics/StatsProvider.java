@@ -0,0 +1,20 @@
+package com.inforecord.metrics;
+
+import java.util.Map;
+
+/**
+ * 운영 지표를 노출하는 컴포넌트가 구현하는 인터페이스
+ * 등록된 모든 구현체의 지표는 /api/metrics 에서 한 번에 조회됩니다.
+ */
+public interface StatsProvider {
+
+    /**
+     * 지표 묶음의 이름 (예: "journal.records")
+     */
+    String getStatsName();
+
+    /**
+     * 현재 지표 값
+     */
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,13 @@
+package com.inforecord.model;
+
+/**
+ * 기록별 감정분석 진행 상태
+ */
+public enum AnalysisStatus {
+    /** 분석 대기 중 또는 재시도 대기 중 */
+    PENDING,
+    /** 분석 결과 저장 완료 */
+    DONE,
+    /** 재시도 횟수 초과 또는 작업 큐가 가득 차 분석하지 못함 */
+    FAILED
+}
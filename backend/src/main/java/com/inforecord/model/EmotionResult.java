@@ -0,0 +1,15 @@
+package com.inforecord.model;
+
+/**
+ * 감정분석 모델의 단일 텍스트 분석 결과
+ *
+ * @param emotionType 감정 종류 (예: 행복, 슬픔)
+ * @param intensity   감정 강도 (0.0 ~ 1.0)
+ * @param fallback    모델 추론이 실패해 서버가 기본값(중립 50%)을 돌려준 결과인지 여부
+ */
+public record EmotionResult(String emotionType, double intensity, boolean fallback) {
+
+    public EmotionResult(String emotionType, double intensity) {
+        this(emotionType, intensity, false);
+    }
+}
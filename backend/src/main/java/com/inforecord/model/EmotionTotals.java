@@ -0,0 +1,15 @@
+package com.inforecord.model;
+
+/**
+ * 한 감정 종류의 집계 값
+ *
+ * @param emotionType  감정 종류
+ * @param count        감정 데이터 수
+ * @param intensitySum 강도 합 (강도가 없는 데이터는 0으로 계산)
+ */
+public record EmotionTotals(String emotionType, long count, double intensitySum) {
+
+    public double averageIntensity() {
+        return count > 0 ? intensitySum / count : 0.0;
+    }
+}
@@ -0,0 +1,27 @@
+package com.inforecord.model;
+
+/**
+ * Open-Meteo 예보 응답 중 날씨 화면에 필요한 값만 담은 결과
+ *
+ * @param current 현재 시각 기준 값
+ * @param daily   오늘 하루 예보
+ */
+public record OpenMeteoForecast(Current current, Daily daily) {
+
+    /**
+     * @param temperature         기온 (temperature_2m)
+     * @param relativeHumidity    상대 습도 % (relative_humidity_2m)
+     * @param apparentTemperature 체감 온도 (apparent_temperature)
+     * @param precipitation       강수량 mm (precipitation)
+     * @param weatherCode         WMO 날씨 코드 (weather_code)
+     */
+    public record Current(double temperature, double relativeHumidity, double apparentTemperature,
+                          double precipitation, int weatherCode) {}
+
+    /**
+     * @param maxTemperature 오늘 최고 기온 (temperature_2m_max 첫 값)
+     * @param minTemperature 오늘 최저 기온 (temperature_2m_min 첫 값)
+     * @param weatherCode    오늘 가장 두드러진 WMO 날씨 코드 (weather_code 첫 값, 없으면 -1)
+     */
+    public record Daily(double maxTemperature, double minTemperature, int weatherCode) {}
+}
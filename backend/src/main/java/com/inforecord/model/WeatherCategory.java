@@ -0,0 +1,67 @@
+package com.inforecord.model;
+
+import java.util.Locale;
+
+/**
+ * 감정 분석용 날씨 분류
+ * Open-Meteo의 WMO 날씨 코드와 기록에 저장된 날씨 설명(자유 문자열)을 같은 분류로 모읍니다.
+ */
+public enum WeatherCategory {
+    CLEAR("맑음"),
+    CLOUDY("흐림"),
+    FOG("안개"),
+    RAIN("비"),
+    SNOW("눈"),
+    THUNDERSTORM("뇌우"),
+    UNKNOWN("알 수 없음");
+
+    private final String label;
+
+    WeatherCategory(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * WMO 날씨 코드 -> 분류 (0~1 맑음, 2~3 흐림, 45/48 안개, 51~67/80~82 비, 71~77/85~86 눈, 95~99 뇌우)
+     */
+    public static WeatherCategory fromWeatherCode(int weatherCode) {
+        if (weatherCode == 0 || weatherCode == 1) return CLEAR;
+        if (weatherCode == 2 || weatherCode == 3) return CLOUDY;
+        if (weatherCode == 45 || weatherCode == 48) return FOG;
+        if ((weatherCode >= 51 && weatherCode <= 67) || (weatherCode >= 80 && weatherCode <= 82)) return RAIN;
+        if ((weatherCode >= 71 && weatherCode <= 77) || weatherCode == 85 || weatherCode == 86) return SNOW;
+        if (weatherCode >= 95 && weatherCode <= 99) return THUNDERSTORM;
+        return UNKNOWN;
+    }
+
+    /**
+     * 기록의 날씨 설명 -> 분류 ("부분적으로 흐림", "소나기", "Clear" 등)
+     * 여러 현상이 섞여 있으면 더 강한 현상(뇌우 > 눈 > 비 > 안개 > 흐림 > 맑음)을 우선합니다.
+     */
+    public static WeatherCategory fromDescription(String description) {
+        if (description == null || description.isBlank()) {
+            return UNKNOWN;
+        }
+        String text = description.toLowerCase(Locale.ROOT);
+        if (containsAny(text, "천둥", "뇌우", "번개", "thunder")) return THUNDERSTORM;
+        if (containsAny(text, "눈", "진눈깨비", "snow", "sleet")) return SNOW;
+        if (containsAny(text, "비", "소나기", "rain", "drizzle", "shower")) return RAIN;
+        if (containsAny(text, "안개", "fog", "mist", "haze")) return FOG;
+        if (containsAny(text, "흐림", "흐리", "구름", "cloud", "overcast")) return CLOUDY;
+        if (containsAny(text, "맑", "화창", "clear", "sunny")) return CLEAR;
+        return UNKNOWN;
+    }
+
+    private static boolean containsAny(String text, String... keywords) {
+        for (String keyword : keywords) {
+            if (text.contains(keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
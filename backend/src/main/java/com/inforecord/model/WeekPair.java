@@ -0,0 +1,11 @@
+package com.inforecord.model;
+
+import java.util.List;
+
+/**
+ * 연속된 두 기간(비교 기간 + 이번 기간)을 한 번에 조회해 나눈 결과
+ *
+ * @param previous 비교 기간 (분할일 전날까지)
+ * @param current  이번 기간 (분할일부터)
+ */
+public record WeekPair<T>(List<T> previous, List<T> current) {}
@@ -0,0 +1,49 @@
+package com.inforecord.persistence;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import com.inforecord.Entity.Emotion;
+import com.inforecord.Entity.Record;
+
+/**
+ * Emotion 엔티티 인코딩
+ * 연관된 Record는 ID만 기록하며, 복구 시 ID만 채워진 Record로 복원됩니다.
+ * (EmotionRepository가 복구 후 실제 Record로 다시 연결)
+ */
+public class EmotionCodec implements JournalCodec<Emotion> {
+
+    @Override
+    public void write(Emotion emotion, DataOutput out) throws IOException {
+        JournalCodec.writeLong(out, emotion.getId());
+        JournalCodec.writeLong(out, emotion.getRecord() != null ? emotion.getRecord().getId() : null);
+        JournalCodec.writeString(out, emotion.getEmotionType());
+        JournalCodec.writeDouble(out, emotion.getIntensity());
+        JournalCodec.writeDate(out, emotion.getExtractedDate());
+        JournalCodec.writeString(out, emotion.getUserId());
+        JournalCodec.writeDate(out, emotion.getDate());
+        JournalCodec.writeDate(out, emotion.getWeekStart());
+        JournalCodec.writeDate(out, emotion.getWeekEnd());
+    }
+
+    @Override
+    public Emotion read(DataInput in) throws IOException {
+        Emotion emotion = new Emotion();
+        emotion.setId(JournalCodec.readLong(in));
+        Long recordId = JournalCodec.readLong(in);
+        if (recordId != null) {
+            Record record = new Record();
+            record.setId(recordId);
+            emotion.setRecord(record);
+        }
+        emotion.setEmotionType(JournalCodec.readString(in));
+        emotion.setIntensity(JournalCodec.readDouble(in));
+        emotion.setExtractedDate(JournalCodec.readDate(in));
+        emotion.setUserId(JournalCodec.readString(in));
+        emotion.setDate(JournalCodec.readDate(in));
+        emotion.setWeekStart(JournalCodec.readDate(in));
+        emotion.setWeekEnd(JournalCodec.readDate(in));
+        return emotion;
+    }
+}
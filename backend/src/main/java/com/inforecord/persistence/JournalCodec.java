@@ -0,0 +1,91 @@
+package com.inforecord.persistence;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 저널/스냅샷에 기록되는 엔티티의 바이너리 인코딩 규칙
+ *
+ * @param <T> 엔티티 타입
+ */
+public interface JournalCodec<T> {
+
+    void write(T entity, DataOutput out) throws IOException;
+
+    T read(DataInput in) throws IOException;
+
+    // null 허용 필드 인코딩 헬퍼
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeDate(DataOutput out, LocalDate value) throws IOException {
+        out.writeLong(value != null ? value.toEpochDay() : Long.MIN_VALUE);
+    }
+
+    static LocalDate readDate(DataInput in) throws IOException {
+        long epochDay = in.readLong();
+        return epochDay != Long.MIN_VALUE ? LocalDate.ofEpochDay(epochDay) : null;
+    }
+
+    static void writeDateTime(DataOutput out, LocalDateTime value) throws IOException {
+        if (value == null) {
+            out.writeLong(Long.MIN_VALUE);
+            return;
+        }
+        out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(value.getNano());
+    }
+
+    static LocalDateTime readDateTime(DataInput in) throws IOException {
+        long epochSecond = in.readLong();
+        if (epochSecond == Long.MIN_VALUE) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(epochSecond, in.readInt(), ZoneOffset.UTC);
+    }
+
+    static void writeDouble(DataOutput out, Double value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeDouble(value);
+        }
+    }
+
+    static Double readDouble(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readDouble() : null;
+    }
+
+    static void writeLong(DataOutput out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    static Long readLong(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+}
@@ -0,0 +1,636 @@
+package com.inforecord.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.inforecord.metrics.StatsProvider;
+
+/**
+ * 메모리 저장소용 추가 전용(append-only) 저널 + 스냅샷 엔진
+ *
+ * - 모든 변경(PUT/DELETE)은 순번(seq)을 부여받아 세그먼트 파일(<name>-<firstSeq>.log)에 기록됩니다.
+ * - 단일 writer 스레드가 대기 중인 변경을 모아 한 번에 쓰고 한 번만 fsync 합니다 (group commit).
+ * - 스냅샷은 메모리 매핑 파일로 작성되며, 스냅샷이 포함한 seq 이하의 세그먼트는 삭제됩니다.
+ * - 시작 시 최신 스냅샷을 읽고, 그 이후 seq의 저널만 재생합니다.
+ * - 쓰기에 실패하면 writer가 멈추고 이후 append는 IllegalStateException으로 거부됩니다.
+ *   저장소는 메모리를 바꾸기 전에 append를 호출해야 디스크와 메모리가 어긋나지 않습니다.
+ *
+ * 엔트리 형식: [int bodyLength][long seq][byte op][long id][payload...][int crc32(body)]
+ *
+ * @param <T> 저장되는 엔티티 타입
+ */
+public class JournalEngine<T> implements StatsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalEngine.class);
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+    private static final int ENTRY_HEADER_BYTES = 8 + 1 + 8;
+    private static final int SNAPSHOT_MAGIC = 0x534E4150; // "SNAP"
+    private static final int SNAPSHOT_HEADER_BYTES = 4 + 8 + 8;
+    private static final long MAP_WINDOW_BYTES = 64L * 1024 * 1024;
+    private static final long DURABLE_TIMEOUT_MS = 10_000;
+
+    /**
+     * 복구 시 저장소에 상태를 반영하는 콜백
+     */
+    public interface Replayer<T> {
+        void put(long id, T entity);
+
+        void delete(long id);
+    }
+
+    /**
+     * 스냅샷용으로 잠금 안에서 떠 둔 상태 사본 (엔티티와 ID를 차례로 돌려줌)
+     */
+    public interface StateCopy<T> {
+        void forEach(ObjLongConsumer<T> action);
+    }
+
+    private final String name;
+    private final Path dir;
+    private final JournalCodec<T> codec;
+    private final boolean enabled;
+    private final long segmentBytes;
+    private final int maxBatch;
+
+    private final BlockingQueue<PendingEntry> queue = new LinkedBlockingQueue<>();
+    private final Object appendLock = new Object();
+    private final Object durableLock = new Object();
+    private final AtomicLong lastSeq = new AtomicLong();
+    private volatile long durableSeq;
+    private volatile IOException writeFailure;
+
+    /**
+     * 세그먼트 시작 seq -> 파일 경로
+     */
+    private final ConcurrentSkipListMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+    private FileChannel activeSegment;
+    private long activeSegmentSize;
+
+    private Thread writer;
+    private volatile boolean running;
+    private volatile long snapshotSeq;
+
+    // 지표
+    private final AtomicLong appendCount = new AtomicLong();
+    private final AtomicLong commitCount = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong snapshotCount = new AtomicLong();
+    private volatile long startedAtNanos = System.nanoTime();
+    private volatile long lastSnapshotMillis;
+    private volatile long lastSnapshotEntries;
+    private volatile long recoveryMillis;
+    private volatile long recoveredSnapshotEntries;
+    private volatile long recoveredJournalEntries;
+
+    public JournalEngine(String name, Path dir, JournalCodec<T> codec, boolean enabled, long segmentBytes, int maxBatch) {
+        this.name = name;
+        this.dir = dir;
+        this.codec = codec;
+        this.enabled = enabled;
+        this.segmentBytes = segmentBytes;
+        this.maxBatch = Math.max(1, maxBatch);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 스냅샷과 저널 꼬리를 읽어 상태를 복원한 뒤 writer 스레드를 시작합니다.
+     */
+    public synchronized void recover(Replayer<T> replayer) {
+        if (!enabled || running) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            Files.createDirectories(dir);
+            long recoveredSeq = loadSnapshot(replayer);
+            snapshotSeq = recoveredSeq;
+
+            for (Path segment : listSegments()) {
+                recoveredSeq = Math.max(recoveredSeq, replaySegment(segment, replayer));
+            }
+            lastSeq.set(recoveredSeq);
+            durableSeq = recoveredSeq;
+
+            openSegment(recoveredSeq + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("저널 복구에 실패했습니다: " + name, e);
+        }
+        recoveryMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        log.info("저널 복구 완료 - {}: 스냅샷 {}건, 저널 재생 {}건, 소요 {}ms",
+                name, recoveredSnapshotEntries, recoveredJournalEntries, recoveryMillis);
+
+        startedAtNanos = System.nanoTime();
+        running = true;
+        writer = new Thread(this::writeLoop, "journal-" + name);
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * 엔티티 저장을 기록합니다. 저장소의 쓰기 잠금 안에서, 메모리 상태를 바꾸기 전에 호출해야 합니다.
+     *
+     * @return 부여된 seq (비활성화 상태면 0)
+     * @throws IllegalStateException 이전 쓰기 실패로 저널이 멈춘 경우
+     */
+    public long append(long id, T entity) {
+        return enqueue(OP_PUT, id, encode(entity));
+    }
+
+    /**
+     * 엔티티 삭제를 기록합니다.
+     *
+     * @throws IllegalStateException 이전 쓰기 실패로 저널이 멈춘 경우
+     */
+    public long appendDelete(long id) {
+        return enqueue(OP_DELETE, id, new byte[0]);
+    }
+
+    /**
+     * 주어진 seq까지 디스크에 반영될 때까지 대기합니다. 저장소 잠금 밖에서 호출해야 group commit이 됩니다.
+     */
+    public void awaitDurable(long seq) {
+        if (!enabled || seq <= 0) {
+            return;
+        }
+        long deadline = System.currentTimeMillis() + DURABLE_TIMEOUT_MS;
+        synchronized (durableLock) {
+            while (durableSeq < seq) {
+                if (writeFailure != null) {
+                    throw new IllegalStateException("저널 기록에 실패했습니다: " + name, writeFailure);
+                }
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    throw new IllegalStateException("저널 기록 대기 시간이 초과되었습니다: " + name);
+                }
+                try {
+                    durableLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("저널 기록 대기 중 인터럽트되었습니다: " + name, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 현재 상태의 스냅샷을 작성합니다.
+     *
+     * 잠금 안에서는 seq 확정과 엔티티 참조 복사만 하고, 인코딩은 잠금 밖에서 하므로 스냅샷 중에도 쓰기가 멈추지 않습니다.
+     * 이를 위해 state의 엔티티는 맵에 들어간 뒤 수정되지 않아야 합니다. 저장소는 append한 객체의 복사본을 맵에 두고
+     * 변경 시 새 객체로 교체하며 호출자에게는 복사본만 내주므로, 복사한 참조는 seq 시점의 커밋된 상태 그대로입니다.
+     *
+     * @param stateLock 저장소가 append 시 사용하는 잠금 (상태 복사와 seq 확정을 원자적으로 수행)
+     * @param state     저장소의 ID -> 엔티티 맵 (값은 교체만 되고 수정되지 않음)
+     */
+    public void snapshot(Object stateLock, Map<Long, T> state) {
+        snapshot(stateLock, () -> {
+            List<Long> ids = new ArrayList<>(state.size());
+            List<T> entities = new ArrayList<>(state.size());
+            for (Map.Entry<Long, T> entry : state.entrySet()) {
+                ids.add(entry.getKey());
+                entities.add(entry.getValue());
+            }
+            return action -> {
+                for (int i = 0; i < ids.size(); i++) {
+                    action.accept(entities.get(i), ids.get(i));
+                }
+            };
+        });
+    }
+
+    /**
+     * 저장소가 엔티티 객체 대신 다른 형태(예: 열 배열)로 상태를 보관할 때의 스냅샷
+     *
+     * @param stateLock 저장소가 append 시 사용하는 잠금
+     * @param capture   잠금 안에서 호출되어 seq 시점의 상태 사본을 만듦 (사본의 순회와 인코딩은 잠금 밖에서 수행)
+     */
+    public void snapshot(Object stateLock, Supplier<StateCopy<T>> capture) {
+        if (!enabled || !running) {
+            return;
+        }
+        long started = System.nanoTime();
+        long seq;
+        StateCopy<T> copy;
+        synchronized (stateLock) {
+            seq = lastSeq.get();
+            if (seq == snapshotSeq) {
+                return;
+            }
+            copy = capture.get();
+        }
+        List<Long> ids = new ArrayList<>();
+        List<byte[]> payloads = new ArrayList<>();
+        copy.forEach((entity, id) -> {
+            ids.add(id);
+            payloads.add(encode(entity));
+        });
+
+        try {
+            writeSnapshotFile(seq, ids, payloads);
+            snapshotSeq = seq;
+            deleteCoveredSegments(seq);
+        } catch (IOException e) {
+            log.error("스냅샷 작성 실패 - {}", name, e);
+            return;
+        }
+        snapshotCount.incrementAndGet();
+        lastSnapshotEntries = ids.size();
+        lastSnapshotMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        log.info("스냅샷 작성 완료 - {}: {}건, seq {}, 소요 {}ms", name, ids.size(), seq, lastSnapshotMillis);
+    }
+
+    /**
+     * 대기 중인 변경을 모두 기록하고 파일을 닫습니다.
+     */
+    public synchronized void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(DURABLE_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (activeSegment != null) {
+                activeSegment.close();
+            }
+        } catch (IOException e) {
+            log.warn("저널 세그먼트 닫기 실패 - {}", name, e);
+        }
+    }
+
+    @Override
+    public String getStatsName() {
+        return "journal." + name;
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long appends = appendCount.get();
+        long commits = commitCount.get();
+        double elapsedSeconds = Math.max(1e-9, (System.nanoTime() - startedAtNanos) / 1e9);
+        stats.put("enabled", enabled);
+        stats.put("writeFailed", writeFailure != null);
+        stats.put("lastSeq", lastSeq.get());
+        stats.put("durableSeq", durableSeq);
+        stats.put("appends", appends);
+        stats.put("groupCommits", commits);
+        stats.put("avgBatchSize", commits > 0 ? (double) appends / commits : 0.0);
+        stats.put("appendsPerSecond", appends / elapsedSeconds);
+        stats.put("bytesWritten", bytesWritten.get());
+        stats.put("segments", segments.size());
+        stats.put("snapshots", snapshotCount.get());
+        stats.put("snapshotSeq", snapshotSeq);
+        stats.put("lastSnapshotEntries", lastSnapshotEntries);
+        stats.put("lastSnapshotMillis", lastSnapshotMillis);
+        stats.put("recoveryMillis", recoveryMillis);
+        stats.put("recoveredSnapshotEntries", recoveredSnapshotEntries);
+        stats.put("recoveredJournalEntries", recoveredJournalEntries);
+        return stats;
+    }
+
+    // ===== 기록 =====
+
+    private long enqueue(byte op, long id, byte[] payload) {
+        if (!enabled) {
+            return 0;
+        }
+        synchronized (appendLock) {
+            IOException failure = writeFailure;
+            if (failure != null) {
+                throw new IllegalStateException("저널 기록이 중단되어 변경을 받을 수 없습니다: " + name, failure);
+            }
+            long seq = lastSeq.incrementAndGet();
+            queue.add(new PendingEntry(seq, op, id, payload));
+            appendCount.incrementAndGet();
+            return seq;
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingEntry> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingEntry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                log.error("저널 기록 실패, 이후 변경을 거부합니다 - {}", name, e);
+                // 실패 표시 후에는 새 엔트리가 들어오지 않으므로 남은 엔트리를 버려 큐가 커지지 않게 함
+                synchronized (appendLock) {
+                    writeFailure = e;
+                    queue.clear();
+                }
+                synchronized (durableLock) {
+                    durableLock.notifyAll();
+                }
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingEntry> batch) throws IOException {
+        int size = 0;
+        for (PendingEntry entry : batch) {
+            size += 4 + ENTRY_HEADER_BYTES + entry.payload().length + 4;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        CRC32 crc = new CRC32();
+        for (PendingEntry entry : batch) {
+            int bodyStart = buffer.position() + 4;
+            buffer.putInt(ENTRY_HEADER_BYTES + entry.payload().length);
+            buffer.putLong(entry.seq());
+            buffer.put(entry.op());
+            buffer.putLong(entry.id());
+            buffer.put(entry.payload());
+            crc.reset();
+            crc.update(buffer.array(), bodyStart, buffer.position() - bodyStart);
+            buffer.putInt((int) crc.getValue());
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            activeSegment.write(buffer);
+        }
+        activeSegment.force(false);
+        activeSegmentSize += size;
+        bytesWritten.addAndGet(size);
+        commitCount.incrementAndGet();
+
+        long committedSeq = batch.get(batch.size() - 1).seq();
+        synchronized (durableLock) {
+            durableSeq = committedSeq;
+            durableLock.notifyAll();
+        }
+
+        if (activeSegmentSize >= segmentBytes) {
+            activeSegment.close();
+            openSegment(committedSeq + 1);
+        }
+    }
+
+    private void openSegment(long firstSeq) throws IOException {
+        Path path = dir.resolve(String.format("%s-%020d.log", name, firstSeq));
+        activeSegment = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        activeSegmentSize = activeSegment.size();
+        segments.put(firstSeq, path);
+    }
+
+    // ===== 복구 =====
+
+    private List<Path> listSegments() throws IOException {
+        String prefix = name + "-";
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(p -> {
+                    String fileName = p.getFileName().toString();
+                    return fileName.startsWith(prefix) && fileName.endsWith(".log");
+                })
+                .forEach(p -> {
+                    String fileName = p.getFileName().toString();
+                    long firstSeq = Long.parseLong(fileName.substring(prefix.length(), fileName.length() - 4));
+                    segments.put(firstSeq, p);
+                });
+        }
+        return new ArrayList<>(segments.values());
+    }
+
+    /**
+     * 세그먼트 하나를 재생합니다. 손상되거나 잘린 꼬리는 잘라냅니다.
+     *
+     * @return 세그먼트에서 읽은 마지막 seq
+     */
+    private long replaySegment(Path segment, Replayer<T> replayer) throws IOException {
+        long maxSeq = 0;
+        long validLength = 0;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long fileSize = channel.size();
+            if (fileSize == 0) {
+                return 0;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            CRC32 crc = new CRC32();
+            while (buffer.remaining() >= 4) {
+                int entryStart = buffer.position();
+                int bodyLength = buffer.getInt();
+                if (bodyLength < ENTRY_HEADER_BYTES || buffer.remaining() < bodyLength + 4) {
+                    break;
+                }
+                byte[] body = new byte[bodyLength];
+                buffer.get(body);
+                int storedCrc = buffer.getInt();
+                crc.reset();
+                crc.update(body, 0, bodyLength);
+                if ((int) crc.getValue() != storedCrc) {
+                    log.warn("저널 CRC 불일치 - {} (offset {})", segment, entryStart);
+                    break;
+                }
+
+                ByteBuffer bodyBuffer = ByteBuffer.wrap(body);
+                long seq = bodyBuffer.getLong();
+                byte op = bodyBuffer.get();
+                long id = bodyBuffer.getLong();
+                if (seq > snapshotSeq) {
+                    if (op == OP_PUT) {
+                        replayer.put(id, decode(body, ENTRY_HEADER_BYTES, bodyLength - ENTRY_HEADER_BYTES));
+                    } else if (op == OP_DELETE) {
+                        replayer.delete(id);
+                    }
+                    recoveredJournalEntries++;
+                }
+                maxSeq = Math.max(maxSeq, seq);
+                validLength = buffer.position();
+            }
+            if (validLength < fileSize) {
+                log.warn("저널 손상 구간 잘라냄 - {}: {} -> {} bytes", segment, fileSize, validLength);
+                channel.truncate(validLength);
+            }
+        }
+        return maxSeq;
+    }
+
+    /**
+     * @return 스냅샷이 포함하는 마지막 seq (스냅샷이 없으면 0)
+     */
+    private long loadSnapshot(Replayer<T> replayer) throws IOException {
+        Path path = snapshotPath();
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedWindow window = new MappedWindow(channel, FileChannel.MapMode.READ_ONLY, channel.size());
+            ByteBuffer header = window.slice(SNAPSHOT_HEADER_BYTES);
+            if (header.getInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("스냅샷 형식이 올바르지 않습니다: " + path);
+            }
+            long seq = header.getLong();
+            long count = header.getLong();
+            for (long i = 0; i < count; i++) {
+                ByteBuffer entryHeader = window.slice(12);
+                long id = entryHeader.getLong();
+                int length = entryHeader.getInt();
+                byte[] payload = new byte[length];
+                window.slice(length).get(payload);
+                replayer.put(id, decode(payload, 0, length));
+            }
+            recoveredSnapshotEntries = count;
+            return seq;
+        }
+    }
+
+    // ===== 스냅샷 =====
+
+    private void writeSnapshotFile(long seq, List<Long> ids, List<byte[]> payloads) throws IOException {
+        long size = SNAPSHOT_HEADER_BYTES;
+        for (byte[] payload : payloads) {
+            size += 12 + payload.length;
+        }
+        Path tmp = dir.resolve(name + ".snapshot.tmp");
+        Files.deleteIfExists(tmp);
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedWindow window = new MappedWindow(channel, FileChannel.MapMode.READ_WRITE, size);
+            window.slice(SNAPSHOT_HEADER_BYTES)
+                .putInt(SNAPSHOT_MAGIC)
+                .putLong(seq)
+                .putLong(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                byte[] payload = payloads.get(i);
+                window.slice(12).putLong(ids.get(i)).putInt(payload.length);
+                window.slice(payload.length).put(payload);
+            }
+            window.force();
+        }
+        Files.move(tmp, snapshotPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 모든 엔트리가 스냅샷 seq 이하인 세그먼트를 삭제합니다 (활성 세그먼트 제외).
+     */
+    private void deleteCoveredSegments(long seq) {
+        for (Map.Entry<Long, Path> entry : segments.entrySet()) {
+            Long nextFirstSeq = segments.higherKey(entry.getKey());
+            if (nextFirstSeq == null || nextFirstSeq - 1 > seq) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(entry.getValue());
+                segments.remove(entry.getKey());
+            } catch (IOException e) {
+                log.warn("저널 세그먼트 삭제 실패 - {}", entry.getValue(), e);
+            }
+        }
+    }
+
+    private Path snapshotPath() {
+        return dir.resolve(name + ".snapshot");
+    }
+
+    // ===== 인코딩 =====
+
+    private byte[] encode(T entity) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            codec.write(entity, new DataOutputStream(bytes));
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private T decode(byte[] bytes, int offset, int length) {
+        try {
+            return codec.read(new DataInputStream(new ByteArrayInputStream(bytes, offset, length)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record PendingEntry(long seq, byte op, long id, byte[] payload) {}
+
+    /**
+     * 큰 파일을 일정 크기 창(window) 단위로 메모리 매핑해 순차 접근하는 헬퍼
+     * (MappedByteBuffer 하나는 2GB를 넘을 수 없음)
+     */
+    private static final class MappedWindow {
+        private final FileChannel channel;
+        private final FileChannel.MapMode mode;
+        private final long fileSize;
+        private MappedByteBuffer current;
+        private long windowStart;
+
+        MappedWindow(FileChannel channel, FileChannel.MapMode mode, long fileSize) {
+            this.channel = channel;
+            this.mode = mode;
+            this.fileSize = fileSize;
+        }
+
+        /**
+         * 현재 위치에서 length 바이트를 담은 버퍼를 반환하고 위치를 그만큼 이동합니다.
+         */
+        ByteBuffer slice(int length) throws IOException {
+            if (current == null || current.remaining() < length) {
+                long position = current == null ? 0 : windowStart + current.position();
+                if (position + length > fileSize) {
+                    throw new IOException("파일 끝을 넘어서 접근했습니다");
+                }
+                force();
+                long windowSize = Math.min(Math.max(MAP_WINDOW_BYTES, length), fileSize - position);
+                current = channel.map(mode, position, windowSize);
+                windowStart = position;
+            }
+            ByteBuffer slice = current.slice();
+            slice.limit(length);
+            current.position(current.position() + length);
+            return slice;
+        }
+
+        void force() {
+            if (current != null && mode == FileChannel.MapMode.READ_WRITE) {
+                current.force();
+            }
+        }
+    }
+}
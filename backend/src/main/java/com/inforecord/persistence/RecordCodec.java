@@ -0,0 +1,41 @@
+package com.inforecord.persistence;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import com.inforecord.Entity.Record;
+
+/**
+ * Record 엔티티 인코딩
+ */
+public class RecordCodec implements JournalCodec<Record> {
+
+    @Override
+    public void write(Record record, DataOutput out) throws IOException {
+        JournalCodec.writeLong(out, record.getId());
+        JournalCodec.writeString(out, record.getContent());
+        JournalCodec.writeDate(out, record.getRecordDate());
+        JournalCodec.writeDateTime(out, record.getCreatedAt());
+        JournalCodec.writeDateTime(out, record.getUpdatedAt());
+        JournalCodec.writeString(out, record.getUserId());
+        JournalCodec.writeString(out, record.getWeatherDesc());
+        JournalCodec.writeString(out, record.getWeatherIcon());
+        JournalCodec.writeDouble(out, record.getWeatherTemp());
+    }
+
+    @Override
+    public Record read(DataInput in) throws IOException {
+        Record record = new Record();
+        record.setId(JournalCodec.readLong(in));
+        record.setContent(JournalCodec.readString(in));
+        record.setRecordDate(JournalCodec.readDate(in));
+        record.setCreatedAt(JournalCodec.readDateTime(in));
+        record.setUpdatedAt(JournalCodec.readDateTime(in));
+        record.setUserId(JournalCodec.readString(in));
+        record.setWeatherDesc(JournalCodec.readString(in));
+        record.setWeatherIcon(JournalCodec.readString(in));
+        record.setWeatherTemp(JournalCodec.readDouble(in));
+        return record;
+    }
+}
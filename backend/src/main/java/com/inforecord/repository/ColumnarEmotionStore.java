@@ -0,0 +1,596 @@
+package com.inforecord.repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.inforecord.Entity.Emotion;
+import com.inforecord.Entity.Record;
+import com.inforecord.model.EmotionTotals;
+import com.inforecord.model.WeekPair;
+import com.inforecord.persistence.JournalEngine;
+
+/**
+ * 감정 열 지향(struct-of-arrays) 저장소 (emotion.store.mode=columnar에서 감정 데이터의 유일한 보관 위치)
+ *
+ * 감정 한 건은 슬롯 하나를 차지하며, 슬롯 테이블의 기본형 배열에 모든 필드를 보관합니다.
+ * (날짜는 epochDay int, 감정 종류와 사용자 ID 문자열은 코드로 한 번만 저장, 없는 값은 NO_* 표식)
+ * 감정 ID -> 슬롯, 기록 ID -> 첫 슬롯은 기본형 해시 맵에 두고, 같은 기록의 슬롯은 nextInRecord로 잇습니다.
+ * 삭제된 슬롯은 재사용하므로 행이 움직이지 않습니다.
+ *
+ * 사용자별로는 (날짜, 감정 종류 코드, 강도, 슬롯)을 날짜순으로 정렬한 열을 따로 두어,
+ * 기간 요약과 기간 조회는 시작일을 이진 탐색한 뒤 기간 안의 행만 훑습니다.
+ * 새 감정은 대부분 최근 날짜라 배열 끝 근처에 들어가므로 삽입 시 밀어내는 행은 적습니다.
+ * 조회 결과 Emotion 객체는 요청 시 슬롯에서 새로 만들며, 연관 Record는 ID만 채워 돌려줍니다.
+ * 스레드 안전하지 않으며 EmotionRepository의 잠금 안에서만 사용합니다.
+ */
+class ColumnarEmotionStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long NO_ID = Long.MIN_VALUE;
+    private static final int NO_DAY = Integer.MIN_VALUE;
+    private static final int NO_CODE = -1;
+    private static final int NO_SLOT = -1;
+
+    // 감정 종류 코드 (null 종류도 코드를 받으며, 요약에서는 제외)
+    private final Map<String, Short> typeCodes = new HashMap<>();
+    private final List<String> typeNames = new ArrayList<>();
+    private final Map<String, Integer> userCodes = new HashMap<>();
+    private final List<String> userNames = new ArrayList<>();
+    private final Map<String, UserColumns> users = new HashMap<>();
+
+    private final Slots slots = new Slots(INITIAL_CAPACITY);
+
+    /**
+     * 감정 ID -> 슬롯
+     */
+    private final RowLocations slotsById = new RowLocations();
+
+    /**
+     * 기록 ID -> 그 기록의 첫 슬롯
+     */
+    private final RowLocations firstSlotByRecord = new RowLocations();
+
+    /**
+     * 감정을 저장합니다. 같은 ID의 감정이 있으면 먼저 제거합니다.
+     */
+    void put(Emotion emotion) {
+        long id = emotion.getId();
+        remove(id);
+        int slot = slots.allocate();
+        Long recordId = emotion.getRecord() != null ? emotion.getRecord().getId() : null;
+        slots.ids[slot] = id;
+        slots.recordIds[slot] = recordId != null ? recordId : NO_ID;
+        slots.userCodes[slot] = emotion.getUserId() != null ? internUser(emotion.getUserId()) : NO_CODE;
+        slots.days[slot] = toDay(emotion.getDate());
+        slots.types[slot] = intern(emotion.getEmotionType());
+        slots.intensities[slot] = emotion.getIntensity() != null ? emotion.getIntensity() : Double.NaN;
+        slots.extractedDays[slot] = toDay(emotion.getExtractedDate());
+        slots.weekStarts[slot] = toDay(emotion.getWeekStart());
+        slots.weekEnds[slot] = toDay(emotion.getWeekEnd());
+        slots.nextInRecord[slot] = NO_SLOT;
+        slotsById.put(id, slot);
+
+        if (recordId != null) {
+            long first = firstSlotByRecord.get(recordId);
+            slots.nextInRecord[slot] = first != RowLocations.MISSING ? (int) first : NO_SLOT;
+            firstSlotByRecord.put(recordId, slot);
+        }
+        if (emotion.getUserId() != null && emotion.getDate() != null) {
+            double intensity = emotion.getIntensity() != null ? emotion.getIntensity() : 0.0;
+            users.computeIfAbsent(emotion.getUserId(), k -> new UserColumns())
+                .insert(slot, slots.days[slot], slots.types[slot], intensity);
+        }
+    }
+
+    void remove(long id) {
+        long found = slotsById.remove(id);
+        if (found == RowLocations.MISSING) {
+            return;
+        }
+        int slot = (int) found;
+        long recordId = slots.recordIds[slot];
+        if (recordId != NO_ID) {
+            unlinkFromRecord(recordId, slot);
+        }
+        int userCode = slots.userCodes[slot];
+        if (userCode != NO_CODE && slots.days[slot] != NO_DAY) {
+            String userId = userNames.get(userCode);
+            UserColumns columns = users.get(userId);
+            columns.remove(slot, slots.days[slot]);
+            if (columns.size == 0) {
+                users.remove(userId);
+            }
+        }
+        slots.release(slot);
+    }
+
+    void clear() {
+        users.clear();
+        slots.clear();
+        slotsById.clear();
+        firstSlotByRecord.clear();
+    }
+
+    Emotion get(long id) {
+        long slot = slotsById.get(id);
+        return slot != RowLocations.MISSING ? slots.toEmotion((int) slot, typeNames, userNames) : null;
+    }
+
+    List<Emotion> findByRecordId(long recordId) {
+        List<Emotion> result = new ArrayList<>();
+        long first = firstSlotByRecord.get(recordId);
+        for (int slot = first != RowLocations.MISSING ? (int) first : NO_SLOT; slot != NO_SLOT; slot = slots.nextInRecord[slot]) {
+            result.add(slots.toEmotion(slot, typeNames, userNames));
+        }
+        return result;
+    }
+
+    /**
+     * 기간(시작일, 종료일 포함) 내 사용자의 감정 (날짜순)
+     */
+    List<Emotion> findByUserIdAndDateRange(String userId, int startEpochDay, int endEpochDay) {
+        List<Emotion> result = new ArrayList<>();
+        UserColumns columns = users.get(userId);
+        if (columns == null) {
+            return result;
+        }
+        for (int i = columns.lowerBound(startEpochDay), n = columns.size; i < n && columns.days[i] <= endEpochDay; i++) {
+            result.add(slots.toEmotion(columns.slots[i], typeNames, userNames));
+        }
+        return result;
+    }
+
+    /**
+     * 기간(시작일, 종료일 포함) 내 감정 종류별 개수와 강도 합
+     */
+    List<EmotionTotals> totals(String userId, int startEpochDay, int endEpochDay) {
+        UserColumns columns = users.get(userId);
+        if (columns == null) {
+            return new ArrayList<>();
+        }
+        long[] counts = new long[typeNames.size()];
+        double[] sums = new double[typeNames.size()];
+        int[] days = columns.days;
+        short[] types = columns.types;
+        double[] intensities = columns.intensities;
+        for (int i = columns.lowerBound(startEpochDay), n = columns.size; i < n && days[i] <= endEpochDay; i++) {
+            counts[types[i]]++;
+            sums[types[i]] += intensities[i];
+        }
+        return toTotals(counts, sums);
+    }
+
+    /**
+     * [시작일, 종료일]을 분할일 기준으로 나눠 두 기간의 합계를 열 배열 한 번 훑기로 구합니다.
+     */
+    WeekPair<EmotionTotals> totalsSplit(String userId, int startEpochDay, int splitEpochDay, int endEpochDay) {
+        UserColumns columns = users.get(userId);
+        if (columns == null) {
+            return new WeekPair<>(new ArrayList<>(), new ArrayList<>());
+        }
+        int typeCount = typeNames.size();
+        long[] counts = new long[typeCount * 2];
+        double[] sums = new double[typeCount * 2];
+        int[] days = columns.days;
+        short[] types = columns.types;
+        double[] intensities = columns.intensities;
+        for (int i = columns.lowerBound(startEpochDay), n = columns.size; i < n && days[i] <= endEpochDay; i++) {
+            // 비교 기간은 앞쪽 절반, 이번 기간은 뒤쪽 절반 칸에 누적
+            int slot = days[i] < splitEpochDay ? types[i] : typeCount + types[i];
+            counts[slot]++;
+            sums[slot] += intensities[i];
+        }
+        return new WeekPair<>(
+            toTotals(Arrays.copyOfRange(counts, 0, typeCount), Arrays.copyOfRange(sums, 0, typeCount)),
+            toTotals(Arrays.copyOfRange(counts, typeCount, typeCount * 2), Arrays.copyOfRange(sums, typeCount, typeCount * 2)));
+    }
+
+    private List<EmotionTotals> toTotals(long[] counts, double[] sums) {
+        List<EmotionTotals> totals = new ArrayList<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0 && typeNames.get(code) != null) {
+                totals.add(new EmotionTotals(typeNames.get(code), counts[code], sums[code]));
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * 사용자별 열의 모든 행을 집계 기여분 형태로 EmotionAggregates에 더합니다. (정합성 검사용)
+     */
+    void addTo(EmotionAggregates aggregates) {
+        for (Map.Entry<String, UserColumns> entry : users.entrySet()) {
+            UserColumns columns = entry.getValue();
+            for (int i = 0; i < columns.size; i++) {
+                String emotionType = typeNames.get(columns.types[i]);
+                if (emotionType != null) {
+                    aggregates.add(new EmotionAggregates.Contribution(entry.getKey(),
+                        LocalDate.ofEpochDay(columns.days[i]), emotionType, columns.intensities[i]));
+                }
+            }
+        }
+    }
+
+    /**
+     * 슬롯 테이블의 모든 감정을 Emotion 객체로 만들어 돌려줍니다.
+     */
+    void forEach(Consumer<Emotion> action) {
+        for (int slot = 0; slot < slots.used; slot++) {
+            if (slots.ids[slot] != NO_ID) {
+                action.accept(slots.toEmotion(slot, typeNames, userNames));
+            }
+        }
+    }
+
+    /**
+     * 현재 슬롯 테이블의 사본 (스냅샷용, 배열 복사만 하므로 잠금을 짧게 잡음)
+     */
+    JournalEngine.StateCopy<Emotion> copy() {
+        Slots copied = slots.copy();
+        List<String> types = new ArrayList<>(typeNames);
+        List<String> userIds = new ArrayList<>(userNames);
+        return action -> {
+            for (int slot = 0; slot < copied.used; slot++) {
+                if (copied.ids[slot] != NO_ID) {
+                    action.accept(copied.toEmotion(slot, types, userIds), copied.ids[slot]);
+                }
+            }
+        };
+    }
+
+    int rowCount() {
+        return slotsById.size();
+    }
+
+    int typeCount() {
+        return (int) typeNames.stream().filter(name -> name != null).count();
+    }
+
+    /**
+     * 슬롯 테이블, 사용자별 열, 해시 맵이 차지하는 대략적인 바이트 수
+     */
+    long estimatedColumnBytes() {
+        long bytes = slots.estimatedBytes() + slotsById.estimatedBytes() + firstSlotByRecord.estimatedBytes();
+        for (UserColumns columns : users.values()) {
+            bytes += (long) columns.slots.length * (Integer.BYTES + Integer.BYTES + Short.BYTES + Double.BYTES);
+        }
+        return bytes;
+    }
+
+    private void unlinkFromRecord(long recordId, int slot) {
+        int first = (int) firstSlotByRecord.get(recordId);
+        if (first == slot) {
+            int next = slots.nextInRecord[slot];
+            if (next == NO_SLOT) {
+                firstSlotByRecord.remove(recordId);
+            } else {
+                firstSlotByRecord.put(recordId, next);
+            }
+            return;
+        }
+        for (int previous = first; previous != NO_SLOT; previous = slots.nextInRecord[previous]) {
+            if (slots.nextInRecord[previous] == slot) {
+                slots.nextInRecord[previous] = slots.nextInRecord[slot];
+                return;
+            }
+        }
+    }
+
+    private static int toDay(LocalDate date) {
+        return date != null ? (int) date.toEpochDay() : NO_DAY;
+    }
+
+    private static LocalDate toDate(int day) {
+        return day != NO_DAY ? LocalDate.ofEpochDay(day) : null;
+    }
+
+    private short intern(String emotionType) {
+        Short code = typeCodes.get(emotionType);
+        if (code == null) {
+            if (typeNames.size() >= Short.MAX_VALUE) {
+                throw new IllegalStateException("감정 종류가 너무 많습니다: " + typeNames.size());
+            }
+            code = (short) typeNames.size();
+            typeCodes.put(emotionType, code);
+            typeNames.add(emotionType);
+        }
+        return code;
+    }
+
+    private int internUser(String userId) {
+        Integer code = userCodes.get(userId);
+        if (code == null) {
+            code = userNames.size();
+            userCodes.put(userId, code);
+            userNames.add(userId);
+        }
+        return code;
+    }
+
+    /**
+     * 슬롯 번호로 접근하는 감정 필드 배열 (삭제된 슬롯은 ids가 NO_ID이며 nextInRecord로 빈 슬롯 목록을 이룸)
+     */
+    private static final class Slots {
+        private long[] ids;
+        private long[] recordIds;
+        private int[] userCodes;
+        private int[] days;
+        private short[] types;
+        private double[] intensities;
+        private int[] extractedDays;
+        private int[] weekStarts;
+        private int[] weekEnds;
+        private int[] nextInRecord;
+        private int used;
+        private int firstFree = NO_SLOT;
+
+        Slots(int capacity) {
+            ids = new long[capacity];
+            recordIds = new long[capacity];
+            userCodes = new int[capacity];
+            days = new int[capacity];
+            types = new short[capacity];
+            intensities = new double[capacity];
+            extractedDays = new int[capacity];
+            weekStarts = new int[capacity];
+            weekEnds = new int[capacity];
+            nextInRecord = new int[capacity];
+        }
+
+        int allocate() {
+            if (firstFree != NO_SLOT) {
+                int slot = firstFree;
+                firstFree = nextInRecord[slot];
+                return slot;
+            }
+            if (used == ids.length) {
+                int capacity = ids.length * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                recordIds = Arrays.copyOf(recordIds, capacity);
+                userCodes = Arrays.copyOf(userCodes, capacity);
+                days = Arrays.copyOf(days, capacity);
+                types = Arrays.copyOf(types, capacity);
+                intensities = Arrays.copyOf(intensities, capacity);
+                extractedDays = Arrays.copyOf(extractedDays, capacity);
+                weekStarts = Arrays.copyOf(weekStarts, capacity);
+                weekEnds = Arrays.copyOf(weekEnds, capacity);
+                nextInRecord = Arrays.copyOf(nextInRecord, capacity);
+            }
+            return used++;
+        }
+
+        void release(int slot) {
+            ids[slot] = NO_ID;
+            nextInRecord[slot] = firstFree;
+            firstFree = slot;
+        }
+
+        void clear() {
+            used = 0;
+            firstFree = NO_SLOT;
+        }
+
+        Slots copy() {
+            Slots copy = new Slots(0);
+            copy.ids = Arrays.copyOf(ids, used);
+            copy.recordIds = Arrays.copyOf(recordIds, used);
+            copy.userCodes = Arrays.copyOf(userCodes, used);
+            copy.days = Arrays.copyOf(days, used);
+            copy.types = Arrays.copyOf(types, used);
+            copy.intensities = Arrays.copyOf(intensities, used);
+            copy.extractedDays = Arrays.copyOf(extractedDays, used);
+            copy.weekStarts = Arrays.copyOf(weekStarts, used);
+            copy.weekEnds = Arrays.copyOf(weekEnds, used);
+            copy.used = used;
+            return copy;
+        }
+
+        Emotion toEmotion(int slot, List<String> typeNames, List<String> userNames) {
+            Emotion emotion = new Emotion();
+            emotion.setId(ids[slot]);
+            if (recordIds[slot] != NO_ID) {
+                Record record = new Record();
+                record.setId(recordIds[slot]);
+                emotion.setRecord(record);
+            }
+            emotion.setEmotionType(typeNames.get(types[slot]));
+            emotion.setIntensity(Double.isNaN(intensities[slot]) ? null : intensities[slot]);
+            emotion.setExtractedDate(toDate(extractedDays[slot]));
+            emotion.setUserId(userCodes[slot] != NO_CODE ? userNames.get(userCodes[slot]) : null);
+            emotion.setDate(toDate(days[slot]));
+            emotion.setWeekStart(toDate(weekStarts[slot]));
+            emotion.setWeekEnd(toDate(weekEnds[slot]));
+            return emotion;
+        }
+
+        long estimatedBytes() {
+            return (long) ids.length * (Long.BYTES * 2 + Integer.BYTES * 6 + Short.BYTES + Double.BYTES);
+        }
+    }
+
+    /**
+     * 한 사용자의 감정 행 (날짜 오름차순, 같은 날짜 안에서는 들어온 순서)
+     */
+    private static final class UserColumns {
+        private int[] slots = new int[INITIAL_CAPACITY];
+        private int[] days = new int[INITIAL_CAPACITY];
+        private short[] types = new short[INITIAL_CAPACITY];
+        private double[] intensities = new double[INITIAL_CAPACITY];
+        private int size;
+
+        void insert(int slot, int day, short type, double intensity) {
+            if (size == slots.length) {
+                int capacity = slots.length * 2;
+                slots = Arrays.copyOf(slots, capacity);
+                days = Arrays.copyOf(days, capacity);
+                types = Arrays.copyOf(types, capacity);
+                intensities = Arrays.copyOf(intensities, capacity);
+            }
+            int at = lowerBound(day + 1);
+            int tail = size - at;
+            if (tail > 0) {
+                System.arraycopy(slots, at, slots, at + 1, tail);
+                System.arraycopy(days, at, days, at + 1, tail);
+                System.arraycopy(types, at, types, at + 1, tail);
+                System.arraycopy(intensities, at, intensities, at + 1, tail);
+            }
+            slots[at] = slot;
+            days[at] = day;
+            types[at] = type;
+            intensities[at] = intensity;
+            size++;
+        }
+
+        void remove(int slot, int day) {
+            for (int i = lowerBound(day); i < size && days[i] == day; i++) {
+                if (slots[i] == slot) {
+                    int tail = size - i - 1;
+                    if (tail > 0) {
+                        System.arraycopy(slots, i + 1, slots, i, tail);
+                        System.arraycopy(days, i + 1, days, i, tail);
+                        System.arraycopy(types, i + 1, types, i, tail);
+                        System.arraycopy(intensities, i + 1, intensities, i, tail);
+                    }
+                    size--;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * day 이상인 첫 행의 위치 (없으면 size)
+         */
+        int lowerBound(int day) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (days[mid] < day) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * long -> long 개방 주소(선형 탐사) 해시 맵 (박싱 없이 ID별 슬롯을 보관)
+     */
+    static final class RowLocations {
+        static final long MISSING = Long.MIN_VALUE;
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys;
+        private long[] values;
+        private int size;
+
+        RowLocations() {
+            allocate(INITIAL_CAPACITY);
+        }
+
+        long get(long key) {
+            int mask = keys.length - 1;
+            for (int i = slotOf(key, mask); ; i = (i + 1) & mask) {
+                long current = keys[i];
+                if (current == key) {
+                    return values[i];
+                }
+                if (current == EMPTY) {
+                    return MISSING;
+                }
+            }
+        }
+
+        void put(long key, long value) {
+            if (key == EMPTY) {
+                throw new IllegalArgumentException("사용할 수 없는 키입니다: " + key);
+            }
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            for (int i = slotOf(key, mask); ; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+                if (keys[i] == EMPTY) {
+                    keys[i] = key;
+                    values[i] = value;
+                    size++;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * @return 제거한 값 (없으면 MISSING)
+         */
+        long remove(long key) {
+            int mask = keys.length - 1;
+            int hole = slotOf(key, mask);
+            while (keys[hole] != key) {
+                if (keys[hole] == EMPTY) {
+                    return MISSING;
+                }
+                hole = (hole + 1) & mask;
+            }
+            long removed = values[hole];
+            size--;
+            // 탐사 경로가 끊기지 않도록 뒤따르는 항목을 빈칸으로 당김 (묘비 없이 삭제)
+            for (int j = (hole + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+                int home = slotOf(keys[j], mask);
+                boolean reachable = hole <= j ? (home > hole && home <= j) : (home > hole || home <= j);
+                if (!reachable) {
+                    keys[hole] = keys[j];
+                    values[hole] = values[j];
+                    hole = j;
+                }
+            }
+            keys[hole] = EMPTY;
+            return removed;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            allocate(INITIAL_CAPACITY);
+        }
+
+        long estimatedBytes() {
+            return (long) keys.length * (Long.BYTES + Long.BYTES);
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            allocate(capacity);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            values = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        }
+
+        private static int slotOf(long key, int mask) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.inforecord.repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.inforecord.Entity.Emotion;
+import com.inforecord.model.EmotionTotals;
+import com.inforecord.model.WeekPair;
+
+/**
+ * 사용자별 감정 집계 (일별 / 주별, 감정 종류별 개수와 강도 합)
+ *
+ * 감정 저장/수정/삭제 시 해당 감정의 기여분만 더하고 빼서 갱신하므로
+ * 요약 조회는 전체 감정을 훑지 않고 (날짜 수 x 감정 종류 수)에 비례합니다.
+ * 스레드 안전하지 않으며 EmotionRepository의 잠금 안에서만 사용합니다.
+ */
+class EmotionAggregates {
+
+    /**
+     * 사용자 -> 날짜 -> 감정 종류 -> 집계
+     */
+    private final Map<String, TreeMap<LocalDate, Map<String, Bucket>>> daily = new HashMap<>();
+
+    /**
+     * 사용자 -> 주 시작일(월요일) -> 감정 종류 -> 집계
+     */
+    private final Map<String, Map<LocalDate, Map<String, Bucket>>> weekly = new HashMap<>();
+
+    /**
+     * 감정 하나가 집계에 더한 값 (감정 객체가 직접 수정되므로 더한 시점의 값을 따로 보관)
+     */
+    record Contribution(String userId, LocalDate date, String emotionType, double intensity) {
+
+        /**
+         * 집계 대상이 아니면 null (사용자, 날짜, 감정 종류 중 하나라도 없는 경우)
+         */
+        static Contribution of(Emotion emotion) {
+            if (emotion.getUserId() == null || emotion.getDate() == null || emotion.getEmotionType() == null) {
+                return null;
+            }
+            double intensity = emotion.getIntensity() != null ? emotion.getIntensity() : 0.0;
+            return new Contribution(emotion.getUserId(), emotion.getDate(), emotion.getEmotionType(), intensity);
+        }
+    }
+
+    void add(Contribution contribution) {
+        if (contribution == null) {
+            return;
+        }
+        bucket(daily.computeIfAbsent(contribution.userId(), k -> new TreeMap<>()), contribution.date(), contribution.emotionType())
+            .add(contribution.intensity());
+        bucket(weekly.computeIfAbsent(contribution.userId(), k -> new HashMap<>()), weekStartOf(contribution.date()), contribution.emotionType())
+            .add(contribution.intensity());
+    }
+
+    void remove(Contribution contribution) {
+        if (contribution == null) {
+            return;
+        }
+        removeFrom(daily, contribution.userId(), contribution.date(), contribution);
+        removeFrom(weekly, contribution.userId(), weekStartOf(contribution.date()), contribution);
+    }
+
+    void clear() {
+        daily.clear();
+        weekly.clear();
+    }
+
+    /**
+     * 기간(시작일, 종료일 포함) 내 감정 종류별 집계를 합산합니다.
+     * 기간이 정확히 월요일~일요일 한 주이면 주별 집계를 그대로 사용합니다.
+     */
+    List<EmotionTotals> totals(String userId, LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            return new ArrayList<>();
+        }
+        if (isWholeWeek(startDate, endDate)) {
+            return toTotals(weekBuckets(userId, startDate));
+        }
+
+        TreeMap<LocalDate, Map<String, Bucket>> byDate = daily.get(userId);
+        if (byDate == null) {
+            return new ArrayList<>();
+        }
+        Map<String, Bucket> merged = new HashMap<>();
+        for (Map<String, Bucket> buckets : byDate.subMap(startDate, true, endDate, true).values()) {
+            mergeInto(merged, buckets);
+        }
+        return toTotals(merged);
+    }
+
+    /**
+     * [시작일, 종료일]을 분할일 기준으로 나눠 두 기간의 합계를 한 번에 구합니다.
+     * 두 기간이 모두 월요일~일요일 한 주이면 주별 집계를, 아니면 일별 집계를 한 번만 훑습니다.
+     */
+    WeekPair<EmotionTotals> totalsSplit(String userId, LocalDate startDate, LocalDate splitDate, LocalDate endDate) {
+        LocalDate previousEnd = splitDate.minusDays(1);
+        if (isWholeWeek(startDate, previousEnd) && isWholeWeek(splitDate, endDate)) {
+            return new WeekPair<>(toTotals(weekBuckets(userId, startDate)), toTotals(weekBuckets(userId, splitDate)));
+        }
+
+        Map<String, Bucket> previous = new HashMap<>();
+        Map<String, Bucket> current = new HashMap<>();
+        TreeMap<LocalDate, Map<String, Bucket>> byDate = daily.get(userId);
+        if (byDate != null && !startDate.isAfter(endDate)) {
+            for (Map.Entry<LocalDate, Map<String, Bucket>> day : byDate.subMap(startDate, true, endDate, true).entrySet()) {
+                mergeInto(day.getKey().isBefore(splitDate) ? previous : current, day.getValue());
+            }
+        }
+        return new WeekPair<>(toTotals(previous), toTotals(current));
+    }
+
+    /**
+     * 다른 집계(전체 재계산 결과)와 비교해 서로 다른 항목을 설명하는 문자열 목록을 반환합니다.
+     */
+    List<String> differences(EmotionAggregates expected, int limit) {
+        List<String> mismatches = new ArrayList<>();
+        compare("daily", daily, expected.daily, mismatches, limit);
+        compare("weekly", weekly, expected.weekly, mismatches, limit);
+        return mismatches;
+    }
+
+    int dailyBucketCount() {
+        return daily.values().stream().mapToInt(Map::size).sum();
+    }
+
+    int weeklyBucketCount() {
+        return weekly.values().stream().mapToInt(Map::size).sum();
+    }
+
+    static LocalDate weekStartOf(LocalDate date) {
+        return date.minusDays(date.getDayOfWeek().getValue() - 1);
+    }
+
+    private static boolean isWholeWeek(LocalDate startDate, LocalDate endDate) {
+        return startDate.equals(weekStartOf(startDate)) && endDate.equals(startDate.plusDays(6));
+    }
+
+    private Map<String, Bucket> weekBuckets(String userId, LocalDate weekStart) {
+        Map<LocalDate, Map<String, Bucket>> byWeek = weekly.get(userId);
+        Map<String, Bucket> buckets = byWeek != null ? byWeek.get(weekStart) : null;
+        return buckets != null ? buckets : Map.of();
+    }
+
+    private static void mergeInto(Map<String, Bucket> merged, Map<String, Bucket> buckets) {
+        for (Map.Entry<String, Bucket> entry : buckets.entrySet()) {
+            merged.computeIfAbsent(entry.getKey(), k -> new Bucket()).merge(entry.getValue());
+        }
+    }
+
+    private static Bucket bucket(Map<LocalDate, Map<String, Bucket>> byDate, LocalDate date, String emotionType) {
+        return byDate.computeIfAbsent(date, k -> new HashMap<>()).computeIfAbsent(emotionType, k -> new Bucket());
+    }
+
+    private static <M extends Map<LocalDate, Map<String, Bucket>>> void removeFrom(
+            Map<String, M> byUser, String userId, LocalDate date, Contribution contribution) {
+        M byDate = byUser.get(userId);
+        if (byDate == null) {
+            return;
+        }
+        Map<String, Bucket> buckets = byDate.get(date);
+        if (buckets == null) {
+            return;
+        }
+        Bucket bucket = buckets.get(contribution.emotionType());
+        if (bucket == null) {
+            return;
+        }
+        bucket.remove(contribution.intensity());
+        // 비워진 항목은 제거 (강도 합에 누적된 부동소수점 오차도 함께 사라짐)
+        if (bucket.count <= 0) {
+            buckets.remove(contribution.emotionType());
+            if (buckets.isEmpty()) {
+                byDate.remove(date);
+                if (byDate.isEmpty()) {
+                    byUser.remove(userId);
+                }
+            }
+        }
+    }
+
+    private static List<EmotionTotals> toTotals(Map<String, Bucket> buckets) {
+        List<EmotionTotals> totals = new ArrayList<>(buckets.size());
+        for (Map.Entry<String, Bucket> entry : buckets.entrySet()) {
+            totals.add(new EmotionTotals(entry.getKey(), entry.getValue().count, entry.getValue().intensitySum));
+        }
+        return totals;
+    }
+
+    private static void compare(String scope,
+                                Map<String, ? extends Map<LocalDate, Map<String, Bucket>>> actual,
+                                Map<String, ? extends Map<LocalDate, Map<String, Bucket>>> expected,
+                                List<String> mismatches, int limit) {
+        Set<String> users = new HashSet<>(actual.keySet());
+        users.addAll(expected.keySet());
+        for (String userId : users) {
+            Map<LocalDate, Map<String, Bucket>> actualByDate = actual.containsKey(userId) ? actual.get(userId) : Map.of();
+            Map<LocalDate, Map<String, Bucket>> expectedByDate = expected.containsKey(userId) ? expected.get(userId) : Map.of();
+            Set<LocalDate> dates = new HashSet<>(actualByDate.keySet());
+            dates.addAll(expectedByDate.keySet());
+            for (LocalDate date : dates) {
+                Map<String, Bucket> actualBuckets = actualByDate.getOrDefault(date, Map.of());
+                Map<String, Bucket> expectedBuckets = expectedByDate.getOrDefault(date, Map.of());
+                Set<String> types = new HashSet<>(actualBuckets.keySet());
+                types.addAll(expectedBuckets.keySet());
+                for (String type : types) {
+                    Bucket a = actualBuckets.getOrDefault(type, new Bucket());
+                    Bucket e = expectedBuckets.getOrDefault(type, new Bucket());
+                    if (a.count != e.count || Math.abs(a.intensitySum - e.intensitySum) > 1e-9 * Math.max(1.0, Math.abs(e.intensitySum))) {
+                        if (mismatches.size() >= limit) {
+                            return;
+                        }
+                        mismatches.add(String.format("%s %s %s %s: count %d/%d, intensitySum %.6f/%.6f",
+                                scope, userId, date, type, a.count, e.count, a.intensitySum, e.intensitySum));
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Bucket {
+        private long count;
+        private double intensitySum;
+
+        void add(double intensity) {
+            count++;
+            intensitySum += intensity;
+        }
+
+        void remove(double intensity) {
+            count--;
+            intensitySum -= intensity;
+        }
+
+        void merge(Bucket other) {
+            count += other.count;
+            intensitySum += other.intensitySum;
+        }
+    }
+}
@@ -2,25 +2,193 @@ package com.inforecord.repository;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Repository;
 
 import com.inforecord.Entity.Emotion;
+import com.inforecord.Entity.Record;
+import com.inforecord.metrics.StatsProvider;
+import com.inforecord.model.EmotionTotals;
+import com.inforecord.model.WeekPair;
+import com.inforecord.persistence.JournalEngine;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
+/**
+ * 메모리 기반 감정 저장소
+ *
+ * 보관 방식은 emotion.store.mode로 고릅니다.
+ * - aggregates (기본값): ID 기준 Emotion 객체 맵과 함께 다음 보조 인덱스를 유지합니다.
+ *   - 기록 ID -> 감정 ID 목록: 기록별 조회/삭제를 해당 기록의 감정 수에 비례해 처리
+ *   - 사용자별 날짜 정렬 인덱스(userId -> date -> 감정 ID 목록): 기간 조회를 O(log n + k)로 처리
+ *   - 감정 요약용 사용자별 일/주 단위 감정 종류별 개수와 강도 합: 저장/삭제 시 증분 갱신
+ *   변경은 저장소 잠금으로 직렬화되고, 조회는 동시 자료구조에서 잠금 없이 수행됩니다. (집계 조회 제외)
+ * - columnar: 감정을 ColumnarEmotionStore의 기본형 배열에만 보관하고 객체 맵과 인덱스는 두지 않습니다.
+ *   조회 결과와 스냅샷용 Emotion 객체는 요청 시 만들며(연관 Record는 ID만 채움), 조회도 저장소 잠금 안에서 수행됩니다.
+ *
+ * 저장 시 받은 객체의 복사본을 보관하고 조회 결과도 복사본으로 돌려주므로, 보관 중인 감정은 save를 거치지 않고는 바뀌지 않습니다.
+ * 저장/삭제 후에는 바뀐 (사용자, 날짜)마다 UserDataChangedEvent를 발행합니다.
+ * (저널 기록 대기가 실패해도 메모리는 이미 바뀌었으므로 발행하며, 복구 중에는 발행하지 않음)
+ */
 @Repository
-public class EmotionRepository {
+public class EmotionRepository implements StatsProvider, ApplicationEventPublisherAware {
+    public static final String MODE_AGGREGATES = "aggregates";
+    public static final String MODE_COLUMNAR = "columnar";
+
     private final Map<Long, Emotion> emotions = new ConcurrentHashMap<>();
-    private long nextId = 1;
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    /**
+     * 기록 ID -> 감정 ID 목록
+     */
+    private final Map<Long, Set<Long>> recordIndex = new ConcurrentHashMap<>();
+
+    /**
+     * 사용자별 날짜 정렬 인덱스
+     */
+    private final Map<String, ConcurrentSkipListMap<LocalDate, Set<Long>>> userDateIndex = new ConcurrentHashMap<>();
+
+    private final EmotionAggregates aggregates = new EmotionAggregates();
+
+    /**
+     * columnar 모드의 감정 저장소 (이 모드에서는 emotions와 보조 인덱스를 쓰지 않음)
+     */
+    private final ColumnarEmotionStore columns = new ColumnarEmotionStore();
+    private final boolean columnar;
+
+    /**
+     * 감정 ID별로 집계에 반영된 값 (aggregates 모드 전용)
+     */
+    private final Map<Long, EmotionAggregates.Contribution> contributions = new ConcurrentHashMap<>();
+
+    private final JournalEngine<Emotion> journal;
+    private final RecordRepository recordRepository;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    public EmotionRepository(JournalEngine<Emotion> emotionJournal, RecordRepository recordRepository,
+                             @Value("${emotion.store.mode:aggregates}") String storeMode) {
+        this.journal = emotionJournal;
+        this.recordRepository = recordRepository;
+        if (!MODE_AGGREGATES.equals(storeMode) && !MODE_COLUMNAR.equals(storeMode)) {
+            throw new IllegalArgumentException("지원하지 않는 감정 저장 모드입니다: " + storeMode);
+        }
+        this.columnar = MODE_COLUMNAR.equals(storeMode);
+    }
+
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * 스냅샷과 저널로부터 감정 데이터를 복구하고, 연관 Record를 실제 객체로 다시 연결합니다. (columnar 모드는 ID만 보관)
+     */
+    @PostConstruct
+    public void recover() {
+        journal.recover(new JournalEngine.Replayer<>() {
+            @Override
+            public void put(long id, Emotion emotion) {
+                if (columnar) {
+                    columns.put(emotion);
+                } else {
+                    emotions.put(id, emotion);
+                }
+                nextId.accumulateAndGet(id + 1, Math::max);
+            }
+
+            @Override
+            public void delete(long id) {
+                if (columnar) {
+                    columns.remove(id);
+                } else {
+                    emotions.remove(id);
+                }
+            }
+        });
+        if (columnar) {
+            return;
+        }
+        // 같은 기록의 감정들은 기록 복사본 하나를 함께 참조
+        Map<Long, Optional<Record>> linked = new HashMap<>();
+        for (Emotion emotion : emotions.values()) {
+            if (emotion.getRecord() != null) {
+                linked.computeIfAbsent(emotion.getRecord().getId(), recordRepository::findById)
+                    .ifPresent(emotion::setRecord);
+            }
+        }
+        synchronized (this) {
+            recordIndex.clear();
+            userDateIndex.clear();
+            aggregates.clear();
+            contributions.clear();
+            for (Emotion emotion : emotions.values()) {
+                reindex(null, emotion);
+                track(emotion);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${persistence.snapshot-interval-ms:300000}",
+               initialDelayString = "${persistence.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        if (columnar) {
+            journal.snapshot(this, columns::copy);
+        } else {
+            journal.snapshot(this, emotions);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshot();
+    }
 
     public Emotion save(Emotion emotion) {
         if (emotion.getId() == null) {
-            emotion.setId(nextId++);
+            emotion.setId(nextId.getAndIncrement());
+        }
+        Emotion stored = emotion.copy();
+        long seq;
+        IndexKey oldKey;
+        IndexKey newKey;
+        synchronized (this) {
+            // 저널이 거부하면 메모리를 바꾸지 않도록 먼저 기록
+            seq = journal.append(stored.getId(), stored);
+            Emotion previous;
+            if (columnar) {
+                previous = columns.get(stored.getId());
+                columns.put(stored);
+            } else {
+                previous = emotions.put(stored.getId(), stored);
+                reindex(previous, stored);
+                track(stored);
+            }
+            oldKey = previous != null ? IndexKey.of(previous) : null;
+            newKey = IndexKey.of(stored);
+        }
+        try {
+            journal.awaitDurable(seq);
+        } finally {
+            if (oldKey != null && !oldKey.equals(newKey)) {
+                publishChanged(oldKey);
+            }
+            publishChanged(newKey);
         }
-        emotions.put(emotion.getId(), emotion);
         return emotion;
     }
 
@@ -33,37 +201,242 @@ public class EmotionRepository {
     }
 
     public Optional<Emotion> findById(Long id) {
-        return Optional.ofNullable(emotions.get(id));
+        if (columnar) {
+            synchronized (this) {
+                return Optional.ofNullable(columns.get(id));
+            }
+        }
+        return Optional.ofNullable(emotions.get(id)).map(Emotion::copy);
     }
 
     public void delete(Emotion emotion) {
-        emotions.remove(emotion.getId());
+        long seq;
+        List<IndexKey> removedKeys = new ArrayList<>(1);
+        synchronized (this) {
+            seq = remove(emotion.getId(), 0, removedKeys);
+        }
+        try {
+            journal.awaitDurable(seq);
+        } finally {
+            removedKeys.forEach(this::publishChanged);
+        }
     }
 
     public void deleteByRecordId(Long recordId) {
-        emotions.entrySet().removeIf(entry -> entry.getValue().getRecord() != null && 
-                                            entry.getValue().getRecord().getId().equals(recordId));
+        long seq = 0;
+        List<IndexKey> removedKeys = new ArrayList<>();
+        synchronized (this) {
+            List<Long> ids = columnar
+                ? columns.findByRecordId(recordId).stream().map(Emotion::getId).toList()
+                : new ArrayList<>(recordIndex.getOrDefault(recordId, Set.of()));
+            for (Long id : ids) {
+                seq = remove(id, seq, removedKeys);
+            }
+        }
+        try {
+            journal.awaitDurable(seq);
+        } finally {
+            // 한 기록의 감정은 대개 같은 날짜이므로 (사용자, 날짜)당 한 번만 발행
+            removedKeys.stream()
+                .map(key -> new IndexKey(null, key.userId(), key.date()))
+                .distinct()
+                .forEach(this::publishChanged);
+        }
     }
 
     public List<Emotion> findByRecordId(Long recordId) {
-        return emotions.values().stream()
-            .filter(e -> e.getRecord().getId().equals(recordId))
-            .toList();
+        if (columnar) {
+            synchronized (this) {
+                return columns.findByRecordId(recordId);
+            }
+        }
+        Set<Long> ids = recordIndex.get(recordId);
+        return ids != null ? resolve(ids, new ArrayList<>()) : new ArrayList<>();
     }
 
     public List<Emotion> findEmotionsByUserIdAndDateRange(String userId, LocalDate startDate, LocalDate endDate) {
-        return emotions.values().stream()
-            .filter(e -> e.getUserId() != null && e.getUserId().equals(userId) && 
-                        e.getDate() != null && !e.getDate().isBefore(startDate) && 
-                        !e.getDate().isAfter(endDate))
-            .toList();
+        if (columnar) {
+            synchronized (this) {
+                return columns.findByUserIdAndDateRange(userId, (int) startDate.toEpochDay(), (int) endDate.toEpochDay());
+            }
+        }
+        ConcurrentSkipListMap<LocalDate, Set<Long>> byDate = userDateIndex.get(userId);
+        if (byDate == null || startDate.isAfter(endDate)) {
+            return new ArrayList<>();
+        }
+        List<Emotion> result = new ArrayList<>();
+        for (Set<Long> ids : byDate.subMap(startDate, true, endDate, true).values()) {
+            resolve(ids, result);
+        }
+        return result;
     }
 
     public List<Emotion> findEmotionsByUserIdAndWeekRange(String userId, LocalDate weekStart, LocalDate weekEnd) {
-        return emotions.values().stream()
-            .filter(e -> e.getUserId() != null && e.getUserId().equals(userId) && 
-                         e.getDate() != null && !e.getDate().isBefore(weekStart) && 
-                         !e.getDate().isAfter(weekEnd))
-            .toList();
+        return findEmotionsByUserIdAndDateRange(userId, weekStart, weekEnd);
+    }
+
+    /**
+     * 기간(시작일, 종료일 포함) 내 사용자의 감정 종류별 개수와 강도 합을 집계에서 조회합니다.
+     */
+    public synchronized List<EmotionTotals> sumByUserIdAndDateRange(String userId, LocalDate startDate, LocalDate endDate) {
+        if (columnar) {
+            return columns.totals(userId, (int) startDate.toEpochDay(), (int) endDate.toEpochDay());
+        }
+        return aggregates.totals(userId, startDate, endDate);
+    }
+
+    /**
+     * [시작일, 종료일] 한 번의 조회로 분할일 전(비교 기간)과 분할일부터(이번 기간)의 감정 종류별 집계를 함께 구합니다.
+     */
+    public synchronized WeekPair<EmotionTotals> sumByUserIdAndDateRangeSplit(String userId, LocalDate startDate,
+                                                                              LocalDate splitDate, LocalDate endDate) {
+        if (columnar) {
+            return columns.totalsSplit(userId, (int) startDate.toEpochDay(), (int) splitDate.toEpochDay(), (int) endDate.toEpochDay());
+        }
+        return aggregates.totalsSplit(userId, startDate, splitDate, endDate);
+    }
+
+    /**
+     * 증분 집계를 전체 감정 데이터로 다시 계산한 결과와 비교합니다.
+     *
+     * @return 일치 여부와 불일치 항목(최대 50개)
+     */
+    public synchronized Map<String, Object> verifyAggregates() {
+        EmotionAggregates recomputed = new EmotionAggregates();
+        if (columnar) {
+            columns.forEach(emotion -> recomputed.add(EmotionAggregates.Contribution.of(emotion)));
+        } else {
+            for (Emotion emotion : emotions.values()) {
+                recomputed.add(EmotionAggregates.Contribution.of(emotion));
+            }
+        }
+        EmotionAggregates maintained = aggregates;
+        if (columnar) {
+            maintained = new EmotionAggregates();
+            columns.addTo(maintained);
+        }
+        List<String> mismatches = maintained.differences(recomputed, 50);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("mode", columnar ? MODE_COLUMNAR : MODE_AGGREGATES);
+        report.put("consistent", mismatches.isEmpty());
+        report.put("emotions", columnar ? columns.rowCount() : emotions.size());
+        report.put("dailyBuckets", maintained.dailyBucketCount());
+        report.put("weeklyBuckets", maintained.weeklyBucketCount());
+        report.put("mismatches", mismatches);
+        return report;
+    }
+
+    @Override
+    public String getStatsName() {
+        return "emotion.store";
+    }
+
+    @Override
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mode", columnar ? MODE_COLUMNAR : MODE_AGGREGATES);
+        stats.put("emotions", columnar ? columns.rowCount() : emotions.size());
+        if (columnar) {
+            stats.put("emotionTypes", columns.typeCount());
+            stats.put("estimatedColumnBytes", columns.estimatedColumnBytes());
+        } else {
+            stats.put("dailyBuckets", aggregates.dailyBucketCount());
+            stats.put("weeklyBuckets", aggregates.weeklyBucketCount());
+        }
+        return stats;
+    }
+
+    /**
+     * 감정 하나를 저장소와 인덱스에서 제거하고 저널에 기록합니다. (저장소 잠금 안에서 호출)
+     *
+     * @param removedKeys 제거된 감정의 인덱스 키를 모을 목록 (잠금 밖에서 이벤트 발행용)
+     * @return 마지막 저널 순번 (제거할 감정이 없으면 seq 그대로)
+     */
+    private long remove(Long id, long seq, List<IndexKey> removedKeys) {
+        Emotion existing = columnar ? columns.get(id) : emotions.get(id);
+        if (existing == null) {
+            return seq;
+        }
+        long removedSeq = journal.appendDelete(id);
+        IndexKey oldKey = IndexKey.of(existing);
+        removedKeys.add(oldKey);
+        if (columnar) {
+            columns.remove(id);
+        } else {
+            emotions.remove(id);
+            removeFromIndex(oldKey, id);
+            aggregates.remove(contributions.remove(id));
+        }
+        return removedSeq;
+    }
+
+    private List<Emotion> resolve(Set<Long> ids, List<Emotion> result) {
+        for (Long id : ids) {
+            Emotion emotion = emotions.get(id);
+            if (emotion != null) {
+                result.add(emotion.copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 감정의 현재 (기록, 사용자, 날짜)로 인덱스를 갱신합니다. 이전에 보관하던 감정과 값이 다르면 이전 위치를 제거합니다.
+     */
+    private void reindex(Emotion previous, Emotion emotion) {
+        IndexKey newKey = IndexKey.of(emotion);
+        IndexKey oldKey = previous != null ? IndexKey.of(previous) : null;
+        if (newKey.equals(oldKey)) {
+            return;
+        }
+        if (oldKey != null) {
+            removeFromIndex(oldKey, emotion.getId());
+        }
+        if (newKey.recordId() != null) {
+            recordIndex.computeIfAbsent(newKey.recordId(), k -> ConcurrentHashMap.newKeySet()).add(emotion.getId());
+        }
+        if (newKey.userId() != null && newKey.date() != null) {
+            userDateIndex.computeIfAbsent(newKey.userId(), k -> new ConcurrentSkipListMap<>())
+                .computeIfAbsent(newKey.date(), k -> ConcurrentHashMap.newKeySet())
+                .add(emotion.getId());
+        }
+    }
+
+    private void removeFromIndex(IndexKey key, Long id) {
+        if (key.recordId() != null) {
+            recordIndex.computeIfPresent(key.recordId(), (recordId, ids) -> ids.remove(id) && ids.isEmpty() ? null : ids);
+        }
+        if (key.userId() != null && key.date() != null) {
+            ConcurrentSkipListMap<LocalDate, Set<Long>> byDate = userDateIndex.get(key.userId());
+            if (byDate != null) {
+                byDate.computeIfPresent(key.date(), (date, ids) -> ids.remove(id) && ids.isEmpty() ? null : ids);
+                if (byDate.isEmpty()) {
+                    userDateIndex.remove(key.userId(), byDate);
+                }
+            }
+        }
+    }
+
+    private void track(Emotion emotion) {
+        EmotionAggregates.Contribution contribution = EmotionAggregates.Contribution.of(emotion);
+        EmotionAggregates.Contribution previous = contribution != null
+            ? contributions.put(emotion.getId(), contribution)
+            : contributions.remove(emotion.getId());
+        aggregates.remove(previous);
+        aggregates.add(contribution);
+    }
+
+    private void publishChanged(IndexKey key) {
+        if (eventPublisher != null && key != null && key.userId() != null && key.date() != null) {
+            eventPublisher.publishEvent(new UserDataChangedEvent(key.userId(), key.date(), UserDataChangedEvent.SOURCE_EMOTION));
+        }
+    }
+
+    private record IndexKey(Long recordId, String userId, LocalDate date) {
+        static IndexKey of(Emotion emotion) {
+            Long recordId = emotion.getRecord() != null ? emotion.getRecord().getId() : null;
+            return new IndexKey(recordId, emotion.getUserId(), emotion.getDate());
+        }
     }
-}
\ No newline at end of file
+}
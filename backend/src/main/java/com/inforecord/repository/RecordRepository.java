@@ -2,52 +2,250 @@ package com.inforecord.repository;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Repository;
 
 import com.inforecord.Entity.Record;
+import com.inforecord.persistence.JournalEngine;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 메모리 기반 기록 저장소
+ *
+ * ID 기준 저장소와 함께 (사용자, 날짜) 해시 인덱스와 사용자별 날짜 정렬 인덱스(userId -> recordDate -> Record)를 유지합니다.
+ * 날짜 단건 조회는 해시 인덱스에서 O(1), 기간 조회는 해당 사용자의 정렬 인덱스에서 O(log n + k)로 처리되며
+ * 다른 사용자의 기록은 탐색하지 않습니다.
+ * 사용자마다 하루에 기록 하나만 저장할 수 있으며, 다른 기록이 있는 날짜로 저장하면 IllegalStateException이 발생합니다.
+ *
+ * 저장 시 받은 객체의 복사본을 보관하고 조회 결과도 복사본으로 돌려주므로, 보관 중인 기록은 save를 거치지 않고는 바뀌지 않습니다.
+ * (호출자가 조회한 기록을 수정하다 실패해도 저장소와 스냅샷에는 반영되지 않음)
+ *
+ * 모든 변경은 저널에 기록되며, 시작 시 스냅샷과 저널 꼬리로부터 복구됩니다.
+ * 저장/삭제 후에는 바뀐 (사용자, 날짜)마다 UserDataChangedEvent를 발행합니다.
+ * (저널 기록 대기가 실패해도 메모리는 이미 바뀌었으므로 발행하며, 복구 중에는 발행하지 않음)
+ */
 @Repository
-public class RecordRepository {
+public class RecordRepository implements ApplicationEventPublisherAware {
     private final Map<Long, Record> records = new ConcurrentHashMap<>();
-    private long nextId = 1;
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    /**
+     * (사용자, 날짜) -> 기록 (날짜 단건 조회용)
+     */
+    private final Map<IndexKey, Record> dateIndex = new ConcurrentHashMap<>();
+
+    /**
+     * 사용자별 날짜 정렬 인덱스 (기간 조회용)
+     */
+    private final Map<String, ConcurrentSkipListMap<LocalDate, Record>> userDateIndex = new ConcurrentHashMap<>();
 
+    private final JournalEngine<Record> journal;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    public RecordRepository(JournalEngine<Record> recordJournal) {
+        this.journal = recordJournal;
+    }
+
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * 스냅샷과 저널로부터 기록을 복구합니다.
+     */
+    @PostConstruct
+    public void recover() {
+        journal.recover(new JournalEngine.Replayer<>() {
+            @Override
+            public void put(long id, Record record) {
+                reindex(records.put(id, record), record);
+                nextId.accumulateAndGet(id + 1, Math::max);
+            }
+
+            @Override
+            public void delete(long id) {
+                Record removed = records.remove(id);
+                if (removed != null) {
+                    removeFromIndex(IndexKey.of(removed), removed);
+                }
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${persistence.snapshot-interval-ms:300000}",
+               initialDelayString = "${persistence.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        journal.snapshot(this, records);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshot();
+    }
+
+    /**
+     * 기록을 저장합니다.
+     *
+     * @throws IllegalStateException 같은 사용자의 같은 날짜에 다른 기록이 있는 경우 (아무것도 바꾸지 않음)
+     */
     public Record save(Record record) {
-        if (record.getId() == null) {
-            record.setId(nextId++);
+        long seq;
+        IndexKey oldKey;
+        IndexKey newKey;
+        synchronized (this) {
+            Record sameDay = record.getUserId() != null && record.getRecordDate() != null
+                ? dateIndex.get(IndexKey.of(record))
+                : null;
+            if (sameDay != null && !sameDay.getId().equals(record.getId())) {
+                throw new IllegalStateException("같은 날짜에 이미 기록이 있습니다 - 사용자: " + record.getUserId()
+                    + ", 날짜: " + record.getRecordDate() + ", 기록 ID: " + sameDay.getId());
+            }
+            if (record.getId() == null) {
+                record.setId(nextId.getAndIncrement());
+            }
+            Record stored = record.copy();
+            // 저널이 거부하면 메모리를 바꾸지 않도록 먼저 기록
+            seq = journal.append(stored.getId(), stored);
+            Record previous = records.put(stored.getId(), stored);
+            reindex(previous, stored);
+            oldKey = previous != null ? IndexKey.of(previous) : null;
+            newKey = IndexKey.of(stored);
+        }
+        try {
+            journal.awaitDurable(seq);
+        } finally {
+            if (oldKey != null && !oldKey.equals(newKey)) {
+                publishChanged(oldKey);
+            }
+            publishChanged(newKey);
         }
-        records.put(record.getId(), record);
         return record;
     }
 
     public Optional<Record> findById(Long id) {
-        return Optional.ofNullable(records.get(id));
+        return Optional.ofNullable(records.get(id)).map(Record::copy);
     }
 
     public Optional<Record> findByRecordDateAndUserId(LocalDate date, String userId) {
-        return records.values().stream()
-            .filter(r -> r.getRecordDate().equals(date) && r.getUserId().equals(userId))
-            .findFirst();
+        if (userId == null || date == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(dateIndex.get(new IndexKey(userId, date))).map(Record::copy);
     }
 
     public List<Record> findByUserIdAndDateRange(String userId, LocalDate startDate, LocalDate endDate) {
-        return records.values().stream()
-            .filter(r -> r.getUserId().equals(userId) && 
-                        !r.getRecordDate().isBefore(startDate) && 
-                        !r.getRecordDate().isAfter(endDate))
-            .toList();
+        ConcurrentSkipListMap<LocalDate, Record> byDate = userDateIndex.get(userId);
+        if (byDate == null || startDate.isAfter(endDate)) {
+            return new ArrayList<>();
+        }
+        return copies(byDate.subMap(startDate, true, endDate, true).values());
     }
 
     public void deleteById(Long id) {
-        records.remove(id);
+        long seq = 0;
+        IndexKey oldKey = null;
+        synchronized (this) {
+            if (records.containsKey(id)) {
+                seq = journal.appendDelete(id);
+                Record removed = records.remove(id);
+                oldKey = IndexKey.of(removed);
+                removeFromIndex(oldKey, removed);
+            }
+        }
+        try {
+            journal.awaitDurable(seq);
+        } finally {
+            publishChanged(oldKey);
+        }
+    }
+
+    /**
+     * 기간(시작일, 종료일 포함) 안에 기록이 하나라도 있는 사용자 ID 목록
+     */
+    public List<String> findUserIdsWithRecordsBetween(LocalDate startDate, LocalDate endDate) {
+        List<String> userIds = new ArrayList<>();
+        if (startDate.isAfter(endDate)) {
+            return userIds;
+        }
+        for (Map.Entry<String, ConcurrentSkipListMap<LocalDate, Record>> entry : userDateIndex.entrySet()) {
+            LocalDate first = entry.getValue().ceilingKey(startDate);
+            if (first != null && !first.isAfter(endDate)) {
+                userIds.add(entry.getKey());
+            }
+        }
+        return userIds;
     }
 
     // 모든 기록 반환 (Our Record용)
     public List<Record> findAll() {
-        return new ArrayList<>(records.values());
+        return copies(records.values());
+    }
+
+    private static List<Record> copies(Collection<Record> stored) {
+        List<Record> result = new ArrayList<>(stored.size());
+        for (Record record : stored) {
+            result.add(record.copy());
+        }
+        return result;
+    }
+
+    /**
+     * 기록의 현재 (사용자, 날짜)로 인덱스를 갱신합니다. 이전에 보관하던 기록과 날짜나 사용자가 다르면 이전 위치를 제거합니다.
+     */
+    private void reindex(Record previous, Record record) {
+        IndexKey newKey = IndexKey.of(record);
+        if (previous != null) {
+            IndexKey oldKey = IndexKey.of(previous);
+            if (!oldKey.equals(newKey)) {
+                removeFromIndex(oldKey, previous);
+            }
+        }
+        if (newKey.userId() != null && newKey.recordDate() != null) {
+            dateIndex.put(newKey, record);
+            userDateIndex.computeIfAbsent(newKey.userId(), k -> new ConcurrentSkipListMap<>())
+                .put(newKey.recordDate(), record);
+        }
+    }
+
+    private void removeFromIndex(IndexKey key, Record record) {
+        if (key.userId() == null || key.recordDate() == null) {
+            return;
+        }
+        // 복구 중 같은 날짜에 다른 기록이 덮어쓴 경우에는 지우지 않음
+        dateIndex.computeIfPresent(key, (k, indexed) -> indexed.getId().equals(record.getId()) ? null : indexed);
+        ConcurrentSkipListMap<LocalDate, Record> byDate = userDateIndex.get(key.userId());
+        if (byDate != null) {
+            byDate.computeIfPresent(key.recordDate(),
+                (date, indexed) -> indexed.getId().equals(record.getId()) ? null : indexed);
+            if (byDate.isEmpty()) {
+                userDateIndex.remove(key.userId(), byDate);
+            }
+        }
+    }
+
+    private void publishChanged(IndexKey key) {
+        if (eventPublisher != null && key != null && key.userId() != null && key.recordDate() != null) {
+            eventPublisher.publishEvent(new UserDataChangedEvent(key.userId(), key.recordDate(), UserDataChangedEvent.SOURCE_RECORD));
+        }
+    }
+
+    private record IndexKey(String userId, LocalDate recordDate) {
+        static IndexKey of(Record record) {
+            return new IndexKey(record.getUserId(), record.getRecordDate());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,17 @@
+package com.inforecord.repository;
+
+import java.time.LocalDate;
+
+/**
+ * 사용자의 특정 날짜 데이터(기록 또는 감정)가 저장/수정/삭제되었음을 알리는 이벤트
+ * 날짜가 바뀐 수정은 이전 날짜와 새 날짜로 각각 발행됩니다.
+ *
+ * @param userId 사용자 ID
+ * @param date   바뀐 날짜
+ * @param source 바뀐 데이터 종류 ("record" 또는 "emotion")
+ */
+public record UserDataChangedEvent(String userId, LocalDate date, String source) {
+
+    public static final String SOURCE_RECORD = "record";
+    public static final String SOURCE_EMOTION = "emotion";
+}
@@ -0,0 +1,212 @@
+package com.inforecord.repository;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Repository;
+
+import com.inforecord.Entity.Record;
+import com.inforecord.metrics.StatsProvider;
+import com.inforecord.model.WeatherCategory;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * 날짜별 날씨 이력 저장소 (인사이트 분석용)
+ *
+ * 계열(series) 키와 날짜로 그날의 날씨 분류와 평균 기온을 보관합니다.
+ * - 지역 계열: 지명 사전의 지역 ID (예: "KR-11"), WeatherService가 Open-Meteo에서 받은 오늘 날씨로 채움
+ * - 사용자 계열: "user:" + 사용자 ID, 기록에 저장된 날씨 설명/기온으로 채움
+ * 계열마다 연도별로 366칸짜리 기본형 배열(분류 byte, 기온 float)을 두므로
+ * 조회는 해시 한 번과 배열 인덱스로 O(1)이며, 한 계열의 1년치가 약 1.8KB입니다.
+ * 메모리에만 보관하며, 사용자 계열은 시작 시 기록에서 다시 채우고
+ * 이후에는 기록 변경 이벤트마다 그날을 저장소의 기록으로 다시 씁니다. (삭제/날짜 이동 포함)
+ */
+@Repository
+public class WeatherHistoryStore implements StatsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(WeatherHistoryStore.class);
+
+    private static final String USER_SERIES_PREFIX = "user:";
+
+    /**
+     * 하루의 날씨 (기온을 모르면 temperature는 NaN)
+     */
+    public record DailyWeather(WeatherCategory category, double temperature) {
+
+        public boolean hasTemperature() {
+            return !Double.isNaN(temperature);
+        }
+    }
+
+    private record SeriesKey(String series, int year) {}
+
+    private final Map<SeriesKey, YearSeries> seriesByYear = new ConcurrentHashMap<>();
+    private final RecordRepository recordRepository;
+
+    public WeatherHistoryStore(RecordRepository recordRepository) {
+        this.recordRepository = recordRepository;
+    }
+
+    /**
+     * 복구된 기록의 날씨 정보로 사용자 계열을 채웁니다. (RecordRepository 복구 이후 실행)
+     */
+    @PostConstruct
+    public void loadFromRecords() {
+        int loaded = 0;
+        for (Record record : recordRepository.findAll()) {
+            if (putRecord(record)) {
+                loaded++;
+            }
+        }
+        log.info("날씨 이력 로드 완료 - 기록 {}건", loaded);
+    }
+
+    @EventListener
+    public void onUserDataChanged(UserDataChangedEvent event) {
+        if (UserDataChangedEvent.SOURCE_RECORD.equals(event.source())) {
+            refreshRecordDay(event.userId(), event.date());
+        }
+    }
+
+    /**
+     * 사용자 계열의 하루를 저장소의 현재 기록으로 다시 씁니다. 기록이 없거나 날씨 정보가 없으면 비웁니다.
+     */
+    void refreshRecordDay(String userId, LocalDate date) {
+        if (userId == null || date == null) {
+            return;
+        }
+        boolean stored = recordRepository.findByRecordDateAndUserId(date, userId)
+                .map(this::putRecord)
+                .orElse(false);
+        if (!stored) {
+            clear(userSeries(userId), date);
+        }
+    }
+
+    public static String userSeries(String userId) {
+        return USER_SERIES_PREFIX + userId;
+    }
+
+    /**
+     * 기록의 날씨 설명/기온을 사용자 계열에 저장합니다. 날씨 정보가 없으면 저장하지 않고 false
+     */
+    public boolean putRecord(Record record) {
+        if (record.getUserId() == null || record.getRecordDate() == null) {
+            return false;
+        }
+        WeatherCategory category = WeatherCategory.fromDescription(record.getWeatherDesc());
+        Double temperature = record.getWeatherTemp();
+        if (category == WeatherCategory.UNKNOWN && temperature == null) {
+            return false;
+        }
+        put(userSeries(record.getUserId()), record.getRecordDate(), category,
+                temperature != null ? temperature : Double.NaN);
+        return true;
+    }
+
+    /**
+     * 계열의 하루 날씨를 저장합니다. (같은 날 값이 있으면 덮어씀)
+     */
+    public void put(String series, LocalDate date, WeatherCategory category, double temperature) {
+        seriesByYear.computeIfAbsent(new SeriesKey(series, date.getYear()), key -> new YearSeries())
+                .set(date.getDayOfYear() - 1, category, temperature);
+    }
+
+    /**
+     * 계열의 하루 날씨를 비웁니다.
+     */
+    public void clear(String series, LocalDate date) {
+        YearSeries year = seriesByYear.get(new SeriesKey(series, date.getYear()));
+        if (year != null) {
+            year.clear(date.getDayOfYear() - 1);
+        }
+    }
+
+    public Optional<DailyWeather> get(String series, LocalDate date) {
+        if (series == null || date == null) {
+            return Optional.empty();
+        }
+        YearSeries year = seriesByYear.get(new SeriesKey(series, date.getYear()));
+        return year != null ? Optional.ofNullable(year.get(date.getDayOfYear() - 1)) : Optional.empty();
+    }
+
+    /**
+     * 사용자가 기록한 날씨를 먼저 보고, 없거나 분류를 모르면(기온만 기록) 지역(regionId, null 가능)의 날씨를 봅니다.
+     */
+    public Optional<DailyWeather> lookup(String userId, String regionId, LocalDate date) {
+        Optional<DailyWeather> recorded = get(userSeries(userId), date);
+        if (recorded.isPresent() && recorded.get().category() != WeatherCategory.UNKNOWN) {
+            return recorded;
+        }
+        Optional<DailyWeather> region = get(regionId, date);
+        return region.isPresent() ? region : recorded;
+    }
+
+    @Override
+    public String getStatsName() {
+        return "weather.history";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long days = 0;
+        long userSeriesYears = 0;
+        for (Map.Entry<SeriesKey, YearSeries> entry : seriesByYear.entrySet()) {
+            days += entry.getValue().filledDays();
+            if (entry.getKey().series().startsWith(USER_SERIES_PREFIX)) {
+                userSeriesYears++;
+            }
+        }
+        int seriesYears = seriesByYear.size();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("seriesYears", seriesYears);
+        stats.put("regionSeriesYears", seriesYears - userSeriesYears);
+        stats.put("userSeriesYears", userSeriesYears);
+        stats.put("days", days);
+        stats.put("estimatedArrayBytes", (long) seriesYears * YearSeries.DAYS * (Byte.BYTES + Float.BYTES));
+        return stats;
+    }
+
+    /**
+     * 한 계열의 1년치 (인덱스 = dayOfYear - 1, 분류 코드 0은 값 없음)
+     */
+    private static final class YearSeries {
+        private static final int DAYS = 366;
+        private static final WeatherCategory[] CATEGORIES = WeatherCategory.values();
+
+        private final byte[] categories = new byte[DAYS];
+        private final float[] temperatures = new float[DAYS];
+
+        synchronized void set(int day, WeatherCategory category, double temperature) {
+            categories[day] = (byte) (category.ordinal() + 1);
+            temperatures[day] = (float) temperature;
+        }
+
+        synchronized void clear(int day) {
+            categories[day] = 0;
+            temperatures[day] = 0f;
+        }
+
+        synchronized DailyWeather get(int day) {
+            int code = categories[day];
+            return code != 0 ? new DailyWeather(CATEGORIES[code - 1], temperatures[day]) : null;
+        }
+
+        synchronized int filledDays() {
+            int count = 0;
+            for (byte code : categories) {
+                if (code != 0) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -3,20 +3,43 @@ package com.inforecord.service;
 import com.inforecord.dto.EmotionDto;
 import com.inforecord.dto.RecordDto;
 import com.inforecord.dto.AIAnalysisDto;
+import com.inforecord.model.WeatherCategory;
+import com.inforecord.repository.WeatherHistoryStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDate;
 import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class AIAnalysisService {
     
     private static final Logger log = LoggerFactory.getLogger(AIAnalysisService.class);
     
+    private static final String CORRELATION_NOT_ENOUGH_DATA = "날씨와 감정 상관관계를 분석하기에 데이터가 부족해요.";
+    
+    private final WeatherHistoryStore weatherHistoryStore;
+    private final WeatherEmotionStatistics weatherEmotionStatistics;
+    
+    public AIAnalysisService(WeatherHistoryStore weatherHistoryStore, WeatherEmotionStatistics weatherEmotionStatistics) {
+        this.weatherHistoryStore = weatherHistoryStore;
+        this.weatherEmotionStatistics = weatherEmotionStatistics;
+    }
+    
+    /**
+     * 주간 AI 통계분석을 수행합니다. (지역 정보 없이 사용자가 기록한 날씨만 사용)
+     */
+    public AIAnalysisDto analyzeWeeklyInsights(
+            List<RecordDto> currentWeekRecords,
+            List<EmotionDto> currentWeekEmotions,
+            List<RecordDto> previousWeekRecords,
+            List<EmotionDto> previousWeekEmotions) {
+        return analyzeWeeklyInsights(currentWeekRecords, currentWeekEmotions, previousWeekRecords, previousWeekEmotions, null);
+    }
+    
     /**
      * 주간 AI 통계분석을 수행합니다.
      * 
@@ -24,47 +47,193 @@ public class AIAnalysisService {
      * @param currentWeekEmotions 이번주 감정 목록
      * @param previousWeekRecords 저번주 기록 목록
      * @param previousWeekEmotions 저번주 감정 목록
+     * @param regionId 사용자 지역 ID (기록에 날씨가 없는 날은 이 지역의 날씨 이력 사용, null 가능)
      * @return AI 분석 결과
      */
     public AIAnalysisDto analyzeWeeklyInsights(
             List<RecordDto> currentWeekRecords,
             List<EmotionDto> currentWeekEmotions,
             List<RecordDto> previousWeekRecords,
-            List<EmotionDto> previousWeekEmotions) {
+            List<EmotionDto> previousWeekEmotions,
+            String regionId) {
         
         log.info("주간 AI 통계분석 시작");
         
+        // 이번 주 기록/감정을 한 번만 훑어 다섯 항목이 함께 쓰는 중간 결과를 만듭니다.
+        WeekIndex current = indexWeek(currentWeekRecords, currentWeekEmotions, regionId);
+        
         AIAnalysisDto analysis = new AIAnalysisDto();
         
         // 1. 감정 변화 분석
-        analysis.setEmotionChange(analyzeEmotionChange(currentWeekEmotions, previousWeekEmotions));
+        analysis.setEmotionChange(analyzeEmotionChange(current, previousWeekEmotions));
         
         // 2. 주요 감정 분석
-        analysis.setMainEmotion(analyzeMainEmotion(currentWeekEmotions));
+        analysis.setMainEmotion(analyzeMainEmotion(current));
         
         // 3. 감정 패턴 분석
-        analysis.setEmotionPattern(analyzeEmotionPattern(currentWeekRecords, currentWeekEmotions));
+        analysis.setEmotionPattern(analyzeEmotionPattern(current));
         
-        // 4. 날씨-감정 상관관계 분석
-        analysis.setWeatherEmotionCorrelation(analyzeWeatherEmotionCorrelation(currentWeekRecords, currentWeekEmotions));
+        // 4. 날씨-감정 상관관계 분석 (이번 주 기준, 누적 검정 결과는 withWeatherStatistics에서 채움)
+        analysis.setWeatherEmotionCorrelation(analyzeWeatherEmotionCorrelation(current));
         
         // 5. 개인화된 인사이트 생성
-        analysis.setPersonalizedInsights(generatePersonalizedInsights(currentWeekRecords, currentWeekEmotions, previousWeekEmotions));
+        analysis.setPersonalizedInsights(generatePersonalizedInsights(current));
         
         log.info("주간 AI 통계분석 완료");
         return analysis;
     }
     
+    /**
+     * 주간 분석 결과의 날씨-감정 상관관계를 사용자의 누적 검정 결과로 바꾼 복사본을 반환합니다.
+     * 누적 검정은 주와 관계없이 모든 날의 기록/감정으로 바뀌므로 주간 리포트 캐시에 넣지 않고 조회할 때마다 채웁니다.
+     * 이번 주 데이터가 부족하거나 누적 기록이 충분하지 않으면 원래 결과를 그대로 반환합니다.
+     */
+    public AIAnalysisDto withWeatherStatistics(String userId, AIAnalysisDto weekly) {
+        if (userId == null || CORRELATION_NOT_ENOUGH_DATA.equals(weekly.getWeatherEmotionCorrelation())) {
+            return weekly;
+        }
+        Optional<WeatherEmotionStatistics.Result> statistics = weatherEmotionStatistics.analyze(userId);
+        if (statistics.isEmpty()) {
+            return weekly;
+        }
+        AIAnalysisDto analysis = new AIAnalysisDto();
+        analysis.setEmotionChange(weekly.getEmotionChange());
+        analysis.setMainEmotion(weekly.getMainEmotion());
+        analysis.setEmotionPattern(weekly.getEmotionPattern());
+        analysis.setWeatherEmotionCorrelation(describeCorrelation(statistics.get()));
+        analysis.setPersonalizedInsights(weekly.getPersonalizedInsights());
+        return analysis;
+    }
+    
+    /**
+     * 한 주의 기록/감정을 한 번씩만 훑어 만든 중간 결과
+     * 요일 인덱스는 DayOfWeek.ordinal(), 날씨 인덱스는 WeatherCategory.ordinal()
+     */
+    private static final class WeekIndex {
+        int recordCount;
+        boolean hasEmotions;
+        EmotionDto mainEmotion;
+        int distinctEmotionTypes;
+        final double[] intensitySumByDayOfWeek = new double[DayOfWeek.values().length];
+        final int[] intensityCountByDayOfWeek = new int[DayOfWeek.values().length];
+        final int[] recordCountByWeather = new int[WeatherCategory.values().length];
+        final Map<WeatherCategory, Map<String, Integer>> emotionCountsByWeather = new EnumMap<>(WeatherCategory.class);
+    }
+    
+    /**
+     * 하루치 감정 요약 (같은 날 기록이 여러 개여도 한 번만 계산)
+     */
+    private static final class DayEmotions {
+        double intensitySum;
+        int intensityCount;
+        EmotionDto mainEmotion;
+    }
+    
+    /**
+     * 감정을 epoch day 기준으로 한 번 묶은 뒤, 기록을 한 번 훑으며 요일별 강도와 날씨별 감정 빈도를 모읍니다.
+     * 기록마다 감정 전체를 날짜 문자열로 다시 거르던 방식(기록 수 x 감정 수)을 기록 수 + 감정 수로 줄입니다.
+     */
+    private WeekIndex indexWeek(List<RecordDto> records, List<EmotionDto> emotions, String regionId) {
+        WeekIndex index = new WeekIndex();
+        index.recordCount = records.size();
+        index.hasEmotions = !emotions.isEmpty();
+        
+        Map<Long, DayEmotions> emotionsByDay = new HashMap<>();
+        Set<String> emotionTypes = new HashSet<>();
+        for (EmotionDto emotion : emotions) {
+            emotionTypes.add(emotion.getEmotionType());
+            if (isStronger(emotion, index.mainEmotion)) {
+                index.mainEmotion = emotion;
+            }
+            Long epochDay = toEpochDay(emotion.getDate());
+            if (epochDay == null) {
+                continue;
+            }
+            DayEmotions day = emotionsByDay.computeIfAbsent(epochDay, k -> new DayEmotions());
+            if (emotion.getIntensity() != null) {
+                day.intensitySum += emotion.getIntensity();
+                day.intensityCount++;
+            }
+            if (isStronger(emotion, day.mainEmotion)) {
+                day.mainEmotion = emotion;
+            }
+        }
+        index.distinctEmotionTypes = emotionTypes.size();
+        
+        for (RecordDto record : records) {
+            if (record.getRecordDate() == null) {
+                continue;
+            }
+            DayEmotions day = emotionsByDay.get(record.getRecordDate().toEpochDay());
+            if (day == null) {
+                continue;
+            }
+            
+            int dayOfWeek = record.getRecordDate().getDayOfWeek().ordinal();
+            index.intensitySumByDayOfWeek[dayOfWeek] += day.intensitySum;
+            index.intensityCountByDayOfWeek[dayOfWeek] += day.intensityCount;
+            
+            WeatherCategory weather = weatherHistoryStore.lookup(record.getUserId(), regionId, record.getRecordDate())
+                .map(WeatherHistoryStore.DailyWeather::category)
+                .orElse(WeatherCategory.UNKNOWN);
+            if (weather == WeatherCategory.UNKNOWN) {
+                continue;
+            }
+            String mainEmotion = day.mainEmotion != null ? day.mainEmotion.getEmotionType() : "알 수 없음";
+            index.recordCountByWeather[weather.ordinal()]++;
+            index.emotionCountsByWeather.computeIfAbsent(weather, k -> new HashMap<>())
+                .merge(mainEmotion, 1, Integer::sum);
+        }
+        return index;
+    }
+    
+    /**
+     * 감정 DTO의 날짜(yyyy-MM-dd) -> epoch day, 없거나 형식이 다르면 null
+     */
+    private static Long toEpochDay(String date) {
+        if (date == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(date).toEpochDay();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * 비율이 더 높은 감정인지 (비율이 없으면 비교 대상에서 제외, 같으면 먼저 나온 감정 유지)
+     */
+    private static boolean isStronger(EmotionDto candidate, EmotionDto current) {
+        if (candidate.getPercentage() == null) {
+            return false;
+        }
+        return current == null || candidate.getPercentage() > current.getPercentage();
+    }
+    
+    /**
+     * 감정 목록에서 비율이 가장 높은 감정
+     */
+    private static EmotionDto findMainEmotion(List<EmotionDto> emotions) {
+        EmotionDto main = null;
+        for (EmotionDto emotion : emotions) {
+            if (isStronger(emotion, main)) {
+                main = emotion;
+            }
+        }
+        return main;
+    }
+    
     /**
      * 감정 변화 분석
      */
-    private String analyzeEmotionChange(List<EmotionDto> current, List<EmotionDto> previous) {
+    private String analyzeEmotionChange(WeekIndex current, List<EmotionDto> previous) {
         if (previous.isEmpty()) {
             return "이번 주 첫 기록이에요.";
         }
         
-        EmotionDto currentMain = current.stream().max(Comparator.comparing(EmotionDto::getPercentage)).orElse(null);
-        EmotionDto previousMain = previous.stream().max(Comparator.comparing(EmotionDto::getPercentage)).orElse(null);
+        EmotionDto currentMain = current.mainEmotion;
+        EmotionDto previousMain = findMainEmotion(previous);
         
         if (currentMain == null || previousMain == null) {
             return "감정 데이터가 부족해 변화를 분석하기 어려워요.";
@@ -88,105 +257,118 @@ public class AIAnalysisService {
     /**
      * 주요 감정 분석
      */
-    private String analyzeMainEmotion(List<EmotionDto> emotions) {
-        if (emotions.isEmpty()) {
+    private String analyzeMainEmotion(WeekIndex current) {
+        if (!current.hasEmotions) {
             return "이번 주 감정 기록이 없어요.";
         }
         
-        EmotionDto mainEmotion = emotions.stream().max(Comparator.comparing(EmotionDto::getPercentage)).orElse(null);
-            
-        if (mainEmotion == null) {
+        if (current.mainEmotion == null) {
             return "감정 분석 결과를 찾을 수 없어요.";
         }
         
-        return String.format("이번 주는 '%s' 감정을 가장 많이 느꼈어요.", mainEmotion.getEmotionType());
+        return String.format("이번 주는 '%s' 감정을 가장 많이 느꼈어요.", current.mainEmotion.getEmotionType());
     }
     
     /**
-     * 감정 패턴 분석
+     * 감정 패턴 분석 (요일별 평균 감정 강도가 가장 높은 요일)
      */
-    private String analyzeEmotionPattern(List<RecordDto> records, List<EmotionDto> emotions) {
-        if (records.isEmpty() || emotions.isEmpty()) {
+    private String analyzeEmotionPattern(WeekIndex current) {
+        if (current.recordCount == 0 || !current.hasEmotions) {
             return "감정 패턴을 분석하기에 데이터가 부족해요.";
         }
         
-        Map<DayOfWeek, List<EmotionDto>> dayOfWeekEmotions = new HashMap<>();
-        for (RecordDto record : records) {
-            DayOfWeek dayOfWeek = record.getRecordDate().getDayOfWeek();
-            List<EmotionDto> dayEmotions = emotions.stream()
-                .filter(e -> e.getDate() != null && e.getDate().equals(record.getRecordDate().toString()))
-                .collect(Collectors.toList());
-            if (!dayEmotions.isEmpty()) {
-                dayOfWeekEmotions.computeIfAbsent(dayOfWeek, k -> new ArrayList<>()).addAll(dayEmotions);
+        DayOfWeek mostEmotionalDay = null;
+        double highestAverage = Double.NEGATIVE_INFINITY;
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            int count = current.intensityCountByDayOfWeek[dayOfWeek.ordinal()];
+            if (count == 0) {
+                continue;
+            }
+            double average = current.intensitySumByDayOfWeek[dayOfWeek.ordinal()] / count;
+            if (average > highestAverage) {
+                highestAverage = average;
+                mostEmotionalDay = dayOfWeek;
             }
         }
         
-        Optional<Map.Entry<DayOfWeek, List<EmotionDto>>> mostEmotionalDay = dayOfWeekEmotions.entrySet().stream()
-            .max(Comparator.comparing(entry -> entry.getValue().stream().mapToDouble(EmotionDto::getIntensity).average().orElse(0.0)));
-        
-        if (mostEmotionalDay.isPresent()) {
-            String dayName = getDayName(mostEmotionalDay.get().getKey());
-            return String.format("이번 주는 %s에 감정을 가장 강하게 느꼈네요.", dayName);
+        if (mostEmotionalDay != null) {
+            return String.format("이번 주는 %s에 감정을 가장 강하게 느꼈네요.", getDayName(mostEmotionalDay));
         }
         
         return "요일별 감정 패턴이 비교적 일정했어요.";
     }
     
     /**
-     * 날씨-감정 상관관계 분석
+     * 이번 주 날씨-감정 상관관계 분석
+     * 이번 주 가장 흔한 날씨에서 자주 느낀 감정을 알려줍니다. (누적 검정 결과는 withWeatherStatistics에서 바꿔 넣음)
+     * 이번 주 날씨는 날씨 이력에서 날짜로 바로 찾습니다. (사용자가 기록한 날씨 우선, 없으면 지역 날씨)
+     * 날씨를 알 수 없는 날은 분석에서 제외합니다.
      */
-    private String analyzeWeatherEmotionCorrelation(List<RecordDto> records, List<EmotionDto> emotions) {
-        if (records.isEmpty() || emotions.isEmpty()) {
-            return "날씨와 감정 상관관계를 분석하기에 데이터가 부족해요.";
+    private String analyzeWeatherEmotionCorrelation(WeekIndex current) {
+        if (current.recordCount == 0 || !current.hasEmotions) {
+            return CORRELATION_NOT_ENOUGH_DATA;
         }
-
-        Map<String, List<String>> weatherEmotionMap = new HashMap<>();
-        for (RecordDto record : records) {
-            List<EmotionDto> dayEmotions = emotions.stream()
-                .filter(e -> e.getDate() != null && e.getDate().equals(record.getRecordDate().toString()))
-                .collect(Collectors.toList());
-            
-            if (!dayEmotions.isEmpty()) {
-                String weather = getDummyWeather(record.getRecordDate());
-                String mainEmotion = dayEmotions.stream()
-                    .max(Comparator.comparing(EmotionDto::getPercentage))
-                    .map(EmotionDto::getEmotionType)
-                    .orElse("알 수 없음");
-                weatherEmotionMap.computeIfAbsent(weather, k -> new ArrayList<>()).add(mainEmotion);
+        
+        if (current.emotionCountsByWeather.isEmpty()) {
+            return "날씨 정보가 있는 기록이 부족해 상관관계를 분석하기 어려워요.";
+        }
+        
+        WeatherCategory mostCommon = null;
+        for (WeatherCategory weather : current.emotionCountsByWeather.keySet()) {
+            if (mostCommon == null || current.recordCountByWeather[weather.ordinal()] > current.recordCountByWeather[mostCommon.ordinal()]) {
+                mostCommon = weather;
             }
         }
         
-        Optional<Map.Entry<String, List<String>>> mostCommon = weatherEmotionMap.entrySet().stream()
-            .max(Comparator.comparing(entry -> entry.getValue().size()));
+        String mostFrequentEmotion = "알 수 없음";
+        int highestCount = 0;
+        for (Map.Entry<String, Integer> entry : current.emotionCountsByWeather.get(mostCommon).entrySet()) {
+            if (entry.getValue() > highestCount) {
+                highestCount = entry.getValue();
+                mostFrequentEmotion = entry.getKey();
+            }
+        }
         
-        if (mostCommon.isPresent()) {
-            String weather = mostCommon.get().getKey();
-            String mostFrequentEmotion = mostCommon.get().getValue().stream()
-                .collect(Collectors.groupingBy(e -> e, Collectors.counting()))
-                .entrySet().stream().max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey).orElse("알 수 없음");
-            
-            return String.format("%s 날씨에 %s 감정을 자주 느꼈어요.", weather, mostFrequentEmotion);
+        return String.format("%s 날씨에 %s 감정을 자주 느꼈어요.", mostCommon.getLabel(), mostFrequentEmotion);
+    }
+    
+    /**
+     * 누적 검정 결과 문장 (유의하고 lift가 1보다 큰 연관이 있을 때만 관계가 있다고 말함)
+     */
+    private String describeCorrelation(WeatherEmotionStatistics.Result result) {
+        StringBuilder sentence = new StringBuilder();
+        WeatherEmotionStatistics.Association strongest = result.strongest();
+        if (result.significant() && strongest != null) {
+            sentence.append(String.format("%s 날씨에는 '%s' 감정이 평소보다 %.1f배 자주 나타나요. (%d일 기록, χ²=%.1f, p=%.3f)",
+                strongest.weather().getLabel(), strongest.emotionType(), strongest.lift(),
+                result.days(), result.chiSquare(), result.pValue()));
+        } else {
+            sentence.append(String.format("지금까지 %d일의 기록에서는 날씨와 감정 사이에 뚜렷한 관계가 보이지 않아요. (χ²=%.1f, p=%.2f)",
+                result.days(), result.chiSquare(), result.pValue()));
         }
         
-        return "날씨와 감정의 특별한 패턴을 찾기 어려워요.";
+        double correlation = result.temperatureIntensityCorrelation();
+        if (!Double.isNaN(correlation) && Math.abs(correlation) >= 0.3) {
+            sentence.append(String.format(" 기온이 %s수록 감정을 더 강하게 느끼는 편이에요. (r=%.2f)",
+                correlation > 0 ? "높을" : "낮을", correlation));
+        }
+        return sentence.toString();
     }
     
     /**
      * 개인화된 인사이트 생성
      */
-    private String generatePersonalizedInsights(List<RecordDto> records, List<EmotionDto> currentEmotions, List<EmotionDto> previousEmotions) {
-        if (records.isEmpty()) {
+    private String generatePersonalizedInsights(WeekIndex current) {
+        if (current.recordCount == 0) {
             return "기록을 남기면 더 자세한 분석을 해드릴게요.";
         }
         
         // 기록 빈도를 기반으로 한 인사이트 하나만 선택
-        if (records.size() >= 5) {
-            return String.format("이번 주에 %d번 꾸준히 기록을 남겼네요.", records.size());
-        } else if (records.size() >= 1) {
-            long uniqueEmotions = currentEmotions.stream().map(EmotionDto::getEmotionType).distinct().count();
-            if (uniqueEmotions > 1) {
-                return String.format("이번 주에 %d가지의 다양한 감정을 느꼈어요.", uniqueEmotions);
+        if (current.recordCount >= 5) {
+            return String.format("이번 주에 %d번 꾸준히 기록을 남겼네요.", current.recordCount);
+        } else if (current.recordCount >= 1) {
+            if (current.distinctEmotionTypes > 1) {
+                return String.format("이번 주에 %d가지의 다양한 감정을 느꼈어요.", current.distinctEmotionTypes);
             } else {
                  return "감정 기록을 통해 스스로를 더 잘 이해하고 있어요.";
             }
@@ -210,12 +392,4 @@ public class AIAnalysisService {
         );
         return dayNames.get(dayOfWeek);
     }
-    
-    /**
-     * 더미 날씨 데이터 (실제로는 날씨 API 연동 필요)
-     */
-    private String getDummyWeather(LocalDate date) {
-        String[] weathers = {"맑음", "흐림", "비", "눈", "안개"};
-        return weathers[date.getDayOfYear() % weathers.length];
-    }
-} 
\ No newline at end of file
+}
\ No newline at end of file
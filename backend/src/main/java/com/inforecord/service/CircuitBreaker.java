@@ -0,0 +1,85 @@
+package com.inforecord.service;
+
+/**
+ * 외부 호출용 간단한 서킷 브레이커
+ *
+ * - CLOSED: 호출 허용, 연속 실패가 failureThreshold에 도달하면 OPEN
+ * - OPEN: open-duration 동안 호출을 즉시 거절
+ * - HALF_OPEN: 시험 호출 하나만 허용, 성공하면 CLOSED, 실패하면 다시 OPEN
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+    private long openCount;
+
+    public CircuitBreaker(int failureThreshold, long openDurationMs) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationNanos = openDurationMs * 1_000_000L;
+    }
+
+    /**
+     * 호출 허용 여부를 확인합니다. true를 받은 호출자는 반드시 onSuccess/onFailure/onIgnored 중 하나를 호출해야 합니다.
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAtNanos < openDurationNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+                return true;
+            default:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * 허용받았지만 실제로 호출하지 않은 경우 (결과를 판정에 반영하지 않음)
+     */
+    public synchronized void onIgnored() {
+        trialInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized long getOpenCount() {
+        return openCount;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtNanos = System.nanoTime();
+        consecutiveFailures = 0;
+        openCount++;
+    }
+}
@@ -0,0 +1,357 @@
+package com.inforecord.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.inforecord.Entity.Record;
+import com.inforecord.metrics.StatsProvider;
+import com.inforecord.model.AnalysisStatus;
+import com.inforecord.model.EmotionResult;
+import com.inforecord.repository.EmotionRepository;
+import com.inforecord.repository.RecordRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 기록 저장과 분리된 비동기 감정분석 파이프라인
+ *
+ * 기록 저장/수정 시 분석 작업을 제한된 크기의 큐에 넣고 즉시 반환하며,
+ * 설정된 수의 워커 스레드가 큐를 비우면서 Flask 모델을 호출합니다.
+ * - 큐가 가득 차면 요청 스레드를 기다리게 하지 않고 바로 FAILED로 처리합니다.
+ * - 분석 실패 시 지수 백오프로 재시도합니다.
+ * - 종료 시 큐에 남은 작업은 버려지므로, 시작할 때 감정 결과가 없는 기록을 찾아 다시 분석합니다.
+ *   (백그라운드 스레드가 큐에 자리가 날 때마다 넣음)
+ * - 같은 기록에 새 작업이 제출되면 이전 작업은 결과를 저장하지 않습니다.
+ * - 끝난(DONE/FAILED) 작업 상태는 finished-state-ttl-ms 동안만 보관하며,
+ *   그 뒤의 상태 조회는 저장된 감정 결과로 판단합니다. (RecordService.getAnalysisStatus)
+ */
+@Service
+public class EmotionAnalysisPipeline implements StatsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(EmotionAnalysisPipeline.class);
+
+    private final EmotionAnalysisService emotionAnalysisService;
+    private final EmotionRepository emotionRepository;
+    private final RecordRepository recordRepository;
+
+    private final int workerCount;
+    private final int queueCapacity;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final long finishedStateTtlMs;
+
+    private BlockingQueue<AnalysisTask> queue;
+    private ExecutorService workers;
+    private ScheduledExecutorService retryScheduler;
+    private Thread backfill;
+    private volatile boolean running;
+
+    /**
+     * 기록 ID -> 최신 분석 작업 상태 (끝난 상태는 TTL이 지나면 제거)
+     */
+    private final Map<Long, AnalysisState> states = new ConcurrentHashMap<>();
+
+    /**
+     * 같은 기록의 결과 교체/취소를 직렬화하는 분할 잠금
+     */
+    private final Object[] recordLocks = new Object[64];
+
+    // 지표
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong superseded = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong backfilled = new AtomicLong();
+
+    public EmotionAnalysisPipeline(EmotionAnalysisService emotionAnalysisService, EmotionRepository emotionRepository,
+                                   RecordRepository recordRepository,
+                                   @Value("${emotion.pipeline.workers:4}") int workerCount,
+                                   @Value("${emotion.pipeline.queue-capacity:1000}") int queueCapacity,
+                                   @Value("${emotion.pipeline.max-attempts:3}") int maxAttempts,
+                                   @Value("${emotion.pipeline.initial-backoff-ms:500}") long initialBackoffMs,
+                                   @Value("${emotion.pipeline.max-backoff-ms:10000}") long maxBackoffMs,
+                                   @Value("${emotion.pipeline.finished-state-ttl-ms:600000}") long finishedStateTtlMs) {
+        this.emotionAnalysisService = emotionAnalysisService;
+        this.emotionRepository = emotionRepository;
+        this.recordRepository = recordRepository;
+        this.workerCount = workerCount;
+        this.queueCapacity = queueCapacity;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.finishedStateTtlMs = finishedStateTtlMs;
+        for (int i = 0; i < recordLocks.length; i++) {
+            recordLocks[i] = new Object();
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "emotion-worker-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "emotion-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::workLoop);
+        }
+        long sweepMs = Math.max(1000, finishedStateTtlMs);
+        retryScheduler.scheduleWithFixedDelay(() -> evictFinished(System.currentTimeMillis()),
+                sweepMs, sweepMs, TimeUnit.MILLISECONDS);
+
+        List<AnalysisTask> unanalyzed = findUnanalyzed();
+        if (!unanalyzed.isEmpty()) {
+            backfill = new Thread(() -> enqueueAll(unanalyzed), "emotion-backfill");
+            backfill.setDaemon(true);
+            backfill.start();
+        }
+        log.info("감정분석 파이프라인 시작 - 워커: {}, 큐 크기: {}, 다시 분석할 기록: {}",
+                workerCount, queueCapacity, unanalyzed.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (backfill != null) {
+            backfill.interrupt();
+        }
+        retryScheduler.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * 기록의 감정분석을 요청합니다. 기존 감정 결과는 분석이 끝난 뒤 새 결과로 교체됩니다.
+     *
+     * @param record 분석할 기록 (저장되어 ID가 있어야 함)
+     * @return 요청 직후의 분석 상태 (PENDING, 큐가 가득 찬 경우 FAILED)
+     */
+    public AnalysisStatus submit(Record record) {
+        AnalysisState state = new AnalysisState();
+        states.put(record.getId(), state);
+        submitted.incrementAndGet();
+
+        if (!queue.offer(new AnalysisTask(record, state, 1))) {
+            rejected.incrementAndGet();
+            log.warn("감정분석 큐가 가득 참 - 기록 ID: {}", record.getId());
+            state.finish(AnalysisStatus.FAILED);
+        }
+        return state.status;
+    }
+
+    /**
+     * 기록의 감정분석 상태를 조회합니다.
+     * (서버 재시작 이후 분석 요청이 없었거나 끝난 지 TTL이 지난 기록은 empty)
+     */
+    public Optional<AnalysisStatus> getStatus(Long recordId) {
+        AnalysisState state = states.get(recordId);
+        return state != null ? Optional.of(state.status) : Optional.empty();
+    }
+
+    /**
+     * 기록 삭제 시 대기 중이거나 진행 중인 분석 결과가 저장되지 않도록 취소합니다.
+     * 반환 시점 이후에는 해당 기록의 감정 결과가 새로 저장되지 않습니다.
+     */
+    public void cancel(Long recordId) {
+        synchronized (lockFor(recordId)) {
+            AnalysisState state = states.remove(recordId);
+            if (state != null) {
+                state.cancelled = true;
+            }
+        }
+    }
+
+    /**
+     * 끝난 지 TTL이 지난 작업 상태를 제거합니다. 그 사이 새 작업이 제출된 기록은 건드리지 않습니다.
+     *
+     * @param now 기준 시각 (epoch millis)
+     * @return 제거한 상태 수
+     */
+    int evictFinished(long now) {
+        int removed = 0;
+        for (Map.Entry<Long, AnalysisState> entry : states.entrySet()) {
+            AnalysisState state = entry.getValue();
+            if (state.finishedAt > 0 && now - state.finishedAt >= finishedStateTtlMs
+                    && states.remove(entry.getKey(), state)) {
+                removed++;
+            }
+        }
+        evicted.addAndGet(removed);
+        return removed;
+    }
+
+    @Override
+    public String getStatsName() {
+        return "emotion.pipeline";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("workers", workerCount);
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("queueSize", queue != null ? queue.size() : 0);
+        stats.put("trackedStates", states.size());
+        stats.put("submitted", submitted.get());
+        stats.put("completed", completed.get());
+        stats.put("retried", retried.get());
+        stats.put("failed", failed.get());
+        stats.put("rejected", rejected.get());
+        stats.put("superseded", superseded.get());
+        stats.put("evictedStates", evicted.get());
+        stats.put("backfilled", backfilled.get());
+        return stats;
+    }
+
+    /**
+     * 저장된 기록 중 감정 결과가 없는 기록을 찾아 PENDING 상태로 등록합니다. (이전 실행에서 큐에 남았거나 실패한 기록)
+     */
+    private List<AnalysisTask> findUnanalyzed() {
+        List<AnalysisTask> tasks = new ArrayList<>();
+        for (Record record : recordRepository.findAll()) {
+            if (!emotionRepository.findByRecordId(record.getId()).isEmpty()) {
+                continue;
+            }
+            AnalysisState state = new AnalysisState();
+            if (states.putIfAbsent(record.getId(), state) == null) {
+                tasks.add(new AnalysisTask(record, state, 1));
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * 다시 분석할 작업을 큐에 자리가 날 때마다 넣습니다. 그 사이 새로 제출된 기록의 작업은 처리 시 건너뜁니다.
+     */
+    private void enqueueAll(List<AnalysisTask> tasks) {
+        try {
+            for (AnalysisTask task : tasks) {
+                if (!running) {
+                    return;
+                }
+                queue.put(task);
+                backfilled.incrementAndGet();
+            }
+            log.info("감정 결과가 없는 기록 재분석 요청 완료 - {}건", tasks.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void workLoop() {
+        while (running) {
+            try {
+                process(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("감정분석 워커 오류", e);
+            }
+        }
+    }
+
+    private void process(AnalysisTask task) {
+        Long recordId = task.record().getId();
+        if (!isCurrent(task)) {
+            superseded.incrementAndGet();
+            return;
+        }
+
+        EmotionResult result;
+        try {
+            result = emotionAnalysisService.analyzeText(task.record().getContent());
+        } catch (Exception e) {
+            handleFailure(task, e);
+            return;
+        }
+
+        synchronized (lockFor(recordId)) {
+            if (!isCurrent(task)) {
+                superseded.incrementAndGet();
+                return;
+            }
+            emotionRepository.deleteByRecordId(recordId);
+            emotionAnalysisService.saveRecordEmotion(task.record(), result);
+            task.state().finish(AnalysisStatus.DONE);
+        }
+        completed.incrementAndGet();
+    }
+
+    private void handleFailure(AnalysisTask task, Exception e) {
+        Long recordId = task.record().getId();
+        if (task.attempt() >= maxAttempts || !running) {
+            failed.incrementAndGet();
+            task.state().finish(AnalysisStatus.FAILED);
+            log.error("감정분석 최종 실패 - 기록 ID: {}, 시도 횟수: {}", recordId, task.attempt(), e);
+            return;
+        }
+
+        long backoff = Math.min(maxBackoffMs, initialBackoffMs << (task.attempt() - 1));
+        retried.incrementAndGet();
+        log.warn("감정분석 실패, {}ms 후 재시도 - 기록 ID: {}, 시도 횟수: {}, 원인: {}",
+                backoff, recordId, task.attempt(), e.getMessage());
+
+        AnalysisTask retry = new AnalysisTask(task.record(), task.state(), task.attempt() + 1);
+        retryScheduler.schedule(() -> {
+            if (!queue.offer(retry)) {
+                rejected.incrementAndGet();
+                task.state().finish(AnalysisStatus.FAILED);
+                log.warn("재시도 작업을 큐에 넣지 못함 - 기록 ID: {}", recordId);
+            }
+        }, backoff, TimeUnit.MILLISECONDS);
+    }
+
+    private Object lockFor(Long recordId) {
+        return recordLocks[(int) Math.floorMod(recordId, (long) recordLocks.length)];
+    }
+
+    private boolean isCurrent(AnalysisTask task) {
+        return !task.state().cancelled && states.get(task.record().getId()) == task.state();
+    }
+
+    /**
+     * 한 번의 분석 요청에 대한 상태 (같은 기록에 새 요청이 오면 새 객체로 교체됨)
+     */
+    private static final class AnalysisState {
+        private volatile AnalysisStatus status = AnalysisStatus.PENDING;
+        private volatile boolean cancelled;
+        private volatile long finishedAt;
+
+        void finish(AnalysisStatus terminal) {
+            status = terminal;
+            finishedAt = System.currentTimeMillis();
+        }
+    }
+
+    private record AnalysisTask(Record record, AnalysisState state, int attempt) {}
+}
@@ -4,28 +4,34 @@ import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.web.client.RestTemplate;
-import java.util.HashMap;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.inforecord.Entity.Emotion;
 import com.inforecord.Entity.Record;
 import com.inforecord.dto.EmotionDto;
+import com.inforecord.model.EmotionResult;
+import com.inforecord.model.EmotionTotals;
+import com.inforecord.model.WeekPair;
 import com.inforecord.repository.EmotionRepository;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
 @Service
 public class EmotionAnalysisService {
     
@@ -38,119 +44,155 @@ public class EmotionAnalysisService {
     @Autowired
     private ObjectMapper objectMapper;
     
+    @Autowired
+    private EmotionBatcher emotionBatcher;
+    
+    @Autowired
+    private EmotionResultCache emotionResultCache;
+    
+    @Value("${emotion.weekly.concurrency:8}")
+    private int weeklyConcurrency;
+    
+    /**
+     * 주간 재분석용 스레드 풀 (동시에 진행되는 모델 호출 수를 weeklyConcurrency로 제한)
+     */
+    private ExecutorService weeklyAnalysisExecutor;
+    
+    @PostConstruct
+    public void startWeeklyExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        weeklyAnalysisExecutor = Executors.newFixedThreadPool(Math.max(1, weeklyConcurrency), runnable -> {
+            Thread thread = new Thread(runnable, "emotion-weekly-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    public void stopWeeklyExecutor() {
+        weeklyAnalysisExecutor.shutdownNow();
+    }
+    
     public void analyzeAndSaveEmotions(Record record) {
         try {
             log.info("감정 분석 시작 - 기록 ID: {}", record.getId());
-
-            // Flask REST API 호출
-            RestTemplate restTemplate = new RestTemplate();
-            String url = "http://localhost:5000/analyze";
-            Map<String, String> request = new HashMap<>();
-            request.put("text", record.getContent());
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, String>> entity = new HttpEntity<>(request, headers);
-            ResponseEntity<Map> response = restTemplate.postForEntity(url, entity, Map.class);
-            Map<String, Object> result = response.getBody();
-            if (result == null || !result.containsKey("emotion")) {
-                log.error("Flask 감정분석 결과가 비어있음: {}", result);
-                throw new RuntimeException("Flask 감정분석 결과가 비어있음");
-            }
-            String emotionType = (String) result.get("emotion");
-            Double intensity = result.get("confidence") != null ? Double.valueOf(result.get("confidence").toString()) / 100.0 : 0.0;
-            
-            // 주간 범위 계산 (월요일부터 일요일)
-            LocalDate recordDate = record.getRecordDate();
-            LocalDate weekStart = recordDate.minusDays(recordDate.getDayOfWeek().getValue() - 1);
-            LocalDate weekEnd = weekStart.plusDays(6);
-            
-            List<Emotion> emotions = new ArrayList<>();
-            Emotion emotion = new Emotion(record, emotionType, intensity);
-            emotion.setDate(recordDate); // 기록 날짜로 설정
-            emotion.setWeekStart(weekStart); // 주간 시작일 설정
-            emotion.setWeekEnd(weekEnd); // 주간 종료일 설정
-            emotions.add(emotion);
-            
-            // 감정 분석 결과 저장
-            emotionRepository.saveAll(emotions);
-            log.info("감정 분석 완료 - 기록 ID: {}, 감정: {} ({}%), 주간: {} ~ {}", 
-                    record.getId(), emotionType, intensity * 100, weekStart, weekEnd);
+            EmotionResult result = analyzeText(record.getContent());
+            saveRecordEmotion(record, result);
         } catch (Exception e) {
             log.error("감정 분석 중 오류 발생 - 기록 ID: {}", record.getId(), e);
             throw new RuntimeException("감정 분석에 실패했습니다", e);
         }
     }
+
+    /**
+     * Flask 감정분석 모델로 텍스트 하나를 분석합니다.
+     * 같은 내용의 분석 결과가 캐시에 있으면 모델을 호출하지 않고 재사용하며,
+     * 그렇지 않으면 동시에 들어온 다른 분석 요청과 묶여 한 번의 배치 호출로 처리됩니다.
+     *
+     * @param text 분석할 텍스트
+     * @return 감정 분석 결과
+     * @throws RuntimeException 모델 응답이 비어있는 경우
+     */
+    public EmotionResult analyzeText(String text) {
+        EmotionResult cached = emotionResultCache.get(text);
+        if (cached != null) {
+            log.debug("감정분석 캐시 적중 - 감정: {}", cached.emotionType());
+            return cached;
+        }
+        
+        // Flask REST API 호출 (동시 요청과 함께 배치로 전송)
+        EmotionResult result = emotionBatcher.analyze(text);
+        emotionResultCache.put(text, result);
+        return result;
+    }
+
+    /**
+     * 기록에 대한 감정 분석 결과를 저장합니다.
+     *
+     * @param record 분석한 기록
+     * @param result 감정 분석 결과
+     */
+    public void saveRecordEmotion(Record record, EmotionResult result) {
+        // 주간 범위 계산 (월요일부터 일요일)
+        LocalDate recordDate = record.getRecordDate();
+        LocalDate weekStart = recordDate.minusDays(recordDate.getDayOfWeek().getValue() - 1);
+        LocalDate weekEnd = weekStart.plusDays(6);
+
+        List<Emotion> emotions = new ArrayList<>();
+        Emotion emotion = new Emotion(record, result.emotionType(), result.intensity());
+        emotion.setDate(recordDate); // 기록 날짜로 설정
+        emotion.setWeekStart(weekStart); // 주간 시작일 설정
+        emotion.setWeekEnd(weekEnd); // 주간 종료일 설정
+        emotions.add(emotion);
+
+        // 감정 분석 결과 저장
+        emotionRepository.saveAll(emotions);
+        log.info("감정 분석 완료 - 기록 ID: {}, 감정: {} ({}%), 주간: {} ~ {}",
+                record.getId(), result.emotionType(), result.intensity() * 100, weekStart, weekEnd);
+    }
     
     public List<EmotionDto> getWeeklyEmotionSummary(String userId, String startDate, String endDate) {
         LocalDate start = startDate != null ? LocalDate.parse(startDate) : LocalDate.now().minusDays(7);
         LocalDate end = endDate != null ? LocalDate.parse(endDate) : LocalDate.now();
         
-        // 주간 감정 데이터 조회 (weekStart와 weekEnd 필드 사용)
-        List<Emotion> emotions = emotionRepository.findEmotionsByUserIdAndWeekRange(userId, start, end);
+        // 주간 감정 집계 조회 (감정 데이터를 훑지 않고 일/주 단위 집계를 합산)
+        List<EmotionTotals> totals = emotionRepository.sumByUserIdAndDateRange(userId, start, end);
         
-        log.debug("주간 감정 데이터 조회 - 사용자: {}, 기간: {} ~ {}, 조회된 데이터 수: {}", userId, start, end, emotions.size());
+        log.debug("주간 감정 집계 조회 - 사용자: {}, 기간: {} ~ {}, 감정 종류 수: {}", userId, start, end, totals.size());
         
-        if (emotions.isEmpty()) {
+        if (totals.isEmpty()) {
             log.info("주간 감정 데이터가 없음 - 사용자: {}, 기간: {} ~ {}", userId, start, end);
             return new ArrayList<>();
         }
         
-        // 감정별 그룹화 및 비율 계산
-        Map<String, List<Emotion>> emotionGroups = emotions.stream()
-            .collect(Collectors.groupingBy(Emotion::getEmotionType));
-        
-        double totalIntensity = emotions.stream()
-            .mapToDouble(Emotion::getIntensity)
-            .sum();
-        
-        List<EmotionDto> result = emotionGroups.entrySet().stream()
-            .map(entry -> {
-                String emotionType = entry.getKey();
-                double avgIntensity = entry.getValue().stream()
-                    .mapToDouble(Emotion::getIntensity)
-                    .average()
-                    .orElse(0.0);
-                double percentage = totalIntensity > 0 ? (entry.getValue().stream()
-                    .mapToDouble(Emotion::getIntensity)
-                    .sum() / totalIntensity) * 100 : 0.0;
-                
-                EmotionDto dto = new EmotionDto(emotionType, avgIntensity, percentage);
-                log.debug("감정 분석 결과 - 타입: {}, 강도: {}, 비율: {}", emotionType, avgIntensity, percentage);
-                return dto;
-            })
-            .sorted((a, b) -> Double.compare(b.getPercentage(), a.getPercentage()))
-            .collect(Collectors.toList());
-        
+        List<EmotionDto> result = toEmotionSummary(totals);
         log.info("주간 감정 분석 결과 - 사용자: {}, 결과 수: {}", userId, result.size());
         return result;
     }
     
+    /**
+     * 비교 기간과 이번 기간(연속된 두 기간)의 감정 요약을 한 번의 집계 조회로 구합니다.
+     */
+    public WeekPair<EmotionDto> getTwoWeekEmotionSummary(String userId, LocalDate previousStart, LocalDate currentStart, LocalDate currentEnd) {
+        // 종료일이 시작일보다 앞서면 이번 기간은 비어 있고 비교 기간만 조회
+        LocalDate windowEnd = currentEnd.isBefore(currentStart) ? currentStart.minusDays(1) : currentEnd;
+        WeekPair<EmotionTotals> totals = emotionRepository.sumByUserIdAndDateRangeSplit(userId, previousStart, currentStart, windowEnd);
+        log.debug("2주 감정 집계 조회 - 사용자: {}, 기간: {} ~ {} ~ {}, 감정 종류 수: {}/{}",
+                userId, previousStart, currentStart, currentEnd, totals.previous().size(), totals.current().size());
+        return new WeekPair<>(toEmotionSummary(totals.previous()), toEmotionSummary(totals.current()));
+    }
+    
     public List<EmotionDto> getDailyEmotionSummary(String userId) {
         LocalDate today = LocalDate.now();
         
-        List<Emotion> emotions = emotionRepository.findEmotionsByUserIdAndDateRange(
-            userId, today, today);
-        
-        // 감정별 그룹화 및 비율 계산
-        Map<String, List<Emotion>> emotionGroups = emotions.stream()
-            .collect(Collectors.groupingBy(Emotion::getEmotionType));
-        
-        double totalIntensity = emotions.stream()
-            .mapToDouble(Emotion::getIntensity)
+        return toEmotionSummary(emotionRepository.sumByUserIdAndDateRange(userId, today, today));
+    }
+    
+    /**
+     * 감정 집계와 전체 재계산 결과가 일치하는지 확인합니다.
+     */
+    public Map<String, Object> verifyEmotionAggregates() {
+        Map<String, Object> report = emotionRepository.verifyAggregates();
+        if (!Boolean.TRUE.equals(report.get("consistent"))) {
+            log.warn("감정 집계 불일치 발견 - {}", report.get("mismatches"));
+        }
+        return report;
+    }
+    
+    /**
+     * 감정 종류별 집계를 평균 강도와 비율(강도 합 기준)로 변환하고 비율 내림차순으로 정렬합니다.
+     */
+    private List<EmotionDto> toEmotionSummary(List<EmotionTotals> totals) {
+        double totalIntensity = totals.stream()
+            .mapToDouble(EmotionTotals::intensitySum)
             .sum();
         
-        return emotionGroups.entrySet().stream()
-            .map(entry -> {
-                String emotionType = entry.getKey();
-                double avgIntensity = entry.getValue().stream()
-                    .mapToDouble(Emotion::getIntensity)
-                    .average()
-                    .orElse(0.0);
-                double percentage = totalIntensity > 0 ? (entry.getValue().stream()
-                    .mapToDouble(Emotion::getIntensity)
-                    .sum() / totalIntensity) * 100 : 0.0;
-                
-                return new EmotionDto(emotionType, avgIntensity, percentage);
+        return totals.stream()
+            .map(total -> {
+                double avgIntensity = total.averageIntensity();
+                double percentage = totalIntensity > 0 ? (total.intensitySum() / totalIntensity) * 100 : 0.0;
+                log.debug("감정 분석 결과 - 타입: {}, 강도: {}, 비율: {}", total.emotionType(), avgIntensity, percentage);
+                return new EmotionDto(total.emotionType(), avgIntensity, percentage);
             })
             .sorted((a, b) -> Double.compare(b.getPercentage(), a.getPercentage()))
             .collect(Collectors.toList());
@@ -307,6 +349,8 @@ public class EmotionAnalysisService {
     /**
      * 주간 기록을 기반으로 감정분석을 수행하고 저장합니다.
      * 기존 주간 감정 데이터를 삭제하고 새로 분석합니다.
+     * 새 분석 결과가 저장된 주간 감정과 같으면(같은 날짜/감정/강도/주간 범위) 삭제/저장 없이 기존 데이터를 반환하므로,
+     * 리포트 화면을 다시 열어도 주간 리포트 캐시가 무효화되지 않습니다.
      * 
      * @param records 주간 기록 목록
      * @param userId 사용자 ID
@@ -318,37 +362,49 @@ public class EmotionAnalysisService {
         try {
             log.info("주간 감정분석 시작 - 사용자: {}, 기간: {} ~ {}, 기록 수: {}", userId, startDate, endDate, records.size());
             
-            // 기존 주간 감정 데이터 삭제
-            clearWeeklyEmotions(userId, startDate.toString(), endDate.toString());
-            
             if (records.isEmpty()) {
+                // 기존 주간 감정 데이터 삭제
+                clearWeeklyEmotions(userId, startDate.toString(), endDate.toString());
                 log.info("분석할 기록이 없음 - 사용자: {}", userId);
                 return new ArrayList<>();
             }
             
+            // 기록별 감정분석을 동시에 요청 (동시 요청은 배처가 한 번의 Flask 호출로 묶음)
+            List<CompletableFuture<EmotionResult>> analyses = records.stream()
+                .map(record -> CompletableFuture.supplyAsync(() -> analyzeText(record.getContent()), weeklyAnalysisExecutor))
+                .toList();
+            
+            // 기록 순서대로 결과 수집 (개별 실패는 해당 기록만 건너뜀)
+            List<Record> analyzedRecords = new ArrayList<>();
+            List<EmotionResult> results = new ArrayList<>();
+            for (int i = 0; i < records.size(); i++) {
+                try {
+                    results.add(analyses.get(i).join());
+                    analyzedRecords.add(records.get(i));
+                } catch (Exception e) {
+                    log.error("개별 기록 감정분석 실패 - 기록 ID: {}", records.get(i).getId(), e);
+                }
+            }
+            
+            // 저장된 주간 감정과 결과가 같으면 다시 쓰지 않음
+            List<Emotion> existing = emotionRepository.findEmotionsByUserIdAndDateRange(userId, startDate, endDate);
+            if (isSameWeeklyResult(existing, analyzedRecords, results, startDate, endDate)) {
+                log.info("주간 감정분석 결과 변경 없음 - 사용자: {}, 감정 수: {}", userId, existing.size());
+                return existing.stream().map(this::toWeeklyEmotionDto).collect(Collectors.toList());
+            }
+            
+            // 기존 주간 감정 데이터 삭제
+            clearWeeklyEmotions(userId, startDate.toString(), endDate.toString());
+            
             List<EmotionDto> emotionDtos = new ArrayList<>();
             
-            // 각 기록별로 개별 감정분석 수행
-            for (Record record : records) {
+            // 기록 순서대로 결과 저장
+            for (int i = 0; i < analyzedRecords.size(); i++) {
+                Record record = analyzedRecords.get(i);
                 try {
-                    // Flask REST API 호출
-                    RestTemplate restTemplate = new RestTemplate();
-                    String url = "http://localhost:5000/analyze";
-                    Map<String, String> request = new HashMap<>();
-                    request.put("text", record.getContent());
-                    HttpHeaders headers = new HttpHeaders();
-                    headers.setContentType(MediaType.APPLICATION_JSON);
-                    HttpEntity<Map<String, String>> entity = new HttpEntity<>(request, headers);
-                    ResponseEntity<Map> response = restTemplate.postForEntity(url, entity, Map.class);
-                    Map<String, Object> result = response.getBody();
-                    
-                    if (result == null || !result.containsKey("emotion")) {
-                        log.error("Flask 감정분석 결과가 비어있음: {}", result);
-                        continue;
-                    }
-                    
-                    String emotionType = (String) result.get("emotion");
-                    Double intensity = result.get("confidence") != null ? Double.valueOf(result.get("confidence").toString()) / 100.0 : 0.0;
+                    EmotionResult result = results.get(i);
+                    String emotionType = result.emotionType();
+                    Double intensity = result.intensity();
                     
                     // 주간 감정 데이터 생성 및 저장
                     Emotion weeklyEmotion = new Emotion();
@@ -362,21 +418,12 @@ public class EmotionAnalysisService {
                     Emotion savedEmotion = emotionRepository.save(weeklyEmotion);
                     
                     // DTO로 변환하여 리스트에 추가
-                    EmotionDto emotionDto = new EmotionDto();
-                    emotionDto.setId(savedEmotion.getId());
-                    emotionDto.setEmotionType(savedEmotion.getEmotionType());
-                    emotionDto.setIntensity(savedEmotion.getIntensity());
-                    emotionDto.setUserId(savedEmotion.getUserId());
-                    emotionDto.setDate(savedEmotion.getDate().toString());
-                    emotionDto.setWeekStart(savedEmotion.getWeekStart().toString());
-                    emotionDto.setWeekEnd(savedEmotion.getWeekEnd().toString());
-                    
-                    emotionDtos.add(emotionDto);
+                    emotionDtos.add(toWeeklyEmotionDto(savedEmotion));
                     
                     log.debug("기록별 감정분석 완료 - 기록 ID: {}, 감정: {} ({}%)", record.getId(), emotionType, intensity * 100);
                     
                 } catch (Exception e) {
-                    log.error("개별 기록 감정분석 실패 - 기록 ID: {}", record.getId(), e);
+                    log.error("개별 기록 감정 저장 실패 - 기록 ID: {}", record.getId(), e);
                 }
             }
             
@@ -389,4 +436,39 @@ public class EmotionAnalysisService {
             throw new RuntimeException("주간 감정분석에 실패했습니다", e);
         }
     }
+    
+    /**
+     * 저장된 주간 감정이 새 분석 결과와 같은지 비교합니다. (순서 무관, 같은 값이 여러 개면 개수까지 비교)
+     */
+    private boolean isSameWeeklyResult(List<Emotion> existing, List<Record> records, List<EmotionResult> results,
+                                       LocalDate startDate, LocalDate endDate) {
+        if (existing.size() != results.size()) {
+            return false;
+        }
+        Map<WeeklyEmotionKey, Long> expected = new HashMap<>();
+        for (int i = 0; i < results.size(); i++) {
+            WeeklyEmotionKey key = new WeeklyEmotionKey(records.get(i).getRecordDate(), results.get(i).emotionType(),
+                    results.get(i).intensity(), startDate, endDate);
+            expected.merge(key, 1L, Long::sum);
+        }
+        Map<WeeklyEmotionKey, Long> actual = existing.stream()
+            .collect(Collectors.groupingBy(
+                e -> new WeeklyEmotionKey(e.getDate(), e.getEmotionType(), e.getIntensity(), e.getWeekStart(), e.getWeekEnd()),
+                Collectors.counting()));
+        return expected.equals(actual);
+    }
+    
+    private record WeeklyEmotionKey(LocalDate date, String emotionType, Double intensity, LocalDate weekStart, LocalDate weekEnd) {}
+    
+    private EmotionDto toWeeklyEmotionDto(Emotion emotion) {
+        EmotionDto emotionDto = new EmotionDto();
+        emotionDto.setId(emotion.getId());
+        emotionDto.setEmotionType(emotion.getEmotionType());
+        emotionDto.setIntensity(emotion.getIntensity());
+        emotionDto.setUserId(emotion.getUserId());
+        emotionDto.setDate(emotion.getDate() != null ? emotion.getDate().toString() : null);
+        emotionDto.setWeekStart(emotion.getWeekStart() != null ? emotion.getWeekStart().toString() : null);
+        emotionDto.setWeekEnd(emotion.getWeekEnd() != null ? emotion.getWeekEnd().toString() : null);
+        return emotionDto;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,215 @@
+package com.inforecord.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.inforecord.metrics.StatsProvider;
+import com.inforecord.model.EmotionResult;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Flask 감정분석 모델 호출을 모아서 보내는 마이크로 배처
+ *
+ * 동시에 들어온 분석 요청을 최대 max-size개 또는 max-wait-ms 동안 모아
+ * EmotionModelClient를 통해 /analyze/batch 한 번으로 보내고, 결과를 각 요청자에게 돌려줍니다.
+ */
+@Service
+public class EmotionBatcher implements StatsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(EmotionBatcher.class);
+
+    private final EmotionModelClient emotionModelClient;
+
+    private final int maxBatchSize;
+    private final long maxWaitMs;
+    private final int maxInFlight;
+    private final long resultTimeoutMs;
+
+    private final BlockingQueue<PendingRequest> queue = new LinkedBlockingQueue<>();
+    private ExecutorService senders;
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    // 지표
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong itemCount = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong totalQueueWaitNanos = new AtomicLong();
+    private final AtomicLong totalBatchLatencyNanos = new AtomicLong();
+    private final LongAccumulator maxObservedBatch = new LongAccumulator(Math::max, 0);
+    private final long startedAtNanos = System.nanoTime();
+
+    public EmotionBatcher(EmotionModelClient emotionModelClient,
+                          @Value("${emotion.batch.max-size:16}") int maxBatchSize,
+                          @Value("${emotion.batch.max-wait-ms:10}") long maxWaitMs,
+                          @Value("${emotion.batch.max-in-flight:2}") int maxInFlight,
+                          @Value("${emotion.batch.result-timeout-ms:30000}") long resultTimeoutMs) {
+        this.emotionModelClient = emotionModelClient;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitMs = maxWaitMs;
+        this.maxInFlight = maxInFlight;
+        this.resultTimeoutMs = resultTimeoutMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        senders = Executors.newFixedThreadPool(maxInFlight, runnable -> {
+            Thread thread = new Thread(runnable, "emotion-batch-sender-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "emotion-batch-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        dispatcher.interrupt();
+        senders.shutdownNow();
+    }
+
+    /**
+     * 텍스트 하나의 감정분석을 요청합니다. 결과는 다른 요청과 함께 배치로 처리됩니다.
+     */
+    public CompletableFuture<EmotionResult> submit(String text) {
+        PendingRequest request = new PendingRequest(text, System.nanoTime(), new CompletableFuture<>());
+        queue.add(request);
+        return request.future();
+    }
+
+    /**
+     * 텍스트 하나를 분석하고 결과가 나올 때까지 대기합니다.
+     *
+     * @throws RuntimeException 모델 호출 실패 또는 시간 초과
+     */
+    public EmotionResult analyze(String text) {
+        try {
+            return submit(text).get(resultTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("감정분석 대기 중 인터럽트되었습니다", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("감정분석에 실패했습니다", cause);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("감정분석 응답 시간이 초과되었습니다", e);
+        }
+    }
+
+    @Override
+    public String getStatsName() {
+        return "emotion.batch";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long batches = batchCount.get();
+        long items = itemCount.get();
+        double elapsedSeconds = Math.max(1e-9, (System.nanoTime() - startedAtNanos) / 1e9);
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxBatchSize", maxBatchSize);
+        stats.put("maxWaitMs", maxWaitMs);
+        stats.put("queued", queue.size());
+        stats.put("batches", batches);
+        stats.put("items", items);
+        stats.put("failedBatches", failedBatches.get());
+        stats.put("avgBatchSize", batches > 0 ? (double) items / batches : 0.0);
+        stats.put("maxObservedBatchSize", maxObservedBatch.get());
+        stats.put("avgQueueWaitMs", items > 0 ? totalQueueWaitNanos.get() / 1e6 / items : 0.0);
+        stats.put("avgBatchLatencyMs", batches > 0 ? totalBatchLatencyNanos.get() / 1e6 / batches : 0.0);
+        stats.put("itemsPerSecond", items / elapsedSeconds);
+        return stats;
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                PendingRequest first = queue.take();
+                List<PendingRequest> batch = new ArrayList<>(maxBatchSize);
+                batch.add(first);
+
+                // 첫 요청 기준 max-wait-ms 안에 들어온 요청을 최대 max-size까지 모음
+                long deadline = first.enqueuedAtNanos() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingRequest next = remaining > 0
+                        ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                        : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                senders.execute(() -> send(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("감정분석 배치 구성 중 오류", e);
+            }
+        }
+    }
+
+    private void send(List<PendingRequest> batch) {
+        long sentAt = System.nanoTime();
+        for (PendingRequest request : batch) {
+            totalQueueWaitNanos.addAndGet(sentAt - request.enqueuedAtNanos());
+        }
+        try {
+            List<EmotionResult> results = emotionModelClient.analyzeBatch(batch.stream().map(PendingRequest::text).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                EmotionResult result = results.get(i);
+                if (result != null) {
+                    batch.get(i).future().complete(result);
+                } else {
+                    batch.get(i).future().completeExceptionally(new RuntimeException("Flask 감정분석 결과가 비어있음"));
+                }
+            }
+        } catch (Exception e) {
+            failedBatches.incrementAndGet();
+            if (e instanceof IllegalStateException) {
+                // 서킷 오픈 / bulkhead 초과로 즉시 실패한 경우
+                log.warn("감정분석 배치 요청 거절 - 크기: {}, 원인: {}", batch.size(), e.getMessage());
+            } else {
+                log.error("감정분석 배치 요청 실패 - 크기: {}", batch.size(), e);
+            }
+            for (PendingRequest request : batch) {
+                request.future().completeExceptionally(e);
+            }
+        } finally {
+            batchCount.incrementAndGet();
+            itemCount.addAndGet(batch.size());
+            maxObservedBatch.accumulate(batch.size());
+            totalBatchLatencyNanos.addAndGet(System.nanoTime() - sentAt);
+        }
+    }
+
+    private record PendingRequest(String text, long enqueuedAtNanos, CompletableFuture<EmotionResult> future) {}
+}
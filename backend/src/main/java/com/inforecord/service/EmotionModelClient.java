@@ -0,0 +1,171 @@
+package com.inforecord.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.inforecord.metrics.StatsProvider;
+import com.inforecord.model.EmotionResult;
+
+/**
+ * Flask 감정분석 모델 호출 클라이언트
+ *
+ * 공유 HTTP 클라이언트(연결 재사용, 연결/응답 시간 제한) 위에
+ * 동시 호출 수를 제한하는 bulkhead와 서킷 브레이커를 둡니다.
+ * 모델이 느리거나 내려가 있으면 대기하지 않고 즉시 실패합니다.
+ */
+@Service
+public class EmotionModelClient implements StatsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(EmotionModelClient.class);
+
+    private final RestTemplate restTemplate;
+    private final String modelUrl;
+    private final long bulkheadWaitMs;
+    private final int maxConnections;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+
+    // 지표
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong shortCircuited = new AtomicLong();
+    private final AtomicLong bulkheadRejected = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+
+    public EmotionModelClient(@Qualifier("emotionModelRestTemplate") RestTemplate restTemplate,
+                              @Value("${emotion.model.url:http://localhost:5000}") String modelUrl,
+                              @Value("${emotion.model.max-connections:4}") int maxConnections,
+                              @Value("${emotion.model.bulkhead-wait-ms:100}") long bulkheadWaitMs,
+                              @Value("${emotion.model.circuit.failure-threshold:5}") int failureThreshold,
+                              @Value("${emotion.model.circuit.open-duration-ms:30000}") long openDurationMs) {
+        this.restTemplate = restTemplate;
+        this.modelUrl = modelUrl;
+        this.maxConnections = maxConnections;
+        this.bulkheadWaitMs = bulkheadWaitMs;
+        this.bulkhead = new Semaphore(maxConnections);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDurationMs);
+    }
+
+    /**
+     * Flask /analyze/batch 호출
+     *
+     * @return 입력 순서와 같은 순서의 결과 (개별 분석 실패는 null)
+     * @throws IllegalStateException 서킷이 열려 있거나 동시 호출 한도를 넘은 경우
+     */
+    public List<EmotionResult> analyzeBatch(List<String> texts) {
+        if (!circuitBreaker.tryAcquire()) {
+            shortCircuited.incrementAndGet();
+            throw new IllegalStateException("감정분석 모델 서킷이 열려 있어 호출하지 않음");
+        }
+        if (!acquireBulkhead()) {
+            circuitBreaker.onIgnored();
+            bulkheadRejected.incrementAndGet();
+            throw new IllegalStateException("감정분석 모델 동시 호출 한도 초과");
+        }
+
+        long startedAt = System.nanoTime();
+        calls.incrementAndGet();
+        try {
+            Map<String, Object> request = new HashMap<>();
+            request.put("texts", texts);
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
+            ResponseEntity<BatchResponse> response = restTemplate.postForEntity(modelUrl + "/analyze/batch", entity, BatchResponse.class);
+
+            BatchResponse body = response.getBody();
+            if (body == null || body.results() == null) {
+                throw new RuntimeException("Flask 배치 감정분석 결과가 비어있음: " + body);
+            }
+            List<BatchItem> items = body.results();
+            if (items.size() != texts.size()) {
+                throw new RuntimeException("Flask 배치 감정분석 결과 수가 요청 수와 다름: " + items.size() + " != " + texts.size());
+            }
+
+            List<EmotionResult> results = new ArrayList<>(items.size());
+            for (BatchItem item : items) {
+                if (item == null || item.emotion() == null) {
+                    results.add(null);
+                    continue;
+                }
+                double intensity = item.confidence() != null ? item.confidence() / 100.0 : 0.0;
+                results.add(new EmotionResult(item.emotion(), intensity, Boolean.TRUE.equals(item.fallback())));
+            }
+            circuitBreaker.onSuccess();
+            return results;
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            circuitBreaker.onFailure();
+            if (circuitBreaker.getState() == CircuitBreaker.State.OPEN) {
+                log.warn("감정분석 모델 호출 실패로 서킷이 열림 - 원인: {}", e.getMessage());
+            }
+            throw e;
+        } finally {
+            totalLatencyNanos.addAndGet(System.nanoTime() - startedAt);
+            bulkhead.release();
+        }
+    }
+
+    @Override
+    public String getStatsName() {
+        return "emotion.model";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long callCount = calls.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("circuitState", circuitBreaker.getState().name());
+        stats.put("circuitOpenCount", circuitBreaker.getOpenCount());
+        stats.put("maxConnections", maxConnections);
+        stats.put("inFlight", maxConnections - bulkhead.availablePermits());
+        stats.put("calls", callCount);
+        stats.put("failures", failures.get());
+        stats.put("shortCircuited", shortCircuited.get());
+        stats.put("bulkheadRejected", bulkheadRejected.get());
+        stats.put("avgLatencyMs", callCount > 0 ? totalLatencyNanos.get() / 1e6 / callCount : 0.0);
+        return stats;
+    }
+
+    private boolean acquireBulkhead() {
+        try {
+            return bulkhead.tryAcquire(bulkheadWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * /analyze/batch 응답 본문
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record BatchResponse(List<BatchItem> results) {}
+
+    /**
+     * 배치 응답의 텍스트별 결과 (빈 텍스트 등으로 분석하지 못한 항목은 emotion 없이 error만 담김)
+     *
+     * @param confidence 확신도 (0 ~ 100)
+     * @param fallback   모델 추론 실패로 기본값을 돌려준 경우 true
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record BatchItem(String emotion, Double confidence, String error, Boolean fallback) {}
+}
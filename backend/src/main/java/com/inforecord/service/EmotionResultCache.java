@@ -0,0 +1,142 @@
+package com.inforecord.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.inforecord.metrics.StatsProvider;
+import com.inforecord.model.EmotionResult;
+
+/**
+ * 감정분석 결과 캐시
+ *
+ * 정규화한 텍스트와 모델 버전의 SHA-256 해시를 키로 결과를 보관합니다.
+ * 같은 내용이 다시 분석 요청되면 Flask를 호출하지 않고 저장된 결과를 재사용하며,
+ * 크기 제한을 넘으면 가장 오래 사용되지 않은 항목부터 제거합니다(LRU).
+ * 모델 버전(emotion.model.version)을 바꾸면 이전 결과는 자연히 사용되지 않습니다.
+ * 모델 추론 실패로 받은 기본값(fallback) 결과는 저장하지 않아 다음 요청에서 다시 분석합니다.
+ */
+@Component
+public class EmotionResultCache implements StatsProvider {
+
+    private final String modelVersion;
+    private final int maxEntries;
+    private final LinkedHashMap<String, EmotionResult> entries;
+
+    // 지표
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong skippedFallbacks = new AtomicLong();
+
+    public EmotionResultCache(@Value("${emotion.model.version:v1}") String modelVersion,
+                              @Value("${emotion.cache.max-entries:10000}") int maxEntries) {
+        this.modelVersion = modelVersion;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, EmotionResult> eldest) {
+                if (size() > EmotionResultCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 캐시된 분석 결과를 조회합니다. (없으면 null)
+     */
+    public EmotionResult get(String text) {
+        EmotionResult result;
+        String key = keyOf(text);
+        synchronized (entries) {
+            result = entries.get(key);
+        }
+        (result != null ? hits : misses).incrementAndGet();
+        return result;
+    }
+
+    /**
+     * 분석 결과가 캐시에 있는지 확인합니다. (적중/실패 지표와 LRU 순서에 영향 없음)
+     */
+    public boolean contains(String text) {
+        String key = keyOf(text);
+        synchronized (entries) {
+            return entries.containsKey(key);
+        }
+    }
+
+    public void put(String text, EmotionResult result) {
+        if (result == null || maxEntries <= 0) {
+            return;
+        }
+        if (result.fallback()) {
+            skippedFallbacks.incrementAndGet();
+            return;
+        }
+        String key = keyOf(text);
+        synchronized (entries) {
+            entries.put(key, result);
+        }
+    }
+
+    /**
+     * 캐시 키 계산에 사용하는 텍스트 정규화 (유니코드 NFC, 앞뒤 공백 제거, 연속 공백을 하나로)
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFC).strip().replaceAll("\\s+", " ");
+    }
+
+    @Override
+    public String getStatsName() {
+        return "emotion.cache";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get();
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("modelVersion", modelVersion);
+        stats.put("size", size);
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hitCount);
+        stats.put("misses", lookups - hitCount);
+        stats.put("evictions", evictions.get());
+        stats.put("skippedFallbacks", skippedFallbacks.get());
+        stats.put("hitRatio", lookups > 0 ? (double) hitCount / lookups : 0.0);
+        return stats;
+    }
+
+    /**
+     * 모델 버전과 정규화한 텍스트로 만든 캐시 키
+     */
+    String keyOf(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(modelVersion.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(normalize(text).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다", e);
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.inforecord.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.inforecord.Entity.Emotion;
+import com.inforecord.dto.EmotionTrendDto;
+import com.inforecord.metrics.StatsProvider;
+import com.inforecord.repository.EmotionRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 여러 주에 걸친 감정 추이 계산
+ *
+ * 주는 week-start 요일부터 7일이며, 주간 리포트 사전 계산과 같은 설정(analysis.precompute.week-start)을 사용합니다.
+ * 기간의 감정을 한 번의 기간 조회로 가져와 주 단위로 모은 기본형 배열로 바꾼 뒤,
+ * 주 구간을 fork/join으로 나눠 병렬로 주별 감정 종류별 개수/강도 합을 구합니다.
+ * 각 구간은 자기 주의 칸에만 쓰고, 구간 합계는 더하기로 합치므로 나누는 방식과 관계없이 결과가 같습니다.
+ * 조회 기간은 max-weeks로 제한되어 기록이 몇 년치 있어도 요청 비용은 요청한 주 수에 비례합니다.
+ */
+@Service
+public class EmotionTrendService implements StatsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(EmotionTrendService.class);
+
+    private final EmotionRepository emotionRepository;
+    private final int maxWeeks;
+    private final int leafWeeks;
+    private final DayOfWeek weekStart;
+    private final ForkJoinPool pool;
+
+    // 지표
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong weeksComputed = new AtomicLong();
+    private final AtomicLong emotionsScanned = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    public EmotionTrendService(EmotionRepository emotionRepository,
+                               @Value("${analysis.trend.max-weeks:260}") int maxWeeks,
+                               @Value("${analysis.trend.leaf-weeks:4}") int leafWeeks,
+                               @Value("${analysis.trend.parallelism:0}") int parallelism,
+                               @Value("${analysis.precompute.week-start:SUNDAY}") DayOfWeek weekStart) {
+        this.emotionRepository = emotionRepository;
+        this.maxWeeks = maxWeeks;
+        this.leafWeeks = Math.max(1, leafWeeks);
+        this.weekStart = weekStart;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * endDate가 속한 주까지 weeks개 주의 감정 추이를 계산합니다.
+     *
+     * @throws IllegalArgumentException weeks가 1~max-weeks 범위를 벗어난 경우
+     */
+    public EmotionTrendDto getTrend(String userId, LocalDate endDate, int weeks) {
+        if (weeks < 1 || weeks > maxWeeks) {
+            throw new IllegalArgumentException("주 수는 1~" + maxWeeks + " 사이여야 합니다: " + weeks);
+        }
+        long startedNanos = System.nanoTime();
+        LocalDate lastWeekStart = endDate.with(TemporalAdjusters.previousOrSame(weekStart));
+        LocalDate firstWeekStart = lastWeekStart.minusWeeks(weeks - 1);
+        LocalDate lastWeekEnd = lastWeekStart.plusDays(6);
+
+        List<Emotion> emotions = emotionRepository.findEmotionsByUserIdAndDateRange(userId, firstWeekStart, lastWeekEnd);
+        WeekColumns columns = WeekColumns.of(emotions, firstWeekStart, weeks);
+        WeekTotals totals = new WeekTotals(weeks, columns.typeNames.size());
+        WeekTotals.Partial overall = pool.invoke(new WeekRangeTask(columns, totals, 0, weeks, leafWeeks));
+        EmotionTrendDto trend = toDto(userId, firstWeekStart, lastWeekEnd, columns, totals, overall);
+
+        long elapsed = System.nanoTime() - startedNanos;
+        calls.incrementAndGet();
+        weeksComputed.addAndGet(weeks);
+        emotionsScanned.addAndGet(emotions.size());
+        totalNanos.addAndGet(elapsed);
+        log.debug("감정 추이 계산 - 사용자: {}, 기간: {} ~ {}, 주: {}, 감정 수: {}, {}us",
+                userId, firstWeekStart, lastWeekEnd, weeks, emotions.size(), elapsed / 1000);
+        return trend;
+    }
+
+    /**
+     * 주 단위로 모은 감정 열 (주 w의 행은 weekOffsets[w] ~ weekOffsets[w + 1] - 1)
+     */
+    static final class WeekColumns {
+        final List<String> typeNames = new ArrayList<>();
+        final int[] weekOffsets;
+        final int[] types;
+        final double[] intensities;
+
+        private WeekColumns(int weeks, int rows) {
+            weekOffsets = new int[weeks + 1];
+            types = new int[rows];
+            intensities = new double[rows];
+        }
+
+        /**
+         * 주 번호 기준 계수 정렬로 감정을 주별로 모읍니다. (감정 종류가 없는 데이터는 집계와 같이 제외, 강도가 없으면 0)
+         */
+        static WeekColumns of(List<Emotion> emotions, LocalDate firstWeekStart, int weeks) {
+            long firstDay = firstWeekStart.toEpochDay();
+            int[] weekOf = new int[emotions.size()];
+            int rows = 0;
+            for (int i = 0; i < emotions.size(); i++) {
+                Emotion emotion = emotions.get(i);
+                long offset = emotion.getDate() != null ? emotion.getDate().toEpochDay() - firstDay : -1;
+                weekOf[i] = offset >= 0 && offset < weeks * 7L && emotion.getEmotionType() != null ? (int) (offset / 7) : -1;
+                if (weekOf[i] >= 0) {
+                    rows++;
+                }
+            }
+
+            WeekColumns columns = new WeekColumns(weeks, rows);
+            for (int week : weekOf) {
+                if (week >= 0) {
+                    columns.weekOffsets[week + 1]++;
+                }
+            }
+            for (int w = 0; w < weeks; w++) {
+                columns.weekOffsets[w + 1] += columns.weekOffsets[w];
+            }
+
+            Map<String, Integer> typeCodes = new HashMap<>();
+            int[] next = columns.weekOffsets.clone();
+            for (int i = 0; i < emotions.size(); i++) {
+                if (weekOf[i] < 0) {
+                    continue;
+                }
+                Emotion emotion = emotions.get(i);
+                int row = next[weekOf[i]]++;
+                columns.types[row] = typeCodes.computeIfAbsent(emotion.getEmotionType(), type -> {
+                    columns.typeNames.add(type);
+                    return columns.typeNames.size() - 1;
+                });
+                columns.intensities[row] = emotion.getIntensity() != null ? emotion.getIntensity() : 0.0;
+            }
+            return columns;
+        }
+    }
+
+    /**
+     * 주별 감정 종류별 개수/강도 합 (주 w, 종류 t의 칸은 w * typeCount + t)
+     * 작업마다 서로 다른 주의 칸에만 쓰므로 잠금이 필요 없습니다.
+     */
+    static final class WeekTotals {
+        final int typeCount;
+        final long[] counts;
+        final double[] sums;
+
+        WeekTotals(int weeks, int typeCount) {
+            this.typeCount = typeCount;
+            this.counts = new long[weeks * typeCount];
+            this.sums = new double[weeks * typeCount];
+        }
+
+        /**
+         * 연속된 주 구간의 감정 종류별 합계 (merge는 결합 법칙을 만족)
+         */
+        static final class Partial {
+            final long[] counts;
+            final double[] sums;
+
+            Partial(int typeCount) {
+                counts = new long[typeCount];
+                sums = new double[typeCount];
+            }
+
+            Partial merge(Partial other) {
+                for (int t = 0; t < counts.length; t++) {
+                    counts[t] += other.counts[t];
+                    sums[t] += other.sums[t];
+                }
+                return this;
+            }
+        }
+    }
+
+    /**
+     * [fromWeek, toWeek) 주 구간을 leafWeeks 이하가 될 때까지 반으로 나눠 계산합니다.
+     */
+    static final class WeekRangeTask extends RecursiveTask<WeekTotals.Partial> {
+        private static final long serialVersionUID = 1L;
+
+        private final WeekColumns columns;
+        private final WeekTotals totals;
+        private final int fromWeek;
+        private final int toWeek;
+        private final int leafWeeks;
+
+        WeekRangeTask(WeekColumns columns, WeekTotals totals, int fromWeek, int toWeek, int leafWeeks) {
+            this.columns = columns;
+            this.totals = totals;
+            this.fromWeek = fromWeek;
+            this.toWeek = toWeek;
+            this.leafWeeks = leafWeeks;
+        }
+
+        @Override
+        protected WeekTotals.Partial compute() {
+            if (toWeek - fromWeek <= leafWeeks) {
+                return computeLeaf();
+            }
+            int middle = (fromWeek + toWeek) >>> 1;
+            WeekRangeTask left = new WeekRangeTask(columns, totals, fromWeek, middle, leafWeeks);
+            WeekRangeTask right = new WeekRangeTask(columns, totals, middle, toWeek, leafWeeks);
+            left.fork();
+            WeekTotals.Partial rightResult = right.compute();
+            return left.join().merge(rightResult);
+        }
+
+        private WeekTotals.Partial computeLeaf() {
+            int typeCount = totals.typeCount;
+            WeekTotals.Partial partial = new WeekTotals.Partial(typeCount);
+            for (int w = fromWeek; w < toWeek; w++) {
+                int base = w * typeCount;
+                for (int row = columns.weekOffsets[w]; row < columns.weekOffsets[w + 1]; row++) {
+                    int type = columns.types[row];
+                    double intensity = columns.intensities[row];
+                    totals.counts[base + type]++;
+                    totals.sums[base + type] += intensity;
+                    partial.counts[type]++;
+                    partial.sums[type] += intensity;
+                }
+            }
+            return partial;
+        }
+    }
+
+    private EmotionTrendDto toDto(String userId, LocalDate firstWeekStart, LocalDate lastWeekEnd,
+                                  WeekColumns columns, WeekTotals totals, WeekTotals.Partial overall) {
+        int typeCount = totals.typeCount;
+        int weeks = columns.weekOffsets.length - 1;
+        List<EmotionTrendDto.Week> result = new ArrayList<>(weeks);
+        Map<String, Double> previous = null;
+        String previousDominant = null;
+        for (int w = 0; w < weeks; w++) {
+            long count = columns.weekOffsets[w + 1] - columns.weekOffsets[w];
+            Map<String, Double> distribution = distribution(columns.typeNames,
+                    Arrays.copyOfRange(totals.counts, w * typeCount, (w + 1) * typeCount),
+                    Arrays.copyOfRange(totals.sums, w * typeCount, (w + 1) * typeCount));
+            String dominant = distribution.isEmpty() ? null : distribution.keySet().iterator().next();
+
+            Map<String, Double> changes = new LinkedHashMap<>();
+            boolean dominantChanged = false;
+            if (previous != null && !previous.isEmpty() && !distribution.isEmpty()) {
+                Map<String, Double> deltas = new HashMap<>();
+                distribution.forEach((type, percentage) -> deltas.put(type, percentage));
+                previous.forEach((type, percentage) -> deltas.merge(type, -percentage, Double::sum));
+                deltas.entrySet().stream()
+                    .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                    .forEach(entry -> changes.put(entry.getKey(), entry.getValue()));
+                dominantChanged = !dominant.equals(previousDominant);
+            }
+
+            LocalDate weekStart = firstWeekStart.plusWeeks(w);
+            result.add(new EmotionTrendDto.Week(weekStart, weekStart.plusDays(6), count,
+                    distribution, dominant, changes, dominantChanged));
+            previous = distribution;
+            previousDominant = dominant;
+        }
+
+        Map<String, Double> overallDistribution = distribution(columns.typeNames, overall.counts, overall.sums);
+        String overallDominant = overallDistribution.isEmpty() ? null : overallDistribution.keySet().iterator().next();
+        return new EmotionTrendDto(userId, firstWeekStart, lastWeekEnd, overallDominant, overallDistribution, result);
+    }
+
+    /**
+     * 감정 종류별 강도 합의 비율(%)을 비율 내림차순으로 (데이터가 없는 종류는 제외)
+     */
+    private static Map<String, Double> distribution(List<String> typeNames, long[] counts, double[] sums) {
+        double totalIntensity = 0;
+        for (double sum : sums) {
+            totalIntensity += sum;
+        }
+        List<Map.Entry<String, Double>> entries = new ArrayList<>();
+        for (int t = 0; t < counts.length; t++) {
+            if (counts[t] > 0) {
+                entries.add(Map.entry(typeNames.get(t), totalIntensity > 0 ? sums[t] / totalIntensity * 100 : 0.0));
+            }
+        }
+        entries.sort(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder()));
+        Map<String, Double> distribution = new LinkedHashMap<>();
+        entries.forEach(entry -> distribution.put(entry.getKey(), entry.getValue()));
+        return distribution;
+    }
+
+    @Override
+    public String getStatsName() {
+        return "analysis.trend";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long callCount = calls.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("calls", callCount);
+        stats.put("weeksComputed", weeksComputed.get());
+        stats.put("emotionsScanned", emotionsScanned.get());
+        stats.put("avgDurationMs", callCount > 0 ? totalNanos.get() / 1_000_000.0 / callCount : 0.0);
+        stats.put("maxWeeks", maxWeeks);
+        stats.put("leafWeeks", leafWeeks);
+        stats.put("weekStart", weekStart.toString());
+        stats.put("parallelism", pool.getParallelism());
+        return stats;
+    }
+}
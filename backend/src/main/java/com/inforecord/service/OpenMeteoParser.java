@@ -0,0 +1,155 @@
+package com.inforecord.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.inforecord.model.OpenMeteoForecast;
+
+/**
+ * Open-Meteo 예보 응답 스트리밍 파서
+ *
+ * 응답 전체를 Map/List 트리로 만들지 않고 토큰을 순서대로 읽으며
+ * current, daily의 필요한 필드만 기본형으로 꺼냅니다. 나머지 필드(단위, 시각 등)와
+ * daily 배열의 두 번째 값부터는 값 객체를 만들지 않고 건너뜁니다.
+ * 여러 좌표를 한 번에 요청하면 Open-Meteo는 좌표 순서대로 객체 배열을 돌려줍니다.
+ */
+public final class OpenMeteoParser {
+
+    // JsonFactory는 스레드 안전하므로 공유
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private OpenMeteoParser() {
+    }
+
+    public static OpenMeteoForecast parse(byte[] body) {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalStateException("Open-Meteo 응답이 JSON 객체가 아닙니다");
+            }
+            return parseForecast(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Open-Meteo 응답 파싱 실패", e);
+        }
+    }
+
+    /**
+     * 여러 좌표 응답(객체 배열)을 요청한 좌표 순서대로 읽습니다. 좌표가 하나여서 객체 하나만 온 경우도 처리합니다.
+     */
+    static List<OpenMeteoForecast> parseAll(byte[] body) {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                return List.of(parseForecast(parser));
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new IllegalStateException("Open-Meteo 응답이 JSON 객체나 배열이 아닙니다");
+            }
+            List<OpenMeteoForecast> forecasts = new ArrayList<>();
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                forecasts.add(parseForecast(parser));
+            }
+            if (token != JsonToken.END_ARRAY) {
+                throw new IllegalStateException("Open-Meteo 응답 배열에 객체가 아닌 값이 있습니다");
+            }
+            return forecasts;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Open-Meteo 응답 파싱 실패", e);
+        }
+    }
+
+    /**
+     * START_OBJECT 다음부터 해당 객체의 END_OBJECT까지 읽습니다.
+     */
+    private static OpenMeteoForecast parseForecast(JsonParser parser) throws IOException {
+        OpenMeteoForecast.Current current = null;
+        OpenMeteoForecast.Daily daily = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("current".equals(field) && value == JsonToken.START_OBJECT) {
+                current = parseCurrent(parser);
+            } else if ("daily".equals(field) && value == JsonToken.START_OBJECT) {
+                daily = parseDaily(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (current == null || daily == null) {
+            throw new IllegalStateException("Open-Meteo 응답에 current 또는 daily 값이 없습니다");
+        }
+        return new OpenMeteoForecast(current, daily);
+    }
+
+    private static OpenMeteoForecast.Current parseCurrent(JsonParser parser) throws IOException {
+        double temperature = Double.NaN;
+        double humidity = 0.0;
+        double apparentTemperature = Double.NaN;
+        double precipitation = 0.0;
+        int weatherCode = -1;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "temperature_2m" -> temperature = parser.getValueAsDouble(Double.NaN);
+                case "relative_humidity_2m" -> humidity = parser.getValueAsDouble();
+                case "apparent_temperature" -> apparentTemperature = parser.getValueAsDouble(Double.NaN);
+                case "precipitation" -> precipitation = parser.getValueAsDouble();
+                case "weather_code" -> weatherCode = parser.getValueAsInt(-1);
+                default -> parser.skipChildren();
+            }
+        }
+        if (Double.isNaN(temperature) || weatherCode < 0) {
+            throw new IllegalStateException("Open-Meteo 응답에 현재 기온 또는 날씨 코드가 없습니다");
+        }
+        if (Double.isNaN(apparentTemperature)) {
+            apparentTemperature = temperature;
+        }
+        return new OpenMeteoForecast.Current(temperature, humidity, apparentTemperature, precipitation, weatherCode);
+    }
+
+    private static OpenMeteoForecast.Daily parseDaily(JsonParser parser) throws IOException {
+        double maxTemperature = Double.NaN;
+        double minTemperature = Double.NaN;
+        double weatherCode = Double.NaN;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "temperature_2m_max" -> maxTemperature = firstNumber(parser);
+                case "temperature_2m_min" -> minTemperature = firstNumber(parser);
+                case "weather_code" -> weatherCode = firstNumber(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        if (Double.isNaN(maxTemperature) || Double.isNaN(minTemperature)) {
+            throw new IllegalStateException("Open-Meteo 응답에 오늘 최고/최저 기온이 없습니다");
+        }
+        return new OpenMeteoForecast.Daily(maxTemperature, minTemperature,
+                Double.isNaN(weatherCode) ? -1 : (int) weatherCode);
+    }
+
+    /**
+     * 배열의 첫 값만 읽고 나머지는 건너뜁니다. (배열이 아니거나 비어 있으면 NaN)
+     */
+    private static double firstNumber(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return Double.NaN;
+        }
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.END_ARRAY) {
+            return Double.NaN;
+        }
+        double first = parser.getValueAsDouble(Double.NaN);
+        parser.skipChildren();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            parser.skipChildren();
+        }
+        return first;
+    }
+}
@@ -12,10 +12,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import org.springframework.beans.factory.annotation.Value;
 
 import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -27,11 +30,16 @@ public class PlaceService {
 
     private final PlaceRepository placeRepository;
     private final ImageStorageService imageStorageService;
+    private final PlaceSpatialIndex placeSpatialIndex;
 
     // 서버 URL 설정
     @Value("${server.url:http://localhost:8080}")
     private String serverUrl;
 
+    // 지도 화면 범위 조회 최대 개수
+    @Value("${places.viewport.max-results:1000}")
+    private int viewportMaxResults;
+
     // 날짜 포맷터
     private static final DateTimeFormatter DATE_FORMATTER =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
@@ -55,6 +63,7 @@ public class PlaceService {
                 .build();
 
         PlaceLog savedPlace = placeRepository.save(place);
+        afterCommit(() -> placeSpatialIndex.put(savedPlace));
         log.info("장소 저장 완료: ID={}", savedPlace.getId());
 
         // ID 반환
@@ -111,18 +120,41 @@ public class PlaceService {
 
         // DB에서 삭제
         placeRepository.delete(place);
+        afterCommit(() -> placeSpatialIndex.remove(id));
         log.info("장소 삭제 완료: id={}", id);
     }
 
+    // 공간 색인은 DB에 커밋된 뒤에만 갱신 (롤백되면 색인에 남지 않도록, 트랜잭션 밖이면 바로 실행)
+    private void afterCommit(Runnable indexUpdate) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            indexUpdate.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                indexUpdate.run();
+            }
+        });
+    }
+
+    // 지도 화면 범위 안의 장소 (공간 색인 사용, 최신순으로 최대 viewportMaxResults개)
+    public List<PlaceSummaryResponse> getPlaceSummariesInViewport(double minLat, double maxLat, double minLon, double maxLon) {
+        return placeSpatialIndex.findInBounds(minLat, maxLat, minLon, maxLon).stream()
+                .sorted(Comparator.comparing(PlaceSummaryResponse::getId).reversed())
+                .limit(viewportMaxResults)
+                .collect(Collectors.toList());
+    }
+
     // 검색 기능
     public List<PlaceSummaryResponse> searchPlacesByTitle(String title) {
         return placeRepository.findByPlaceTitleContaining(title).stream()
-                .map(this::toSummaryResponse)
+                .map(PlaceService::toSummaryResponse)
                 .collect(Collectors.toList());
     }
 
     // 변환 헬퍼 메서드
-    private PlaceSummaryResponse toSummaryResponse(PlaceLog place) {
+    static PlaceSummaryResponse toSummaryResponse(PlaceLog place) {
         return PlaceSummaryResponse.builder()
                 .id(place.getId())
                 .title(place.getPlaceTitle())
@@ -0,0 +1,98 @@
+package com.inforecord.service;
+
+import com.inforecord.Entity.PlaceLog;
+import com.inforecord.dto.PlaceSummaryResponse;
+import com.inforecord.geo.PointQuadTree;
+import com.inforecord.metrics.StatsProvider;
+import com.inforecord.repository.PlaceRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 장소 좌표 공간 색인 (지도 화면 범위 조회용)
+ *
+ * place_log의 위경도 BETWEEN 조회는 색인이 없어 테이블 전체를 훑으므로,
+ * 시작 시 모든 장소를 사분 트리에 올리고 PlaceService의 저장/삭제 때마다 함께 갱신합니다.
+ * 색인에는 지도 마커에 필요한 요약만 담습니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PlaceSpatialIndex implements StatsProvider {
+
+    private final PlaceRepository placeRepository;
+
+    private final PointQuadTree<PlaceSummaryResponse> tree = new PointQuadTree<>();
+
+    // 지표
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong returned = new AtomicLong();
+
+    @PostConstruct
+    public void load() {
+        int loaded = 0;
+        for (PlaceLog place : placeRepository.findAll()) {
+            if (put(place)) {
+                loaded++;
+            }
+        }
+        log.info("장소 공간 색인 로드 완료: {}건", loaded);
+    }
+
+    /**
+     * 장소를 색인에 추가하거나 바꿉니다. 좌표가 없거나 범위를 벗어나면 추가하지 않고 false
+     */
+    public boolean put(PlaceLog place) {
+        if (place.getId() == null || place.getLatitude() == null || place.getLongitude() == null) {
+            return false;
+        }
+        try {
+            tree.put(place.getId(), place.getLatitude(), place.getLongitude(), PlaceService.toSummaryResponse(place));
+            return true;
+        } catch (IllegalArgumentException e) {
+            log.warn("장소 좌표가 범위를 벗어나 색인하지 않음: id={}, {}", place.getId(), e.getMessage());
+            return false;
+        }
+    }
+
+    public void remove(Long id) {
+        if (id != null) {
+            tree.remove(id);
+        }
+    }
+
+    /**
+     * 범위(경계 포함) 안의 장소 요약 (순서 없음, minLon > maxLon이면 날짜 변경선을 넘는 범위)
+     *
+     * @throws IllegalArgumentException 좌표가 범위를 벗어나거나 minLat > maxLat인 경우
+     */
+    public List<PlaceSummaryResponse> findInBounds(double minLat, double maxLat, double minLon, double maxLon) {
+        List<PlaceSummaryResponse> places = tree.query(minLat, maxLat, minLon, maxLon);
+        queries.incrementAndGet();
+        returned.addAndGet(places.size());
+        return places;
+    }
+
+    @Override
+    public String getStatsName() {
+        return "places.spatial-index";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long queryCount = queries.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("places", tree.size());
+        stats.put("depth", tree.depth());
+        stats.put("queries", queryCount);
+        stats.put("avgResults", queryCount > 0 ? (double) returned.get() / queryCount : 0.0);
+        return stats;
+    }
+}
@@ -2,6 +2,7 @@ package com.inforecord.service;
 
 import java.time.LocalDate;
 import java.time.temporal.WeekFields;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
@@ -13,6 +14,8 @@ import org.springframework.stereotype.Service;
 
 import com.inforecord.Entity.Record;
 import com.inforecord.dto.RecordDto;
+import com.inforecord.model.AnalysisStatus;
+import com.inforecord.model.WeekPair;
 import com.inforecord.repository.RecordRepository;
 import com.inforecord.repository.EmotionRepository;
 
@@ -28,7 +31,7 @@ public class RecordService {
     
     private static final Logger log = LoggerFactory.getLogger(RecordService.class);
     private final RecordRepository recordRepository;
-    private final EmotionAnalysisService emotionAnalysisService;
+    private final EmotionAnalysisPipeline emotionAnalysisPipeline;
     private final EmotionRepository emotionRepository;
     
     /**
@@ -55,10 +58,12 @@ public class RecordService {
             Optional<Record> existingRecord = recordRepository.findByRecordDateAndUserId(date, userId);
             
             Record record;
+            boolean contentUnchanged = false;
             if (existingRecord.isPresent()) {
                 // 기존 기록 업데이트
                 record = existingRecord.get();
                 String oldContent = record.getContent();
+                contentUnchanged = isSameContent(oldContent, content);
                 record.setContent(content);
                 record.setWeatherDesc(weatherDesc);
                 record.setWeatherIcon(weatherIcon);
@@ -81,14 +86,8 @@ public class RecordService {
             record = recordRepository.save(record);
             log.debug("기록 저장 완료 - ID: {}", record.getId());
             
-            // 감정분석 자동 실행
-            try {
-                emotionAnalysisService.analyzeAndSaveEmotions(record);
-                log.debug("감정분석 완료 - 기록 ID: {}", record.getId());
-            } catch (Exception e) {
-                log.error("감정분석 실패 - 기록 ID: {}", record.getId(), e);
-                // 감정분석 실패해도 기록 저장은 성공으로 처리
-            }
+            // 감정분석 비동기 요청 (분석 완료를 기다리지 않고 반환, 실패해도 기록 저장은 성공으로 처리)
+            requestAnalysisIfNeeded(record, contentUnchanged);
             
             return convertToDto(record);
                 
@@ -136,8 +135,16 @@ public class RecordService {
                 throw new RuntimeException("해당 기록을 수정할 권한이 없습니다");
             }
             
+            // 다른 기록이 있는 날짜로는 옮길 수 없음 (저장된 기록 객체를 바꾸기 전에 확인)
+            Optional<Record> sameDayRecord = recordRepository.findByRecordDateAndUserId(date, userId);
+            if (sameDayRecord.isPresent() && !sameDayRecord.get().getId().equals(recordId)) {
+                log.warn("기록 수정 날짜 충돌 - ID: {}, 날짜: {}, 기존 기록 ID: {}", recordId, date, sameDayRecord.get().getId());
+                throw new IllegalStateException("같은 날짜에 이미 기록이 있습니다");
+            }
+            
             // 내용 업데이트
             String oldContent = record.getContent();
+            boolean contentUnchanged = isSameContent(oldContent, content) && date.equals(record.getRecordDate());
             record.setContent(content);
             record.setRecordDate(date);
             record.setWeatherDesc(weatherDesc);
@@ -153,22 +160,13 @@ public class RecordService {
             record = recordRepository.save(record);
             log.debug("기록 수정 완료 - ID: {}", record.getId());
             
-            // 이전 감정 데이터 삭제 후 새로운 감정분석 실행
-            try {
-                // 이전 감정 데이터 삭제
-                emotionRepository.deleteByRecordId(record.getId());
-                log.debug("이전 감정 데이터 삭제 완료 - 기록 ID: {}", record.getId());
-                
-                // 새로운 감정분석 실행
-                emotionAnalysisService.analyzeAndSaveEmotions(record);
-                log.debug("감정분석 완료 - 기록 ID: {}", record.getId());
-            } catch (Exception e) {
-                log.error("감정분석 실패 - 기록 ID: {}", record.getId(), e);
-                // 감정분석 실패해도 기록 수정은 성공으로 처리
-            }
+            // 새로운 감정분석 비동기 요청 (이전 감정 데이터는 분석 완료 시 교체됨)
+            requestAnalysisIfNeeded(record, contentUnchanged);
             
             return convertToDto(record);
             
+        } catch (IllegalStateException e) {
+            throw e;
         } catch (Exception e) {
             log.error("기록 수정 중 오류 발생 - ID: {}, 사용자: {}, 날짜: {}", recordId, userId, date, e);
             throw new RuntimeException("기록 수정에 실패했습니다", e);
@@ -200,6 +198,22 @@ public class RecordService {
             .map(this::convertToDto);
     }
     
+    /**
+     * 특정 기록의 감정분석 상태를 조회합니다.
+     * 서버 재시작 이후 분석 요청이 없었거나 분석이 끝난 지 오래된 기록은 저장된 감정 데이터 유무로 판단합니다.
+     * 
+     * @param recordId 기록 ID
+     * @param userId 사용자 ID
+     * @return 분석 상태 (기록이 없거나 권한이 없으면 empty)
+     */
+    public Optional<AnalysisStatus> getAnalysisStatus(Long recordId, String userId) {
+        return recordRepository.findById(recordId)
+            .filter(record -> record.getUserId().equals(userId))
+            .map(record -> emotionAnalysisPipeline.getStatus(recordId)
+                .orElseGet(() -> emotionRepository.findByRecordId(recordId).isEmpty()
+                    ? AnalysisStatus.FAILED : AnalysisStatus.DONE));
+    }
+    
     /**
      * 특정 ID의 기록을 삭제합니다.
      * 
@@ -228,8 +242,9 @@ public class RecordService {
                 return false;
             }
             
-            // 기록 삭제 전에 감정 데이터도 함께 삭제
+            // 기록 삭제 전에 진행 중인 감정분석을 취소하고 감정 데이터도 함께 삭제
             try {
+                emotionAnalysisPipeline.cancel(recordId);
                 emotionRepository.deleteByRecordId(recordId);
                 log.debug("감정 데이터 삭제 완료 - 기록 ID: {}", recordId);
             } catch (Exception e) {
@@ -267,6 +282,26 @@ public class RecordService {
             .collect(Collectors.toList());
     }
     
+    /**
+     * 비교 기간과 이번 기간(연속된 두 기간)의 기록을 한 번의 기간 조회로 가져와 나눕니다.
+     * 
+     * @param userId 사용자 ID
+     * @param previousStart 비교 기간 시작일
+     * @param currentStart 이번 기간 시작일 (비교 기간은 전날까지)
+     * @param currentEnd 이번 기간 종료일
+     * @return 기간별 기록 목록 (각각 날짜 순 정렬)
+     */
+    public WeekPair<RecordDto> getTwoWeekRecords(String userId, LocalDate previousStart, LocalDate currentStart, LocalDate currentEnd) {
+        // 종료일이 시작일보다 앞서면 이번 기간은 비어 있고 비교 기간만 조회
+        LocalDate windowEnd = currentEnd.isBefore(currentStart) ? currentStart.minusDays(1) : currentEnd;
+        List<RecordDto> previous = new ArrayList<>();
+        List<RecordDto> current = new ArrayList<>();
+        for (Record record : recordRepository.findByUserIdAndDateRange(userId, previousStart, windowEnd)) {
+            (record.getRecordDate().isBefore(currentStart) ? previous : current).add(convertToDto(record));
+        }
+        return new WeekPair<>(previous, current);
+    }
+    
     /**
      * 오늘 날짜의 기록을 조회합니다.
      * 
@@ -319,9 +354,35 @@ public class RecordService {
         dto.setWeatherDesc(record.getWeatherDesc());
         dto.setWeatherIcon(record.getWeatherIcon());
         dto.setWeatherTemp(record.getWeatherTemp());
+        dto.setAnalysisStatus(emotionAnalysisPipeline.getStatus(record.getId()).orElse(null));
         return dto;
     }
     
+    /**
+     * 기록의 감정분석을 요청합니다.
+     * 내용과 날짜가 바뀌지 않았고 기존 분석 결과가 있거나 분석이 진행 중이면 다시 분석하지 않습니다.
+     * 
+     * @param record 저장된 기록
+     * @param contentUnchanged 내용(정규화 기준)과 날짜가 이전과 같은지 여부
+     */
+    private void requestAnalysisIfNeeded(Record record, boolean contentUnchanged) {
+        if (contentUnchanged) {
+            boolean pending = emotionAnalysisPipeline.getStatus(record.getId())
+                .map(status -> status == AnalysisStatus.PENDING)
+                .orElse(false);
+            if (pending || !emotionRepository.findByRecordId(record.getId()).isEmpty()) {
+                log.debug("내용 변경 없음, 감정분석 생략 - 기록 ID: {}", record.getId());
+                return;
+            }
+        }
+        AnalysisStatus analysisStatus = emotionAnalysisPipeline.submit(record);
+        log.debug("감정분석 요청 - 기록 ID: {}, 상태: {}", record.getId(), analysisStatus);
+    }
+    
+    private boolean isSameContent(String oldContent, String newContent) {
+        return EmotionResultCache.normalize(oldContent).equals(EmotionResultCache.normalize(newContent));
+    }
+    
     /**
      * 입력값의 유효성을 검증합니다.
      * 
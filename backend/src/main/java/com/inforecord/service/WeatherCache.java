@@ -0,0 +1,279 @@
+package com.inforecord.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.inforecord.metrics.StatsProvider;
+
+/**
+ * 위경도 격자 단위 날씨 캐시
+ *
+ * 좌표를 grid-degrees 크기의 격자 칸으로 양자화해 같은 칸의 요청이 하나의 항목을 공유합니다.
+ * - ttl-ms 이내: 그대로 반환 (Open-Meteo 갱신 주기 약 15분)
+ * - ttl-ms ~ ttl-ms + stale-ms: 이전 값을 반환하면서 백그라운드 갱신을 한 번만 시작
+ * - 그 이후: 없는 것으로 보고 다시 조회
+ * 크기 제한을 넘으면 가장 오래 사용되지 않은 칸부터 제거합니다(LRU).
+ * 칸별 접근 횟수를 세어 두어 자주 쓰이는 칸을 만료 전에 미리 갱신(prefetch)할 수 있게 합니다.
+ */
+@Component
+public class WeatherCache implements StatsProvider {
+
+    /**
+     * 양자화된 격자 칸
+     */
+    public record GridCell(int latIndex, int lonIndex) {}
+
+    public enum Freshness { FRESH, STALE }
+
+    /**
+     * 캐시 조회 결과 (value는 공유 객체이므로 수정하지 않고 복사해서 사용)
+     */
+    public record Lookup(Map<String, Object> value, Freshness freshness) {}
+
+    /**
+     * 미리 갱신할 후보 칸
+     *
+     * @param accesses    (감쇠된) 접근 횟수
+     * @param expiresInMs TTL 만료까지 남은 시간 (이미 stale이면 음수)
+     */
+    public record HotCell(GridCell cell, long accesses, long expiresInMs) {}
+
+    private final double gridDegrees;
+    private final long ttlNanos;
+    private final long staleNanos;
+    private final int maxEntries;
+    private final LinkedHashMap<GridCell, Entry> entries;
+
+    // 지표
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+    private final AtomicLong prefetchedPuts = new AtomicLong();
+    private final AtomicLong prefetchHits = new AtomicLong();
+
+    public WeatherCache(@Value("${weather.cache.grid-degrees:0.05}") double gridDegrees,
+                        @Value("${weather.cache.ttl-ms:900000}") long ttlMs,
+                        @Value("${weather.cache.stale-ms:900000}") long staleMs,
+                        @Value("${weather.cache.max-entries:10000}") int maxEntries) {
+        this.gridDegrees = gridDegrees;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.staleNanos = TimeUnit.MILLISECONDS.toNanos(staleMs);
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<GridCell, Entry> eldest) {
+                if (size() > WeatherCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public GridCell cellOf(double latitude, double longitude) {
+        return new GridCell((int) Math.floor(latitude / gridDegrees), (int) Math.floor(longitude / gridDegrees));
+    }
+
+    /**
+     * 격자 칸 중심 위도 (같은 칸의 요청은 모두 이 좌표로 조회)
+     */
+    public double centerLatitude(GridCell cell) {
+        return (cell.latIndex() + 0.5) * gridDegrees;
+    }
+
+    public double centerLongitude(GridCell cell) {
+        return (cell.lonIndex() + 0.5) * gridDegrees;
+    }
+
+    /**
+     * 캐시된 날씨를 조회합니다. 없거나 stale 허용 시간까지 지난 경우 null
+     */
+    public Lookup get(GridCell cell) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(cell);
+        }
+        long age = entry != null ? System.nanoTime() - entry.fetchedAtNanos : Long.MAX_VALUE;
+        if (entry != null) {
+            entry.accesses.incrementAndGet();
+        }
+        if (age <= ttlNanos) {
+            hits.incrementAndGet();
+            countPrefetchHit(entry);
+            return new Lookup(entry.value, Freshness.FRESH);
+        }
+        if (age <= ttlNanos + staleNanos) {
+            staleHits.incrementAndGet();
+            countPrefetchHit(entry);
+            return new Lookup(entry.value, Freshness.STALE);
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * 지표에 반영하지 않고 TTL 이내의 값만 조회합니다. (없으면 null)
+     */
+    public Map<String, Object> peekFresh(GridCell cell) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(cell);
+        }
+        return entry != null && System.nanoTime() - entry.fetchedAtNanos <= ttlNanos ? entry.value : null;
+    }
+
+    public void put(GridCell cell, Map<String, Object> value) {
+        put(cell, value, false);
+    }
+
+    /**
+     * 값을 저장합니다. 같은 칸의 접근 횟수는 새 값에도 그대로 이어집니다.
+     *
+     * @param prefetched 요청 없이 미리 갱신한 값인지 (미리 갱신한 값이 실제로 쓰였는지 집계)
+     */
+    public void put(GridCell cell, Map<String, Object> value, boolean prefetched) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        synchronized (entries) {
+            Entry previous = entries.get(cell);
+            AtomicLong accesses = previous != null ? previous.accesses : new AtomicLong(1);
+            entries.put(cell, new Entry(value, System.nanoTime(), accesses, prefetched));
+        }
+        if (prefetched) {
+            prefetchedPuts.incrementAndGet();
+        }
+    }
+
+    /**
+     * TTL 만료가 windowMs 이내로 다가왔거나 이미 stale인 칸 중 접근이 minAccesses 이상인 칸을
+     * 접근 횟수가 많은 순으로 최대 limit개 돌려줍니다. (백그라운드 갱신 중인 칸 제외)
+     */
+    public List<HotCell> hotCellsExpiringWithin(long windowMs, long minAccesses, int limit) {
+        long now = System.nanoTime();
+        long windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        List<HotCell> candidates = new ArrayList<>();
+        synchronized (entries) {
+            for (Map.Entry<GridCell, Entry> e : entries.entrySet()) {
+                Entry entry = e.getValue();
+                long age = now - entry.fetchedAtNanos;
+                long expiresIn = ttlNanos - age;
+                long accesses = entry.accesses.get();
+                if (expiresIn <= windowNanos && age <= ttlNanos + staleNanos
+                        && accesses >= minAccesses && !entry.refreshing.get()) {
+                    candidates.add(new HotCell(e.getKey(), accesses, TimeUnit.NANOSECONDS.toMillis(expiresIn)));
+                }
+            }
+        }
+        candidates.sort(Comparator.comparingLong(HotCell::accesses).reversed());
+        return candidates.size() > limit ? new ArrayList<>(candidates.subList(0, limit)) : candidates;
+    }
+
+    /**
+     * 모든 칸의 접근 횟수를 절반으로 줄여 최근 접근이 더 큰 비중을 갖게 합니다.
+     */
+    public void decayAccesses() {
+        synchronized (entries) {
+            for (Entry entry : entries.values()) {
+                entry.accesses.updateAndGet(count -> count / 2);
+            }
+        }
+    }
+
+    /**
+     * stale 항목의 백그라운드 갱신을 시작해도 되는지 확인합니다. (칸마다 동시에 하나만 true)
+     */
+    public boolean tryStartRefresh(GridCell cell) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(cell);
+        }
+        if (entry != null && entry.refreshing.compareAndSet(false, true)) {
+            refreshes.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 백그라운드 갱신 실패 시 다음 요청이 다시 갱신을 시도할 수 있게 합니다.
+     */
+    public void refreshFailed(GridCell cell) {
+        refreshFailures.incrementAndGet();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(cell);
+        }
+        if (entry != null) {
+            entry.refreshing.set(false);
+        }
+    }
+
+    private void countPrefetchHit(Entry entry) {
+        if (entry.prefetched && entry.prefetchUsed.compareAndSet(false, true)) {
+            prefetchHits.incrementAndGet();
+        }
+    }
+
+    @Override
+    public String getStatsName() {
+        return "weather.cache";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long staleHitCount = staleHits.get();
+        long lookups = hitCount + staleHitCount + misses.get();
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("gridDegrees", gridDegrees);
+        stats.put("size", size);
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hitCount);
+        stats.put("staleHits", staleHitCount);
+        stats.put("misses", misses.get());
+        stats.put("evictions", evictions.get());
+        stats.put("backgroundRefreshes", refreshes.get());
+        stats.put("refreshFailures", refreshFailures.get());
+        stats.put("hitRatio", lookups > 0 ? (double) (hitCount + staleHitCount) / lookups : 0.0);
+        long prefetched = prefetchedPuts.get();
+        stats.put("prefetchedPuts", prefetched);
+        stats.put("prefetchHits", prefetchHits.get());
+        // 미리 갱신한 값 중 교체되기 전에 한 번 이상 사용된 비율
+        stats.put("prefetchHitRatio", prefetched > 0 ? (double) prefetchHits.get() / prefetched : 0.0);
+        return stats;
+    }
+
+    private static final class Entry {
+        private final Map<String, Object> value;
+        private final long fetchedAtNanos;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private final AtomicLong accesses;
+        private final boolean prefetched;
+        private final AtomicBoolean prefetchUsed = new AtomicBoolean();
+
+        private Entry(Map<String, Object> value, long fetchedAtNanos, AtomicLong accesses, boolean prefetched) {
+            this.value = value;
+            this.fetchedAtNanos = fetchedAtNanos;
+            this.accesses = accesses;
+            this.prefetched = prefetched;
+        }
+    }
+}
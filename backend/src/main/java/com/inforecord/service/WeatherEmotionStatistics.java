@@ -0,0 +1,636 @@
+package com.inforecord.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.inforecord.Entity.Emotion;
+import com.inforecord.Entity.Record;
+import com.inforecord.metrics.StatsProvider;
+import com.inforecord.model.WeatherCategory;
+import com.inforecord.repository.EmotionRepository;
+import com.inforecord.repository.RecordRepository;
+import com.inforecord.repository.UserDataChangedEvent;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * 사용자별 날씨-감정 분할표와 기온/강도 누적 통계
+ *
+ * 관측 단위는 하루입니다. 기록에 적힌 날씨 분류와 그날 강도가 가장 높은 감정을 한 칸에 세고,
+ * 기온과 감정 강도는 Welford 방식의 평균/제곱편차 합으로 누적합니다.
+ * 저장소가 발행하는 UserDataChangedEvent마다 그 날의 이전 관측을 빼고 현재 관측을 더하므로
+ * 기록/감정의 저장, 교체, 삭제가 모두 반영되며, 갱신 비용은 그날의 감정 수에 비례합니다.
+ * 분석(조건부 확률, lift, 카이제곱 검정)은 분할표 크기(날씨 분류 x 감정 종류)에만 비례하고 기록 기간과는 무관합니다.
+ * 카이제곱 근사는 기대 빈도가 작으면 p값이 지나치게 작아지므로, 일수가 가장 적은 날씨 분류/감정 종류를 다음으로 적은 것과 합쳐
+ * Cochran 기준(기대 빈도 5 미만인 칸이 20% 이하, 1 미만인 칸 없음)을 맞춘 뒤에만 검정합니다.
+ */
+@Service
+public class WeatherEmotionStatistics implements StatsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(WeatherEmotionStatistics.class);
+
+    private static final WeatherCategory[] CATEGORIES = WeatherCategory.values();
+
+    /** lift를 보고할 칸의 최소 일수 (더 적으면 우연에 가까움) */
+    private static final int MIN_CELL_DAYS = 3;
+
+    /** Cochran 기준: 기대 빈도가 MIN_EXPECTED 미만인 칸은 MAX_SPARSE_CELL_RATIO 이하, MIN_EXPECTED_FLOOR 미만인 칸은 없어야 함 */
+    private static final double MIN_EXPECTED = 5;
+    private static final double MIN_EXPECTED_FLOOR = 1;
+    private static final double MAX_SPARSE_CELL_RATIO = 0.2;
+
+    /**
+     * 날씨 분류와 감정 종류 한 쌍의 연관성
+     *
+     * @param conditionalProbability 그 날씨인 날 중 그 감정이 주요 감정이었던 비율 P(감정 | 날씨)
+     * @param lift                   P(감정 | 날씨) / P(감정), 1보다 크면 그 날씨에 더 자주 나타남
+     */
+    public record Association(WeatherCategory weather, String emotionType, long days,
+                              double conditionalProbability, double lift) {}
+
+    /**
+     * 한 사용자의 날씨-감정 독립성 검정 결과
+     *
+     * @param days                            날씨와 감정을 모두 아는 날 수
+     * @param degreesOfFreedom                희소한 날씨 분류/감정 종류를 합친 분할표의 자유도
+     * @param significant                     p값이 유의수준보다 작은지
+     * @param strongest                       lift가 가장 큰 연관 (합치기 전 분할표에서 MIN_CELL_DAYS 이상인 칸 중 lift > 1, 없으면 null)
+     * @param temperatureIntensityCorrelation 기온과 주요 감정 강도의 피어슨 상관계수 (기온을 아는 날이 3일 미만이면 NaN)
+     */
+    public record Result(long days, int degreesOfFreedom, double chiSquare, double pValue, double cramersV,
+                         boolean significant, Association strongest,
+                         long temperatureDays, double temperatureIntensityCorrelation,
+                         Map<WeatherCategory, Double> meanIntensityByWeather,
+                         Map<String, Double> meanTemperatureByEmotion) {}
+
+    private final RecordRepository recordRepository;
+    private final EmotionRepository emotionRepository;
+    private final int minDays;
+    private final double significance;
+
+    private final Map<String, UserTable> tables = new ConcurrentHashMap<>();
+
+    // 지표
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong analyses = new AtomicLong();
+
+    public WeatherEmotionStatistics(RecordRepository recordRepository, EmotionRepository emotionRepository,
+                                    @Value("${analysis.weather-emotion.min-days:14}") int minDays,
+                                    @Value("${analysis.weather-emotion.significance:0.05}") double significance) {
+        this.recordRepository = recordRepository;
+        this.emotionRepository = emotionRepository;
+        this.minDays = minDays;
+        this.significance = significance;
+    }
+
+    /**
+     * 복구된 기록/감정으로 분할표를 채웁니다. (저장소 복구 이후 실행)
+     */
+    @PostConstruct
+    public void loadFromRepositories() {
+        int loaded = 0;
+        for (Record record : recordRepository.findAll()) {
+            if (record.getUserId() != null && record.getRecordDate() != null
+                    && refreshDay(record.getUserId(), record.getRecordDate())) {
+                loaded++;
+            }
+        }
+        log.info("날씨-감정 통계 로드 완료 - 관측 {}일, 사용자 {}명", loaded, tables.size());
+    }
+
+    @EventListener
+    public void onUserDataChanged(UserDataChangedEvent event) {
+        refreshDay(event.userId(), event.date());
+    }
+
+    /**
+     * 하루의 관측을 현재 기록/감정으로 다시 계산해 분할표에 반영합니다. 반영 후 관측이 있으면 true
+     */
+    boolean refreshDay(String userId, LocalDate date) {
+        refreshes.incrementAndGet();
+        UserTable table = tables.computeIfAbsent(userId, k -> new UserTable());
+        // 같은 사용자의 갱신은 순서대로 (읽은 뒤 반영하는 사이에 다른 갱신이 끼어들지 않도록)
+        synchronized (table) {
+            DayObservation observation = observe(userId, date);
+            long epochDay = date.toEpochDay();
+            DayObservation previous = observation != null
+                ? table.days.put(epochDay, observation)
+                : table.days.remove(epochDay);
+            if (previous != null) {
+                table.remove(previous);
+            }
+            if (observation != null) {
+                table.add(observation);
+            }
+            return observation != null;
+        }
+    }
+
+    /**
+     * 날씨 분류를 알고 강도가 있는 감정이 하나 이상 있는 날만 관측으로 봅니다.
+     * 날씨 이력도 같은 이벤트로 갱신되어 리스너 순서를 알 수 없으므로 날씨는 기록에서 직접 읽습니다.
+     */
+    private DayObservation observe(String userId, LocalDate date) {
+        Optional<Record> record = recordRepository.findByRecordDateAndUserId(date, userId);
+        if (record.isEmpty()) {
+            return null;
+        }
+        WeatherCategory weather = WeatherCategory.fromDescription(record.get().getWeatherDesc());
+        if (weather == WeatherCategory.UNKNOWN) {
+            return null;
+        }
+        Emotion dominant = null;
+        List<Emotion> emotions = emotionRepository.findEmotionsByUserIdAndDateRange(userId, date, date);
+        for (Emotion emotion : emotions) {
+            if (emotion.getEmotionType() == null || emotion.getIntensity() == null) {
+                continue;
+            }
+            if (dominant == null || emotion.getIntensity() > dominant.getIntensity()) {
+                dominant = emotion;
+            }
+        }
+        if (dominant == null) {
+            return null;
+        }
+        Double temperature = record.get().getWeatherTemp();
+        return new DayObservation(weather, dominant.getEmotionType(), dominant.getIntensity(),
+                temperature != null ? temperature : Double.NaN);
+    }
+
+    /**
+     * 사용자의 날씨-감정 분할표로 독립성 검정을 수행합니다.
+     * 관측일이 min-days보다 적거나, 날씨/감정 중 한쪽이 한 종류뿐이거나(자유도 0),
+     * 2x2까지 합쳐도 기대 빈도가 Cochran 기준에 못 미치면 데이터 부족으로 보고 비어 있습니다.
+     */
+    public Optional<Result> analyze(String userId) {
+        analyses.incrementAndGet();
+        UserTable table = tables.get(userId);
+        if (table == null) {
+            return Optional.empty();
+        }
+        synchronized (table) {
+            if (table.total < minDays) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(table.analyze(significance));
+        }
+    }
+
+    @Override
+    public String getStatsName() {
+        return "analysis.weather-emotion";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long observedDays = 0;
+        for (UserTable table : tables.values()) {
+            synchronized (table) {
+                observedDays += table.total;
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("users", tables.size());
+        stats.put("observedDays", observedDays);
+        stats.put("refreshes", refreshes.get());
+        stats.put("analyses", analyses.get());
+        stats.put("minDays", minDays);
+        stats.put("significance", significance);
+        return stats;
+    }
+
+    /**
+     * 하루의 관측 (기온을 모르면 temperature는 NaN)
+     */
+    private record DayObservation(WeatherCategory weather, String emotionType, double intensity, double temperature) {}
+
+    /**
+     * 한 사용자의 분할표 (행 = 날씨 분류 ordinal, 열 = 감정 종류)와 누적 통계
+     */
+    private static final class UserTable {
+        final Map<Long, DayObservation> days = new HashMap<>();
+        final Map<String, long[]> countsByEmotion = new HashMap<>();
+        final long[] countsByWeather = new long[CATEGORIES.length];
+        long total;
+        final Moments[] intensityByWeather = new Moments[CATEGORIES.length];
+        final Map<String, Moments> temperatureByEmotion = new HashMap<>();
+        final CoMoments temperatureIntensity = new CoMoments();
+
+        void add(DayObservation observation) {
+            int row = observation.weather().ordinal();
+            countsByEmotion.computeIfAbsent(observation.emotionType(), k -> new long[CATEGORIES.length])[row]++;
+            countsByWeather[row]++;
+            total++;
+            if (intensityByWeather[row] == null) {
+                intensityByWeather[row] = new Moments();
+            }
+            intensityByWeather[row].add(observation.intensity());
+            if (!Double.isNaN(observation.temperature())) {
+                temperatureByEmotion.computeIfAbsent(observation.emotionType(), k -> new Moments())
+                    .add(observation.temperature());
+                temperatureIntensity.add(observation.temperature(), observation.intensity());
+            }
+        }
+
+        void remove(DayObservation observation) {
+            int row = observation.weather().ordinal();
+            long[] column = countsByEmotion.get(observation.emotionType());
+            if (--column[row] == 0 && isEmpty(column)) {
+                countsByEmotion.remove(observation.emotionType());
+            }
+            countsByWeather[row]--;
+            total--;
+            intensityByWeather[row].remove(observation.intensity());
+            if (!Double.isNaN(observation.temperature())) {
+                Moments temperature = temperatureByEmotion.get(observation.emotionType());
+                temperature.remove(observation.temperature());
+                if (temperature.n == 0) {
+                    temperatureByEmotion.remove(observation.emotionType());
+                }
+                temperatureIntensity.remove(observation.temperature(), observation.intensity());
+            }
+        }
+
+        Result analyze(double significance) {
+            ContingencyTable table = ContingencyTable.of(countsByWeather, countsByEmotion);
+            if (table == null) {
+                return null;
+            }
+            while (!table.meetsExpectedCounts()) {
+                if (!table.collapseSmallest()) {
+                    return null;
+                }
+            }
+            int rows = table.rowTotals.length;
+            int columns = table.columnTotals.length;
+            int degreesOfFreedom = (rows - 1) * (columns - 1);
+
+            // 카이제곱 = sum((관측 - 기대)^2 / 기대), 기대 = 행 합 x 열 합 / 전체
+            double chiSquare = 0;
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    double expected = table.expected(row, column);
+                    double diff = table.cells[row][column] - expected;
+                    chiSquare += diff * diff / expected;
+                }
+            }
+
+            // lift는 날씨/감정 한 쌍을 설명하는 값이므로 합치기 전 분할표로 계산
+            Association strongest = null;
+            for (Map.Entry<String, long[]> entry : countsByEmotion.entrySet()) {
+                long[] column = entry.getValue();
+                long columnTotal = sum(column);
+                for (int row = 0; row < CATEGORIES.length; row++) {
+                    if (column[row] < MIN_CELL_DAYS) {
+                        continue;
+                    }
+                    double lift = column[row] / ((double) countsByWeather[row] * columnTotal / total);
+                    if (lift > 1 && (strongest == null || lift > strongest.lift()
+                            || (lift == strongest.lift() && column[row] > strongest.days()))) {
+                        strongest = new Association(CATEGORIES[row], entry.getKey(), column[row],
+                                (double) column[row] / countsByWeather[row], lift);
+                    }
+                }
+            }
+            double pValue = chiSquarePValue(chiSquare, degreesOfFreedom);
+            double cramersV = Math.sqrt(chiSquare / (total * (double) (Math.min(rows, columns) - 1)));
+
+            Map<WeatherCategory, Double> meanIntensityByWeather = new EnumMap<>(WeatherCategory.class);
+            for (int row = 0; row < CATEGORIES.length; row++) {
+                if (intensityByWeather[row] != null && intensityByWeather[row].n > 0) {
+                    meanIntensityByWeather.put(CATEGORIES[row], intensityByWeather[row].mean);
+                }
+            }
+            Map<String, Double> meanTemperatureByEmotion = new HashMap<>();
+            temperatureByEmotion.forEach((type, moments) -> meanTemperatureByEmotion.put(type, moments.mean));
+
+            return new Result(total, degreesOfFreedom, chiSquare, pValue, cramersV, pValue < significance, strongest,
+                    temperatureIntensity.n, temperatureIntensity.correlation(),
+                    meanIntensityByWeather, meanTemperatureByEmotion);
+        }
+
+        private static long sum(long[] values) {
+            long sum = 0;
+            for (long value : values) {
+                sum += value;
+            }
+            return sum;
+        }
+
+        private static boolean isEmpty(long[] values) {
+            return sum(values) == 0;
+        }
+    }
+
+    /**
+     * 검정에 쓰는 분할표 사본 (행 = 관측이 있는 날씨 분류, 열 = 감정 종류 이름순), 희소한 행/열을 합쳐 가며 줄어듦
+     */
+    private static final class ContingencyTable {
+        long[][] cells;
+        long[] rowTotals;
+        long[] columnTotals;
+        final long total;
+
+        ContingencyTable(long[][] cells) {
+            this.cells = cells;
+            this.rowTotals = new long[cells.length];
+            this.columnTotals = new long[cells[0].length];
+            long sum = 0;
+            for (int row = 0; row < cells.length; row++) {
+                for (int column = 0; column < cells[row].length; column++) {
+                    rowTotals[row] += cells[row][column];
+                    columnTotals[column] += cells[row][column];
+                    sum += cells[row][column];
+                }
+            }
+            this.total = sum;
+        }
+
+        /**
+         * 누적 분할표에서 관측이 있는 행/열만 옮깁니다. 자유도가 0이면 null
+         */
+        static ContingencyTable of(long[] countsByWeather, Map<String, long[]> countsByEmotion) {
+            WeatherCategory[] rowLabels = Arrays.stream(CATEGORIES)
+                .filter(category -> countsByWeather[category.ordinal()] > 0)
+                .toArray(WeatherCategory[]::new);
+            // 합치는 순서가 HashMap 순회 순서에 좌우되지 않도록 이름순
+            String[] columnLabels = countsByEmotion.keySet().stream().sorted().toArray(String[]::new);
+            if (rowLabels.length < 2 || columnLabels.length < 2) {
+                return null;
+            }
+            long[][] cells = new long[rowLabels.length][columnLabels.length];
+            for (int column = 0; column < columnLabels.length; column++) {
+                long[] counts = countsByEmotion.get(columnLabels[column]);
+                for (int row = 0; row < rowLabels.length; row++) {
+                    cells[row][column] = counts[rowLabels[row].ordinal()];
+                }
+            }
+            return new ContingencyTable(cells);
+        }
+
+        double expected(int row, int column) {
+            return (double) rowTotals[row] * columnTotals[column] / total;
+        }
+
+        boolean meetsExpectedCounts() {
+            int sparse = 0;
+            for (int row = 0; row < rowTotals.length; row++) {
+                for (int column = 0; column < columnTotals.length; column++) {
+                    double expected = expected(row, column);
+                    if (expected < MIN_EXPECTED_FLOOR) {
+                        return false;
+                    }
+                    if (expected < MIN_EXPECTED) {
+                        sparse++;
+                    }
+                }
+            }
+            return sparse <= MAX_SPARSE_CELL_RATIO * rowTotals.length * columnTotals.length;
+        }
+
+        /**
+         * 합계가 가장 작은 행 또는 열을 두 번째로 작은 행/열과 합칩니다. (둘 중 합계가 더 작은 쪽, 2개만 남은 쪽은 제외)
+         * 이미 2x2라 더 합칠 수 없으면 false
+         */
+        boolean collapseSmallest() {
+            int rows = rowTotals.length;
+            int columns = columnTotals.length;
+            if (rows <= 2 && columns <= 2) {
+                return false;
+            }
+            int[] smallestRows = twoSmallest(rowTotals);
+            int[] smallestColumns = twoSmallest(columnTotals);
+            if (columns <= 2 || (rows > 2 && rowTotals[smallestRows[0]] <= columnTotals[smallestColumns[0]])) {
+                mergeRows(smallestRows[0], smallestRows[1]);
+            } else {
+                mergeColumns(smallestColumns[0], smallestColumns[1]);
+            }
+            return true;
+        }
+
+        private void mergeRows(int from, int into) {
+            for (int column = 0; column < columnTotals.length; column++) {
+                cells[into][column] += cells[from][column];
+            }
+            rowTotals[into] += rowTotals[from];
+            int keep = 0;
+            for (int row = 0; row < rowTotals.length; row++) {
+                if (row != from) {
+                    cells[keep] = cells[row];
+                    rowTotals[keep] = rowTotals[row];
+                    keep++;
+                }
+            }
+            cells = Arrays.copyOf(cells, keep);
+            rowTotals = Arrays.copyOf(rowTotals, keep);
+        }
+
+        private void mergeColumns(int from, int into) {
+            for (int row = 0; row < rowTotals.length; row++) {
+                long[] merged = new long[columnTotals.length - 1];
+                int keep = 0;
+                for (int column = 0; column < columnTotals.length; column++) {
+                    if (column == into) {
+                        merged[keep++] = cells[row][into] + cells[row][from];
+                    } else if (column != from) {
+                        merged[keep++] = cells[row][column];
+                    }
+                }
+                cells[row] = merged;
+            }
+            columnTotals[into] += columnTotals[from];
+            long[] totals = new long[columnTotals.length - 1];
+            int keep = 0;
+            for (int column = 0; column < columnTotals.length; column++) {
+                if (column != from) {
+                    totals[keep++] = columnTotals[column];
+                }
+            }
+            columnTotals = totals;
+        }
+
+        // 가장 작은 값과 두 번째로 작은 값의 위치 (같으면 앞쪽 먼저)
+        private static int[] twoSmallest(long[] totals) {
+            int first = -1;
+            int second = -1;
+            for (int i = 0; i < totals.length; i++) {
+                if (first < 0 || totals[i] < totals[first]) {
+                    second = first;
+                    first = i;
+                } else if (second < 0 || totals[i] < totals[second]) {
+                    second = i;
+                }
+            }
+            return new int[] {first, second};
+        }
+    }
+
+    /**
+     * 단변량 Welford 누적 (평균, 편차 제곱합), 이전에 더한 값을 다시 뺄 수 있음
+     */
+    static final class Moments {
+        long n;
+        double mean;
+        double m2;
+
+        void add(double x) {
+            n++;
+            double delta = x - mean;
+            mean += delta / n;
+            m2 += delta * (x - mean);
+        }
+
+        void remove(double x) {
+            if (n <= 1) {
+                n = 0;
+                mean = 0;
+                m2 = 0;
+                return;
+            }
+            double delta = x - mean;
+            mean -= delta / (n - 1);
+            m2 = Math.max(0, m2 - delta * (x - mean));
+            n--;
+        }
+    }
+
+    /**
+     * 이변량 Welford 누적 (두 변수의 평균, 편차 제곱합, 공편차 합)
+     */
+    static final class CoMoments {
+        long n;
+        double meanX;
+        double meanY;
+        double m2x;
+        double m2y;
+        double cxy;
+
+        void add(double x, double y) {
+            n++;
+            double dx = x - meanX;
+            double dy = y - meanY;
+            meanX += dx / n;
+            meanY += dy / n;
+            m2x += dx * (x - meanX);
+            m2y += dy * (y - meanY);
+            cxy += dx * (y - meanY);
+        }
+
+        void remove(double x, double y) {
+            if (n <= 1) {
+                n = 0;
+                meanX = meanY = m2x = m2y = cxy = 0;
+                return;
+            }
+            double dx = x - meanX;
+            double dy = y - meanY;
+            meanX -= dx / (n - 1);
+            meanY -= dy / (n - 1);
+            m2x = Math.max(0, m2x - dx * (x - meanX));
+            m2y = Math.max(0, m2y - dy * (y - meanY));
+            cxy -= dx * (y - meanY);
+            n--;
+        }
+
+        /**
+         * 피어슨 상관계수 (3개 미만이거나 한쪽 분산이 0이면 NaN)
+         */
+        double correlation() {
+            if (n < 3 || m2x <= 0 || m2y <= 0) {
+                return Double.NaN;
+            }
+            return Math.max(-1, Math.min(1, cxy / Math.sqrt(m2x * m2y)));
+        }
+    }
+
+    /**
+     * 카이제곱 분포의 상단 확률 P(X >= chiSquare) = Q(자유도 / 2, chiSquare / 2)
+     */
+    static double chiSquarePValue(double chiSquare, int degreesOfFreedom) {
+        if (chiSquare <= 0) {
+            return 1.0;
+        }
+        double a = degreesOfFreedom / 2.0;
+        double x = chiSquare / 2.0;
+        return x < a + 1 ? 1.0 - lowerGammaSeries(a, x) : upperGammaContinuedFraction(a, x);
+    }
+
+    /**
+     * 정규화된 하부 불완전 감마 함수 P(a, x)의 급수 전개 (x < a + 1에서 빠르게 수렴)
+     */
+    private static double lowerGammaSeries(double a, double x) {
+        double term = 1.0 / a;
+        double sum = term;
+        for (int n = 1; n < 500; n++) {
+            term *= x / (a + n);
+            sum += term;
+            if (Math.abs(term) < Math.abs(sum) * 1e-15) {
+                break;
+            }
+        }
+        return sum * Math.exp(-x + a * Math.log(x) - logGamma(a));
+    }
+
+    /**
+     * 정규화된 상부 불완전 감마 함수 Q(a, x)의 연분수 전개 (수정 Lentz 방법, x >= a + 1)
+     */
+    private static double upperGammaContinuedFraction(double a, double x) {
+        double tiny = 1e-300;
+        double b = x + 1 - a;
+        double c = 1 / tiny;
+        double d = 1 / b;
+        double h = d;
+        for (int i = 1; i < 500; i++) {
+            double an = -i * (i - a);
+            b += 2;
+            d = an * d + b;
+            if (Math.abs(d) < tiny) {
+                d = tiny;
+            }
+            c = b + an / c;
+            if (Math.abs(c) < tiny) {
+                c = tiny;
+            }
+            d = 1 / d;
+            double delta = d * c;
+            h *= delta;
+            if (Math.abs(delta - 1) < 1e-15) {
+                break;
+            }
+        }
+        return Math.exp(-x + a * Math.log(x) - logGamma(a)) * h;
+    }
+
+    private static final double[] LANCZOS = {
+        0.99999999999980993, 676.5203681218851, -1259.1392167224028, 771.32342877765313,
+        -176.61502916214059, 12.507343278686905, -0.13857109526572012, 9.9843695780195716e-6,
+        1.5056327351493116e-7
+    };
+
+    /**
+     * ln Γ(x), Lanczos 근사 (g = 7, x >= 0.5)
+     */
+    private static double logGamma(double x) {
+        double z = x - 1;
+        double series = LANCZOS[0];
+        for (int i = 1; i < LANCZOS.length; i++) {
+            series += LANCZOS[i] / (z + i);
+        }
+        double t = z + 7.5;
+        return 0.5 * Math.log(2 * Math.PI) + (z + 0.5) * Math.log(t) - t + Math.log(series);
+    }
+}
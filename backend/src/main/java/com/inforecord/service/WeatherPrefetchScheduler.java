@@ -0,0 +1,156 @@
+package com.inforecord.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.inforecord.metrics.StatsProvider;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * 자주 조회되는 격자 칸의 날씨를 TTL 만료 전에 미리 갱신하는 스케줄러 (refresh-ahead)
+ *
+ * 주기마다 만료가 lead-ms 이내로 다가온 칸 중 접근이 많은 top-n 칸을 골라
+ * 칸마다 무작위 지연(jitter)을 두고 다시 조회합니다. 조회 수는 분당 budget-per-minute로 제한하며,
+ * 예산을 다 쓰면 남은 칸은 다음 주기(또는 사용자 요청)로 넘깁니다.
+ * 접근 횟수는 decay-interval-ms마다 절반으로 줄여 최근에 많이 쓰인 칸을 우선합니다.
+ */
+@Component
+public class WeatherPrefetchScheduler implements StatsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(WeatherPrefetchScheduler.class);
+
+    private static final long BUDGET_WINDOW_MS = 60_000;
+
+    private final WeatherService weatherService;
+    private final WeatherCache weatherCache;
+    private final boolean enabled;
+    private final long leadMs;
+    private final long jitterMs;
+    private final int topN;
+    private final long minAccesses;
+    private final int budgetPerMinute;
+    private final long decayIntervalMs;
+
+    private long budgetWindowStartMs;
+    private int budgetUsed;
+    private long lastDecayMs = System.currentTimeMillis();
+
+    // 지표
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong scheduled = new AtomicLong();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong skippedForBudget = new AtomicLong();
+
+    public WeatherPrefetchScheduler(WeatherService weatherService, WeatherCache weatherCache,
+                                    @Value("${weather.prefetch.enabled:true}") boolean enabled,
+                                    @Value("${weather.prefetch.lead-ms:180000}") long leadMs,
+                                    @Value("${weather.prefetch.jitter-ms:30000}") long jitterMs,
+                                    @Value("${weather.prefetch.top-n:50}") int topN,
+                                    @Value("${weather.prefetch.min-accesses:2}") long minAccesses,
+                                    @Value("${weather.prefetch.budget-per-minute:30}") int budgetPerMinute,
+                                    @Value("${weather.prefetch.decay-interval-ms:300000}") long decayIntervalMs) {
+        this.weatherService = weatherService;
+        this.weatherCache = weatherCache;
+        this.enabled = enabled;
+        this.leadMs = leadMs;
+        this.jitterMs = jitterMs;
+        this.topN = topN;
+        this.minAccesses = minAccesses;
+        this.budgetPerMinute = budgetPerMinute;
+        this.decayIntervalMs = decayIntervalMs;
+    }
+
+    @Scheduled(fixedDelayString = "${weather.prefetch.interval-ms:60000}",
+               initialDelayString = "${weather.prefetch.interval-ms:60000}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        runs.incrementAndGet();
+
+        List<WeatherCache.HotCell> candidates = weatherCache.hotCellsExpiringWithin(leadMs, minAccesses, topN);
+        int started = 0;
+        for (WeatherCache.HotCell candidate : candidates) {
+            if (!tryConsumeBudget()) {
+                skippedForBudget.addAndGet(candidates.size() - started);
+                log.debug("날씨 미리 갱신 예산 소진 - 남은 후보: {}", candidates.size() - started);
+                break;
+            }
+            schedule(candidate);
+            started++;
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - lastDecayMs >= decayIntervalMs) {
+            weatherCache.decayAccesses();
+            lastDecayMs = now;
+        }
+    }
+
+    /**
+     * 만료 전에 끝나도록 남은 시간의 절반 안에서 jitter를 두고 조회를 시작합니다.
+     */
+    private void schedule(WeatherCache.HotCell candidate) {
+        long maxDelay = Math.min(jitterMs, Math.max(0, candidate.expiresInMs()) / 2);
+        long delay = maxDelay > 0 ? ThreadLocalRandom.current().nextLong(maxDelay + 1) : 0;
+        scheduled.incrementAndGet();
+        Mono.delay(Duration.ofMillis(delay))
+                .then(Mono.defer(() -> weatherService.prefetch(candidate.cell())))
+                .subscribe(
+                        ignored -> { },
+                        error -> {
+                            failed.incrementAndGet();
+                            log.warn("날씨 미리 갱신 실패 - 격자: {}, 원인: {}", candidate.cell(), error.getMessage());
+                        },
+                        succeeded::incrementAndGet);
+    }
+
+    private synchronized boolean tryConsumeBudget() {
+        long now = System.currentTimeMillis();
+        if (now - budgetWindowStartMs >= BUDGET_WINDOW_MS) {
+            budgetWindowStartMs = now;
+            budgetUsed = 0;
+        }
+        if (budgetUsed >= budgetPerMinute) {
+            return false;
+        }
+        budgetUsed++;
+        return true;
+    }
+
+    @Override
+    public String getStatsName() {
+        return "weather.prefetch";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("runs", runs.get());
+        stats.put("scheduled", scheduled.get());
+        stats.put("succeeded", succeeded.get());
+        stats.put("failed", failed.get());
+        stats.put("skippedForBudget", skippedForBudget.get());
+        stats.put("budgetPerMinute", budgetPerMinute);
+        synchronized (this) {
+            boolean windowOpen = System.currentTimeMillis() - budgetWindowStartMs < BUDGET_WINDOW_MS;
+            stats.put("budgetUsedThisMinute", windowOpen ? budgetUsed : 0);
+        }
+        // 미리 갱신한 값이 교체되기 전에 실제 요청에 쓰인 비율
+        stats.put("prefetchHitRatio", weatherCache.getStats().get("prefetchHitRatio"));
+        return stats;
+    }
+}
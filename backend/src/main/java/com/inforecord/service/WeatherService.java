@@ -1,75 +1,357 @@
 package com.inforecord.service;
 
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.inforecord.geo.Gazetteer;
+import com.inforecord.geo.Region;
+import com.inforecord.metrics.StatsProvider;
+import com.inforecord.model.OpenMeteoForecast;
+import com.inforecord.model.WeatherCategory;
+import com.inforecord.repository.WeatherHistoryStore;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 @Service
-public class WeatherService {
+public class WeatherService implements StatsProvider {
+    
+    private static final Logger log = LoggerFactory.getLogger(WeatherService.class);
+    
+    private static final String CURRENT_VARIABLES = "temperature_2m,relative_humidity_2m,apparent_temperature,precipitation,weather_code";
+    private static final String DAILY_VARIABLES = "weather_code,temperature_2m_max,temperature_2m_min";
+    
+    // daily 값의 날짜 경계 (요청 시 timezone으로 넘기고, 날씨 이력의 "오늘"도 같은 기준으로 계산)
+    private static final ZoneId FORECAST_ZONE = ZoneId.of("Asia/Seoul");
+    
+    // 지명 사전에서 찾지 못한 도시명의 기본 지역 (서울)
+    private static final String DEFAULT_REGION_ID = "KR-11";
     
     private final WebClient webClient;
+    private final WeatherCache weatherCache;
+    private final Gazetteer gazetteer;
+    private final WeatherHistoryStore weatherHistoryStore;
+    
+    /**
+     * 격자 칸별 진행 중인 Open-Meteo 조회 (같은 칸의 동시 요청은 하나의 조회 결과를 공유)
+     */
+    private final Map<WeatherCache.GridCell, Mono<Map<String, Object>>> inFlight = new ConcurrentHashMap<>();
+    
+    private final AtomicLong upstreamCalls = new AtomicLong();
+    private final AtomicLong coalescedRequests = new AtomicLong();
+    private final AtomicLong prefetchCalls = new AtomicLong();
+    private final AtomicLong batchCalls = new AtomicLong();
+    private final AtomicLong batchCells = new AtomicLong();
+    
+    /**
+     * 일괄 조회 시 Open-Meteo 요청 하나에 담는 최대 격자 칸 수
+     */
+    private final int maxCellsPerCall;
+    
+    /**
+     * 일괄 조회 좌표
+     */
+    public record Coordinate(double latitude, double longitude) {}
+    
+    public WeatherService(WebClient.Builder webClientBuilder, WeatherCache weatherCache, Gazetteer gazetteer,
+                          WeatherHistoryStore weatherHistoryStore,
+                          @Value("${weather.api.base-url:https://api.open-meteo.com/v1}") String baseUrl,
+                          @Value("${weather.batch.max-cells-per-call:50}") int maxCellsPerCall) {
+        this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+        this.weatherCache = weatherCache;
+        this.gazetteer = gazetteer;
+        this.weatherHistoryStore = weatherHistoryStore;
+        this.maxCellsPerCall = Math.max(1, maxCellsPerCall);
+    }
+    
+    /**
+     * 좌표의 현재 날씨를 조회합니다. (스레드를 점유하지 않는 비동기 버전)
+     * 같은 격자 칸의 날씨는 캐시를 공유하며, 만료 직후에는 이전 값을 반환하면서 백그라운드로 갱신합니다.
+     * 캐시에 없으면 같은 칸의 동시 요청이 하나의 Open-Meteo 조회를 함께 기다립니다.
+     */
+    public Mono<Map<String, Object>> getCurrentLocationAndWeatherAsync(double latitude, double longitude) {
+        WeatherCache.GridCell cell = weatherCache.cellOf(latitude, longitude);
+        WeatherCache.Lookup cached = weatherCache.get(cell);
+        
+        if (cached != null) {
+            if (cached.freshness() == WeatherCache.Freshness.STALE) {
+                refreshInBackground(cell);
+            }
+            return Mono.just(withLocation(cached.value(), latitude, longitude));
+        }
+        return loadShared(cell).map(weather -> withLocation(weather, latitude, longitude));
+    }
+    
+    private void refreshInBackground(WeatherCache.GridCell cell) {
+        if (!weatherCache.tryStartRefresh(cell)) {
+            return;
+        }
+        loadShared(cell).subscribe(
+                weather -> { },
+                error -> {
+                    weatherCache.refreshFailed(cell);
+                    log.warn("날씨 백그라운드 갱신 실패 - 격자: {}, 원인: {}", cell, error.getMessage());
+                });
+    }
+    
+    /**
+     * 격자 칸의 날씨를 조회하고 캐시에 저장합니다. (single-flight)
+     * 진행 중인 조회가 있으면 그 결과를 공유하고, 조회가 끝나면(성공/실패) 목록에서 제거되므로
+     * 실패는 기다리던 모든 요청에 전달되지만 이후 요청은 새로 조회합니다.
+     */
+    private Mono<Map<String, Object>> loadShared(WeatherCache.GridCell cell) {
+        Mono<Map<String, Object>> existing = inFlight.get(cell);
+        if (existing != null) {
+            coalescedRequests.incrementAndGet();
+            return existing;
+        }
+        return inFlight.computeIfAbsent(cell, key -> newFlight(key, false));
+    }
+    
+    /**
+     * 캐시가 아직 유효하더라도 격자 칸의 날씨를 다시 조회해 캐시에 저장합니다. (만료 전 미리 갱신)
+     * 같은 칸의 조회가 이미 진행 중이면 새로 조회하지 않고 그 결과를 기다립니다.
+     * 진행 중인 동안 항목이 만료되면 사용자 요청도 이 조회에 합류합니다.
+     */
+    public Mono<Void> prefetch(WeatherCache.GridCell cell) {
+        return inFlight.computeIfAbsent(cell, key -> newFlight(key, true)).then();
+    }
+    
+    private Mono<Map<String, Object>> newFlight(WeatherCache.GridCell cell, boolean prefetch) {
+        return shared(cell, Mono.defer(() -> {
+                    // 캐시 확인과 조회 등록 사이에 다른 조회가 끝난 경우 그 결과를 사용
+                    Map<String, Object> fresh = prefetch ? null : weatherCache.peekFresh(cell);
+                    if (fresh != null) {
+                        return Mono.just(fresh);
+                    }
+                    upstreamCalls.incrementAndGet();
+                    if (prefetch) {
+                        prefetchCalls.incrementAndGet();
+                    }
+                    return fetchWeather(cell).doOnNext(weather -> weatherCache.put(cell, weather, prefetch));
+                }));
+    }
+    
+    /**
+     * 조회를 여러 구독자가 공유하도록 만들고, 끝나면(성공/실패) 진행 중 목록에서 스스로 제거되게 합니다.
+     */
+    private Mono<Map<String, Object>> shared(WeatherCache.GridCell cell, Mono<Map<String, Object>> source) {
+        AtomicReference<Mono<Map<String, Object>>> self = new AtomicReference<>();
+        Mono<Map<String, Object>> flight = source
+                .doFinally(signal -> inFlight.remove(cell, self.get()))
+                .cache();
+        self.set(flight);
+        return flight;
+    }
+    
+    /**
+     * 여러 좌표의 현재 날씨를 한 번에 조회합니다. (결과는 요청 순서대로)
+     * 같은 격자 칸의 좌표는 한 번만 조회하고, 캐시에 없는 칸은 진행 중인 조회에 합류하거나
+     * 최대 max-cells-per-call개씩 묶어 좌표 목록 하나로 Open-Meteo에 요청합니다.
+     * 일부 칸의 조회가 실패해도 나머지 결과는 돌려주며, 실패한 좌표에는 error 항목을 채웁니다.
+     */
+    public Mono<List<Map<String, Object>>> getWeatherBatchAsync(List<Coordinate> locations) {
+        if (locations.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        Map<WeatherCache.GridCell, Mono<Map<String, Object>>> byCell = new HashMap<>();
+        List<WeatherCache.GridCell> misses = new ArrayList<>();
+        for (Coordinate location : locations) {
+            WeatherCache.GridCell cell = weatherCache.cellOf(location.latitude(), location.longitude());
+            if (byCell.containsKey(cell)) {
+                continue;
+            }
+            WeatherCache.Lookup cached = weatherCache.get(cell);
+            if (cached != null) {
+                if (cached.freshness() == WeatherCache.Freshness.STALE) {
+                    refreshInBackground(cell);
+                }
+                byCell.put(cell, Mono.just(cached.value()));
+                continue;
+            }
+            Mono<Map<String, Object>> existing = inFlight.get(cell);
+            if (existing != null) {
+                coalescedRequests.incrementAndGet();
+                byCell.put(cell, existing);
+            } else {
+                misses.add(cell);
+                byCell.put(cell, null);
+            }
+        }
+        
+        for (int from = 0; from < misses.size(); from += maxCellsPerCall) {
+            List<WeatherCache.GridCell> chunk = misses.subList(from, Math.min(from + maxCellsPerCall, misses.size()));
+            Mono<Map<WeatherCache.GridCell, Map<String, Object>>> call = Mono.defer(() -> {
+                        upstreamCalls.incrementAndGet();
+                        batchCalls.incrementAndGet();
+                        batchCells.addAndGet(chunk.size());
+                        return fetchWeatherBatch(chunk);
+                    })
+                    .doOnNext(results -> results.forEach(weatherCache::put))
+                    .doOnError(error -> log.warn("날씨 일괄 조회 실패 - 격자 {}개, 원인: {}", chunk.size(), error.getMessage()))
+                    .cache();
+            for (WeatherCache.GridCell cell : chunk) {
+                // 그 사이 다른 요청이 같은 칸 조회를 시작했다면 그 조회를 사용
+                byCell.put(cell, inFlight.computeIfAbsent(cell, key -> shared(key, call.flatMap(results -> {
+                    Map<String, Object> weather = results.get(key);
+                    return weather != null
+                            ? Mono.just(weather)
+                            : Mono.<Map<String, Object>>error(new IllegalStateException("Open-Meteo 일괄 응답에 격자 결과가 없습니다: " + key));
+                }))));
+            }
+        }
+        
+        List<Mono<Map<String, Object>>> results = new ArrayList<>(locations.size());
+        for (Coordinate location : locations) {
+            WeatherCache.GridCell cell = weatherCache.cellOf(location.latitude(), location.longitude());
+            results.add(byCell.get(cell)
+                    .map(weather -> withLocation(weather, location.latitude(), location.longitude()))
+                    .onErrorResume(error -> Mono.just(failedLocation(location))));
+        }
+        // 모든 좌표를 동시에 구독하고 결과는 요청 순서대로 모음
+        return Flux.mergeSequential(results).collectList();
+    }
     
-    public WeatherService(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.baseUrl("https://api.open-meteo.com/v1").build();
+    private Map<String, Object> failedLocation(Coordinate location) {
+        Map<String, Object> failed = new HashMap<>();
+        failed.put("latitude", location.latitude());
+        failed.put("longitude", location.longitude());
+        failed.put("error", "날씨 정보를 가져오지 못했습니다.");
+        return failed;
     }
     
-    public Map<String, Object> getCurrentLocationAndWeather(double latitude, double longitude) {
+    /**
+     * 격자 칸 중심 좌표로 Open-Meteo를 조회합니다.
+     * 화면에 쓰는 현재 값과 오늘 최고/최저 기온만 요청하고, 응답은 필요한 필드만 스트리밍으로 읽습니다.
+     */
+    private Mono<Map<String, Object>> fetchWeather(WeatherCache.GridCell cell) {
+        double latitude = weatherCache.centerLatitude(cell);
+        double longitude = weatherCache.centerLongitude(cell);
         return this.webClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .path("/forecast")
                         .queryParam("latitude", latitude)
                         .queryParam("longitude", longitude)
-                        .queryParam("current_weather", "true")
-                        .queryParam("daily", "temperature_2m_max,temperature_2m_min")
-                        .queryParam("hourly", "temperature_2m,relativehumidity_2m,apparent_temperature,precipitation")
+                        .queryParam("current", CURRENT_VARIABLES)
+                        .queryParam("daily", DAILY_VARIABLES)
+                        .queryParam("forecast_days", 1)
+                        .queryParam("timezone", FORECAST_ZONE.getId())
                         .build())
                 .retrieve()
-                .bodyToMono(Map.class)
-                .map(response -> processWeatherData(response, latitude, longitude))
-                .block();
+                .bodyToMono(byte[].class)
+                .map(body -> processWeatherData(OpenMeteoParser.parse(body), latitude, longitude));
     }
     
-    public Map<String, Object> getWeatherByCity(String city) {
-        // 도시명을 좌표로 변환하는 로직 (간단한 예시)
-        Map<String, Double> coordinates = getCityCoordinates(city);
-        return getCurrentLocationAndWeather(coordinates.get("latitude"), coordinates.get("longitude"));
+    /**
+     * 격자 칸 여러 개를 좌표 목록(쉼표 구분) 하나로 조회합니다. Open-Meteo는 요청한 좌표 순서대로 결과를 돌려줍니다.
+     */
+    private Mono<Map<WeatherCache.GridCell, Map<String, Object>>> fetchWeatherBatch(List<WeatherCache.GridCell> cells) {
+        StringJoiner latitudes = new StringJoiner(",");
+        StringJoiner longitudes = new StringJoiner(",");
+        for (WeatherCache.GridCell cell : cells) {
+            latitudes.add(Double.toString(weatherCache.centerLatitude(cell)));
+            longitudes.add(Double.toString(weatherCache.centerLongitude(cell)));
+        }
+        return this.webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/forecast")
+                        .queryParam("latitude", latitudes.toString())
+                        .queryParam("longitude", longitudes.toString())
+                        .queryParam("current", CURRENT_VARIABLES)
+                        .queryParam("daily", DAILY_VARIABLES)
+                        .queryParam("forecast_days", 1)
+                        .queryParam("timezone", FORECAST_ZONE.getId())
+                        .build())
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .map(body -> {
+                    List<OpenMeteoForecast> forecasts = OpenMeteoParser.parseAll(body);
+                    if (forecasts.size() != cells.size()) {
+                        throw new IllegalStateException("Open-Meteo 일괄 응답 개수가 요청과 다릅니다: "
+                                + forecasts.size() + "/" + cells.size());
+                    }
+                    Map<WeatherCache.GridCell, Map<String, Object>> results = new HashMap<>();
+                    for (int i = 0; i < cells.size(); i++) {
+                        WeatherCache.GridCell cell = cells.get(i);
+                        results.put(cell, processWeatherData(forecasts.get(i),
+                                weatherCache.centerLatitude(cell), weatherCache.centerLongitude(cell)));
+                    }
+                    return results;
+                });
     }
     
-    private Map<String, Object> processWeatherData(Map<String, Object> weatherApiResponse, double latitude, double longitude) {
-        Map<String, Object> currentWeather = (Map<String, Object>) weatherApiResponse.get("current_weather");
-        Map<String, Object> hourlyData = (Map<String, Object>) weatherApiResponse.get("hourly");
-        Map<String, Object> dailyData = (Map<String, Object>) weatherApiResponse.get("daily");
-        
-        int nowIndex = 0; // 가장 최근 시간 데이터 사용
-
-        // 현재 온도
-        Object tempObj = currentWeather.get("temperature");
-        double temperature;
-        if (tempObj instanceof Integer) {
-            temperature = ((Integer) tempObj).doubleValue();
-        } else {
-            temperature = (Double) tempObj;
-        }
+    /**
+     * 캐시된 날씨(공유 객체)를 복사해 요청 좌표 기준 위치명을 채웁니다.
+     */
+    private Map<String, Object> withLocation(Map<String, Object> weather, double latitude, double longitude) {
+        Map<String, Object> result = new HashMap<>(weather);
+        Optional<Region> region = gazetteer.nearest(latitude, longitude);
+        result.put("location", region.map(Region::displayName).orElse("현재 위치"));
+        result.put("regionId", region.map(Region::id).orElse(null));
+        return result;
+    }
+    
+    @Override
+    public String getStatsName() {
+        return "weather.upstream";
+    }
+    
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("calls", upstreamCalls.get());
+        stats.put("coalescedRequests", coalescedRequests.get());
+        stats.put("prefetchCalls", prefetchCalls.get());
+        stats.put("batchCalls", batchCalls.get());
+        stats.put("batchCells", batchCells.get());
+        stats.put("inFlight", inFlight.size());
+        return stats;
+    }
+    
+    /**
+     * 도시명으로 날씨를 조회합니다.
+     * 별칭이 달라도 같은 지역이면 그 지역의 대표 좌표로 조회하므로 같은 캐시 항목을 사용합니다.
+     */
+    public Mono<Map<String, Object>> getWeatherByCityAsync(String city) {
+        Region region = resolveCity(city);
+        return getCurrentLocationAndWeatherAsync(region.latitude(), region.longitude())
+                .map(weather -> {
+                    weather.put("regionId", region.id());
+                    weather.put("location", region.displayName());
+                    return weather;
+                });
+    }
+    
+    private Map<String, Object> processWeatherData(OpenMeteoForecast forecast, double latitude, double longitude) {
+        OpenMeteoForecast.Current current = forecast.current();
 
-        // 날씨 코드
-        Object codeObj = currentWeather.get("weathercode");
-        int weatherCode;
-        if (codeObj instanceof Integer) {
-            weatherCode = (Integer) codeObj;
-        } else {
-            weatherCode = ((Double) codeObj).intValue();
-        }
+        double temperature = current.temperature();
+        int weatherCode = current.weatherCode();
 
         // 실제 최저/최고 온도
-        double maxTemperature = ((java.util.List<Number>)dailyData.get("temperature_2m_max")).get(0).doubleValue();
-        double minTemperature = ((java.util.List<Number>)dailyData.get("temperature_2m_min")).get(0).doubleValue();
+        double maxTemperature = forecast.daily().maxTemperature();
+        double minTemperature = forecast.daily().minTemperature();
 
-        // 습도, 체감온도, 강수량
-        double humidity = ((java.util.List<Number>)hourlyData.get("relativehumidity_2m")).get(nowIndex).doubleValue();
-        double feelsLike = ((java.util.List<Double>)hourlyData.get("apparent_temperature")).get(nowIndex);
-        double precipitation = ((java.util.List<Double>)hourlyData.get("precipitation")).get(nowIndex);
+        // 습도, 체감온도, 강수량 (현재 시각 기준)
+        double humidity = current.relativeHumidity();
+        double feelsLike = current.apparentTemperature();
+        double precipitation = current.precipitation();
 
         // 체감온도 보정 (Open-Meteo API의 apparent_temperature가 부정확할 수 있음)
         // 습도가 높으면 체감온도가 높아지고, 습도가 낮으면 체감온도가 낮아지는 경향
@@ -84,6 +366,12 @@ public class WeatherService {
             feelsLike = temperature;
         }
 
+        // 인사이트 분석용 날씨 이력 (지역별 오늘의 대표 날씨와 평균 기온)
+        int dailyWeatherCode = forecast.daily().weatherCode() >= 0 ? forecast.daily().weatherCode() : weatherCode;
+        double meanTemperature = (maxTemperature + minTemperature) / 2;
+        gazetteer.nearest(latitude, longitude).ifPresent(region -> weatherHistoryStore.put(
+                region.id(), LocalDate.now(FORECAST_ZONE), WeatherCategory.fromWeatherCode(dailyWeatherCode), meanTemperature));
+
         String weatherCondition = getWeatherCondition(weatherCode);
         String positiveMessage = getPositiveMessage(weatherCode);
 
@@ -112,63 +400,27 @@ public class WeatherService {
         return weatherData;
     }
     
-    private Map<String, Double> getCityCoordinates(String city) {
-        Map<String, Double> coordinates = new HashMap<>();
-        switch (city.toLowerCase()) {
-            case "서울":
-                coordinates.put("latitude", 37.5665);
-                coordinates.put("longitude", 126.9780);
-                break;
-            case "부산":
-                coordinates.put("latitude", 35.1796);
-                coordinates.put("longitude", 129.0756);
-                break;
-            case "대구":
-                coordinates.put("latitude", 35.8714);
-                coordinates.put("longitude", 128.6014);
-                break;
-            case "인천":
-                coordinates.put("latitude", 37.4563);
-                coordinates.put("longitude", 126.7052);
-                break;
-            case "광주":
-                coordinates.put("latitude", 35.1595);
-                coordinates.put("longitude", 126.8526);
-                break;
-            case "대전":
-                coordinates.put("latitude", 36.3504);
-                coordinates.put("longitude", 127.3845);
-                break;
-            case "울산":
-                coordinates.put("latitude", 35.5384);
-                coordinates.put("longitude", 129.3114);
-                break;
-            default:
-                // 기본값: 서울
-                coordinates.put("latitude", 37.5665);
-                coordinates.put("longitude", 126.9780);
-                break;
-        }
-        return coordinates;
+    /**
+     * 도시명(공식 이름, 짧은 이름, 별칭)을 지명 사전의 지역으로 변환합니다. 찾지 못하거나 여러 지역에 해당하면 서울
+     */
+    private Region resolveCity(String city) {
+        return gazetteer.findByName(city)
+                .or(() -> {
+                    log.warn("지명 사전에 없거나 여러 지역에 해당하는 도시명입니다. 기본 지역(서울)을 사용합니다 - 도시: {}", city);
+                    return gazetteer.findById(DEFAULT_REGION_ID);
+                })
+                .orElseThrow(() -> new IllegalStateException("지명 사전에 기본 지역이 없습니다: " + DEFAULT_REGION_ID));
     }
     
     private String getLocationName(double latitude, double longitude) {
-        // 간단한 위치 매핑
-        if (Math.abs(latitude - 37.5665) < 0.1 && Math.abs(longitude - 126.9780) < 0.1) {
-            return "서울";
-        } else if (Math.abs(latitude - 35.1796) < 0.1 && Math.abs(longitude - 129.0756) < 0.1) {
-            return "부산";
-        } else if (Math.abs(latitude - 35.8714) < 0.1 && Math.abs(longitude - 128.6014) < 0.1) {
-            return "대구";
-        } else {
-            return "현재 위치";
-        }
+        return gazetteer.nearest(latitude, longitude).map(Region::displayName).orElse("현재 위치");
     }
     
     private String getWeatherCondition(int weatherCode) {
         switch (weatherCode) {
             case 0: return "맑음";
-            case 1: case 2: case 3: return "부분적으로 흐림";
+            case 1: return "대체로 맑음";
+            case 2: case 3: return "부분적으로 흐림";
             case 45: case 48: return "안개";
             case 51: case 53: case 55: return "이슬비";
             case 56: case 57: return "서리 내리는 이슬비";
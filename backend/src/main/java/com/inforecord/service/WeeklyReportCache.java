@@ -0,0 +1,292 @@
+package com.inforecord.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.inforecord.dto.AIAnalysisDto;
+import com.inforecord.metrics.StatsProvider;
+import com.inforecord.repository.UserDataChangedEvent;
+
+/**
+ * 주간 AI 분석 결과 캐시
+ *
+ * (사용자, 분석 기간, 지역) 단위로 계산된 AIAnalysisDto를 보관합니다.
+ * 분석 결과는 이번 기간과 비교 기간(시작일 7일 전 ~ 시작일 전날)의 기록/감정으로만 정해지므로,
+ * 저장소가 발행하는 UserDataChangedEvent의 날짜가 [시작일 - 7일, 종료일]에 들어가는 항목만 무효화합니다.
+ * 모든 날의 데이터로 정해지는 누적 날씨-감정 검정 결과는 여기에 넣지 않습니다. (WeeklyReportService가 조회 시 채움)
+ *
+ * 오늘이 포함된 기간은 그날의 지역 날씨가 계속 갱신되므로 캐시하지 않고, 이미 끝난 기간만 보관합니다.
+ * 계산 도중 같은 사용자의 데이터가 바뀌면 그 결과는 저장하지 않습니다. (사용자별 세대 번호 비교)
+ * 크기 제한을 넘으면 가장 오래 사용되지 않은 항목부터 제거합니다(LRU).
+ *
+ * 야간 사전 계산 결과는 LRU와 별도의 보관소에 두어, 사용자 수가 max-entries보다 많거나 요청이 몰려도
+ * 사전 계산한 리포트가 다른 리포트에 밀려 제거되지 않게 합니다. 보관소에는 가장 최근에 사전 계산한 주만 두고,
+ * 다음 주의 사전 계산이 시작되면 이전 주의 결과는 일반 LRU 항목으로 옮깁니다.
+ */
+@Component
+public class WeeklyReportCache implements StatsProvider {
+
+    /**
+     * 캐시 키
+     *
+     * @param regionId 날씨 이력 조회 지역 (null 가능)
+     */
+    public record Key(String userId, LocalDate start, LocalDate end, String regionId) {
+
+        boolean covers(LocalDate date) {
+            return !date.isBefore(start.minusDays(WeeklyReportService.COMPARISON_DAYS)) && !date.isAfter(end);
+        }
+    }
+
+    private final int maxEntries;
+    private final LinkedHashMap<Key, AIAnalysisDto> entries;
+
+    /** 사전 계산 보관소 (entries와 겹치지 않음, entries 잠금으로 보호) */
+    private final Map<Key, AIAnalysisDto> precomputed = new HashMap<>();
+    private LocalDate precomputedWeekStart;
+
+    /** 사용자별 캐시 키 (무효화 시 해당 사용자 항목만 확인) */
+    private final Map<String, Set<Key>> keysByUser = new HashMap<>();
+
+    /** 사용자별 데이터 변경 세대 (변경 이벤트마다 증가) */
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    // 지표
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong bypassed = new AtomicLong();
+    private final AtomicLong puts = new AtomicLong();
+    private final AtomicLong stalePutsDiscarded = new AtomicLong();
+    private final AtomicLong invalidationEvents = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong precomputedPuts = new AtomicLong();
+    private final AtomicLong precomputedHits = new AtomicLong();
+    private final AtomicLong precomputedDemoted = new AtomicLong();
+
+    public WeeklyReportCache(@Value("${analysis.report-cache.max-entries:5000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, AIAnalysisDto> eldest) {
+                if (size() > WeeklyReportCache.this.maxEntries) {
+                    forgetKey(eldest.getKey());
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 캐시된 분석 결과를 조회합니다. (없거나 아직 끝나지 않은 기간이면 null)
+     */
+    public AIAnalysisDto get(Key key) {
+        if (!isCacheable(key)) {
+            bypassed.incrementAndGet();
+            return null;
+        }
+        AIAnalysisDto report;
+        synchronized (entries) {
+            report = entries.get(key);
+            if (report == null) {
+                report = precomputed.get(key);
+                if (report != null) {
+                    precomputedHits.incrementAndGet();
+                }
+            }
+        }
+        (report != null ? hits : misses).incrementAndGet();
+        return report;
+    }
+
+    /**
+     * 캐시에 결과가 있는지 확인합니다. (지표와 LRU 순서에 영향 없음)
+     */
+    public boolean contains(Key key) {
+        synchronized (entries) {
+            return entries.containsKey(key) || precomputed.containsKey(key);
+        }
+    }
+
+    /**
+     * 분석을 시작하기 전에 사용자의 현재 세대를 읽어 둡니다. (put에 그대로 전달)
+     */
+    public long generation(String userId) {
+        AtomicLong generation = generations.get(userId);
+        return generation != null ? generation.get() : 0L;
+    }
+
+    /**
+     * 분석 결과를 저장합니다. 분석 도중 사용자 데이터가 바뀌었으면(세대가 다르면) 저장하지 않습니다.
+     */
+    public void put(Key key, AIAnalysisDto report, long generation) {
+        if (report == null || maxEntries <= 0 || !isCacheable(key)) {
+            return;
+        }
+        synchronized (entries) {
+            // 무효화도 entries 잠금 안에서 세대를 올리므로, 여기서 비교하면 오래된 결과가 끼어들 수 없음
+            if (generation(key.userId()) != generation) {
+                stalePutsDiscarded.incrementAndGet();
+                return;
+            }
+            if (precomputed.containsKey(key)) {
+                precomputed.put(key, report);
+            } else {
+                entries.put(key, report);
+            }
+            keysByUser.computeIfAbsent(key.userId(), k -> new HashSet<>()).add(key);
+        }
+        puts.incrementAndGet();
+    }
+
+    /**
+     * 사전 계산한 결과를 LRU 제한을 받지 않는 보관소에 저장합니다. (세대 비교는 put과 같음)
+     */
+    public void putPrecomputed(Key key, AIAnalysisDto report, long generation) {
+        if (report == null || !isCacheable(key)) {
+            return;
+        }
+        synchronized (entries) {
+            if (generation(key.userId()) != generation) {
+                stalePutsDiscarded.incrementAndGet();
+                return;
+            }
+            rollPrecomputedWeek(key.start());
+            entries.remove(key);
+            precomputed.put(key, report);
+            keysByUser.computeIfAbsent(key.userId(), k -> new HashSet<>()).add(key);
+        }
+        precomputedPuts.incrementAndGet();
+    }
+
+    /**
+     * 이미 계산된 결과가 있으면 사전 계산 보관소에 두고 true를 반환합니다. (LRU에 있던 결과는 보관소로 옮김)
+     */
+    public boolean retainAsPrecomputed(Key key) {
+        synchronized (entries) {
+            rollPrecomputedWeek(key.start());
+            if (precomputed.containsKey(key)) {
+                return true;
+            }
+            AIAnalysisDto report = entries.remove(key);
+            if (report == null) {
+                return false;
+            }
+            precomputed.put(key, report);
+            return true;
+        }
+    }
+
+    /**
+     * 다른 주의 사전 계산이 시작되면 보관소의 이전 결과를 LRU 항목으로 옮깁니다. (entries 잠금 안에서 호출)
+     */
+    private void rollPrecomputedWeek(LocalDate weekStart) {
+        if (weekStart.equals(precomputedWeekStart)) {
+            return;
+        }
+        precomputedWeekStart = weekStart;
+        if (precomputed.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Key, AIAnalysisDto>> previous = new ArrayList<>(precomputed.entrySet());
+        precomputed.clear();
+        for (Map.Entry<Key, AIAnalysisDto> entry : previous) {
+            entries.put(entry.getKey(), entry.getValue());
+        }
+        precomputedDemoted.addAndGet(previous.size());
+    }
+
+    /**
+     * 기록/감정 변경 시 그 날짜가 이번 기간이나 비교 기간에 들어가는 항목을 제거합니다.
+     */
+    @EventListener
+    public void onUserDataChanged(UserDataChangedEvent event) {
+        invalidationEvents.incrementAndGet();
+        int removed = 0;
+        synchronized (entries) {
+            generations.computeIfAbsent(event.userId(), k -> new AtomicLong()).incrementAndGet();
+            Set<Key> keys = keysByUser.get(event.userId());
+            if (keys == null) {
+                return;
+            }
+            for (Iterator<Key> it = keys.iterator(); it.hasNext(); ) {
+                Key key = it.next();
+                if (key.covers(event.date())) {
+                    entries.remove(key);
+                    precomputed.remove(key);
+                    it.remove();
+                    removed++;
+                }
+            }
+            if (keys.isEmpty()) {
+                keysByUser.remove(event.userId());
+            }
+        }
+        invalidations.addAndGet(removed);
+    }
+
+    private boolean isCacheable(Key key) {
+        return key.end().isBefore(LocalDate.now());
+    }
+
+    /**
+     * LRU 제거 시 사용자별 키 목록에서도 지웁니다. (entries 잠금 안에서 호출)
+     */
+    private void forgetKey(Key key) {
+        Set<Key> keys = keysByUser.get(key.userId());
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            keysByUser.remove(key.userId());
+        }
+    }
+
+    @Override
+    public String getStatsName() {
+        return "analysis.report-cache";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        int size;
+        int precomputedSize;
+        synchronized (entries) {
+            size = entries.size();
+            precomputedSize = precomputed.size();
+        }
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long lookups = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        stats.put("bypassed", bypassed.get());
+        stats.put("puts", puts.get());
+        stats.put("stalePutsDiscarded", stalePutsDiscarded.get());
+        stats.put("invalidationEvents", invalidationEvents.get());
+        stats.put("invalidations", invalidations.get());
+        stats.put("evictions", evictions.get());
+        stats.put("precomputed", precomputedSize);
+        stats.put("precomputedPuts", precomputedPuts.get());
+        stats.put("precomputedHits", precomputedHits.get());
+        // 다음 주 사전 계산이 시작되어 LRU 항목으로 옮긴 이전 주 결과 수
+        stats.put("precomputedDemoted", precomputedDemoted.get());
+        return stats;
+    }
+}
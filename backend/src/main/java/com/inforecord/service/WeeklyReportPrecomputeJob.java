@@ -0,0 +1,294 @@
+package com.inforecord.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.inforecord.Entity.Record;
+import com.inforecord.metrics.StatsProvider;
+import com.inforecord.repository.RecordRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 주간 리포트 야간 사전 계산 작업
+ *
+ * 매일 밤 직전에 끝난 주(week-start 요일부터 7일)에 기록이 있는 사용자마다
+ * 리포트 화면을 열 때와 같은 순서로 주간 감정분석과 AI 분석을 수행해 WeeklyReportCache의 사전 계산 보관소에 넣어 둡니다.
+ * (LRU 항목과 따로 보관하므로 사용자 수가 캐시 크기보다 많아도 사전 계산한 결과끼리 밀어내지 않음)
+ * 사용자 단위로 concurrency개 스레드에서 병렬 처리하고, 캐시에 없는 기록 내용만 Flask를 호출하므로
+ * 그 호출 수를 분당 flask-calls-per-minute로 제한합니다. (예산이 없으면 다음 분까지 대기)
+ * max-run-ms 안에 예산을 받지 못한 사용자와 이미 리포트가 캐시된 사용자는 건너뜁니다.
+ */
+@Component
+public class WeeklyReportPrecomputeJob implements StatsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(WeeklyReportPrecomputeJob.class);
+
+    private static final long BUDGET_WINDOW_MS = 60_000;
+
+    /**
+     * 한 번 실행한 결과
+     *
+     * @param userCostAvgMs 리포트를 계산한 사용자 한 명당 평균 소요 시간
+     */
+    public record RunSummary(LocalDate weekStart, LocalDate weekEnd, LocalDateTime startedAt, long durationMs,
+                             int users, int computed, int skippedCached, int skippedOverBudget, int failed,
+                             long flaskCalls, double userCostAvgMs, long userCostMaxMs) {}
+
+    private enum Outcome { COMPUTED, SKIPPED_CACHED, SKIPPED_OVER_BUDGET, FAILED }
+
+    private record UserResult(Outcome outcome, long costNanos, int flaskCalls) {}
+
+    private final RecordRepository recordRepository;
+    private final EmotionAnalysisService emotionAnalysisService;
+    private final EmotionResultCache emotionResultCache;
+    private final WeeklyReportService weeklyReportService;
+    private final boolean enabled;
+    private final DayOfWeek weekStart;
+    private final int concurrency;
+    private final int flaskCallsPerMinute;
+    private final long maxRunMs;
+
+    private ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private long budgetWindowStartMs;
+    private int budgetUsed;
+
+    // 지표
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong overlappingRunsSkipped = new AtomicLong();
+    private volatile RunSummary lastRun;
+
+    public WeeklyReportPrecomputeJob(RecordRepository recordRepository, EmotionAnalysisService emotionAnalysisService,
+                                     EmotionResultCache emotionResultCache, WeeklyReportService weeklyReportService,
+                                     @Value("${analysis.precompute.enabled:true}") boolean enabled,
+                                     @Value("${analysis.precompute.week-start:SUNDAY}") DayOfWeek weekStart,
+                                     @Value("${analysis.precompute.concurrency:4}") int concurrency,
+                                     @Value("${analysis.precompute.flask-calls-per-minute:60}") int flaskCallsPerMinute,
+                                     @Value("${analysis.precompute.max-run-ms:1800000}") long maxRunMs) {
+        this.recordRepository = recordRepository;
+        this.emotionAnalysisService = emotionAnalysisService;
+        this.emotionResultCache = emotionResultCache;
+        this.weeklyReportService = weeklyReportService;
+        this.enabled = enabled;
+        this.weekStart = weekStart;
+        this.concurrency = Math.max(1, concurrency);
+        this.flaskCallsPerMinute = Math.max(1, flaskCallsPerMinute);
+        this.maxRunMs = maxRunMs;
+    }
+
+    @PostConstruct
+    public void startExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "weekly-report-precompute-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Scheduled(cron = "${analysis.precompute.cron:0 30 3 * * *}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        if (!running.compareAndSet(false, true)) {
+            overlappingRunsSkipped.incrementAndGet();
+            log.warn("주간 리포트 사전 계산이 아직 진행 중이라 이번 실행은 건너뜀");
+            return;
+        }
+        try {
+            runFor(LocalDate.now());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * today 직전에 끝난 주의 리포트를 기록이 있는 모든 사용자에 대해 계산합니다.
+     */
+    public RunSummary runFor(LocalDate today) {
+        LocalDate end = today.minusDays(1).with(TemporalAdjusters.previousOrSame(weekStart.minus(1)));
+        LocalDate start = end.minusDays(6);
+        LocalDateTime startedAt = LocalDateTime.now();
+        long startedMs = System.currentTimeMillis();
+        long deadlineMs = startedMs + maxRunMs;
+        runs.incrementAndGet();
+
+        List<String> userIds = recordRepository.findUserIdsWithRecordsBetween(start, end);
+        log.info("주간 리포트 사전 계산 시작 - 기간: {} ~ {}, 사용자 수: {}", start, end, userIds.size());
+
+        List<Future<UserResult>> futures = new ArrayList<>(userIds.size());
+        for (String userId : userIds) {
+            futures.add(executor.submit(() -> precompute(userId, start, end, deadlineMs)));
+        }
+
+        int[] counts = new int[Outcome.values().length];
+        long flaskCalls = 0;
+        long costSumNanos = 0;
+        long costMaxNanos = 0;
+        for (int i = 0; i < futures.size(); i++) {
+            UserResult result;
+            try {
+                result = futures.get(i).get();
+            } catch (ExecutionException e) {
+                log.error("주간 리포트 사전 계산 실패 - 사용자: {}", userIds.get(i), e.getCause());
+                result = new UserResult(Outcome.FAILED, 0, 0);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.subList(i, futures.size()).forEach(future -> future.cancel(true));
+                log.warn("주간 리포트 사전 계산 중단 - 남은 사용자: {}", futures.size() - i);
+                break;
+            }
+            counts[result.outcome().ordinal()]++;
+            flaskCalls += result.flaskCalls();
+            if (result.outcome() == Outcome.COMPUTED) {
+                costSumNanos += result.costNanos();
+                costMaxNanos = Math.max(costMaxNanos, result.costNanos());
+            }
+        }
+
+        int computed = counts[Outcome.COMPUTED.ordinal()];
+        RunSummary summary = new RunSummary(start, end, startedAt, System.currentTimeMillis() - startedMs,
+                userIds.size(), computed, counts[Outcome.SKIPPED_CACHED.ordinal()],
+                counts[Outcome.SKIPPED_OVER_BUDGET.ordinal()], counts[Outcome.FAILED.ordinal()], flaskCalls,
+                computed > 0 ? costSumNanos / 1_000_000.0 / computed : 0.0, costMaxNanos / 1_000_000);
+        lastRun = summary;
+        log.info("주간 리포트 사전 계산 완료 - 기간: {} ~ {}, {}ms, 계산: {}, 캐시됨: {}, 예산 초과: {}, 실패: {}, Flask 호출: {}, 사용자당 평균 {}ms",
+                start, end, summary.durationMs(), summary.computed(), summary.skippedCached(),
+                summary.skippedOverBudget(), summary.failed(), summary.flaskCalls(),
+                String.format("%.1f", summary.userCostAvgMs()));
+        return summary;
+    }
+
+    /**
+     * 한 사용자의 주간 감정분석과 리포트를 계산합니다. (리포트 화면의 analyze-weekly -> ai-analysis 순서와 같음)
+     */
+    private UserResult precompute(String userId, LocalDate start, LocalDate end, long deadlineMs) {
+        long startedNanos = System.nanoTime();
+        if (weeklyReportService.retainPrecomputed(userId, start, end, null)) {
+            return new UserResult(Outcome.SKIPPED_CACHED, 0, 0);
+        }
+
+        List<Record> records = recordRepository.findByUserIdAndDateRange(userId, start, end);
+        int flaskCalls = (int) records.stream()
+            .filter(record -> !emotionResultCache.contains(record.getContent()))
+            .count();
+        if (!acquireBudget(flaskCalls, deadlineMs)) {
+            return new UserResult(Outcome.SKIPPED_OVER_BUDGET, 0, 0);
+        }
+
+        try {
+            emotionAnalysisService.analyzeWeeklyEmotions(records, userId, start, end);
+            weeklyReportService.precomputeWeeklyReport(userId, start, end, null);
+            return new UserResult(Outcome.COMPUTED, System.nanoTime() - startedNanos, flaskCalls);
+        } catch (Exception e) {
+            log.warn("주간 리포트 사전 계산 실패 - 사용자: {}, 원인: {}", userId, e.getMessage());
+            return new UserResult(Outcome.FAILED, 0, flaskCalls);
+        }
+    }
+
+    /**
+     * Flask 호출 예산을 calls만큼 받습니다. 이번 분의 예산이 모자라면 다음 분까지 기다리고,
+     * 기다려도 deadline 안에 받을 수 없으면 false를 반환합니다.
+     */
+    private boolean acquireBudget(int calls, long deadlineMs) {
+        if (calls == 0) {
+            return System.currentTimeMillis() < deadlineMs;
+        }
+        while (true) {
+            long waitMs = reserveBudget(calls, deadlineMs, System.currentTimeMillis());
+            if (waitMs == 0) {
+                return true;
+            }
+            if (waitMs < 0) {
+                return false;
+            }
+            try {
+                Thread.sleep(waitMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * now 시각 기준으로 이번 분의 예산에서 calls만큼 예약을 시도합니다.
+     * 한 사용자의 호출 수가 분당 예산보다 많으면 빈 창 하나를 통째로 사용합니다.
+     *
+     * @return 0이면 예약됨, 양수면 다음 창까지 기다릴 시간(ms), 다음 창이 deadline 이후면 -1
+     */
+    synchronized long reserveBudget(int calls, long deadlineMs, long now) {
+        if (now - budgetWindowStartMs >= BUDGET_WINDOW_MS) {
+            budgetWindowStartMs = now;
+            budgetUsed = 0;
+        }
+        if (budgetUsed + calls <= flaskCallsPerMinute || budgetUsed == 0) {
+            budgetUsed += calls;
+            return 0;
+        }
+        long waitMs = budgetWindowStartMs + BUDGET_WINDOW_MS - now;
+        return now + waitMs >= deadlineMs ? -1 : waitMs;
+    }
+
+    @Override
+    public String getStatsName() {
+        return "analysis.precompute";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("running", running.get());
+        stats.put("runs", runs.get());
+        stats.put("overlappingRunsSkipped", overlappingRunsSkipped.get());
+        stats.put("concurrency", concurrency);
+        stats.put("flaskCallsPerMinute", flaskCallsPerMinute);
+        RunSummary summary = lastRun;
+        if (summary != null) {
+            Map<String, Object> last = new LinkedHashMap<>();
+            last.put("weekStart", summary.weekStart().toString());
+            last.put("weekEnd", summary.weekEnd().toString());
+            last.put("startedAt", summary.startedAt().toString());
+            last.put("durationMs", summary.durationMs());
+            last.put("users", summary.users());
+            last.put("computed", summary.computed());
+            last.put("skippedCached", summary.skippedCached());
+            last.put("skippedOverBudget", summary.skippedOverBudget());
+            last.put("failed", summary.failed());
+            last.put("flaskCalls", summary.flaskCalls());
+            last.put("userCostAvgMs", summary.userCostAvgMs());
+            last.put("userCostMaxMs", summary.userCostMaxMs());
+            stats.put("lastRun", last);
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,92 @@
+package com.inforecord.service;
+
+import java.time.LocalDate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.inforecord.dto.AIAnalysisDto;
+import com.inforecord.dto.EmotionDto;
+import com.inforecord.dto.RecordDto;
+import com.inforecord.model.WeekPair;
+
+/**
+ * 주간 AI 분석 리포트 조회
+ *
+ * 이번 기간과 비교 기간(시작일 7일 전 ~ 시작일 전날)의 기록/감정을 한 번의 기간 조회로 가져와 나누고
+ * AIAnalysisService로 분석합니다.
+ * 끝난 기간의 결과는 WeeklyReportCache에 보관되며, 야간 사전 계산 결과는 LRU와 별도의 보관소에 둡니다.
+ */
+@Service
+public class WeeklyReportService {
+
+    private static final Logger log = LoggerFactory.getLogger(WeeklyReportService.class);
+
+    /** 비교 기간 길이 */
+    public static final int COMPARISON_DAYS = 7;
+
+    private final AIAnalysisService aiAnalysisService;
+    private final RecordService recordService;
+    private final EmotionAnalysisService emotionAnalysisService;
+    private final WeeklyReportCache weeklyReportCache;
+
+    public WeeklyReportService(AIAnalysisService aiAnalysisService, RecordService recordService,
+                               EmotionAnalysisService emotionAnalysisService, WeeklyReportCache weeklyReportCache) {
+        this.aiAnalysisService = aiAnalysisService;
+        this.recordService = recordService;
+        this.emotionAnalysisService = emotionAnalysisService;
+        this.weeklyReportCache = weeklyReportCache;
+    }
+
+    /**
+     * 주간 리포트를 조회합니다. 캐시에 있으면 그대로 쓰고, 없으면 계산해 캐시에 저장합니다.
+     * 캐시에는 분석 기간의 데이터로만 정해지는 결과를 두고, 누적 날씨-감정 검정 결과는 반환할 때 채웁니다.
+     *
+     * @param regionId 날씨 이력 조회 지역 (null 가능)
+     */
+    public AIAnalysisDto getWeeklyReport(String userId, LocalDate start, LocalDate end, String regionId) {
+        WeeklyReportCache.Key cacheKey = new WeeklyReportCache.Key(userId, start, end, regionId);
+        AIAnalysisDto cached = weeklyReportCache.get(cacheKey);
+        if (cached != null) {
+            log.info("주간 AI 분석 캐시 사용 - 사용자: {}, 기간: {} ~ {}", userId, start, end);
+            return aiAnalysisService.withWeatherStatistics(userId, cached);
+        }
+        long generation = weeklyReportCache.generation(userId);
+
+        AIAnalysisDto analysis = computeWeeklyReport(userId, start, end, regionId);
+        weeklyReportCache.put(cacheKey, analysis, generation);
+        return aiAnalysisService.withWeatherStatistics(userId, analysis);
+    }
+
+    /**
+     * 이미 계산된 리포트가 있으면 사전 계산 보관소에 두고 true를 반환합니다.
+     * (사전 계산 작업에서 이미 계산된 사용자를 건너뛸 때 사용, 엔드포인트가 먼저 계산해 LRU에 있던 결과도 제거되지 않게 옮김)
+     */
+    public boolean retainPrecomputed(String userId, LocalDate start, LocalDate end, String regionId) {
+        return weeklyReportCache.retainAsPrecomputed(new WeeklyReportCache.Key(userId, start, end, regionId));
+    }
+
+    /**
+     * 리포트를 계산해 사전 계산 보관소에 저장합니다. (야간 사전 계산 작업용)
+     */
+    public void precomputeWeeklyReport(String userId, LocalDate start, LocalDate end, String regionId) {
+        long generation = weeklyReportCache.generation(userId);
+        AIAnalysisDto analysis = computeWeeklyReport(userId, start, end, regionId);
+        weeklyReportCache.putPrecomputed(new WeeklyReportCache.Key(userId, start, end, regionId), analysis, generation);
+    }
+
+    private AIAnalysisDto computeWeeklyReport(String userId, LocalDate start, LocalDate end, String regionId) {
+        // 저번주(이번주 시작일에서 7일 전부터 이번주 시작일 전까지)와 이번주를 한 번씩만 조회해 나눔
+        LocalDate previousStart = start.minusDays(COMPARISON_DAYS);
+        WeekPair<RecordDto> records = recordService.getTwoWeekRecords(userId, previousStart, start, end);
+        WeekPair<EmotionDto> emotions = emotionAnalysisService.getTwoWeekEmotionSummary(userId, previousStart, start, end);
+
+        // AI 분석 수행
+        return aiAnalysisService.analyzeWeeklyInsights(
+            records.current(), emotions.current(),
+            records.previous(), emotions.previous(),
+            regionId
+        );
+    }
+}
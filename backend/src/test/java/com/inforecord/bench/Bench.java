@@ -0,0 +1,97 @@
+package com.inforecord.bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * 벤치마크 하네스 (JMH 없이 테스트 클래스패스에서 바로 실행)
+ *
+ * 워밍업 반복으로 JIT를 충분히 돌린 뒤 측정 반복마다 연산당 시간(ns/op)과
+ * 측정 스레드의 연산당 할당 바이트(B/op)를 재고 중앙값을 출력합니다.
+ * 측정 대상이 돌려주는 값은 모두 더해 두어 JIT가 계산을 없애지 못하게 합니다.
+ *
+ * 실행: ./gradlew benchmark -Pbench=com.inforecord.bench.RecordLookupBenchmark
+ */
+public final class Bench {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // 측정 결과가 쓰이지 않는다고 판단되어 제거되지 않도록 모아 두는 값
+    private static volatile long sink;
+
+    /**
+     * @param nanosPerOp 측정 반복별 ns/op의 중앙값
+     * @param bytesPerOp 측정 반복별 B/op의 중앙값
+     */
+    public record Result(String name, double nanosPerOp, double bytesPerOp) {
+
+        @Override
+        public String toString() {
+            return String.format("%-48s %14.1f ns/op %12.1f B/op", name, nanosPerOp, bytesPerOp);
+        }
+    }
+
+    private Bench() {
+    }
+
+    /**
+     * operation을 opsPerIteration번 호출하는 반복을 warmups번 버리고 iterations번 측정합니다.
+     */
+    public static Result run(String name, int warmups, int iterations, int opsPerIteration, LongSupplier operation) {
+        long consumed = 0;
+        for (int i = 0; i < warmups; i++) {
+            for (int op = 0; op < opsPerIteration; op++) {
+                consumed += operation.getAsLong();
+            }
+        }
+        long threadId = Thread.currentThread().getId();
+        double[] nanos = new double[iterations];
+        double[] bytes = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+            long started = System.nanoTime();
+            for (int op = 0; op < opsPerIteration; op++) {
+                consumed += operation.getAsLong();
+            }
+            nanos[i] = (double) (System.nanoTime() - started) / opsPerIteration;
+            bytes[i] = (double) (THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore) / opsPerIteration;
+        }
+        sink += consumed;
+        Result result = new Result(name, median(nanos), median(bytes));
+        System.out.println(result);
+        return result;
+    }
+
+    /**
+     * GC를 여러 번 돌린 뒤의 힙 사용량 (바이트, 측정 대상은 호출하는 쪽에서 살아 있게 유지)
+     */
+    public static long usedHeapAfterGc() {
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            used = Math.min(used, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+
+    /**
+     * 명령행 첫 인자를 정수로 읽습니다. (없으면 기본값)
+     */
+    public static int intArg(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
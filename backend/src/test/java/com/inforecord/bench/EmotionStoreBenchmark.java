@@ -0,0 +1,70 @@
+package com.inforecord.bench;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import com.inforecord.Entity.Emotion;
+import com.inforecord.Entity.Record;
+import com.inforecord.repository.EmotionRepository;
+import com.inforecord.repository.InMemoryRepositories;
+
+/**
+ * EmotionRepository 저장 모드별 힙 사용량과 조회/집계 시간 (aggregates: Emotion 객체 + 인덱스 + 증분 집계, columnar: 열 배열만)
+ *
+ * 모드마다 저장소 전체를 채운 뒤 GC 후 힙 증가분을 재고, 같은 질의로 주간 비교 집계와 기간 조회를 측정합니다.
+ *
+ * 인자: [사용자 수, 기본 2000] [사용자당 감정 수(일), 기본 500]
+ */
+public final class EmotionStoreBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2023, 1, 1);
+    private static final String[] TYPES = {"기쁨", "슬픔", "분노", "불안", "평온", "설렘", "피곤"};
+
+    public static void main(String[] args) {
+        int users = Bench.intArg(args, 0, 2_000);
+        int days = Bench.intArg(args, 1, 500);
+        for (String mode : new String[] {EmotionRepository.MODE_AGGREGATES, EmotionRepository.MODE_COLUMNAR}) {
+            measure(mode, users, days);
+        }
+    }
+
+    private static void measure(String mode, int users, int days) {
+        long before = Bench.usedHeapAfterGc();
+        EmotionRepository repository = InMemoryRepositories.emotions(InMemoryRepositories.records(), mode);
+        Random random = new Random(3);
+        long recordId = 1;
+        for (int day = 0; day < days; day++) {
+            for (int user = 0; user < users; user++) {
+                Record record = new Record();
+                record.setId(recordId++);
+                Emotion emotion = new Emotion(record, TYPES[random.nextInt(TYPES.length)], random.nextInt(100) / 100.0);
+                emotion.setUserId("user-" + user);
+                emotion.setDate(FIRST_DAY.plusDays(day));
+                repository.save(emotion);
+            }
+        }
+        long retained = Bench.usedHeapAfterGc() - before;
+        long emotions = (long) users * days;
+        System.out.printf("%s: %d emotions, retained heap %d MB (%.0f B/emotion)%n",
+                mode, emotions, retained >> 20, (double) retained / emotions);
+
+        Bench.run(mode + " 2-week split totals", 5, 10, 100_000, () -> {
+            String userId = "user-" + random.nextInt(users);
+            LocalDate end = FIRST_DAY.plusDays(13 + random.nextInt(days - 13));
+            return repository.sumByUserIdAndDateRangeSplit(userId, end.minusDays(13), end.minusDays(6), end)
+                .current().size();
+        });
+        Bench.run(mode + " week range find", 5, 10, 100_000, () -> {
+            String userId = "user-" + random.nextInt(users);
+            LocalDate start = FIRST_DAY.plusDays(random.nextInt(days));
+            return repository.findEmotionsByUserIdAndDateRange(userId, start, start.plusDays(6)).size();
+        });
+        Bench.run(mode + " find by record", 5, 10, 100_000, () ->
+            repository.findByRecordId(1L + random.nextInt((int) emotions)).size());
+        // 측정이 끝날 때까지 저장소가 수거되지 않도록 유지
+        System.out.printf("%s: %s%n", mode, repository.getStats().get("emotions"));
+    }
+
+    private EmotionStoreBenchmark() {
+    }
+}
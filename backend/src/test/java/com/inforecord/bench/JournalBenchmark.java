@@ -0,0 +1,109 @@
+package com.inforecord.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import com.inforecord.Entity.Record;
+import com.inforecord.persistence.JournalEngine;
+import com.inforecord.persistence.RecordCodec;
+import com.inforecord.repository.RecordRepository;
+
+/**
+ * 저널을 켠 RecordRepository의 쓰기 처리량과 재시작(복구) 시간
+ *
+ * 1. 동시 저장: 스레드마다 자기 사용자들의 기록을 저장하고 save가 fsync까지 기다리는 처리량을 잽니다.
+ * 2. 저널만으로 재시작: 스냅샷 없이 세그먼트 전체를 재생
+ * 3. 스냅샷 작성 후 재시작: 스냅샷 로드 + (비어 있는) 저널 꼬리
+ *
+ * 인자: [기록 수, 기본 1000000] [저장 스레드 수, 기본 16] [저널 디렉터리, 기본 임시 디렉터리]
+ */
+public final class JournalBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+    private static final int RECORDS_PER_USER = 500;
+
+    public static void main(String[] args) throws Exception {
+        int records = Bench.intArg(args, 0, 1_000_000);
+        int threads = Bench.intArg(args, 1, 16);
+        Path dir = args.length > 2 ? Path.of(args[2]) : Files.createTempDirectory("journal-bench");
+        try {
+            Store store = open(dir);
+            RecordRepository repository = store.repository();
+            long started = System.nanoTime();
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int first = t;
+                writers.add(executor.submit(() -> {
+                    for (int i = first; i < records; i += threads) {
+                        repository.save(new Record("오늘의 기록 " + i, FIRST_DAY.plusDays(i % RECORDS_PER_USER),
+                                "user-" + i / RECORDS_PER_USER));
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+            executor.shutdown();
+            double writeSeconds = (System.nanoTime() - started) / 1e9;
+            Map<String, Object> stats = store.journal().getStats();
+            System.out.printf("write: %d records, %d threads, %.1f s, %.0f records/s, avg group commit %.1f, %d MB written%n",
+                    records, threads, writeSeconds, records / writeSeconds, (Double) stats.get("avgBatchSize"),
+                    (Long) stats.get("bytesWritten") >> 20);
+            store.journal().close();
+
+            Store fromJournal = timedOpen("restart, journal replay only", dir);
+            long snapshotStarted = System.nanoTime();
+            fromJournal.repository().snapshot();
+            System.out.printf("snapshot: %d ms (writers are only blocked while references are copied)%n",
+                    (System.nanoTime() - snapshotStarted) / 1_000_000);
+            fromJournal.journal().close();
+
+            Store fromSnapshot = timedOpen("restart, snapshot", dir);
+            System.out.printf("recovered records: %d%n", fromSnapshot.repository().findAll().size());
+            fromSnapshot.journal().close();
+        } finally {
+            if (args.length <= 2) {
+                deleteRecursively(dir);
+            }
+        }
+    }
+
+    private record Store(JournalEngine<Record> journal, RecordRepository repository) {}
+
+    private static Store timedOpen(String name, Path dir) {
+        long started = System.nanoTime();
+        Store store = open(dir);
+        System.out.printf("%s: %d ms%n", name, (System.nanoTime() - started) / 1_000_000);
+        return store;
+    }
+
+    // application.yml의 persistence 기본값과 같은 세그먼트 크기와 group commit 크기
+    private static Store open(Path dir) {
+        JournalEngine<Record> journal = new JournalEngine<>("records", dir, new RecordCodec(), true, 64L * 1024 * 1024, 512);
+        RecordRepository repository = new RecordRepository(journal);
+        repository.recover();
+        return new Store(journal, repository);
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private JournalBenchmark() {
+    }
+}
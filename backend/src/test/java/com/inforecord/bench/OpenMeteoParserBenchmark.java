@@ -0,0 +1,143 @@
+package com.inforecord.bench;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inforecord.model.OpenMeteoForecast;
+import com.inforecord.service.OpenMeteoParser;
+
+/**
+ * Open-Meteo 응답 크기와 응답 하나의 파싱 시간/할당량: 축소 전 요청 + Map 디코딩과 축소한 요청 + 스트리밍 파서 비교
+ *
+ * 응답은 Open-Meteo 형식을 그대로 따라 만듭니다.
+ * - before: current_weather + 기본 7일치 hourly 4개 변수(168시간) + daily 최고/최저, ObjectMapper로 Map 전체를 만든 뒤 첫 값만 사용
+ * - trimmed payload, Map decode: 축소한 응답을 before와 같이 Map으로 디코딩 (요청 축소만의 효과)
+ * - after: current 5개 변수 + 오늘 하루 daily, OpenMeteoParser로 필요한 필드만 읽음
+ */
+public final class OpenMeteoParserBenchmark {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 1);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) {
+        byte[] before = fullResponse().getBytes(StandardCharsets.UTF_8);
+        byte[] after = trimmedResponse().getBytes(StandardCharsets.UTF_8);
+        System.out.printf("payload: before %d B, after %d B (%.1fx smaller)%n",
+                before.length, after.length, (double) before.length / after.length);
+
+        Bench.run("before: full payload, Map decode", 10, 10, 20_000, () -> readMapBefore(before));
+        Bench.run("trimmed payload, Map decode", 10, 10, 20_000, () -> readMapTrimmed(after));
+        Bench.run("after: trimmed payload, streaming parser", 10, 10, 20_000, () -> {
+            OpenMeteoForecast forecast = OpenMeteoParser.parse(after);
+            return (long) (forecast.current().temperature() + forecast.daily().maxTemperature());
+        });
+    }
+
+    // 축소 전 processWeatherData가 읽던 값
+    @SuppressWarnings("unchecked")
+    private static long readMapBefore(byte[] body) {
+        Map<String, Object> response = readMap(body);
+        Map<String, Object> currentWeather = (Map<String, Object>) response.get("current_weather");
+        Map<String, Object> hourly = (Map<String, Object>) response.get("hourly");
+        Map<String, Object> daily = (Map<String, Object>) response.get("daily");
+        double sum = ((Number) currentWeather.get("temperature")).doubleValue()
+                + ((Number) currentWeather.get("weathercode")).intValue()
+                + ((List<Number>) daily.get("temperature_2m_max")).get(0).doubleValue()
+                + ((List<Number>) daily.get("temperature_2m_min")).get(0).doubleValue()
+                + ((List<Number>) hourly.get("relativehumidity_2m")).get(0).doubleValue()
+                + ((List<Number>) hourly.get("apparent_temperature")).get(0).doubleValue()
+                + ((List<Number>) hourly.get("precipitation")).get(0).doubleValue();
+        return (long) sum;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long readMapTrimmed(byte[] body) {
+        Map<String, Object> response = readMap(body);
+        Map<String, Object> current = (Map<String, Object>) response.get("current");
+        Map<String, Object> daily = (Map<String, Object>) response.get("daily");
+        double sum = ((Number) current.get("temperature_2m")).doubleValue()
+                + ((Number) current.get("relative_humidity_2m")).doubleValue()
+                + ((Number) current.get("apparent_temperature")).doubleValue()
+                + ((Number) current.get("precipitation")).doubleValue()
+                + ((Number) current.get("weather_code")).intValue()
+                + ((List<Number>) daily.get("temperature_2m_max")).get(0).doubleValue()
+                + ((List<Number>) daily.get("temperature_2m_min")).get(0).doubleValue();
+        return (long) sum;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> readMap(byte[] body) {
+        try {
+            return MAPPER.readValue(body, Map.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 축소 전 요청(current_weather=true, hourly 4개 변수, daily 최고/최저, 기본 7일)의 응답
+    private static String fullResponse() {
+        int days = 7;
+        int hours = days * 24;
+        StringBuilder json = new StringBuilder(header());
+        json.append("\"current_weather_units\":{\"time\":\"iso8601\",\"interval\":\"seconds\",\"temperature\":\"°C\",")
+            .append("\"windspeed\":\"km/h\",\"winddirection\":\"°\",\"is_day\":\"\",\"weathercode\":\"wmo code\"},")
+            .append("\"current_weather\":{\"time\":\"2024-05-01T12:00\",\"interval\":900,\"temperature\":21.5,")
+            .append("\"windspeed\":7.4,\"winddirection\":245,\"is_day\":1,\"weathercode\":1},")
+            .append("\"hourly_units\":{\"time\":\"iso8601\",\"temperature_2m\":\"°C\",\"relativehumidity_2m\":\"%\",")
+            .append("\"apparent_temperature\":\"°C\",\"precipitation\":\"mm\"},")
+            .append("\"hourly\":{\"time\":[");
+        for (int h = 0; h < hours; h++) {
+            json.append(h > 0 ? "," : "").append('"').append(DAY.plusDays(h / 24))
+                .append(String.format(Locale.ROOT, "T%02d:00\"", h % 24));
+        }
+        json.append("],");
+        appendSeries(json, "temperature_2m", hours, 14.0, 11.0).append(',');
+        appendSeries(json, "relativehumidity_2m", hours, 40.0, 50.0).append(',');
+        appendSeries(json, "apparent_temperature", hours, 13.0, 12.0).append(',');
+        appendSeries(json, "precipitation", hours, 0.0, 2.0).append("},");
+        json.append("\"daily_units\":{\"time\":\"iso8601\",\"temperature_2m_max\":\"°C\",\"temperature_2m_min\":\"°C\"},")
+            .append("\"daily\":{\"time\":[");
+        for (int d = 0; d < days; d++) {
+            json.append(d > 0 ? "," : "").append('"').append(DAY.plusDays(d)).append('"');
+        }
+        json.append("],");
+        appendSeries(json, "temperature_2m_max", days, 22.0, 6.0).append(',');
+        appendSeries(json, "temperature_2m_min", days, 11.0, 6.0).append("}}");
+        return json.toString();
+    }
+
+    // 현재 요청(current 5개 변수, daily 날씨 코드/최고/최저, forecast_days=1)의 응답
+    private static String trimmedResponse() {
+        return header()
+            + "\"current_units\":{\"time\":\"iso8601\",\"interval\":\"seconds\",\"temperature_2m\":\"°C\","
+            + "\"relative_humidity_2m\":\"%\",\"apparent_temperature\":\"°C\",\"precipitation\":\"mm\",\"weather_code\":\"wmo code\"},"
+            + "\"current\":{\"time\":\"2024-05-01T12:00\",\"interval\":900,\"temperature_2m\":21.5,\"relative_humidity_2m\":55,"
+            + "\"apparent_temperature\":21.0,\"precipitation\":0.0,\"weather_code\":1},"
+            + "\"daily_units\":{\"time\":\"iso8601\",\"weather_code\":\"wmo code\",\"temperature_2m_max\":\"°C\",\"temperature_2m_min\":\"°C\"},"
+            + "\"daily\":{\"time\":[\"2024-05-01\"],\"weather_code\":[3],\"temperature_2m_max\":[25.0],\"temperature_2m_min\":[15.0]}}";
+    }
+
+    private static String header() {
+        return "{\"latitude\":37.55,\"longitude\":126.975,\"generationtime_ms\":0.0820159912109375,"
+            + "\"utc_offset_seconds\":32400,\"timezone\":\"Asia/Seoul\",\"timezone_abbreviation\":\"KST\",\"elevation\":38.0,";
+    }
+
+    // Open-Meteo처럼 소수점 한 자리 값
+    private static StringBuilder appendSeries(StringBuilder json, String name, int count, double base, double amplitude) {
+        json.append('"').append(name).append("\":[");
+        for (int i = 0; i < count; i++) {
+            double value = base + amplitude * (0.5 + 0.5 * Math.sin(i * Math.PI / 12));
+            json.append(i > 0 ? "," : "").append(String.format(Locale.ROOT, "%.1f", value));
+        }
+        return json.append(']');
+    }
+
+    private OpenMeteoParserBenchmark() {
+    }
+}
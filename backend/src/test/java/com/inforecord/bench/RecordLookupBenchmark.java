@@ -0,0 +1,76 @@
+package com.inforecord.bench;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.inforecord.Entity.Record;
+import com.inforecord.repository.InMemoryRepositories;
+import com.inforecord.repository.RecordRepository;
+
+/**
+ * 기록 날짜 단건/주간 조회: 인덱스 이전의 전체 스캔과 RecordRepository 인덱스 비교
+ *
+ * 인자: [사용자 수, 기본 2000] [사용자당 기록 수(일), 기본 500]
+ */
+public final class RecordLookupBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2023, 1, 1);
+
+    public static void main(String[] args) {
+        int users = Bench.intArg(args, 0, 2_000);
+        int days = Bench.intArg(args, 1, 500);
+        RecordRepository repository = InMemoryRepositories.records();
+        Map<Long, Record> scanned = new ConcurrentHashMap<>();
+        for (int day = 0; day < days; day++) {
+            for (int user = 0; user < users; user++) {
+                Record record = repository.save(new Record("기록", FIRST_DAY.plusDays(day), "user-" + user));
+                scanned.put(record.getId(), record);
+            }
+        }
+        System.out.printf("records=%d users=%d%n", scanned.size(), users);
+
+        Random random = new Random(1);
+        Bench.run("point lookup, full scan (before)", 2, 5, 20, () -> {
+            String userId = "user-" + random.nextInt(users);
+            LocalDate date = FIRST_DAY.plusDays(random.nextInt(days));
+            return scanPoint(scanned, date, userId).map(Record::getId).orElse(0L);
+        });
+        Bench.run("point lookup, hash index", 5, 10, 200_000, () -> {
+            String userId = "user-" + random.nextInt(users);
+            LocalDate date = FIRST_DAY.plusDays(random.nextInt(days));
+            return repository.findByRecordDateAndUserId(date, userId).map(Record::getId).orElse(0L);
+        });
+        Bench.run("week range, full scan (before)", 2, 5, 20, () -> {
+            String userId = "user-" + random.nextInt(users);
+            LocalDate start = FIRST_DAY.plusDays(random.nextInt(days));
+            return scanRange(scanned, userId, start, start.plusDays(6)).size();
+        });
+        Bench.run("week range, sorted per-user index", 5, 10, 200_000, () -> {
+            String userId = "user-" + random.nextInt(users);
+            LocalDate start = FIRST_DAY.plusDays(random.nextInt(days));
+            return repository.findByUserIdAndDateRange(userId, start, start.plusDays(6)).size();
+        });
+    }
+
+    // 인덱스 도입 전 RecordRepository의 조회 방식
+    private static Optional<Record> scanPoint(Map<Long, Record> records, LocalDate date, String userId) {
+        return records.values().stream()
+            .filter(r -> r.getRecordDate().equals(date) && r.getUserId().equals(userId))
+            .findFirst();
+    }
+
+    private static List<Record> scanRange(Map<Long, Record> records, String userId, LocalDate startDate, LocalDate endDate) {
+        return records.values().stream()
+            .filter(r -> r.getUserId().equals(userId) &&
+                        !r.getRecordDate().isBefore(startDate) &&
+                        !r.getRecordDate().isAfter(endDate))
+            .toList();
+    }
+
+    private RecordLookupBenchmark() {
+    }
+}
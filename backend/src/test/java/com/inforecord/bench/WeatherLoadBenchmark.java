@@ -0,0 +1,187 @@
+package com.inforecord.bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import com.inforecord.InfoRecordApplication;
+import com.inforecord.service.WeatherService;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * 날씨 API 부하 비교: Open-Meteo 응답을 요청 스레드에서 기다리던 방식(before)과 Mono 응답(after)
+ *
+ * 애플리케이션 전체를 Tomcat 요청 스레드 수를 제한해 띄우고, 응답을 지연시키는 Open-Meteo 대역 서버에 연결한 뒤
+ * 동시 클라이언트 수를 고정해 일정 시간 동안 현재 날씨 API를 호출합니다.
+ * - before: 같은 WeatherService 조회를 요청 스레드에서 block()하는 경로 (Mono 전환 전 컨트롤러와 같은 방식)
+ * - after: /api/weather/current (Mono 응답, 조회를 기다리는 동안 요청 스레드 반납)
+ * 격자 칸 캐시를 끄고 요청마다 다른 칸을 조회하므로 모든 요청이 Open-Meteo까지 갑니다.
+ * 요청 스레드당 동시 처리 클라이언트 수는 처리량 x Open-Meteo 지연(동시에 Open-Meteo 응답을 기다리던 요청 수) / 요청 스레드 수입니다.
+ * (나머지 클라이언트는 Tomcat 연결 대기열에서 기다리며, 그 시간은 응답 시간 백분위수에 나타납니다.)
+ *
+ * 인자: [동시 클라이언트 수, 기본 200] [Tomcat 요청 스레드 수, 기본 8] [Open-Meteo 지연(ms), 기본 200] [측정 시간(초), 기본 10]
+ */
+public final class WeatherLoadBenchmark {
+
+    private static final String BLOCKING_PATH = "/bench/weather/current-blocking";
+    private static final String ASYNC_PATH = "/api/weather/current";
+
+    private static final byte[] FORECAST_JSON = """
+            {"latitude":37.55,"longitude":126.975,"current_units":{"temperature_2m":"°C"},
+             "current":{"time":"2024-05-01T12:00","interval":900,"temperature_2m":21.5,"relative_humidity_2m":55,
+              "apparent_temperature":21.0,"precipitation":0.0,"weather_code":1},
+             "daily":{"time":["2024-05-01"],"temperature_2m_max":[25.0],"temperature_2m_min":[15.0]}}
+            """.getBytes(StandardCharsets.UTF_8);
+
+    public static void main(String[] args) throws Exception {
+        int clients = Bench.intArg(args, 0, 200);
+        int requestThreads = Bench.intArg(args, 1, 8);
+        int latencyMs = Bench.intArg(args, 2, 200);
+        int seconds = Bench.intArg(args, 3, 10);
+
+        HttpServer upstream = startUpstream(latencyMs);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(InfoRecordApplication.class)
+                .initializers(ctx -> ((GenericApplicationContext) ctx).registerBean("blockingWeatherRoute",
+                        RouterFunction.class, () -> blockingRoute(ctx.getBean(WeatherService.class))))
+                .run(
+                        "--server.port=0",
+                        "--server.tomcat.threads.max=" + requestThreads,
+                        "--server.tomcat.threads.min-spare=" + requestThreads,
+                        "--weather.api.base-url=http://127.0.0.1:" + upstream.getAddress().getPort(),
+                        "--weather.cache.max-entries=0",
+                        "--weather.prefetch.enabled=false",
+                        "--persistence.enabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.inforecord=WARN");
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(4);
+        try {
+            String base = "http://127.0.0.1:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder().executor(clientExecutor).connectTimeout(Duration.ofSeconds(5)).build();
+            System.out.printf("clients=%d tomcat threads=%d upstream latency=%d ms, %d s per run%n",
+                    clients, requestThreads, latencyMs, seconds);
+            for (String path : new String[] {BLOCKING_PATH, ASYNC_PATH}) {
+                load(client, base + path, clients, 3);
+            }
+            report("before (blocking)", load(client, base + BLOCKING_PATH, clients, seconds), requestThreads, latencyMs);
+            report("after (Mono)", load(client, base + ASYNC_PATH, clients, seconds), requestThreads, latencyMs);
+        } finally {
+            context.close();
+            upstream.stop(0);
+            clientExecutor.shutdownNow();
+        }
+    }
+
+    // Mono 전환 전 컨트롤러처럼 요청 스레드에서 조회가 끝날 때까지 기다리는 경로
+    private static RouterFunction<ServerResponse> blockingRoute(WeatherService weatherService) {
+        return RouterFunctions.route()
+                .GET(BLOCKING_PATH, request -> ServerResponse.ok().body(weatherService.getCurrentLocationAndWeatherAsync(
+                        Double.parseDouble(request.param("latitude").orElse("37.5665")),
+                        Double.parseDouble(request.param("longitude").orElse("126.9780"))).block()))
+                .build();
+    }
+
+    private static HttpServer startUpstream(int latencyMs) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/forecast", exchange -> {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, FORECAST_JSON.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(FORECAST_JSON);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private record Run(long completed, long errors, double seconds, List<Long> latenciesNanos) {}
+
+    /**
+     * clients개의 클라이언트가 각자 응답을 받는 즉시 다음 요청을 보내는 것을 seconds초 동안 반복합니다.
+     */
+    private static Run load(HttpClient client, String url, int clients, int seconds) {
+        long started = System.nanoTime();
+        long deadline = started + Duration.ofSeconds(seconds).toNanos();
+        AtomicInteger sequence = new AtomicInteger();
+        AtomicLong errors = new AtomicLong();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch finished = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            next(client, url, deadline, sequence, errors, latencies, finished);
+        }
+        try {
+            finished.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new Run(latencies.size(), errors.get(), (System.nanoTime() - started) / 1e9, latencies);
+    }
+
+    private static void next(HttpClient client, String url, long deadline, AtomicInteger sequence,
+                             AtomicLong errors, List<Long> latencies, CountDownLatch finished) {
+        if (System.nanoTime() >= deadline) {
+            finished.countDown();
+            return;
+        }
+        // 요청마다 다른 격자 칸 (0.05도 간격으로 1만 칸을 돌아가며 사용)
+        int n = sequence.getAndIncrement() % 10_000;
+        String query = String.format("?latitude=%.3f&longitude=%.3f", 33.01 + (n % 100) * 0.05, 124.01 + (n / 100) * 0.05);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url + query)).timeout(Duration.ofSeconds(60)).build();
+        long sent = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (error != null || response.statusCode() != 200) {
+                        errors.incrementAndGet();
+                    } else {
+                        latencies.add(System.nanoTime() - sent);
+                    }
+                    next(client, url, deadline, sequence, errors, latencies, finished);
+                });
+    }
+
+    private static void report(String name, Run run, int requestThreads, int latencyMs) {
+        List<Long> sorted = new ArrayList<>(run.latenciesNanos());
+        Collections.sort(sorted);
+        double throughput = run.completed() / run.seconds();
+        double served = throughput * latencyMs / 1000.0;
+        System.out.printf("%-18s %7.0f req/s  p50 %6.0f ms  p99 %6.0f ms  errors %d  served concurrently %6.1f  clients per request thread %6.1f%n",
+                name, throughput, percentileMs(sorted, 0.50), percentileMs(sorted, 0.99), run.errors(),
+                served, served / requestThreads);
+    }
+
+    private static double percentileMs(List<Long> sorted, double percentile) {
+        return sorted.isEmpty() ? 0 : sorted.get((int) Math.min(sorted.size() - 1, sorted.size() * percentile)) / 1e6;
+    }
+
+    private WeatherLoadBenchmark() {
+    }
+}
@@ -0,0 +1,236 @@
+package com.inforecord.bench;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import com.inforecord.dto.AIAnalysisDto;
+import com.inforecord.dto.EmotionDto;
+import com.inforecord.dto.RecordDto;
+import com.inforecord.model.WeatherCategory;
+import com.inforecord.repository.WeatherHistoryStore;
+import com.inforecord.service.AIAnalysisService;
+
+/**
+ * 주간 인사이트 계산: 기록마다 감정 목록 전체를 날짜 문자열로 거르던 방식과 AIAnalysisService의 epoch-day 색인 비교
+ *
+ * 기록/감정 수를 늘려 가며(한 주, 1년, 약 3년치 이력) 같은 입력으로 두 방식을 실행하고,
+ * 측정 전에 다섯 항목의 결과 문자열이 모두 같은지 확인합니다.
+ */
+public final class WeeklyInsightsBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2023, 1, 2);
+    private static final String REGION_ID = "KR-11";
+    private static final String[] TYPES = {"기쁨", "슬픔", "분노", "불안", "평온", "설렘", "피곤"};
+    private static final WeatherCategory[] WEATHER = {
+        WeatherCategory.CLEAR, WeatherCategory.CLOUDY, WeatherCategory.RAIN, WeatherCategory.SNOW, WeatherCategory.UNKNOWN};
+
+    private record Scenario(int records, int emotions, int baselineOps, int indexedOps) {}
+
+    public static void main(String[] args) {
+        for (Scenario scenario : List.of(
+                new Scenario(7, 30, 2_000, 2_000),
+                new Scenario(365, 2_000, 5, 200),
+                new Scenario(1_000, 5_000, 2, 100))) {
+            measure(scenario);
+        }
+    }
+
+    private static void measure(Scenario scenario) {
+        Random random = new Random(7);
+        WeatherHistoryStore weatherHistory = new WeatherHistoryStore(null);
+        List<RecordDto> records = new ArrayList<>();
+        for (int day = 0; day < scenario.records(); day++) {
+            LocalDate date = FIRST_DAY.plusDays(day);
+            RecordDto record = new RecordDto();
+            record.setId((long) day + 1);
+            record.setRecordDate(date);
+            record.setUserId("user-1");
+            records.add(record);
+            WeatherCategory weather = WEATHER[random.nextInt(WEATHER.length)];
+            if (weather != WeatherCategory.UNKNOWN) {
+                weatherHistory.put(REGION_ID, date, weather, 10 + random.nextInt(20));
+            }
+        }
+        List<EmotionDto> emotions = emotions(random, scenario.emotions(), scenario.records());
+        List<EmotionDto> previous = emotions(random, 30, 7);
+        AIAnalysisService service = new AIAnalysisService(weatherHistory, null);
+
+        AIAnalysisDto expected = Baseline.analyze(weatherHistory, records, emotions, previous);
+        AIAnalysisDto actual = service.analyzeWeeklyInsights(records, emotions, List.of(), previous, REGION_ID);
+        if (!sameSections(expected, actual)) {
+            throw new IllegalStateException("결과가 다릅니다: " + expected + " / " + actual);
+        }
+
+        String name = scenario.records() + " records / " + scenario.emotions() + " emotions";
+        Bench.run(name + ", per-record filter (before)", 3, 5, scenario.baselineOps(), () ->
+            Baseline.analyze(weatherHistory, records, emotions, previous).getMainEmotion().length());
+        Bench.run(name + ", epoch-day index", 5, 10, scenario.indexedOps(), () ->
+            service.analyzeWeeklyInsights(records, emotions, List.of(), previous, REGION_ID).getMainEmotion().length());
+    }
+
+    private static List<EmotionDto> emotions(Random random, int count, int days) {
+        List<EmotionDto> emotions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String type = TYPES[random.nextInt(TYPES.length)];
+            // 이전 방식은 요일별 평균이 같으면 HashMap 순서에 따라 요일을 고르므로 동점이 나오지 않게 연속값 사용
+            emotions.add(new EmotionDto((long) i + 1, type, 1.0 + random.nextDouble() * 9, (double) random.nextInt(1000) / 10,
+                "user-1", FIRST_DAY.plusDays(random.nextInt(days)).toString()));
+        }
+        return emotions;
+    }
+
+    private static boolean sameSections(AIAnalysisDto a, AIAnalysisDto b) {
+        return a.getEmotionChange().equals(b.getEmotionChange())
+            && a.getMainEmotion().equals(b.getMainEmotion())
+            && a.getEmotionPattern().equals(b.getEmotionPattern())
+            && a.getWeatherEmotionCorrelation().equals(b.getWeatherEmotionCorrelation())
+            && a.getPersonalizedInsights().equals(b.getPersonalizedInsights());
+    }
+
+    /**
+     * 색인 도입 전 AIAnalysisService의 계산 방식 (항목마다 목록을 다시 훑고, 요일 패턴은 기록마다 감정 전체를 날짜 문자열로 거름)
+     */
+    private static final class Baseline {
+
+        static AIAnalysisDto analyze(WeatherHistoryStore weatherHistory, List<RecordDto> records,
+                                     List<EmotionDto> emotions, List<EmotionDto> previous) {
+            AIAnalysisDto analysis = new AIAnalysisDto();
+            analysis.setEmotionChange(emotionChange(emotions, previous));
+            analysis.setMainEmotion(mainEmotion(emotions));
+            analysis.setEmotionPattern(emotionPattern(records, emotions));
+            analysis.setWeatherEmotionCorrelation(weatherEmotionCorrelation(weatherHistory, records, emotions));
+            analysis.setPersonalizedInsights(personalizedInsights(records, emotions));
+            return analysis;
+        }
+
+        private static String emotionChange(List<EmotionDto> current, List<EmotionDto> previous) {
+            if (previous.isEmpty()) {
+                return "이번 주 첫 기록이에요.";
+            }
+            EmotionDto currentMain = current.stream().max(Comparator.comparing(EmotionDto::getPercentage)).orElse(null);
+            EmotionDto previousMain = previous.stream().max(Comparator.comparing(EmotionDto::getPercentage)).orElse(null);
+            if (currentMain == null || previousMain == null) {
+                return "감정 데이터가 부족해 변화를 분석하기 어려워요.";
+            }
+            double change = currentMain.getPercentage() - previousMain.getPercentage();
+            if (currentMain.getEmotionType().equals(previousMain.getEmotionType())) {
+                if (change > 5) {
+                    return String.format("지난 주보다 %s 감정을 %.0f%% 더 느꼈어요.", currentMain.getEmotionType(), change);
+                } else if (change < -5) {
+                    return String.format("지난 주보다 %s 감정을 %.0f%% 덜 느꼈어요.", currentMain.getEmotionType(), Math.abs(change));
+                }
+                return String.format("지난 주와 비슷한 수준의 %s 감정을 느꼈어요.", currentMain.getEmotionType());
+            }
+            return String.format("지난 주의 '%s'에서 이번 주는 '%s'을 더 많이 느꼈어요.", previousMain.getEmotionType(), currentMain.getEmotionType());
+        }
+
+        private static String mainEmotion(List<EmotionDto> emotions) {
+            if (emotions.isEmpty()) {
+                return "이번 주 감정 기록이 없어요.";
+            }
+            EmotionDto mainEmotion = emotions.stream().max(Comparator.comparing(EmotionDto::getPercentage)).orElse(null);
+            if (mainEmotion == null) {
+                return "감정 분석 결과를 찾을 수 없어요.";
+            }
+            return String.format("이번 주는 '%s' 감정을 가장 많이 느꼈어요.", mainEmotion.getEmotionType());
+        }
+
+        private static String emotionPattern(List<RecordDto> records, List<EmotionDto> emotions) {
+            if (records.isEmpty() || emotions.isEmpty()) {
+                return "감정 패턴을 분석하기에 데이터가 부족해요.";
+            }
+            Map<DayOfWeek, List<EmotionDto>> dayOfWeekEmotions = new HashMap<>();
+            for (RecordDto record : records) {
+                DayOfWeek dayOfWeek = record.getRecordDate().getDayOfWeek();
+                List<EmotionDto> dayEmotions = emotions.stream()
+                    .filter(e -> e.getDate() != null && e.getDate().equals(record.getRecordDate().toString()))
+                    .collect(Collectors.toList());
+                if (!dayEmotions.isEmpty()) {
+                    dayOfWeekEmotions.computeIfAbsent(dayOfWeek, k -> new ArrayList<>()).addAll(dayEmotions);
+                }
+            }
+            Optional<Map.Entry<DayOfWeek, List<EmotionDto>>> mostEmotionalDay = dayOfWeekEmotions.entrySet().stream()
+                .max(Comparator.comparing(entry -> entry.getValue().stream().mapToDouble(EmotionDto::getIntensity).average().orElse(0.0)));
+            if (mostEmotionalDay.isPresent()) {
+                return String.format("이번 주는 %s에 감정을 가장 강하게 느꼈네요.", dayName(mostEmotionalDay.get().getKey()));
+            }
+            return "요일별 감정 패턴이 비교적 일정했어요.";
+        }
+
+        private static String weatherEmotionCorrelation(WeatherHistoryStore weatherHistory, List<RecordDto> records,
+                                                        List<EmotionDto> emotions) {
+            if (records.isEmpty() || emotions.isEmpty()) {
+                return "날씨와 감정 상관관계를 분석하기에 데이터가 부족해요.";
+            }
+            Map<String, List<EmotionDto>> emotionsByDate = emotions.stream()
+                .filter(e -> e.getDate() != null)
+                .collect(Collectors.groupingBy(EmotionDto::getDate));
+            Map<WeatherCategory, List<String>> weatherEmotionMap = new EnumMap<>(WeatherCategory.class);
+            for (RecordDto record : records) {
+                List<EmotionDto> dayEmotions = emotionsByDate.get(record.getRecordDate().toString());
+                if (dayEmotions == null) {
+                    continue;
+                }
+                WeatherCategory weather = weatherHistory.lookup(record.getUserId(), REGION_ID, record.getRecordDate())
+                    .map(WeatherHistoryStore.DailyWeather::category)
+                    .orElse(WeatherCategory.UNKNOWN);
+                if (weather == WeatherCategory.UNKNOWN) {
+                    continue;
+                }
+                String mainEmotion = dayEmotions.stream()
+                    .max(Comparator.comparing(EmotionDto::getPercentage))
+                    .map(EmotionDto::getEmotionType)
+                    .orElse("알 수 없음");
+                weatherEmotionMap.computeIfAbsent(weather, k -> new ArrayList<>()).add(mainEmotion);
+            }
+            if (weatherEmotionMap.isEmpty()) {
+                return "날씨 정보가 있는 기록이 부족해 상관관계를 분석하기 어려워요.";
+            }
+            Map.Entry<WeatherCategory, List<String>> mostCommon = weatherEmotionMap.entrySet().stream()
+                .max(Comparator.comparing(entry -> entry.getValue().size())).orElseThrow();
+            String mostFrequentEmotion = mostCommon.getValue().stream()
+                .collect(Collectors.groupingBy(e -> e, Collectors.counting()))
+                .entrySet().stream().max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey).orElse("알 수 없음");
+            return String.format("%s 날씨에 %s 감정을 자주 느꼈어요.", mostCommon.getKey().getLabel(), mostFrequentEmotion);
+        }
+
+        private static String personalizedInsights(List<RecordDto> records, List<EmotionDto> emotions) {
+            if (records.isEmpty()) {
+                return "기록을 남기면 더 자세한 분석을 해드릴게요.";
+            }
+            if (records.size() >= 5) {
+                return String.format("이번 주에 %d번 꾸준히 기록을 남겼네요.", records.size());
+            }
+            long uniqueEmotions = emotions.stream().map(EmotionDto::getEmotionType).distinct().count();
+            if (uniqueEmotions > 1) {
+                return String.format("이번 주에 %d가지의 다양한 감정을 느꼈어요.", uniqueEmotions);
+            }
+            return "감정 기록을 통해 스스로를 더 잘 이해하고 있어요.";
+        }
+
+        private static String dayName(DayOfWeek dayOfWeek) {
+            return switch (dayOfWeek) {
+                case MONDAY -> "월요일";
+                case TUESDAY -> "화요일";
+                case WEDNESDAY -> "수요일";
+                case THURSDAY -> "목요일";
+                case FRIDAY -> "금요일";
+                case SATURDAY -> "토요일";
+                case SUNDAY -> "일요일";
+            };
+        }
+    }
+
+    private WeeklyInsightsBenchmark() {
+    }
+}
@@ -0,0 +1,68 @@
+package com.inforecord.geo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+
+class GazetteerTests {
+
+	private final Gazetteer gazetteer = new Gazetteer("gazetteer/kr-regions.tsv", 40);
+
+	@Test
+	void resolvesNamesAliasesAndIdsToTheSameRegion() {
+		for (String name : List.of("서울", "서울특별시", " 서울 특별시 ", "Seoul", "kr-11")) {
+			assertEquals("KR-11", gazetteer.findByName(name).map(Region::id).orElse(null), name);
+		}
+		assertEquals("KR-41-suwon", gazetteer.findByName("수원").map(Region::id).orElse(null));
+		assertEquals("KR-26", gazetteer.findByName("부산광").map(Region::id).orElse(null));
+		assertEquals(Optional.empty(), gazetteer.findByName("아틀란티스"));
+	}
+
+	@Test
+	void ambiguousPrefixFindsNoRegion() {
+		// 경상북도와 경상남도 중 하나를 임의로 고르지 않음
+		assertEquals(Optional.empty(), gazetteer.findByName("경상"));
+		assertEquals("KR-47", gazetteer.findByName("경상북").map(Region::id).orElse(null));
+		assertEquals("KR-48", gazetteer.findByName("경남").map(Region::id).orElse(null));
+		assertEquals(1L, gazetteer.getStats().get("ambiguousNames"));
+	}
+
+	@Test
+	void prefixSearchReturnsShorterNamesFirst() {
+		List<Region> regions = gazetteer.search("서", 4);
+
+		// 두 글자 이름(서산, 서울, 서초, ...)이 "서대문구", "서귀포시"보다 먼저
+		assertEquals(4, regions.size());
+		assertTrue(regions.stream().anyMatch(region -> region.id().equals("KR-11")));
+		assertTrue(regions.stream().noneMatch(region -> region.id().equals("KR-11-seodaemun")));
+		assertTrue(regions.stream().allMatch(region -> region.name().startsWith("서") || region.shortName().startsWith("서")));
+	}
+
+	@Test
+	void nearestMatchesBruteForceAndRespectsMaxDistance() {
+		assertEquals("부산", gazetteer.nearest(35.18, 129.07).map(Region::displayName).orElse(null));
+		assertEquals("경기 수원시", gazetteer.nearest(37.27, 127.02).map(Region::displayName).orElse(null));
+		assertEquals(Optional.empty(), gazetteer.nearest(30.0, 140.0));
+
+		Gazetteer unbounded = new Gazetteer("gazetteer/kr-regions.tsv", Double.MAX_VALUE);
+		List<Region> leaves = unbounded.search("kr-", 1000).stream()
+				.filter(region -> unbounded.search(region.id() + "-", 1).isEmpty())
+				.toList();
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		for (int i = 0; i < 2000; i++) {
+			double latitude = random.nextDouble(33.0, 38.7);
+			double longitude = random.nextDouble(124.5, 131.0);
+			Region expected = leaves.stream()
+					.min((a, b) -> Double.compare(
+							RegionKdTree.distanceKm(latitude, longitude, a.latitude(), a.longitude()),
+							RegionKdTree.distanceKm(latitude, longitude, b.latitude(), b.longitude())))
+					.orElseThrow();
+			assertEquals(expected, unbounded.nearest(latitude, longitude).orElse(null));
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package com.inforecord.geo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class PointQuadTreeTests {
+
+	@Test
+	void viewportQueriesMatchLinearScanAfterInsertsAndRemovals() {
+		PointQuadTree<Long> tree = new PointQuadTree<>();
+		Map<Long, double[]> points = new HashMap<>();
+		Random random = new Random(7);
+
+		// 수도권에 몰린 점 + 전 세계에 흩어진 점 + 같은 좌표에 쌓인 점
+		for (long id = 1; id <= 5000; id++) {
+			double[] point = id % 5 == 0
+					? new double[] {random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180}
+					: id % 50 == 1
+							? new double[] {37.5665, 126.9780}
+							: new double[] {37.2 + random.nextDouble() * 0.6, 126.6 + random.nextDouble() * 0.8};
+			tree.put(id, point[0], point[1], id);
+			points.put(id, point);
+		}
+		for (long id = 1; id <= 5000; id += 3) {
+			assertTrue(tree.remove(id));
+			points.remove(id);
+		}
+		tree.put(2, 35.1796, 129.0756, 2L);
+		points.put(2L, new double[] {35.1796, 129.0756});
+		assertEquals(points.size(), tree.size());
+
+		double[][] viewports = {
+				{37.5, 37.6, 126.9, 127.1},
+				{37.5665, 37.5665, 126.9780, 126.9780},
+				{-90, 90, -180, 180},
+				{35, 38, 126, 130},
+				{-10, 10, 170, -170}
+		};
+		for (double[] viewport : viewports) {
+			Set<Long> expected = new HashSet<>();
+			for (Map.Entry<Long, double[]> entry : points.entrySet()) {
+				double[] point = entry.getValue();
+				boolean inLongitude = viewport[2] <= viewport[3]
+						? point[1] >= viewport[2] && point[1] <= viewport[3]
+						: point[1] >= viewport[2] || point[1] <= viewport[3];
+				if (point[0] >= viewport[0] && point[0] <= viewport[1] && inLongitude) {
+					expected.add(entry.getKey());
+				}
+			}
+			List<Long> found = tree.query(viewport[0], viewport[1], viewport[2], viewport[3]);
+			assertEquals(expected.size(), found.size());
+			assertEquals(expected, new HashSet<>(found));
+		}
+		assertTrue(tree.depth() <= PointQuadTree.MAX_DEPTH + 1);
+	}
+
+	@Test
+	void rejectsOutOfRangeCoordinates() {
+		PointQuadTree<Long> tree = new PointQuadTree<>();
+		assertThrows(IllegalArgumentException.class, () -> tree.put(1, 91, 0, 1L));
+		assertThrows(IllegalArgumentException.class, () -> tree.put(1, 0, Double.NaN, 1L));
+		assertThrows(IllegalArgumentException.class, () -> tree.query(10, 5, 0, 1));
+		assertEquals(0, tree.size());
+	}
+}
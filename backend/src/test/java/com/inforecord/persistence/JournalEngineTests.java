@@ -0,0 +1,243 @@
+package com.inforecord.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+class JournalEngineTests {
+
+	private static final JournalCodec<String> CODEC = new JournalCodec<>() {
+		@Override
+		public void write(String entity, DataOutput out) throws IOException {
+			JournalCodec.writeString(out, entity);
+		}
+
+		@Override
+		public String read(DataInput in) throws IOException {
+			return JournalCodec.readString(in);
+		}
+	};
+
+	/** 세그먼트 엔트리 하나의 크기: 길이(4) + 헤더(17) + 문자열 길이(4) + 본문 + CRC(4) */
+	private static int entryBytes(String value) {
+		return 4 + 17 + 4 + value.length() + 4;
+	}
+
+	@Test
+	void recoversPutsAndDeletesAfterReopen() throws IOException {
+		Path dir = Files.createTempDirectory("journal");
+		try {
+			Map<Long, String> expected = new HashMap<>();
+			JournalEngine<String> journal = open(dir, 1 << 20, new HashMap<>());
+			for (long id = 1; id <= 50; id++) {
+				write(journal, expected, id, "v" + id);
+			}
+			for (long id = 1; id <= 50; id += 4) {
+				delete(journal, expected, id);
+			}
+			write(journal, expected, 7, "changed");
+			journal.close();
+
+			Map<Long, String> recovered = new HashMap<>();
+			JournalEngine<String> reopened = open(dir, 1 << 20, recovered);
+			assertEquals(expected, recovered);
+			assertEquals(64L, reopened.getStats().get("recoveredJournalEntries"));
+
+			// 복구 후 seq가 이어져야 다음 재시작에서도 순서가 맞음
+			write(reopened, expected, 100, "after");
+			reopened.close();
+			recovered.clear();
+			open(dir, 1 << 20, recovered).close();
+			assertEquals(expected, recovered);
+		} finally {
+			deleteRecursively(dir);
+		}
+	}
+
+	@Test
+	void truncatesTornTailAndKeepsAppending() throws IOException {
+		Path dir = Files.createTempDirectory("journal");
+		try {
+			Map<Long, String> expected = new HashMap<>();
+			JournalEngine<String> journal = open(dir, 1 << 20, new HashMap<>());
+			for (long id = 1; id <= 10; id++) {
+				write(journal, expected, id, "v" + id);
+			}
+			journal.close();
+
+			// 마지막 엔트리를 쓰다가 죽은 것처럼 꼬리 3바이트를 잘라냄
+			Path segment = segmentFiles(dir).get(0);
+			long intact = Files.size(segment) - entryBytes("v10");
+			truncate(segment, Files.size(segment) - 3);
+			expected.remove(10L);
+
+			Map<Long, String> recovered = new HashMap<>();
+			JournalEngine<String> reopened = open(dir, 1 << 20, recovered);
+			assertEquals(expected, recovered);
+			assertEquals(intact, Files.size(segment));
+
+			// 잘라낸 뒤 이어 쓴 엔트리도 다음 재시작에서 보여야 함
+			write(reopened, expected, 11, "v11");
+			reopened.close();
+			recovered.clear();
+			open(dir, 1 << 20, recovered).close();
+			assertEquals(expected, recovered);
+		} finally {
+			deleteRecursively(dir);
+		}
+	}
+
+	@Test
+	void stopsReplayAtCrcMismatch() throws IOException {
+		Path dir = Files.createTempDirectory("journal");
+		try {
+			JournalEngine<String> journal = open(dir, 1 << 20, new HashMap<>());
+			for (long id = 1; id <= 5; id++) {
+				journal.awaitDurable(journal.append(id, "v" + id));
+			}
+			journal.close();
+
+			// 세 번째 엔트리 본문 한 바이트를 뒤집음 -> 세 번째부터는 믿을 수 없으므로 버림
+			Path segment = segmentFiles(dir).get(0);
+			long third = 2L * entryBytes("v1");
+			try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+				file.seek(third + 4 + 17 + 4);
+				int b = file.read();
+				file.seek(third + 4 + 17 + 4);
+				file.write(b ^ 0xFF);
+			}
+
+			Map<Long, String> recovered = new HashMap<>();
+			open(dir, 1 << 20, recovered).close();
+			assertEquals(Map.of(1L, "v1", 2L, "v2"), recovered);
+			assertEquals(third, Files.size(segment));
+		} finally {
+			deleteRecursively(dir);
+		}
+	}
+
+	@Test
+	void snapshotDeletesCoveredSegmentsAndTailReplaysOnTop() throws IOException {
+		Path dir = Files.createTempDirectory("journal");
+		try {
+			// 세그먼트가 엔트리 두 개마다 넘어가도록 작게 잡음
+			long segmentBytes = entryBytes("v1") + 1;
+			Map<Long, String> state = new ConcurrentHashMap<>();
+			Map<Long, String> expected = new HashMap<>();
+			JournalEngine<String> journal = open(dir, segmentBytes, new HashMap<>());
+			for (long id = 1; id <= 20; id++) {
+				write(journal, expected, id, "v" + id);
+				state.put(id, "v" + id);
+			}
+			assertTrue(segmentFiles(dir).size() >= 10);
+
+			journal.snapshot(state, state);
+			assertEquals(1, segmentFiles(dir).size());
+			assertTrue(Files.exists(dir.resolve("test.snapshot")));
+
+			// 스냅샷 이후 변경은 저널 꼬리로 남음
+			for (long id = 1; id <= 5; id++) {
+				delete(journal, expected, id);
+			}
+			write(journal, expected, 6, "changed");
+			write(journal, expected, 21, "v21");
+			journal.close();
+
+			Map<Long, String> recovered = new HashMap<>();
+			JournalEngine<String> reopened = open(dir, segmentBytes, recovered);
+			reopened.close();
+			assertEquals(expected, recovered);
+			assertEquals(20L, reopened.getStats().get("recoveredSnapshotEntries"));
+			assertEquals(7L, reopened.getStats().get("recoveredJournalEntries"));
+		} finally {
+			deleteRecursively(dir);
+		}
+	}
+
+	@Test
+	void rejectsAppendsAfterWriteFailure() throws Exception {
+		Path dir = Files.createTempDirectory("journal");
+		try {
+			// 첫 커밋 직후 다음 세그먼트를 열지 못하도록 같은 이름의 디렉터리를 미리 만듦
+			JournalEngine<String> journal = open(dir, 1, new HashMap<>());
+			Files.createDirectory(dir.resolve(String.format("test-%020d.log", 2)));
+			journal.awaitDurable(journal.append(1, "v1"));
+
+			long deadline = System.currentTimeMillis() + 5_000;
+			while (!Boolean.TRUE.equals(journal.getStats().get("writeFailed"))) {
+				assertTrue(System.currentTimeMillis() < deadline);
+				Thread.sleep(10);
+			}
+			long lastSeq = (Long) journal.getStats().get("lastSeq");
+			assertThrows(IllegalStateException.class, () -> journal.append(2, "v2"));
+			assertThrows(IllegalStateException.class, () -> journal.appendDelete(1));
+			assertEquals(lastSeq, journal.getStats().get("lastSeq"));
+			journal.close();
+		} finally {
+			deleteRecursively(dir);
+		}
+	}
+
+	private JournalEngine<String> open(Path dir, long segmentBytes, Map<Long, String> target) {
+		JournalEngine<String> journal = new JournalEngine<>("test", dir, CODEC, true, segmentBytes, 16);
+		journal.recover(new JournalEngine.Replayer<>() {
+			@Override
+			public void put(long id, String entity) {
+				target.put(id, entity);
+			}
+
+			@Override
+			public void delete(long id) {
+				target.remove(id);
+			}
+		});
+		return journal;
+	}
+
+	private void write(JournalEngine<String> journal, Map<Long, String> expected, long id, String value) {
+		journal.awaitDurable(journal.append(id, value));
+		expected.put(id, value);
+	}
+
+	private void delete(JournalEngine<String> journal, Map<Long, String> expected, long id) {
+		journal.awaitDurable(journal.appendDelete(id));
+		expected.remove(id);
+	}
+
+	private List<Path> segmentFiles(Path dir) throws IOException {
+		try (Stream<Path> files = Files.list(dir)) {
+			return files.filter(p -> p.getFileName().toString().endsWith(".log") && Files.isRegularFile(p))
+				.sorted()
+				.toList();
+		}
+	}
+
+	private void truncate(Path file, long length) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+			raf.setLength(length);
+		}
+	}
+
+	private void deleteRecursively(Path dir) throws IOException {
+		try (Stream<Path> files = Files.walk(dir)) {
+			for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+				Files.deleteIfExists(path);
+			}
+		}
+	}
+}
@@ -0,0 +1,179 @@
+package com.inforecord.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.inforecord.Entity.Emotion;
+import com.inforecord.Entity.Record;
+import com.inforecord.model.EmotionTotals;
+import com.inforecord.model.WeekPair;
+
+class ColumnarEmotionStoreTests {
+
+	private static final String[] TYPES = {"기쁨", "슬픔", "분노", "평온"};
+	private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+
+	@Test
+	void rangeTotalsMatchLinearScanAfterRandomPutsMovesAndRemovals() {
+		ColumnarEmotionStore store = new ColumnarEmotionStore();
+		Map<Long, EmotionAggregates.Contribution> expected = new HashMap<>();
+		Random random = new Random(11);
+
+		// 날짜가 뒤섞인 삽입, 다른 날짜/사용자로 옮기기, 삭제를 섞어 정렬과 위치 맵을 함께 검증
+		for (int step = 0; step < 20_000; step++) {
+			long id = 1 + random.nextInt(3_000);
+			if (random.nextInt(4) == 0) {
+				store.remove(id);
+				expected.remove(id);
+				continue;
+			}
+			EmotionAggregates.Contribution contribution = new EmotionAggregates.Contribution(
+					"user-" + random.nextInt(3),
+					FIRST_DAY.plusDays(random.nextInt(400)),
+					TYPES[random.nextInt(TYPES.length)],
+					random.nextInt(5) / 4.0);
+			store.put(emotion(id, contribution));
+			expected.put(id, contribution);
+		}
+		assertEquals(expected.size(), store.rowCount());
+
+		for (int query = 0; query < 200; query++) {
+			String userId = "user-" + random.nextInt(3);
+			LocalDate start = FIRST_DAY.plusDays(random.nextInt(420) - 10);
+			LocalDate end = start.plusDays(random.nextInt(60));
+			assertEquals(scan(expected, userId, start, end),
+					toMap(store.totals(userId, (int) start.toEpochDay(), (int) end.toEpochDay())));
+
+			LocalDate split = start.plusDays(random.nextInt(30));
+			WeekPair<EmotionTotals> pair = store.totalsSplit(userId,
+					(int) start.toEpochDay(), (int) split.toEpochDay(), (int) end.toEpochDay());
+			LocalDate previousEnd = split.minusDays(1).isBefore(end) ? split.minusDays(1) : end;
+			assertEquals(scan(expected, userId, start, previousEnd), toMap(pair.previous()));
+			assertEquals(scan(expected, userId, split, end), toMap(pair.current()));
+		}
+
+		for (Long id : List.copyOf(expected.keySet())) {
+			store.remove(id);
+		}
+		assertEquals(0, store.rowCount());
+		assertEquals(0, store.totals("user-0", 0, Integer.MAX_VALUE).size());
+	}
+
+	@Test
+	void rowLocationsSurviveCollisionsAndBackwardShiftDeletes() {
+		ColumnarEmotionStore.RowLocations locations = new ColumnarEmotionStore.RowLocations();
+		Map<Long, Long> expected = new HashMap<>();
+		Random random = new Random(5);
+		for (int step = 0; step < 50_000; step++) {
+			long key = random.nextInt(2_000) * 1024L;
+			if (random.nextBoolean()) {
+				long value = random.nextLong();
+				locations.put(key, value);
+				expected.put(key, value);
+			} else {
+				Long removed = expected.remove(key);
+				assertEquals(removed != null ? removed : ColumnarEmotionStore.RowLocations.MISSING, locations.remove(key));
+			}
+		}
+		assertEquals(expected.size(), locations.size());
+		for (long key = 0; key < 2_000 * 1024L; key += 1024) {
+			Long value = expected.get(key);
+			assertEquals(value != null ? value : ColumnarEmotionStore.RowLocations.MISSING, locations.get(key));
+		}
+	}
+
+	@Test
+	void keepsEveryEmotionFieldAndLinksEmotionsByRecord() {
+		ColumnarEmotionStore store = new ColumnarEmotionStore();
+		Record record = new Record();
+		record.setId(7L);
+		Emotion full = new Emotion("기쁨", 0.8, "user-1", FIRST_DAY, FIRST_DAY, FIRST_DAY.plusDays(6));
+		full.setId(1L);
+		full.setRecord(record);
+		full.setExtractedDate(FIRST_DAY.plusDays(1));
+		// 사용자, 날짜, 종류, 강도가 없는 감정도 그대로 보관하고 요약에서만 빠짐
+		Emotion sparse = new Emotion();
+		sparse.setId(2L);
+		sparse.setRecord(record);
+		Emotion untyped = new Emotion(null, null, "user-1", FIRST_DAY);
+		untyped.setId(3L);
+		store.put(full);
+		store.put(sparse);
+		store.put(untyped);
+
+		assertSameEmotion(full, store.get(1L));
+		assertSameEmotion(sparse, store.get(2L));
+		assertSameEmotion(untyped, store.get(3L));
+		assertEquals(List.of(1L, 2L), store.findByRecordId(7L).stream().map(Emotion::getId).sorted().toList());
+		assertEquals(List.of(1L, 3L), store.findByUserIdAndDateRange("user-1", (int) FIRST_DAY.toEpochDay(),
+				(int) FIRST_DAY.toEpochDay()).stream().map(Emotion::getId).sorted().toList());
+		assertEquals(Map.of("기쁨", "1/0.8"), toMap(store.totals("user-1", 0, Integer.MAX_VALUE)));
+
+		// 삭제한 슬롯은 재사용되고, 기록별 연결과 스냅샷 사본에서도 빠짐
+		store.remove(1L);
+		Emotion moved = new Emotion("슬픔", 0.3, "user-2", FIRST_DAY.plusDays(3));
+		moved.setId(4L);
+		moved.setRecord(record);
+		store.put(moved);
+		assertEquals(List.of(2L, 4L), store.findByRecordId(7L).stream().map(Emotion::getId).sorted().toList());
+		List<Long> copied = new ArrayList<>();
+		store.copy().forEach((emotion, id) -> {
+			assertEquals(id, emotion.getId());
+			copied.add(id);
+		});
+		assertEquals(List.of(2L, 3L, 4L), copied.stream().sorted().toList());
+		assertEquals(3, store.rowCount());
+	}
+
+	private static void assertSameEmotion(Emotion expected, Emotion actual) {
+		assertEquals(expected.getId(), actual.getId());
+		assertEquals(expected.getRecord() != null ? expected.getRecord().getId() : null,
+				actual.getRecord() != null ? actual.getRecord().getId() : null);
+		assertEquals(expected.getEmotionType(), actual.getEmotionType());
+		assertEquals(expected.getIntensity(), actual.getIntensity());
+		assertEquals(expected.getExtractedDate(), actual.getExtractedDate());
+		assertEquals(expected.getUserId(), actual.getUserId());
+		assertEquals(expected.getDate(), actual.getDate());
+		assertEquals(expected.getWeekStart(), actual.getWeekStart());
+		assertEquals(expected.getWeekEnd(), actual.getWeekEnd());
+	}
+
+	private static Emotion emotion(long id, EmotionAggregates.Contribution contribution) {
+		Emotion emotion = new Emotion(contribution.emotionType(), contribution.intensity(),
+				contribution.userId(), contribution.date());
+		emotion.setId(id);
+		return emotion;
+	}
+
+	private static Map<String, String> scan(Map<Long, EmotionAggregates.Contribution> rows, String userId,
+			LocalDate start, LocalDate end) {
+		Map<String, long[]> counts = new TreeMap<>();
+		Map<String, Double> sums = new TreeMap<>();
+		for (EmotionAggregates.Contribution row : rows.values()) {
+			if (row.userId().equals(userId) && !row.date().isBefore(start) && !row.date().isAfter(end)) {
+				counts.computeIfAbsent(row.emotionType(), k -> new long[1])[0]++;
+				sums.merge(row.emotionType(), row.intensity(), Double::sum);
+			}
+		}
+		Map<String, String> result = new TreeMap<>();
+		counts.forEach((type, count) -> result.put(type, count[0] + "/" + sums.get(type)));
+		return result;
+	}
+
+	private static Map<String, String> toMap(List<EmotionTotals> totals) {
+		Map<String, String> result = new TreeMap<>();
+		for (EmotionTotals total : totals) {
+			result.put(total.emotionType(), total.count() + "/" + total.intensitySum());
+		}
+		return result;
+	}
+}
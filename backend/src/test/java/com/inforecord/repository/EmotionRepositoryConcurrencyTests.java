@@ -0,0 +1,128 @@
+package com.inforecord.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.inforecord.Entity.Emotion;
+import com.inforecord.Entity.Record;
+import com.inforecord.model.EmotionTotals;
+import com.inforecord.model.WeekPair;
+
+class EmotionRepositoryConcurrencyTests {
+
+	private static final int WRITERS = 8;
+	private static final int RECORDS_PER_WRITER = 200;
+	private static final LocalDate BASE_DATE = LocalDate.of(2025, 1, 6);
+
+	@Test
+	void concurrentWritersKeepIdsAndIndexesConsistent() throws Exception {
+		runConcurrentWriters(EmotionRepository.MODE_AGGREGATES);
+	}
+
+	@Test
+	void concurrentWritersKeepColumnarStoreConsistent() throws Exception {
+		runConcurrentWriters(EmotionRepository.MODE_COLUMNAR);
+	}
+
+	private void runConcurrentWriters(String storeMode) throws Exception {
+		EmotionRepository repository = InMemoryRepositories.emotions(InMemoryRepositories.records(), storeMode);
+
+		ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int w = 0; w < WRITERS; w++) {
+			int writer = w;
+			futures.add(executor.submit(() -> {
+				start.await();
+				for (int i = 0; i < RECORDS_PER_WRITER; i++) {
+					long recordId = (long) writer * RECORDS_PER_WRITER + i + 1;
+					Record record = new Record("content", BASE_DATE.plusDays(i % 14), "user-" + (writer % 3));
+					record.setId(recordId);
+
+					// 기록마다 감정 두 개를 저장하고, 짝수 기록은 분석 결과 교체처럼 지우고 다시 저장
+					for (int k = 0; k < 2; k++) {
+						Emotion emotion = new Emotion(record, k == 0 ? "기쁨" : "평온", 0.5);
+						emotion.setDate(record.getRecordDate());
+						repository.save(emotion);
+					}
+					if (recordId % 2 == 0) {
+						repository.deleteByRecordId(recordId);
+						Emotion emotion = new Emotion(record, "슬픔", 0.25);
+						emotion.setDate(record.getRecordDate());
+						repository.save(emotion);
+					}
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+
+		int totalRecords = WRITERS * RECORDS_PER_WRITER;
+		Set<Long> ids = new HashSet<>();
+		int expectedEmotions = 0;
+		for (long recordId = 1; recordId <= totalRecords; recordId++) {
+			List<Emotion> emotions = repository.findByRecordId(recordId);
+			assertEquals(recordId % 2 == 0 ? 1 : 2, emotions.size(), "record " + recordId);
+			for (Emotion emotion : emotions) {
+				assertTrue(ids.add(emotion.getId()), "duplicate id " + emotion.getId());
+				assertEquals(recordId, emotion.getRecord().getId());
+			}
+			expectedEmotions += emotions.size();
+		}
+
+		int rangeTotal = 0;
+		for (int u = 0; u < 3; u++) {
+			String userId = "user-" + u;
+			List<Emotion> inRange = repository.findEmotionsByUserIdAndDateRange(userId, BASE_DATE, BASE_DATE.plusDays(13));
+			for (Emotion emotion : inRange) {
+				assertEquals(userId, emotion.getUserId());
+			}
+			rangeTotal += inRange.size();
+
+			List<Emotion> firstWeek = repository.findEmotionsByUserIdAndDateRange(userId, BASE_DATE, BASE_DATE.plusDays(6));
+			for (Emotion emotion : firstWeek) {
+				assertTrue(!emotion.getDate().isAfter(BASE_DATE.plusDays(6)));
+			}
+		}
+		assertEquals(expectedEmotions, rangeTotal);
+		assertEquals(Boolean.TRUE, repository.verifyAggregates().get("consistent"));
+
+		// 요약 집계: 홀수 기록은 기쁨/평온 각 1건, 짝수 기록은 슬픔 1건
+		long summarized = 0;
+		for (int u = 0; u < 3; u++) {
+			summarized += repository.sumByUserIdAndDateRange("user-" + u, BASE_DATE, BASE_DATE.plusDays(13))
+					.stream().mapToLong(EmotionTotals::count).sum();
+		}
+		assertEquals(expectedEmotions, summarized);
+
+		// 2주 분할 집계는 두 기간을 따로 집계한 결과와 같아야 함 (월요일 시작 주 / 임의 시작일)
+		for (int u = 0; u < 3; u++) {
+			String userId = "user-" + u;
+			for (LocalDate windowStart : List.of(BASE_DATE, BASE_DATE.plusDays(3))) {
+				LocalDate split = windowStart.plusDays(7);
+				LocalDate end = windowStart.plusDays(13);
+				WeekPair<EmotionTotals> pair = repository.sumByUserIdAndDateRangeSplit(userId, windowStart, split, end);
+				assertEquals(new HashSet<>(repository.sumByUserIdAndDateRange(userId, windowStart, split.minusDays(1))),
+						new HashSet<>(pair.previous()));
+				assertEquals(new HashSet<>(repository.sumByUserIdAndDateRange(userId, split, end)),
+						new HashSet<>(pair.current()));
+			}
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package com.inforecord.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.inforecord.Entity.Emotion;
+import com.inforecord.Entity.Record;
+import com.inforecord.persistence.EmotionCodec;
+import com.inforecord.persistence.JournalEngine;
+
+class EmotionRepositoryTests {
+
+	private static final LocalDate MONDAY = LocalDate.of(2025, 4, 7);
+
+	@Test
+	void bothStoreModesRecoverTheSameStateFromSnapshotAndJournal() throws IOException {
+		for (String mode : List.of(EmotionRepository.MODE_AGGREGATES, EmotionRepository.MODE_COLUMNAR)) {
+			Path dir = Files.createTempDirectory("emotions");
+			try {
+				JournalEngine<Emotion> journal = journal(dir);
+				EmotionRepository repository = open(journal, mode);
+				Emotion first = repository.save(emotion(1L, "기쁨", 0.9, MONDAY));
+				Emotion second = repository.save(emotion(1L, "슬픔", 0.4, MONDAY));
+				Emotion third = repository.save(emotion(2L, "평온", 0.5, MONDAY.plusDays(1)));
+				repository.snapshot();
+
+				// 스냅샷 이후의 변경은 저널 꼬리로 재생됨
+				Emotion moved = repository.findById(third.getId()).orElseThrow();
+				moved.setDate(MONDAY.plusDays(3));
+				moved.setIntensity(0.7);
+				repository.save(moved);
+				repository.deleteByRecordId(1L);
+				Emotion fourth = repository.save(emotion(3L, "분노", null, MONDAY.plusDays(2)));
+				journal.close();
+
+				JournalEngine<Emotion> reopenedJournal = journal(dir);
+				EmotionRepository reopened = open(reopenedJournal, mode);
+				assertTrue(reopened.findById(first.getId()).isEmpty(), mode);
+				assertTrue(reopened.findById(second.getId()).isEmpty(), mode);
+				assertEquals(List.of(), reopened.findByRecordId(1L), mode);
+				Emotion recovered = reopened.findById(third.getId()).orElseThrow();
+				assertEquals(MONDAY.plusDays(3), recovered.getDate(), mode);
+				assertEquals(0.7, recovered.getIntensity(), mode);
+				assertEquals(2L, recovered.getRecord().getId(), mode);
+				assertEquals(List.of(fourth.getId(), third.getId()),
+						reopened.findEmotionsByUserIdAndDateRange("user-1", MONDAY, MONDAY.plusDays(6)).stream()
+								.map(Emotion::getId).toList(), mode);
+				assertEquals(true, reopened.verifyAggregates().get("consistent"), mode);
+				assertEquals(2, reopened.getStats().get("emotions"), mode);
+				reopenedJournal.close();
+			} finally {
+				try (Stream<Path> paths = Files.walk(dir)) {
+					for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+						Files.delete(path);
+					}
+				}
+			}
+		}
+	}
+
+	private static Emotion emotion(long recordId, String emotionType, Double intensity, LocalDate date) {
+		Record record = new Record();
+		record.setId(recordId);
+		Emotion emotion = new Emotion(record, emotionType, intensity);
+		emotion.setUserId("user-1");
+		emotion.setDate(date);
+		return emotion;
+	}
+
+	private static JournalEngine<Emotion> journal(Path dir) {
+		return new JournalEngine<>("emotions", dir, new EmotionCodec(), true, 1 << 20, 16);
+	}
+
+	private static EmotionRepository open(JournalEngine<Emotion> journal, String mode) {
+		EmotionRepository repository = new EmotionRepository(journal, InMemoryRepositories.records(), mode);
+		repository.recover();
+		return repository;
+	}
+}
@@ -0,0 +1,27 @@
+package com.inforecord.repository;
+
+import com.inforecord.persistence.EmotionCodec;
+import com.inforecord.persistence.JournalEngine;
+import com.inforecord.persistence.RecordCodec;
+
+/**
+ * 테스트용 저장소 생성 (저널을 끈 상태라 디렉터리 없이 메모리에서만 동작)
+ */
+public final class InMemoryRepositories {
+
+	private InMemoryRepositories() {
+	}
+
+	public static RecordRepository records() {
+		return new RecordRepository(new JournalEngine<>("records", null, new RecordCodec(), false, 0, 1));
+	}
+
+	public static EmotionRepository emotions(RecordRepository records) {
+		return emotions(records, EmotionRepository.MODE_AGGREGATES);
+	}
+
+	public static EmotionRepository emotions(RecordRepository records, String storeMode) {
+		return new EmotionRepository(new JournalEngine<>("emotions", null, new EmotionCodec(), false, 0, 1),
+				records, storeMode);
+	}
+}
@@ -0,0 +1,89 @@
+package com.inforecord.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.inforecord.Entity.Record;
+import com.inforecord.persistence.JournalEngine;
+import com.inforecord.persistence.RecordCodec;
+
+class RecordRepositoryTests {
+
+	private static final LocalDate MONDAY = LocalDate.of(2025, 4, 7);
+
+	@Test
+	void rejectsMovingRecordOntoAnotherRecordsDate() {
+		RecordRepository repository = InMemoryRepositories.records();
+		Record monday = repository.save(new Record("월요일", MONDAY, "user-1"));
+		Record tuesday = repository.save(new Record("화요일", MONDAY.plusDays(1), "user-1"));
+
+		// 화요일 기록을 월요일로 옮기면 거부하고 두 기록과 인덱스는 그대로
+		Record moved = new Record("화요일", MONDAY, "user-1");
+		moved.setId(tuesday.getId());
+		assertThrows(IllegalStateException.class, () -> repository.save(moved));
+		assertThrows(IllegalStateException.class, () -> repository.save(new Record("새 기록", MONDAY, "user-1")));
+
+		assertEquals(monday.getId(), repository.findByRecordDateAndUserId(MONDAY, "user-1").orElseThrow().getId());
+		assertEquals(tuesday.getId(), repository.findByRecordDateAndUserId(MONDAY.plusDays(1), "user-1").orElseThrow().getId());
+		List<Record> week = repository.findByUserIdAndDateRange("user-1", MONDAY, MONDAY.plusDays(6));
+		assertEquals(2, week.size());
+		assertEquals(2, repository.findAll().size());
+
+		// 빈 날짜로 옮기는 것과 다른 사용자의 같은 날짜는 허용
+		Record toWednesday = new Record("화요일", MONDAY.plusDays(2), "user-1");
+		toWednesday.setId(tuesday.getId());
+		repository.save(toWednesday);
+		repository.save(new Record("다른 사용자", MONDAY, "user-2"));
+		assertEquals(tuesday.getId(), repository.findByRecordDateAndUserId(MONDAY.plusDays(2), "user-1").orElseThrow().getId());
+		assertTrue(repository.findByRecordDateAndUserId(MONDAY.plusDays(1), "user-1").isEmpty());
+		assertEquals(monday.getId(), repository.findByRecordDateAndUserId(MONDAY, "user-1").orElseThrow().getId());
+
+		repository.deleteById(monday.getId());
+		assertTrue(repository.findByRecordDateAndUserId(MONDAY, "user-1").isEmpty());
+		assertEquals("다른 사용자", repository.findByRecordDateAndUserId(MONDAY, "user-2").orElseThrow().getContent());
+	}
+
+	@Test
+	void snapshotKeepsCommittedStateWhileCallerEditsFoundRecord() throws IOException {
+		Path dir = Files.createTempDirectory("records");
+		try {
+			RecordRepository repository = open(dir);
+			Long id = repository.save(new Record("저장된 내용", MONDAY, "user-1")).getId();
+
+			// 조회한 기록을 고치기만 하고 저장하지 않으면 저장소와 스냅샷에는 반영되지 않음
+			Record editing = repository.findById(id).orElseThrow();
+			editing.setContent("저장 전 수정");
+			editing.setRecordDate(MONDAY.plusDays(1));
+			assertEquals("저장된 내용", repository.findById(id).orElseThrow().getContent());
+			assertTrue(repository.findByRecordDateAndUserId(MONDAY.plusDays(1), "user-1").isEmpty());
+			repository.shutdown();
+
+			RecordRepository reopened = open(dir);
+			assertEquals("저장된 내용", reopened.findByRecordDateAndUserId(MONDAY, "user-1").orElseThrow().getContent());
+			reopened.shutdown();
+		} finally {
+			try (Stream<Path> paths = Files.walk(dir)) {
+				for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+					Files.delete(path);
+				}
+			}
+		}
+	}
+
+	private static RecordRepository open(Path dir) {
+		RecordRepository repository = new RecordRepository(new JournalEngine<>("records", dir, new RecordCodec(), true, 1 << 20, 16));
+		repository.recover();
+		return repository;
+	}
+}
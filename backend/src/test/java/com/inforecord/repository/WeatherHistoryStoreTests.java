@@ -0,0 +1,86 @@
+package com.inforecord.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.inforecord.Entity.Record;
+import com.inforecord.model.WeatherCategory;
+
+class WeatherHistoryStoreTests {
+
+	@Test
+	void recordedWeatherTakesPrecedenceOverRegionWeather() {
+		WeatherHistoryStore store = new WeatherHistoryStore(null);
+		LocalDate rainyDay = LocalDate.of(2024, 7, 3);
+		LocalDate clearDay = LocalDate.of(2024, 7, 4);
+		store.put("KR-11", rainyDay, WeatherCategory.CLEAR, 27.0);
+		store.put("KR-11", clearDay, WeatherCategory.CLEAR, 29.5);
+
+		Record record = new Record("장마 시작", rainyDay, "user-1");
+		record.setWeatherDesc("소나기");
+		record.setWeatherTemp(24.0);
+		assertTrue(store.putRecord(record));
+
+		assertEquals(Optional.of(new WeatherHistoryStore.DailyWeather(WeatherCategory.RAIN, 24.0)),
+				store.lookup("user-1", "KR-11", rainyDay));
+		assertEquals(Optional.of(new WeatherHistoryStore.DailyWeather(WeatherCategory.CLEAR, 29.5)),
+				store.lookup("user-1", "KR-11", clearDay));
+		assertEquals(Optional.empty(), store.lookup("user-1", null, clearDay));
+	}
+
+	@Test
+	void keepsLeapDayAndYearBoundariesApart() {
+		WeatherHistoryStore store = new WeatherHistoryStore(null);
+		store.put("KR-26", LocalDate.of(2024, 2, 29), WeatherCategory.SNOW, -1.5);
+		store.put("KR-26", LocalDate.of(2024, 12, 31), WeatherCategory.FOG, Double.NaN);
+
+		assertEquals(WeatherCategory.SNOW, store.get("KR-26", LocalDate.of(2024, 2, 29)).orElseThrow().category());
+		assertEquals(Optional.empty(), store.get("KR-26", LocalDate.of(2023, 12, 31)));
+		assertEquals(false, store.get("KR-26", LocalDate.of(2024, 12, 31)).orElseThrow().hasTemperature());
+		assertEquals(2L, store.getStats().get("days"));
+	}
+
+	@Test
+	void recordChangesRewriteOrClearTheUserDay() {
+		RecordRepository records = InMemoryRepositories.records();
+		WeatherHistoryStore store = new WeatherHistoryStore(records);
+		records.setApplicationEventPublisher(event -> store.onUserDataChanged((UserDataChangedEvent) event));
+		LocalDate monday = LocalDate.of(2024, 7, 1);
+		LocalDate tuesday = LocalDate.of(2024, 7, 2);
+
+		Record record = new Record("비 오는 월요일", monday, "user-1");
+		record.setWeatherDesc("비");
+		record.setWeatherTemp(22.0);
+		record = records.save(record);
+		assertEquals(WeatherCategory.RAIN, store.get(WeatherHistoryStore.userSeries("user-1"), monday).orElseThrow().category());
+
+		// 날짜를 옮기면 이전 날짜는 비고 새 날짜에 기록됨
+		record.setRecordDate(tuesday);
+		record = records.save(record);
+		assertEquals(Optional.empty(), store.get(WeatherHistoryStore.userSeries("user-1"), monday));
+		assertEquals(WeatherCategory.RAIN, store.get(WeatherHistoryStore.userSeries("user-1"), tuesday).orElseThrow().category());
+
+		records.deleteById(record.getId());
+		assertEquals(Optional.empty(), store.get(WeatherHistoryStore.userSeries("user-1"), tuesday));
+		assertEquals(0L, store.getStats().get("days"));
+	}
+
+	@Test
+	void unknownRecordedCategoryFallsBackToRegion() {
+		WeatherHistoryStore store = new WeatherHistoryStore(null);
+		LocalDate day = LocalDate.of(2024, 7, 5);
+		Record record = new Record("기온만 적은 날", day, "user-1");
+		record.setWeatherTemp(30.0);
+		assertTrue(store.putRecord(record));
+
+		assertEquals(WeatherCategory.UNKNOWN, store.lookup("user-1", null, day).orElseThrow().category());
+		store.put("KR-11", day, WeatherCategory.CLEAR, 31.0);
+		assertEquals(Optional.of(new WeatherHistoryStore.DailyWeather(WeatherCategory.CLEAR, 31.0)),
+				store.lookup("user-1", "KR-11", day));
+	}
+}
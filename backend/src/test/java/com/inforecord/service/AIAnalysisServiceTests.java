@@ -0,0 +1,92 @@
+package com.inforecord.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.inforecord.Entity.Emotion;
+import com.inforecord.Entity.Record;
+import com.inforecord.dto.AIAnalysisDto;
+import com.inforecord.dto.EmotionDto;
+import com.inforecord.dto.RecordDto;
+import com.inforecord.model.WeatherCategory;
+import com.inforecord.repository.EmotionRepository;
+import com.inforecord.repository.InMemoryRepositories;
+import com.inforecord.repository.RecordRepository;
+import com.inforecord.repository.WeatherHistoryStore;
+
+class AIAnalysisServiceTests {
+
+	@Test
+	void weeklyInsightsShareOneIndexAcrossSections() {
+		LocalDate monday = LocalDate.of(2024, 7, 1);
+		LocalDate wednesday = LocalDate.of(2024, 7, 3);
+		WeatherHistoryStore store = new WeatherHistoryStore(null);
+		store.put("KR-11", monday, WeatherCategory.CLEAR, 28.0);
+		store.put("KR-11", wednesday, WeatherCategory.RAIN, 22.0);
+
+		List<RecordDto> records = List.of(record(monday), record(wednesday), record(wednesday));
+		List<EmotionDto> emotions = List.of(
+				new EmotionDto(1L, "기쁨", 3.0, 60.0, "user-1", monday.toString()),
+				new EmotionDto(2L, "슬픔", 8.0, 70.0, "user-1", wednesday.toString()),
+				new EmotionDto(3L, "기쁨", 4.0, 30.0, "user-1", wednesday.toString()),
+				new EmotionDto(4L, "기쁨", 9.0, 10.0, "user-1", "2024/07/02"));
+
+		AIAnalysisDto analysis = new AIAnalysisService(store, new WeatherEmotionStatistics(null, null, 14, 0.05))
+				.analyzeWeeklyInsights(records, emotions, List.of(), List.of(), "KR-11");
+
+		assertEquals("이번 주 첫 기록이에요.", analysis.getEmotionChange());
+		assertEquals("이번 주는 '슬픔' 감정을 가장 많이 느꼈어요.", analysis.getMainEmotion());
+		assertEquals("이번 주는 수요일에 감정을 가장 강하게 느꼈네요.", analysis.getEmotionPattern());
+		assertEquals("비 날씨에 슬픔 감정을 자주 느꼈어요.", analysis.getWeatherEmotionCorrelation());
+		assertEquals("이번 주에 2가지의 다양한 감정을 느꼈어요.", analysis.getPersonalizedInsights());
+	}
+
+	@Test
+	void cumulativeStatisticsAreAppliedToACopyOfTheWeeklyReport() {
+		RecordRepository records = InMemoryRepositories.records();
+		EmotionRepository emotions = InMemoryRepositories.emotions(records);
+		WeatherEmotionStatistics statistics = new WeatherEmotionStatistics(records, emotions, 4, 0.05);
+		AIAnalysisService service = new AIAnalysisService(new WeatherHistoryStore(null), statistics);
+		LocalDate monday = LocalDate.of(2024, 7, 1);
+		AIAnalysisDto weekly = service.analyzeWeeklyInsights(List.of(record(monday)),
+				List.of(new EmotionDto(1L, "기쁨", 3.0, 60.0, "user-1", monday.toString())), List.of(), List.of(), null);
+		String weeklyCorrelation = weekly.getWeatherEmotionCorrelation();
+
+		// 누적 관측일이 min-days보다 적으면 주간 결과를 그대로 사용
+		assertSame(weekly, service.withWeatherStatistics("user-1", weekly));
+
+		// 날씨 2종 x 감정 2종에서 칸마다 기대 빈도가 5 이상이 되도록 20일
+		for (int i = 0; i < 20; i++) {
+			Record record = new Record("content", monday.minusDays(i + 1), "user-1");
+			record.setWeatherDesc(i % 2 == 0 ? "비" : "맑음");
+			record = records.save(record);
+			Emotion emotion = new Emotion(record, i % 2 == 0 ? "슬픔" : "기쁨", 0.8);
+			emotion.setDate(record.getRecordDate());
+			emotions.save(emotion);
+		}
+		statistics.loadFromRepositories();
+
+		AIAnalysisDto report = service.withWeatherStatistics("user-1", weekly);
+		assertTrue(report.getWeatherEmotionCorrelation().contains("20일"));
+		assertEquals(weekly.getMainEmotion(), report.getMainEmotion());
+		// 캐시에 들어간 주간 결과는 바뀌지 않음
+		assertEquals(weeklyCorrelation, weekly.getWeatherEmotionCorrelation());
+
+		// 이번 주 데이터가 부족하면 누적 결과로 바꾸지 않음
+		AIAnalysisDto empty = service.analyzeWeeklyInsights(List.of(), List.of(), List.of(), List.of(), null);
+		assertSame(empty, service.withWeatherStatistics("user-1", empty));
+	}
+
+	private static RecordDto record(LocalDate date) {
+		RecordDto record = new RecordDto();
+		record.setRecordDate(date);
+		record.setUserId("user-1");
+		return record;
+	}
+}
@@ -0,0 +1,74 @@
+package com.inforecord.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTests {
+
+	@Test
+	void opensAfterConsecutiveFailuresAndClosesAfterSuccessfulTrial() throws InterruptedException {
+		CircuitBreaker breaker = new CircuitBreaker(3, 50);
+
+		// 성공이 끼면 연속 실패 횟수가 초기화됨
+		failOnce(breaker);
+		failOnce(breaker);
+		assertTrue(breaker.tryAcquire());
+		breaker.onSuccess();
+		failOnce(breaker);
+		failOnce(breaker);
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+		failOnce(breaker);
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+		assertEquals(1, breaker.getOpenCount());
+		assertFalse(breaker.tryAcquire());
+
+		// open-duration이 지나면 시험 호출 하나만 허용
+		Thread.sleep(60);
+		assertTrue(breaker.tryAcquire());
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+		assertFalse(breaker.tryAcquire());
+
+		breaker.onSuccess();
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+		assertTrue(breaker.tryAcquire());
+		breaker.onSuccess();
+	}
+
+	@Test
+	void failedTrialReopensImmediately() throws InterruptedException {
+		CircuitBreaker breaker = new CircuitBreaker(2, 50);
+		failOnce(breaker);
+		failOnce(breaker);
+		Thread.sleep(60);
+
+		assertTrue(breaker.tryAcquire());
+		breaker.onFailure();
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+		assertEquals(2, breaker.getOpenCount());
+		assertFalse(breaker.tryAcquire());
+	}
+
+	@Test
+	void ignoredTrialReleasesSlotWithoutChangingState() throws InterruptedException {
+		CircuitBreaker breaker = new CircuitBreaker(1, 50);
+		failOnce(breaker);
+		Thread.sleep(60);
+
+		// 허용받았지만 호출하지 않은 시험은 다음 호출자가 다시 시도할 수 있어야 함
+		assertTrue(breaker.tryAcquire());
+		breaker.onIgnored();
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+		assertTrue(breaker.tryAcquire());
+		breaker.onSuccess();
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+	}
+
+	private static void failOnce(CircuitBreaker breaker) {
+		assertTrue(breaker.tryAcquire());
+		breaker.onFailure();
+	}
+}
@@ -0,0 +1,251 @@
+package com.inforecord.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.inforecord.Entity.Emotion;
+import com.inforecord.Entity.Record;
+import com.inforecord.model.AnalysisStatus;
+import com.inforecord.model.EmotionResult;
+import com.inforecord.repository.EmotionRepository;
+import com.inforecord.repository.InMemoryRepositories;
+import com.inforecord.repository.RecordRepository;
+
+class EmotionAnalysisPipelineTests {
+
+	private static final LocalDate DAY = LocalDate.of(2025, 5, 12);
+
+	@Test
+	void rejectsSubmissionWithoutWaitingWhenQueueIsFull() throws Exception {
+		Fixture fixture = new Fixture();
+		CountDownLatch release = fixture.service.blockOn("first");
+		EmotionAnalysisPipeline pipeline = fixture.pipeline(1, 1, 3, 10);
+		try {
+			Record first = fixture.record("first", DAY);
+			Record second = fixture.record("second", DAY.plusDays(1));
+			Record third = fixture.record("third", DAY.plusDays(2));
+
+			// 워커 하나가 첫 작업에 묶이고 두 번째 작업이 큐의 유일한 자리를 차지함
+			assertEquals(AnalysisStatus.PENDING, pipeline.submit(first));
+			fixture.service.awaitStarted("first");
+			assertEquals(AnalysisStatus.PENDING, pipeline.submit(second));
+
+			assertEquals(AnalysisStatus.FAILED, pipeline.submit(third));
+			assertEquals(1L, pipeline.getStats().get("rejected"));
+
+			release.countDown();
+			awaitStatus(pipeline, first, AnalysisStatus.DONE);
+			awaitStatus(pipeline, second, AnalysisStatus.DONE);
+			assertEquals(Optional.of(AnalysisStatus.FAILED), pipeline.getStatus(third.getId()));
+			assertTrue(fixture.emotions.findByRecordId(third.getId()).isEmpty());
+		} finally {
+			release.countDown();
+			pipeline.stop();
+		}
+	}
+
+	@Test
+	void retriesWithExponentialBackoffUntilSuccessOrMaxAttempts() throws Exception {
+		Fixture fixture = new Fixture();
+		fixture.service.failTimes("flaky", 2);
+		fixture.service.failTimes("broken", Integer.MAX_VALUE);
+		EmotionAnalysisPipeline pipeline = fixture.pipeline(2, 10, 3, 40);
+		try {
+			Record flaky = fixture.record("flaky", DAY);
+			long started = System.nanoTime();
+			pipeline.submit(flaky);
+			awaitStatus(pipeline, flaky, AnalysisStatus.DONE);
+
+			// 40ms, 80ms 백오프 뒤 세 번째 시도에서 성공
+			assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) >= 120);
+			assertEquals(3, fixture.service.calls("flaky"));
+			assertEquals(1, fixture.emotions.findByRecordId(flaky.getId()).size());
+
+			Record broken = fixture.record("broken", DAY.plusDays(1));
+			pipeline.submit(broken);
+			awaitStatus(pipeline, broken, AnalysisStatus.FAILED);
+			assertEquals(3, fixture.service.calls("broken"));
+			assertEquals(4L, pipeline.getStats().get("retried"));
+			assertEquals(1L, pipeline.getStats().get("failed"));
+		} finally {
+			pipeline.stop();
+		}
+	}
+
+	@Test
+	void newerSubmissionSupersedesInFlightAnalysis() throws Exception {
+		Fixture fixture = new Fixture();
+		CountDownLatch release = fixture.service.blockOn("old");
+		EmotionAnalysisPipeline pipeline = fixture.pipeline(2, 10, 3, 10);
+		try {
+			Record record = fixture.record("old", DAY);
+			pipeline.submit(record);
+			fixture.service.awaitStarted("old");
+
+			// 분석 도중 내용이 바뀌어 다시 제출됨 -> 이전 결과는 버려야 함
+			Record updated = new Record("new", DAY, "user-1");
+			updated.setId(record.getId());
+			pipeline.submit(updated);
+			awaitStatus(pipeline, updated, AnalysisStatus.DONE);
+			release.countDown();
+
+			long deadline = System.currentTimeMillis() + 5_000;
+			while ((Long) pipeline.getStats().get("superseded") < 1) {
+				assertTrue(System.currentTimeMillis() < deadline);
+				Thread.sleep(10);
+			}
+			List<Emotion> saved = fixture.emotions.findByRecordId(record.getId());
+			assertEquals(1, saved.size());
+			assertEquals("new", saved.get(0).getEmotionType());
+			assertEquals(1L, pipeline.getStats().get("completed"));
+		} finally {
+			release.countDown();
+			pipeline.stop();
+		}
+	}
+
+	@Test
+	void evictsFinishedStatesAfterTtlButKeepsPendingOnes() throws Exception {
+		Fixture fixture = new Fixture();
+		CountDownLatch release = fixture.service.blockOn("pending");
+		EmotionAnalysisPipeline pipeline = fixture.pipeline(2, 10, 1, 10);
+		try {
+			Record done = fixture.record("done", DAY);
+			Record pending = fixture.record("pending", DAY.plusDays(1));
+			pipeline.submit(done);
+			pipeline.submit(pending);
+			awaitStatus(pipeline, done, AnalysisStatus.DONE);
+
+			assertEquals(0, pipeline.evictFinished(System.currentTimeMillis()));
+			assertEquals(1, pipeline.evictFinished(System.currentTimeMillis() + Fixture.TTL_MS));
+			assertTrue(pipeline.getStatus(done.getId()).isEmpty());
+			assertEquals(Optional.of(AnalysisStatus.PENDING), pipeline.getStatus(pending.getId()));
+			assertEquals(1, pipeline.getStats().get("trackedStates"));
+		} finally {
+			release.countDown();
+			pipeline.stop();
+		}
+	}
+
+	@Test
+	void reanalyzesStoredRecordsWithoutEmotionsOnStart() throws Exception {
+		Fixture fixture = new Fixture();
+		Record analyzed = fixture.record("analyzed", DAY);
+		fixture.service.saveRecordEmotion(analyzed, new EmotionResult("analyzed", 0.5));
+		// 이전 실행에서 큐에 남아 있다가 종료로 버려진 기록들 (큐 크기보다 많음)
+		List<Record> leftovers = List.of(fixture.record("left-1", DAY.plusDays(1)),
+				fixture.record("left-2", DAY.plusDays(2)), fixture.record("left-3", DAY.plusDays(3)));
+
+		EmotionAnalysisPipeline pipeline = fixture.pipeline(1, 1, 1, 10);
+		try {
+			for (Record leftover : leftovers) {
+				awaitStatus(pipeline, leftover, AnalysisStatus.DONE);
+				assertEquals(1, fixture.emotions.findByRecordId(leftover.getId()).size());
+			}
+			assertEquals(0, fixture.service.calls("analyzed"));
+			assertTrue(pipeline.getStatus(analyzed.getId()).isEmpty());
+			assertEquals(3L, pipeline.getStats().get("backfilled"));
+		} finally {
+			pipeline.stop();
+		}
+	}
+
+	private static void awaitStatus(EmotionAnalysisPipeline pipeline, Record record, AnalysisStatus expected)
+			throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (pipeline.getStatus(record.getId()).orElse(null) != expected) {
+			assertTrue(System.currentTimeMillis() < deadline);
+			Thread.sleep(5);
+		}
+	}
+
+	private static final class Fixture {
+		static final long TTL_MS = 60_000;
+
+		final RecordRepository records = InMemoryRepositories.records();
+		final EmotionRepository emotions = InMemoryRepositories.emotions(records);
+		final ScriptedAnalysisService service = new ScriptedAnalysisService(emotions);
+
+		EmotionAnalysisPipeline pipeline(int workers, int queueCapacity, int maxAttempts, long initialBackoffMs) {
+			EmotionAnalysisPipeline pipeline = new EmotionAnalysisPipeline(service, emotions, records,
+					workers, queueCapacity, maxAttempts, initialBackoffMs, 1_000, TTL_MS);
+			pipeline.start();
+			return pipeline;
+		}
+
+		Record record(String content, LocalDate date) {
+			return records.save(new Record(content, date, "user-1"));
+		}
+	}
+
+	/**
+	 * 내용을 그대로 감정 종류로 돌려주는 분석 서비스 (내용별로 실패 횟수와 대기 지점을 지정)
+	 */
+	private static final class ScriptedAnalysisService extends EmotionAnalysisService {
+		private final EmotionRepository emotions;
+		private final Map<String, AtomicInteger> failuresLeft = new ConcurrentHashMap<>();
+		private final Map<String, CountDownLatch> blockers = new ConcurrentHashMap<>();
+		private final Map<String, CountDownLatch> started = new ConcurrentHashMap<>();
+		private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+		ScriptedAnalysisService(EmotionRepository emotions) {
+			this.emotions = emotions;
+		}
+
+		void failTimes(String content, int times) {
+			failuresLeft.put(content, new AtomicInteger(times));
+		}
+
+		CountDownLatch blockOn(String content) {
+			CountDownLatch latch = new CountDownLatch(1);
+			blockers.put(content, latch);
+			started.put(content, new CountDownLatch(1));
+			return latch;
+		}
+
+		void awaitStarted(String content) throws InterruptedException {
+			assertTrue(started.get(content).await(5, TimeUnit.SECONDS));
+		}
+
+		int calls(String content) {
+			return calls.getOrDefault(content, new AtomicInteger()).get();
+		}
+
+		@Override
+		public EmotionResult analyzeText(String text) {
+			calls.computeIfAbsent(text, key -> new AtomicInteger()).incrementAndGet();
+			CountDownLatch blocker = blockers.get(text);
+			if (blocker != null) {
+				started.get(text).countDown();
+				try {
+					blocker.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			AtomicInteger failures = failuresLeft.get(text);
+			if (failures != null && failures.getAndDecrement() > 0) {
+				throw new IllegalStateException("모델 호출 실패");
+			}
+			return new EmotionResult(text, 0.5);
+		}
+
+		@Override
+		public void saveRecordEmotion(Record record, EmotionResult result) {
+			Emotion emotion = new Emotion(record, result.emotionType(), result.intensity());
+			emotion.setDate(record.getRecordDate());
+			emotions.save(emotion);
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package com.inforecord.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.inforecord.Entity.Emotion;
+import com.inforecord.Entity.Record;
+import com.inforecord.dto.EmotionDto;
+import com.inforecord.model.EmotionResult;
+import com.inforecord.repository.EmotionRepository;
+import com.inforecord.repository.InMemoryRepositories;
+import com.inforecord.repository.RecordRepository;
+
+class EmotionAnalysisServiceTests {
+
+	private static final LocalDate SUNDAY = LocalDate.of(2024, 7, 7);
+	private static final LocalDate SATURDAY = SUNDAY.plusDays(6);
+
+	@Test
+	void weeklyFanOutNeverExceedsConcurrencyLimit() throws Exception {
+		StubBatcher batcher = new StubBatcher(Set.of(), Map.of());
+		Fixture fixture = new Fixture(batcher, 3);
+		try {
+			List<Record> week = fixture.week("행복", "슬픔", "평온", "분노", "불안", "기쁨", "설렘");
+
+			assertEquals(7, fixture.service.analyzeWeeklyEmotions(week, "user-1", SUNDAY, SATURDAY).size());
+			assertEquals(7, batcher.calls.get());
+			assertEquals(3, batcher.maxInFlight.get());
+		} finally {
+			fixture.service.stopWeeklyExecutor();
+		}
+	}
+
+	@Test
+	void failureOfOneRecordSkipsOnlyThatRecord() throws Exception {
+		StubBatcher batcher = new StubBatcher(Set.of("모델 오류"), Map.of());
+		Fixture fixture = new Fixture(batcher, 4);
+		try {
+			List<Record> week = fixture.week("행복", "모델 오류", "평온");
+
+			List<EmotionDto> result = fixture.service.analyzeWeeklyEmotions(week, "user-1", SUNDAY, SATURDAY);
+			assertEquals(List.of("행복", "평온"), result.stream().map(EmotionDto::getEmotionType).toList());
+			assertEquals(List.of(SUNDAY.toString(), SUNDAY.plusDays(2).toString()),
+					result.stream().map(EmotionDto::getDate).toList());
+			List<Emotion> stored = fixture.emotions.findEmotionsByUserIdAndDateRange("user-1", SUNDAY, SATURDAY);
+			assertEquals(List.of(SUNDAY, SUNDAY.plusDays(2)), stored.stream().map(Emotion::getDate).sorted().toList());
+		} finally {
+			fixture.service.stopWeeklyExecutor();
+		}
+	}
+
+	@Test
+	void collectsResultsInRecordOrderWhenAnalysesFinishOutOfOrder() throws Exception {
+		// 앞쪽 기록일수록 늦게 끝남
+		StubBatcher batcher = new StubBatcher(Set.of(), Map.of("월", 90L, "화", 60L, "수", 30L));
+		Fixture fixture = new Fixture(batcher, 4);
+		try {
+			List<Record> week = fixture.week("월", "화", "수", "목");
+
+			List<EmotionDto> result = fixture.service.analyzeWeeklyEmotions(week, "user-1", SUNDAY, SATURDAY);
+			assertEquals(List.of("월", "화", "수", "목"), result.stream().map(EmotionDto::getEmotionType).toList());
+		} finally {
+			fixture.service.stopWeeklyExecutor();
+		}
+	}
+
+	private static final class Fixture {
+		final RecordRepository records = InMemoryRepositories.records();
+		final EmotionRepository emotions = InMemoryRepositories.emotions(records);
+		final EmotionAnalysisService service = new EmotionAnalysisService();
+
+		Fixture(EmotionBatcher batcher, int concurrency) throws ReflectiveOperationException {
+			inject(service, "emotionRepository", emotions);
+			inject(service, "emotionResultCache", new EmotionResultCache("v1", 100));
+			inject(service, "emotionBatcher", batcher);
+			inject(service, "weeklyConcurrency", concurrency);
+			service.startWeeklyExecutor();
+		}
+
+		// 일요일부터 하루에 하나씩, 내용을 그대로 감정 종류로 돌려받는 기록
+		List<Record> week(String... contents) {
+			List<Record> week = new ArrayList<>();
+			for (int i = 0; i < contents.length; i++) {
+				week.add(records.save(new Record(contents[i], SUNDAY.plusDays(i), "user-1")));
+			}
+			return week;
+		}
+
+		private static void inject(Object target, String name, Object value) throws ReflectiveOperationException {
+			Field field = target.getClass().getDeclaredField(name);
+			field.setAccessible(true);
+			field.set(target, value);
+		}
+	}
+
+	/**
+	 * 내용을 감정 종류로 돌려주는 배처 (호출마다 기본 30ms 대기, 동시에 진행 중인 호출 수의 최댓값을 기록, 지정한 내용은 실패)
+	 */
+	private static final class StubBatcher extends EmotionBatcher {
+		final AtomicInteger calls = new AtomicInteger();
+		final AtomicInteger inFlight = new AtomicInteger();
+		final AtomicInteger maxInFlight = new AtomicInteger();
+		private final Set<String> failing;
+		private final Map<String, Long> delaysMs;
+
+		StubBatcher(Set<String> failing, Map<String, Long> delaysMs) {
+			super(null, 1, 1, 1, 1_000);
+			this.failing = failing;
+			this.delaysMs = delaysMs;
+		}
+
+		@Override
+		public EmotionResult analyze(String text) {
+			calls.incrementAndGet();
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(delaysMs.getOrDefault(text, 30L));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				inFlight.decrementAndGet();
+			}
+			if (failing.contains(text)) {
+				throw new IllegalStateException("모델 호출 실패: " + text);
+			}
+			return new EmotionResult(text, 0.5);
+		}
+	}
+}
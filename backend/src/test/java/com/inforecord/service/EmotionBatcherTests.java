@@ -0,0 +1,129 @@
+package com.inforecord.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.inforecord.model.EmotionResult;
+
+class EmotionBatcherTests {
+
+	@Test
+	void groupsRequestsArrivingWithinWaitWindow() throws Exception {
+		RecordingClient client = new RecordingClient(texts -> texts.stream()
+				.map(text -> new EmotionResult(text, 0.5))
+				.toList());
+		EmotionBatcher batcher = start(client, 16, 200);
+		try {
+			List<CompletableFuture<EmotionResult>> futures = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				futures.add(batcher.submit("text-" + i));
+			}
+			for (int i = 0; i < 3; i++) {
+				assertEquals("text-" + i, futures.get(i).get(5, TimeUnit.SECONDS).emotionType());
+			}
+			assertEquals(List.of(List.of("text-0", "text-1", "text-2")), client.batches);
+		} finally {
+			batcher.stop();
+		}
+	}
+
+	@Test
+	void flushesFullBatchWithoutWaitingForWindow() throws Exception {
+		RecordingClient client = new RecordingClient(texts -> texts.stream()
+				.map(text -> new EmotionResult(text, 0.5))
+				.toList());
+		// 대기 창이 매우 길어도 max-size가 차면 바로 보내야 함
+		EmotionBatcher batcher = start(client, 4, 60_000);
+		try {
+			List<CompletableFuture<EmotionResult>> futures = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				futures.add(batcher.submit("text-" + i));
+			}
+			for (CompletableFuture<EmotionResult> future : futures) {
+				future.get(5, TimeUnit.SECONDS);
+			}
+			assertEquals(2, client.batches.size());
+			for (List<String> batch : client.batches) {
+				assertEquals(4, batch.size());
+			}
+			assertEquals(4L, batcher.getStats().get("maxObservedBatchSize"));
+		} finally {
+			batcher.stop();
+		}
+	}
+
+	@Test
+	void failsOnlyItemsWithoutResultAndWholeBatchOnCallFailure() throws Exception {
+		RecordingClient client = new RecordingClient(texts -> {
+			if (texts.contains("boom")) {
+				throw new IllegalStateException("감정분석 모델 서킷이 열려 있어 호출하지 않음");
+			}
+			List<EmotionResult> results = new ArrayList<>();
+			for (String text : texts) {
+				results.add(text.isBlank() ? null : new EmotionResult(text, 0.5));
+			}
+			return results;
+		});
+		EmotionBatcher batcher = start(client, 16, 100);
+		try {
+			// 개별 결과가 비면 그 요청만 실패하고 나머지는 정상 완료
+			CompletableFuture<EmotionResult> ok = batcher.submit("ok");
+			CompletableFuture<EmotionResult> blank = batcher.submit(" ");
+			CompletableFuture<EmotionResult> alsoOk = batcher.submit("also ok");
+			assertEquals("ok", ok.get(5, TimeUnit.SECONDS).emotionType());
+			assertEquals("also ok", alsoOk.get(5, TimeUnit.SECONDS).emotionType());
+			ExecutionException blankFailure = assertThrows(ExecutionException.class, () -> blank.get(5, TimeUnit.SECONDS));
+			assertTrue(blankFailure.getCause() instanceof RuntimeException);
+			assertEquals(1, client.batches.size());
+			assertEquals(0L, batcher.getStats().get("failedBatches"));
+
+			// 호출 자체가 실패하면 배치의 모든 요청이 같은 원인으로 실패
+			CompletableFuture<EmotionResult> first = batcher.submit("boom");
+			CompletableFuture<EmotionResult> second = batcher.submit("other");
+			ExecutionException firstFailure = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+			ExecutionException secondFailure = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+			assertSame(firstFailure.getCause(), secondFailure.getCause());
+			assertThrows(IllegalStateException.class, () -> batcher.analyze("boom"));
+			assertEquals(2L, batcher.getStats().get("failedBatches"));
+		} finally {
+			batcher.stop();
+		}
+	}
+
+	private static EmotionBatcher start(EmotionModelClient client, int maxBatchSize, long maxWaitMs) {
+		EmotionBatcher batcher = new EmotionBatcher(client, maxBatchSize, maxWaitMs, 2, 5_000);
+		batcher.start();
+		return batcher;
+	}
+
+	/**
+	 * 받은 배치를 기록하고 주어진 함수로 응답하는 모델 클라이언트
+	 */
+	private static final class RecordingClient extends EmotionModelClient {
+		final List<List<String>> batches = new CopyOnWriteArrayList<>();
+		private final Function<List<String>, List<EmotionResult>> responder;
+
+		RecordingClient(Function<List<String>, List<EmotionResult>> responder) {
+			super(null, "http://localhost:5000", 4, 100, 5, 30_000);
+			this.responder = responder;
+		}
+
+		@Override
+		public List<EmotionResult> analyzeBatch(List<String> texts) {
+			batches.add(List.copyOf(texts));
+			return responder.apply(texts);
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package com.inforecord.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.inforecord.model.EmotionResult;
+
+class EmotionModelClientTests {
+
+	@Test
+	void rejectsCallsBeyondBulkheadWithoutTrippingCircuit() throws Exception {
+		StubRestTemplate restTemplate = new StubRestTemplate();
+		restTemplate.block();
+		EmotionModelClient client = new EmotionModelClient(restTemplate, "http://model", 1, 20, 1, 30_000);
+
+		CompletableFuture<List<EmotionResult>> inFlight = CompletableFuture.supplyAsync(() -> client.analyzeBatch(List.of("a")));
+		assertTrue(restTemplate.entered.await(5, TimeUnit.SECONDS));
+
+		// 유일한 연결이 사용 중이므로 대기 시간 뒤 거절하고, 서킷 판정에는 반영하지 않음
+		assertThrows(IllegalStateException.class, () -> client.analyzeBatch(List.of("b")));
+		assertEquals(1L, client.getStats().get("bulkheadRejected"));
+		assertEquals(1, client.getStats().get("inFlight"));
+
+		restTemplate.release.countDown();
+		assertEquals("행복", inFlight.get(5, TimeUnit.SECONDS).get(0).emotionType());
+		assertEquals("CLOSED", client.getStats().get("circuitState"));
+		assertEquals(0, client.getStats().get("inFlight"));
+	}
+
+	@Test
+	void opensCircuitOnFailuresAndMapsItemsWithoutEmotionToNull() {
+		StubRestTemplate restTemplate = new StubRestTemplate();
+		EmotionModelClient client = new EmotionModelClient(restTemplate, "http://model", 2, 20, 2, 30_000);
+
+		List<EmotionResult> results = client.analyzeBatch(List.of("좋아", " "));
+		assertEquals(0.8, results.get(0).intensity(), 1e-9);
+		assertNull(results.get(1));
+
+		restTemplate.failing.set(true);
+		assertThrows(RestClientException.class, () -> client.analyzeBatch(List.of("a")));
+		assertThrows(RestClientException.class, () -> client.analyzeBatch(List.of("a")));
+		assertEquals("OPEN", client.getStats().get("circuitState"));
+
+		// 서킷이 열리면 HTTP 호출 없이 즉시 거절
+		int callsBefore = restTemplate.calls;
+		assertThrows(IllegalStateException.class, () -> client.analyzeBatch(List.of("a")));
+		assertEquals(callsBefore, restTemplate.calls);
+		assertEquals(1L, client.getStats().get("shortCircuited"));
+	}
+
+	/**
+	 * 공백 텍스트는 error 항목으로, 나머지는 "행복 80%"로 응답하는 가짜 모델 서버
+	 */
+	private static final class StubRestTemplate extends RestTemplate {
+		final CountDownLatch entered = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicBoolean failing = new AtomicBoolean();
+		private volatile boolean blocking;
+		volatile int calls;
+
+		void block() {
+			blocking = true;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> ResponseEntity<T> postForEntity(String url, Object request, Class<T> responseType, Object... uriVariables) {
+			calls++;
+			if (blocking) {
+				entered.countDown();
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			if (failing.get()) {
+				throw new RestClientException("연결 실패");
+			}
+			Map<String, Object> body = ((HttpEntity<Map<String, Object>>) request).getBody();
+			List<String> texts = (List<String>) body.get("texts");
+			List<EmotionModelClient.BatchItem> items = texts.stream()
+					.map(text -> text.isBlank()
+							? new EmotionModelClient.BatchItem(null, null, "텍스트를 입력해주세요", null)
+							: new EmotionModelClient.BatchItem("행복", 80.0, null, false))
+					.toList();
+			return ResponseEntity.ok(responseType.cast(new EmotionModelClient.BatchResponse(items)));
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package com.inforecord.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.text.Normalizer;
+
+import org.junit.jupiter.api.Test;
+
+import com.inforecord.model.EmotionResult;
+
+class EmotionResultCacheTests {
+
+	@Test
+	void normalizedVariantsShareOneEntry() {
+		EmotionResultCache cache = new EmotionResultCache("v1", 100);
+		EmotionResult result = new EmotionResult("행복", 0.8);
+
+		// 조합형(NFD) 한글, 앞뒤 공백, 연속 공백/줄바꿈은 같은 텍스트로 봄
+		String composed = "오늘 정말 행복해";
+		String decomposed = Normalizer.normalize(composed, Normalizer.Form.NFD);
+		cache.put("  오늘   정말\n행복해 ", result);
+
+		assertEquals(result, cache.get(composed));
+		assertEquals(result, cache.get(decomposed));
+		assertNull(cache.get("오늘 정말 행복해!"));
+		assertEquals(1, cache.getStats().get("size"));
+		assertEquals(2L, cache.getStats().get("hits"));
+		assertEquals(1L, cache.getStats().get("misses"));
+	}
+
+	@Test
+	void keysDependOnModelVersion() {
+		EmotionResultCache v1 = new EmotionResultCache("v1", 100);
+		EmotionResultCache alsoV1 = new EmotionResultCache("v1", 100);
+		EmotionResultCache v2 = new EmotionResultCache("v2", 100);
+
+		assertEquals(v1.keyOf("오늘 정말 행복해"), alsoV1.keyOf(" 오늘  정말 행복해"));
+		assertFalse(v1.keyOf("오늘 정말 행복해").equals(v2.keyOf("오늘 정말 행복해")));
+		// 버전과 텍스트 경계가 섞여 같은 키가 나오지 않아야 함
+		assertFalse(new EmotionResultCache("v1", 100).keyOf("a").equals(new EmotionResultCache("v1a", 100).keyOf("")));
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedBeyondLimit() {
+		EmotionResultCache cache = new EmotionResultCache("v1", 2);
+		cache.put("a", new EmotionResult("행복", 0.8));
+		cache.put("b", new EmotionResult("슬픔", 0.6));
+		cache.get("a");
+		cache.put("c", new EmotionResult("화남", 0.7));
+
+		assertTrue(cache.contains("a"));
+		assertFalse(cache.contains("b"));
+		assertTrue(cache.contains("c"));
+		assertEquals(2, cache.getStats().get("size"));
+		assertEquals(1L, cache.getStats().get("evictions"));
+	}
+
+	@Test
+	void doesNotStoreFallbackResults() {
+		EmotionResultCache cache = new EmotionResultCache("v1", 100);
+		cache.put("모델이 실패한 텍스트", new EmotionResult("중립", 0.5, true));
+		cache.put("빈 결과", null);
+
+		assertNull(cache.get("모델이 실패한 텍스트"));
+		assertEquals(0, cache.getStats().get("size"));
+		assertEquals(1L, cache.getStats().get("skippedFallbacks"));
+
+		// 정상 결과는 같은 중립 50%라도 저장
+		cache.put("그냥 평범한 하루", new EmotionResult("중립", 0.5));
+		assertEquals(new EmotionResult("중립", 0.5), cache.get("그냥 평범한 하루"));
+	}
+}
@@ -0,0 +1,130 @@
+package com.inforecord.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.inforecord.Entity.Emotion;
+import com.inforecord.Entity.Record;
+import com.inforecord.dto.EmotionTrendDto;
+import com.inforecord.repository.EmotionRepository;
+import com.inforecord.repository.InMemoryRepositories;
+
+class EmotionTrendServiceTests {
+
+	private static final String[] TYPES = {"기쁨", "슬픔", "분노", "평온", "불안"};
+	private static final LocalDate END_DATE = LocalDate.of(2025, 6, 18);
+
+	@Test
+	void parallelSplitMatchesSequentialResult() {
+		EmotionRepository repository = InMemoryRepositories.emotions(InMemoryRepositories.records());
+		Random random = new Random(42);
+		LocalDate from = END_DATE.minusWeeks(60);
+		for (int i = 0; i < 3000; i++) {
+			save(repository, "user-1", from.plusDays(random.nextInt(60 * 7 + 1)),
+					TYPES[random.nextInt(TYPES.length)], random.nextInt(5) / 4.0);
+		}
+
+		// 한 주씩 나눈 결과와 나누지 않은 결과는 같아야 함 (강도를 0.25 단위로 두어 더하는 순서와 관계없이 합이 정확함)
+		EmotionTrendService parallelService = new EmotionTrendService(repository, 260, 1, 4, DayOfWeek.MONDAY);
+		EmotionTrendService sequentialService = new EmotionTrendService(repository, 260, 1000, 1, DayOfWeek.MONDAY);
+		EmotionTrendDto parallel;
+		EmotionTrendDto sequential;
+		try {
+			parallel = parallelService.getTrend("user-1", END_DATE, 52);
+			sequential = sequentialService.getTrend("user-1", END_DATE, 52);
+		} finally {
+			parallelService.shutdown();
+			sequentialService.shutdown();
+		}
+		assertEquals(sequential, parallel);
+		assertEquals(52, parallel.weeks().size());
+		assertEquals(LocalDate.of(2025, 6, 16), parallel.weeks().get(51).weekStart());
+		assertEquals(parallel.startDate(), parallel.weeks().get(0).weekStart());
+		long total = parallel.weeks().stream().mapToLong(EmotionTrendDto.Week::emotionCount).sum();
+		assertEquals(repository.findEmotionsByUserIdAndDateRange("user-1", parallel.startDate(), parallel.endDate()).size(), total);
+	}
+
+	@Test
+	void computesDistributionAndWeekOverWeekChanges() {
+		EmotionRepository repository = InMemoryRepositories.emotions(InMemoryRepositories.records());
+		LocalDate monday = LocalDate.of(2025, 6, 9);
+		save(repository, "user-1", monday, "기쁨", 0.75);
+		save(repository, "user-1", monday.plusDays(6), "슬픔", 0.25);
+		save(repository, "user-1", monday.plusDays(7), "슬픔", 1.0);
+		save(repository, "user-2", monday.plusDays(7), "기쁨", 1.0);
+
+		EmotionTrendService service = new EmotionTrendService(repository, 260, 1, 2, DayOfWeek.MONDAY);
+		try {
+			EmotionTrendDto trend = service.getTrend("user-1", END_DATE, 3);
+
+			EmotionTrendDto.Week empty = trend.weeks().get(0);
+			assertEquals(0, empty.emotionCount());
+			assertNull(empty.dominantEmotion());
+
+			EmotionTrendDto.Week first = trend.weeks().get(1);
+			assertEquals(2, first.emotionCount());
+			assertEquals("기쁨", first.dominantEmotion());
+			assertEquals(75.0, first.distribution().get("기쁨"), 1e-9);
+			assertTrue(first.changes().isEmpty());
+
+			EmotionTrendDto.Week second = trend.weeks().get(2);
+			assertEquals("슬픔", second.dominantEmotion());
+			assertTrue(second.dominantChanged());
+			assertEquals(75.0, second.changes().get("슬픔"), 1e-9);
+			assertEquals(-75.0, second.changes().get("기쁨"), 1e-9);
+
+			assertEquals("슬픔", trend.overallDominantEmotion());
+			assertEquals(62.5, trend.overallDistribution().get("슬픔"), 1e-9);
+
+			assertThrows(IllegalArgumentException.class, () -> service.getTrend("user-1", END_DATE, 0));
+			assertThrows(IllegalArgumentException.class, () -> service.getTrend("user-1", END_DATE, 261));
+		} finally {
+			service.shutdown();
+		}
+	}
+
+	@Test
+	void weeksStartOnConfiguredDay() {
+		EmotionRepository repository = InMemoryRepositories.emotions(InMemoryRepositories.records());
+		LocalDate sunday = LocalDate.of(2025, 6, 15);
+		save(repository, "user-1", sunday.minusDays(1), "슬픔", 1.0);
+		save(repository, "user-1", sunday, "기쁨", 1.0);
+		save(repository, "user-1", END_DATE, "기쁨", 0.5);
+
+		// 일요일 시작이면 토요일 기록은 직전 주, 일요일/수요일 기록은 END_DATE가 속한 주로 묶임
+		EmotionTrendService service = new EmotionTrendService(repository, 260, 1, 2, DayOfWeek.SUNDAY);
+		try {
+			EmotionTrendDto trend = service.getTrend("user-1", END_DATE, 2);
+			assertEquals(LocalDate.of(2025, 6, 8), trend.startDate());
+			assertEquals(LocalDate.of(2025, 6, 21), trend.endDate());
+
+			EmotionTrendDto.Week previous = trend.weeks().get(0);
+			assertEquals(1, previous.emotionCount());
+			assertEquals("슬픔", previous.dominantEmotion());
+
+			EmotionTrendDto.Week current = trend.weeks().get(1);
+			assertEquals(sunday, current.weekStart());
+			assertEquals(LocalDate.of(2025, 6, 21), current.weekEnd());
+			assertEquals(2, current.emotionCount());
+			assertEquals("기쁨", current.dominantEmotion());
+			assertEquals("SUNDAY", service.getStats().get("weekStart"));
+		} finally {
+			service.shutdown();
+		}
+	}
+
+	private void save(EmotionRepository repository, String userId, LocalDate date, String type, double intensity) {
+		Record record = new Record("content", date, userId);
+		Emotion emotion = new Emotion(record, type, intensity);
+		emotion.setDate(date);
+		repository.save(emotion);
+	}
+}
@@ -0,0 +1,56 @@
+package com.inforecord.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.inforecord.model.OpenMeteoForecast;
+
+class OpenMeteoParserTests {
+
+	@Test
+	void readsOnlyNeededFieldsAndFirstDailyValue() {
+		String json = """
+				{"latitude":37.55,"longitude":126.975,"generationtime_ms":0.05,
+				 "current_units":{"temperature_2m":"°C","weather_code":"wmo code"},
+				 "current":{"time":"2024-05-01T12:00","interval":900,"temperature_2m":21.5,"relative_humidity_2m":72,
+				  "apparent_temperature":22,"precipitation":0.4,"weather_code":61},
+				 "hourly":{"time":["2024-05-01T00:00"],"temperature_2m":[[1.0],[2.0]]},
+				 "daily_units":{"temperature_2m_max":"°C"},
+				 "daily":{"time":["2024-05-01","2024-05-02"],"weather_code":[63,3],"temperature_2m_max":[25.0,27.5],"temperature_2m_min":[15,16]}}
+				""";
+
+		OpenMeteoForecast forecast = OpenMeteoParser.parse(json.getBytes(StandardCharsets.UTF_8));
+
+		assertEquals(new OpenMeteoForecast.Current(21.5, 72.0, 22.0, 0.4, 61), forecast.current());
+		assertEquals(new OpenMeteoForecast.Daily(25.0, 15.0, 63), forecast.daily());
+	}
+
+	@Test
+	void readsMultiLocationArrayInRequestOrder() {
+		String json = """
+				[{"current":{"temperature_2m":10.0,"weather_code":0},"daily":{"temperature_2m_max":[12.0],"temperature_2m_min":[5.0]}},
+				 {"current":{"temperature_2m":20.0,"weather_code":3},"daily":{"temperature_2m_max":[22.0],"temperature_2m_min":[15.0]}}]
+				""";
+
+		List<OpenMeteoForecast> forecasts = OpenMeteoParser.parseAll(json.getBytes(StandardCharsets.UTF_8));
+
+		assertEquals(2, forecasts.size());
+		assertEquals(10.0, forecasts.get(0).current().temperature());
+		assertEquals(3, forecasts.get(1).current().weatherCode());
+		assertEquals(15.0, forecasts.get(1).daily().minTemperature());
+		// daily weather_code가 없으면 -1
+		assertEquals(-1, forecasts.get(1).daily().weatherCode());
+	}
+
+	@Test
+	void rejectsResponseWithoutCurrentValues() {
+		byte[] json = "{\"error\":true,\"reason\":\"bad request\"}".getBytes(StandardCharsets.UTF_8);
+
+		assertThrows(IllegalStateException.class, () -> OpenMeteoParser.parse(json));
+	}
+}
@@ -0,0 +1,57 @@
+package com.inforecord.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class WeatherCacheHotCellTests {
+
+	private static final Map<String, Object> WEATHER = Map.of("temperature", 20.0);
+
+	@Test
+	void picksMostAccessedCellsCloseToExpiry() {
+		// TTL 1초, lead 10초 -> 저장 직후부터 모든 칸이 만료 임박 대상
+		WeatherCache cache = new WeatherCache(0.05, 1_000, 1_000, 100);
+		WeatherCache.GridCell seoul = cache.cellOf(37.5665, 126.9780);
+		WeatherCache.GridCell busan = cache.cellOf(35.1796, 129.0756);
+		WeatherCache.GridCell daegu = cache.cellOf(35.8714, 128.6014);
+		cache.put(seoul, WEATHER);
+		cache.put(busan, WEATHER);
+		cache.put(daegu, WEATHER);
+		for (int i = 0; i < 5; i++) {
+			cache.get(busan);
+		}
+		for (int i = 0; i < 3; i++) {
+			cache.get(seoul);
+		}
+
+		List<WeatherCache.HotCell> hot = cache.hotCellsExpiringWithin(10_000, 2, 2);
+
+		assertEquals(List.of(busan, seoul), hot.stream().map(WeatherCache.HotCell::cell).toList());
+		assertEquals(6L, hot.get(0).accesses());
+
+		// 갱신해도 접근 횟수는 이어지고, 감쇠하면 절반이 됨
+		cache.put(busan, WEATHER, true);
+		cache.decayAccesses();
+		assertEquals(3L, cache.hotCellsExpiringWithin(10_000, 0, 1).get(0).accesses());
+	}
+
+	@Test
+	void countsPrefetchedValueOnlyOnceWhenUsed() {
+		WeatherCache cache = new WeatherCache(0.05, 60_000, 60_000, 100);
+		WeatherCache.GridCell cell = cache.cellOf(37.5665, 126.9780);
+		cache.put(cell, WEATHER, true);
+		cache.get(cell);
+		cache.get(cell);
+
+		Map<String, Object> stats = cache.getStats();
+		assertEquals(1L, stats.get("prefetchedPuts"));
+		assertEquals(1L, stats.get("prefetchHits"));
+		assertEquals(1.0, stats.get("prefetchHitRatio"));
+		// 만료까지 충분히 남은 칸은 대상이 아님
+		assertEquals(List.of(), cache.hotCellsExpiringWithin(1_000, 0, 10));
+	}
+}
@@ -0,0 +1,165 @@
+package com.inforecord.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.inforecord.geo.Gazetteer;
+import com.inforecord.repository.WeatherHistoryStore;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class WeatherCacheTests {
+
+	private static final String FORECAST_JSON = """
+			{"latitude":37.55,"longitude":126.975,"current_units":{"temperature_2m":"°C"},
+			 "current":{"time":"2024-05-01T12:00","interval":900,"temperature_2m":%s,"relative_humidity_2m":55,
+			  "apparent_temperature":21.0,"precipitation":0.0,"weather_code":1},
+			 "daily":{"time":["2024-05-01"],"temperature_2m_max":[25.0],"temperature_2m_min":[15.0]}}
+			""";
+
+	@Test
+	void entryTurnsStaleAfterTtlAndMissesAfterStaleWindow() throws InterruptedException {
+		WeatherCache cache = new WeatherCache(0.05, 300, 600, 10);
+		WeatherCache.GridCell cell = cache.cellOf(37.5665, 126.9780);
+		cache.put(cell, Map.of("temperature", 21.5));
+
+		assertEquals(WeatherCache.Freshness.FRESH, cache.get(cell).freshness());
+		assertNotNull(cache.peekFresh(cell));
+
+		Thread.sleep(400);
+		WeatherCache.Lookup stale = cache.get(cell);
+		assertEquals(WeatherCache.Freshness.STALE, stale.freshness());
+		assertEquals(21.5, stale.value().get("temperature"));
+		assertNull(cache.peekFresh(cell));
+
+		Thread.sleep(600);
+		assertNull(cache.get(cell));
+	}
+
+	@Test
+	void onlyOneBackgroundRefreshPerCellUntilItFails() {
+		WeatherCache cache = new WeatherCache(0.05, 0, 900_000, 10);
+		WeatherCache.GridCell cell = cache.cellOf(37.5665, 126.9780);
+		assertFalse(cache.tryStartRefresh(cell));
+		cache.put(cell, Map.of("temperature", 21.5));
+
+		assertTrue(cache.tryStartRefresh(cell));
+		assertFalse(cache.tryStartRefresh(cell));
+		cache.refreshFailed(cell);
+		assertTrue(cache.tryStartRefresh(cell));
+
+		// 새 값이 저장되면 다음 만료 때 다시 갱신할 수 있음
+		cache.put(cell, Map.of("temperature", 22.0));
+		assertTrue(cache.tryStartRefresh(cell));
+		Map<String, Object> stats = cache.getStats();
+		assertEquals(3L, stats.get("backgroundRefreshes"));
+		assertEquals(1L, stats.get("refreshFailures"));
+	}
+
+	@Test
+	void staleLookupReturnsOldValueWhileRefreshingInBackground() throws Exception {
+		AtomicInteger upstreamCalls = new AtomicInteger();
+		CountDownLatch refreshed = new CountDownLatch(2);
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.createContext("/forecast", exchange -> {
+			respond(exchange, FORECAST_JSON.formatted(20.0 + upstreamCalls.incrementAndGet()));
+			refreshed.countDown();
+		});
+		server.start();
+		try {
+			WeatherCache cache = new WeatherCache(0.05, 300, 900_000, 10);
+			WeatherService service = new WeatherService(WebClient.builder(), cache,
+					new Gazetteer("gazetteer/kr-regions.tsv", 40), new WeatherHistoryStore(null),
+					"http://127.0.0.1:" + server.getAddress().getPort(), 50);
+
+			assertEquals(21.0, service.getCurrentLocationAndWeatherAsync(37.5665, 126.9780).block().get("temperature"));
+			Thread.sleep(400);
+
+			// 만료된 값을 갱신을 기다리지 않고 바로 돌려줌
+			assertEquals(21.0, service.getCurrentLocationAndWeatherAsync(37.5665, 126.9780).block().get("temperature"));
+			assertTrue(refreshed.await(5, TimeUnit.SECONDS));
+			long deadline = System.currentTimeMillis() + 5_000;
+			while (cache.peekFresh(cache.cellOf(37.5665, 126.9780)) == null && System.currentTimeMillis() < deadline) {
+				Thread.sleep(5);
+			}
+
+			assertEquals(22.0, service.getCurrentLocationAndWeatherAsync(37.5665, 126.9780).block().get("temperature"));
+			assertEquals(2, upstreamCalls.get());
+			Map<String, Object> stats = cache.getStats();
+			assertEquals(1L, stats.get("backgroundRefreshes"));
+			assertEquals(1L, stats.get("staleHits"));
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedCellAtCapacity() {
+		WeatherCache cache = new WeatherCache(0.05, 900_000, 900_000, 2);
+		WeatherCache.GridCell seoul = cache.cellOf(37.5665, 126.9780);
+		WeatherCache.GridCell busan = cache.cellOf(35.1796, 129.0756);
+		WeatherCache.GridCell daegu = cache.cellOf(35.8714, 128.6014);
+		cache.put(seoul, Map.of("temperature", 21.5));
+		cache.put(busan, Map.of("temperature", 23.0));
+
+		// 서울을 최근에 사용했으므로 부산이 제거됨
+		assertNotNull(cache.get(seoul));
+		cache.put(daegu, Map.of("temperature", 25.0));
+
+		assertNotNull(cache.get(seoul));
+		assertNull(cache.get(busan));
+		assertNotNull(cache.get(daegu));
+		Map<String, Object> stats = cache.getStats();
+		assertEquals(2, stats.get("size"));
+		assertEquals(1L, stats.get("evictions"));
+	}
+
+	@Test
+	void countsHitsStaleHitsAndMisses() throws InterruptedException {
+		WeatherCache cache = new WeatherCache(0.05, 300, 900_000, 10);
+		WeatherCache.GridCell seoul = cache.cellOf(37.5665, 126.9780);
+		WeatherCache.GridCell busan = cache.cellOf(35.1796, 129.0756);
+		assertNull(cache.get(seoul));
+		cache.put(seoul, Map.of("temperature", 21.5));
+		cache.get(seoul);
+		cache.get(seoul);
+		cache.get(busan);
+		Thread.sleep(400);
+		cache.get(seoul);
+
+		Map<String, Object> stats = cache.getStats();
+		assertEquals(2L, stats.get("hits"));
+		assertEquals(1L, stats.get("staleHits"));
+		assertEquals(2L, stats.get("misses"));
+		assertEquals(0.6, (Double) stats.get("hitRatio"), 1e-9);
+		// peekFresh는 지표에 반영하지 않음
+		cache.peekFresh(busan);
+		assertEquals(2L, cache.getStats().get("misses"));
+	}
+
+	private static void respond(HttpExchange exchange, String json) throws IOException {
+		byte[] body = json.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+}
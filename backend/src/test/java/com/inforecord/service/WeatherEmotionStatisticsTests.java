@@ -0,0 +1,136 @@
+package com.inforecord.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import com.inforecord.Entity.Emotion;
+import com.inforecord.Entity.Record;
+import com.inforecord.repository.EmotionRepository;
+import com.inforecord.repository.InMemoryRepositories;
+import com.inforecord.repository.RecordRepository;
+import com.inforecord.repository.UserDataChangedEvent;
+
+class WeatherEmotionStatisticsTests {
+
+	private static final LocalDate FIRST_DAY = LocalDate.of(2025, 3, 3);
+
+	@Test
+	void chiSquarePValueMatchesReferenceValues() {
+		assertEquals(0.05, WeatherEmotionStatistics.chiSquarePValue(3.841458820694124, 1), 1e-9);
+		assertEquals(0.05, WeatherEmotionStatistics.chiSquarePValue(5.991464547107979, 2), 1e-9);
+		assertEquals(Math.exp(-5), WeatherEmotionStatistics.chiSquarePValue(10, 2), 1e-12);
+		assertEquals(0.05, WeatherEmotionStatistics.chiSquarePValue(16.918977604620448, 9), 1e-9);
+		assertEquals(1.0, WeatherEmotionStatistics.chiSquarePValue(0, 3), 1e-12);
+	}
+
+	@Test
+	void incrementalUpdatesMatchRebuiltTable() {
+		RecordRepository records = InMemoryRepositories.records();
+		EmotionRepository emotions = InMemoryRepositories.emotions(records);
+		WeatherEmotionStatistics statistics = new WeatherEmotionStatistics(records, emotions, 14, 0.05);
+
+		// 비 오는 날은 대부분 슬픔, 맑은 날은 대부분 기쁨 (더운 날일수록 강도가 강함)
+		for (int i = 0; i < 40; i++) {
+			LocalDate date = FIRST_DAY.plusDays(i);
+			boolean rainy = i % 2 == 0;
+			String dominant = (i % 10 == 0) ? (rainy ? "기쁨" : "슬픔") : (rainy ? "슬픔" : "기쁨");
+			Record record = new Record("content", date, "user-1");
+			record.setWeatherDesc(rainy ? "비" : "맑음");
+			record.setWeatherTemp(10.0 + i % 7);
+			record = records.save(record);
+			save(emotions, record, dominant, 0.5 + (i % 7) * 0.05);
+			save(emotions, record, "평온", 0.2);
+			statistics.onUserDataChanged(new UserDataChangedEvent("user-1", date, UserDataChangedEvent.SOURCE_EMOTION));
+		}
+
+		// 감정 교체, 날씨 변경, 기록 삭제
+		Record replaced = records.findByRecordDateAndUserId(FIRST_DAY.plusDays(3), "user-1").orElseThrow();
+		emotions.deleteByRecordId(replaced.getId());
+		save(emotions, replaced, "분노", 0.9);
+		statistics.onUserDataChanged(new UserDataChangedEvent("user-1", replaced.getRecordDate(), UserDataChangedEvent.SOURCE_EMOTION));
+
+		Record rewritten = records.findByRecordDateAndUserId(FIRST_DAY.plusDays(5), "user-1").orElseThrow();
+		rewritten.setWeatherDesc("흐림");
+		records.save(rewritten);
+		statistics.onUserDataChanged(new UserDataChangedEvent("user-1", rewritten.getRecordDate(), UserDataChangedEvent.SOURCE_RECORD));
+
+		Record deleted = records.findByRecordDateAndUserId(FIRST_DAY.plusDays(8), "user-1").orElseThrow();
+		records.deleteById(deleted.getId());
+		statistics.onUserDataChanged(new UserDataChangedEvent("user-1", deleted.getRecordDate(), UserDataChangedEvent.SOURCE_RECORD));
+
+		WeatherEmotionStatistics rebuilt = new WeatherEmotionStatistics(records, emotions, 14, 0.05);
+		rebuilt.loadFromRepositories();
+
+		WeatherEmotionStatistics.Result incremental = statistics.analyze("user-1").orElseThrow();
+		WeatherEmotionStatistics.Result fresh = rebuilt.analyze("user-1").orElseThrow();
+		assertEquals(39, incremental.days());
+		assertEquals(fresh.days(), incremental.days());
+		assertEquals(fresh.degreesOfFreedom(), incremental.degreesOfFreedom());
+		assertEquals(fresh.chiSquare(), incremental.chiSquare(), 1e-9);
+		assertEquals(fresh.strongest(), incremental.strongest());
+		assertEquals(fresh.temperatureIntensityCorrelation(), incremental.temperatureIntensityCorrelation(), 1e-9);
+		assertEquals(fresh.meanIntensityByWeather().keySet(), incremental.meanIntensityByWeather().keySet());
+
+		assertTrue(incremental.significant());
+		assertTrue(incremental.strongest().lift() > 1.5);
+		assertTrue(incremental.temperatureIntensityCorrelation() > 0.5);
+	}
+
+	@Test
+	void collapsesSparseCategoriesBeforeTesting() {
+		RecordRepository records = InMemoryRepositories.records();
+		EmotionRepository emotions = InMemoryRepositories.emotions(records);
+		WeatherEmotionStatistics statistics = new WeatherEmotionStatistics(records, emotions, 14, 0.05);
+		int day = 0;
+		for (int i = 0; i < 20; i++) {
+			observe(records, emotions, statistics, FIRST_DAY.plusDays(day++), "비", i < 16 ? "슬픔" : "기쁨");
+			observe(records, emotions, statistics, FIRST_DAY.plusDays(day++), "맑음", i < 16 ? "기쁨" : "슬픔");
+		}
+		// 이틀뿐인 눈/흐림과 하루뿐인 불안/분노는 그대로 두면 기대 빈도가 1 미만인 칸이 생김
+		observe(records, emotions, statistics, FIRST_DAY.plusDays(day++), "눈", "기쁨");
+		observe(records, emotions, statistics, FIRST_DAY.plusDays(day++), "눈", "불안");
+		observe(records, emotions, statistics, FIRST_DAY.plusDays(day++), "흐림", "슬픔");
+		observe(records, emotions, statistics, FIRST_DAY.plusDays(day++), "흐림", "분노");
+
+		WeatherEmotionStatistics.Result result = statistics.analyze("user-1").orElseThrow();
+		assertEquals(44, result.days());
+		// 4x4에서 희소한 행/열을 합쳐 2x2만 남음
+		assertEquals(1, result.degreesOfFreedom());
+		assertTrue(result.significant());
+		assertEquals(16, result.strongest().days());
+		assertTrue(result.strongest().lift() > 1.5);
+	}
+
+	@Test
+	void reportsNotEnoughDataWhenExpectedCountsStayTooSmall() {
+		RecordRepository records = InMemoryRepositories.records();
+		EmotionRepository emotions = InMemoryRepositories.emotions(records);
+		WeatherEmotionStatistics statistics = new WeatherEmotionStatistics(records, emotions, 14, 0.05);
+		for (int i = 0; i < 13; i++) {
+			observe(records, emotions, statistics, FIRST_DAY.plusDays(i), "맑음", i % 2 == 0 ? "기쁨" : "슬픔");
+		}
+		observe(records, emotions, statistics, FIRST_DAY.plusDays(13), "비", "슬픔");
+
+		// 2x2에서도 비 오는 날의 기대 빈도가 1 미만이라 검정하지 않음
+		assertFalse(statistics.analyze("user-1").isPresent());
+	}
+
+	private void observe(RecordRepository records, EmotionRepository emotions, WeatherEmotionStatistics statistics,
+			LocalDate date, String weather, String type) {
+		Record record = new Record("content", date, "user-1");
+		record.setWeatherDesc(weather);
+		save(emotions, records.save(record), type, 0.8);
+		statistics.onUserDataChanged(new UserDataChangedEvent("user-1", date, UserDataChangedEvent.SOURCE_EMOTION));
+	}
+
+	private void save(EmotionRepository emotions, Record record, String type, double intensity) {
+		Emotion emotion = new Emotion(record, type, intensity);
+		emotion.setDate(record.getRecordDate());
+		emotions.save(emotion);
+	}
+}
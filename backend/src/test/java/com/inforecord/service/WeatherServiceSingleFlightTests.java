@@ -0,0 +1,176 @@
+package com.inforecord.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.inforecord.geo.Gazetteer;
+import com.inforecord.repository.WeatherHistoryStore;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class WeatherServiceSingleFlightTests {
+
+	private static final int CONCURRENT_REQUESTS = 300;
+
+	private static final String FORECAST_JSON = """
+			{"latitude":37.55,"longitude":126.975,"current_units":{"temperature_2m":"°C"},
+			 "current":{"time":"2024-05-01T12:00","interval":900,"temperature_2m":21.5,"relative_humidity_2m":55,
+			  "apparent_temperature":21.0,"precipitation":0.0,"weather_code":1},
+			 "daily":{"time":["2024-05-01"],"temperature_2m_max":[25.0],"temperature_2m_min":[15.0]}}
+			""";
+
+	private final AtomicInteger upstreamCalls = new AtomicInteger();
+	private final AtomicBoolean failNext = new AtomicBoolean();
+	private final AtomicInteger callersEntered = new AtomicInteger();
+	private final AtomicInteger lastLocationCount = new AtomicInteger();
+	private HttpServer server;
+	private WeatherService weatherService;
+
+	@BeforeEach
+	void startStubServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.createContext("/forecast", this::handleForecast);
+		server.start();
+
+		WeatherCache weatherCache = new WeatherCache(0.05, 900_000, 900_000, 100);
+		Gazetteer gazetteer = new Gazetteer("gazetteer/kr-regions.tsv", 40);
+		weatherService = new WeatherService(WebClient.builder(), weatherCache, gazetteer, new WeatherHistoryStore(null),
+				"http://127.0.0.1:" + server.getAddress().getPort(), 50);
+	}
+
+	@AfterEach
+	void stopStubServer() {
+		server.stop(0);
+	}
+
+	@Test
+	void concurrentRequestsForSameCellShareOneUpstreamCall() throws Exception {
+		List<Future<Map<String, Object>>> results = fireConcurrently(CONCURRENT_REQUESTS);
+
+		for (Future<Map<String, Object>> result : results) {
+			Map<String, Object> weather = result.get();
+			assertNotNull(weather);
+			assertEquals(21.5, weather.get("temperature"));
+		}
+		assertEquals(1, upstreamCalls.get());
+	}
+
+	@Test
+	void failureReachesAllWaitersWithoutPoisoningLaterRequests() throws Exception {
+		failNext.set(true);
+		List<Future<Map<String, Object>>> results = fireConcurrently(CONCURRENT_REQUESTS);
+
+		int failures = 0;
+		for (Future<Map<String, Object>> result : results) {
+			try {
+				result.get();
+			} catch (Exception e) {
+				failures++;
+			}
+		}
+		assertEquals(CONCURRENT_REQUESTS, failures);
+		assertEquals(1, upstreamCalls.get());
+
+		// 실패한 조회는 공유 목록에서 빠지므로 다음 요청은 새로 조회해 성공해야 함
+		Map<String, Object> weather = weatherService.getCurrentLocationAndWeatherAsync(37.5665, 126.9780).block();
+		assertEquals(21.5, weather.get("temperature"));
+		assertEquals(2, upstreamCalls.get());
+	}
+
+	@Test
+	void batchDeduplicatesCellsAndFetchesMissesInOneCall() {
+		// 응답 지연 없이 바로 응답
+		callersEntered.set(CONCURRENT_REQUESTS);
+		weatherService.getCurrentLocationAndWeatherAsync(37.5665, 126.9780).block();
+		assertEquals(1, upstreamCalls.get());
+
+		List<WeatherService.Coordinate> locations = List.of(
+				new WeatherService.Coordinate(37.5665, 126.9780),
+				new WeatherService.Coordinate(35.1796, 129.0756),
+				new WeatherService.Coordinate(37.5666, 126.9781),
+				new WeatherService.Coordinate(35.8714, 128.6014),
+				new WeatherService.Coordinate(35.1797, 129.0757));
+		List<Map<String, Object>> results = weatherService.getWeatherBatchAsync(locations).block();
+
+		// 서울 칸은 캐시, 부산/대구 두 칸은 좌표 목록 하나로 조회
+		assertEquals(2, upstreamCalls.get());
+		assertEquals(2, lastLocationCount.get());
+		assertEquals(locations.size(), results.size());
+		for (Map<String, Object> weather : results) {
+			assertEquals(21.5, weather.get("temperature"));
+		}
+		assertEquals("부산", results.get(1).get("location"));
+		assertEquals("대구", results.get(3).get("location"));
+	}
+
+	private List<Future<Map<String, Object>>> fireConcurrently(int count) throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(count);
+		CountDownLatch ready = new CountDownLatch(count);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Map<String, Object>>> results = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			// 같은 격자 칸 안의 조금씩 다른 좌표
+			double latitude = 37.5665 + (i % 10) * 0.0001;
+			double longitude = 126.9780 + (i % 7) * 0.0001;
+			results.add(executor.submit(() -> {
+				ready.countDown();
+				start.await();
+				callersEntered.incrementAndGet();
+				return weatherService.getCurrentLocationAndWeatherAsync(latitude, longitude).block();
+			}));
+		}
+		ready.await();
+		start.countDown();
+		executor.shutdown();
+		return results;
+	}
+
+	private void handleForecast(HttpExchange exchange) throws IOException {
+		upstreamCalls.incrementAndGet();
+		try {
+			// 모든 요청이 조회 중에 도착하도록 응답을 늦춤
+			long deadline = System.currentTimeMillis() + 5_000;
+			while (callersEntered.get() < CONCURRENT_REQUESTS && System.currentTimeMillis() < deadline) {
+				Thread.sleep(5);
+			}
+			Thread.sleep(200);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		// 좌표 목록(쉼표 구분)으로 요청하면 좌표 수만큼의 배열로 응답
+		String latitudes = exchange.getRequestURI().getQuery().replaceAll(".*latitude=([^&]*).*", "$1");
+		int locationCount = latitudes.split(",").length;
+		lastLocationCount.set(locationCount);
+		String forecast = locationCount > 1
+				? "[" + String.join(",", Collections.nCopies(locationCount, FORECAST_JSON)) + "]"
+				: FORECAST_JSON;
+		boolean fail = failNext.getAndSet(false);
+		byte[] body = (fail ? "{\"error\":true}" : forecast).getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(fail ? 500 : 200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+}
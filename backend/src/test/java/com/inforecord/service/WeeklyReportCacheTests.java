@@ -0,0 +1,111 @@
+package com.inforecord.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.inforecord.dto.AIAnalysisDto;
+import com.inforecord.repository.UserDataChangedEvent;
+
+class WeeklyReportCacheTests {
+
+	private static final LocalDate WEEK_START = LocalDate.of(2024, 7, 8);
+
+	@Test
+	void invalidatesOnlyReportsWhoseWindowContainsTheChangedDay() {
+		WeeklyReportCache cache = new WeeklyReportCache(100);
+		WeeklyReportCache.Key thisWeek = key("user-1", WEEK_START);
+		WeeklyReportCache.Key nextWeek = key("user-1", WEEK_START.plusDays(7));
+		WeeklyReportCache.Key laterWeek = key("user-1", WEEK_START.plusDays(14));
+		WeeklyReportCache.Key otherUser = key("user-2", WEEK_START);
+		AIAnalysisDto report = new AIAnalysisDto();
+		for (WeeklyReportCache.Key key : new WeeklyReportCache.Key[] {thisWeek, nextWeek, laterWeek, otherUser}) {
+			cache.put(key, report, cache.generation(key.userId()));
+		}
+
+		// 7/10은 이번 주 기간이자 다음 주의 비교 기간
+		cache.onUserDataChanged(new UserDataChangedEvent("user-1", WEEK_START.plusDays(2), UserDataChangedEvent.SOURCE_EMOTION));
+
+		assertNull(cache.get(thisWeek));
+		assertNull(cache.get(nextWeek));
+		assertSame(report, cache.get(laterWeek));
+		assertSame(report, cache.get(otherUser));
+		assertEquals(2L, cache.getStats().get("invalidations"));
+	}
+
+	@Test
+	void discardsReportsComputedBeforeAChangeAndSkipsOpenWeeks() {
+		WeeklyReportCache cache = new WeeklyReportCache(100);
+		WeeklyReportCache.Key pastWeek = key("user-1", WEEK_START);
+		long generation = cache.generation("user-1");
+
+		cache.onUserDataChanged(new UserDataChangedEvent("user-1", WEEK_START, UserDataChangedEvent.SOURCE_RECORD));
+		cache.put(pastWeek, new AIAnalysisDto(), generation);
+		assertNull(cache.get(pastWeek));
+
+		WeeklyReportCache.Key openWeek = new WeeklyReportCache.Key("user-1", LocalDate.now().minusDays(7), LocalDate.now(), null);
+		cache.put(openWeek, new AIAnalysisDto(), cache.generation("user-1"));
+		assertNull(cache.get(openWeek));
+		assertEquals(1L, cache.getStats().get("stalePutsDiscarded"));
+		assertEquals(0L, cache.getStats().get("puts"));
+	}
+
+	@Test
+	void precomputedReportsAreNotEvictedByOnDemandReports() {
+		WeeklyReportCache cache = new WeeklyReportCache(2);
+		AIAnalysisDto precomputed = new AIAnalysisDto();
+		for (int user = 0; user < 5; user++) {
+			cache.putPrecomputed(key("user-" + user, WEEK_START), precomputed, cache.generation("user-" + user));
+		}
+		// 엔드포인트가 먼저 계산해 LRU에 있던 결과는 보관소로 옮겨짐
+		WeeklyReportCache.Key viewedEarly = key("user-9", WEEK_START);
+		cache.put(viewedEarly, new AIAnalysisDto(), cache.generation("user-9"));
+		assertTrue(cache.retainAsPrecomputed(viewedEarly));
+		assertFalse(cache.retainAsPrecomputed(key("user-8", WEEK_START)));
+
+		// 다른 주 리포트가 LRU를 가득 채워도 사전 계산 결과는 그대로
+		for (int user = 0; user < 10; user++) {
+			cache.put(key("user-" + user, WEEK_START.minusDays(7)), new AIAnalysisDto(), cache.generation("user-" + user));
+		}
+		for (int user = 0; user < 5; user++) {
+			assertSame(precomputed, cache.get(key("user-" + user, WEEK_START)));
+		}
+		assertTrue(cache.contains(viewedEarly));
+		Map<String, Object> stats = cache.getStats();
+		assertEquals(6, stats.get("precomputed"));
+		assertEquals(8L, stats.get("evictions"));
+		assertEquals(5L, stats.get("precomputedHits"));
+
+		// 사전 계산 결과도 데이터가 바뀌면 무효화
+		cache.onUserDataChanged(new UserDataChangedEvent("user-0", WEEK_START, UserDataChangedEvent.SOURCE_RECORD));
+		assertNull(cache.get(key("user-0", WEEK_START)));
+	}
+
+	@Test
+	void nextWeeksPrecomputeMovesThePreviousWeekIntoTheLru() {
+		WeeklyReportCache cache = new WeeklyReportCache(100);
+		AIAnalysisDto lastWeek = new AIAnalysisDto();
+		cache.putPrecomputed(key("user-1", WEEK_START), lastWeek, cache.generation("user-1"));
+		cache.putPrecomputed(key("user-2", WEEK_START), lastWeek, cache.generation("user-2"));
+
+		cache.putPrecomputed(key("user-1", WEEK_START.plusDays(7)), new AIAnalysisDto(), cache.generation("user-1"));
+
+		assertSame(lastWeek, cache.get(key("user-1", WEEK_START)));
+		assertSame(lastWeek, cache.get(key("user-2", WEEK_START)));
+		Map<String, Object> stats = cache.getStats();
+		assertEquals(1, stats.get("precomputed"));
+		assertEquals(2, stats.get("size"));
+		assertEquals(2L, stats.get("precomputedDemoted"));
+	}
+
+	private static WeeklyReportCache.Key key(String userId, LocalDate start) {
+		return new WeeklyReportCache.Key(userId, start, start.plusDays(6), "KR-11");
+	}
+}
@@ -0,0 +1,221 @@
+package com.inforecord.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.lang.reflect.Field;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.inforecord.Entity.Emotion;
+import com.inforecord.Entity.Record;
+import com.inforecord.dto.EmotionDto;
+import com.inforecord.model.EmotionResult;
+import com.inforecord.repository.EmotionRepository;
+import com.inforecord.repository.InMemoryRepositories;
+import com.inforecord.repository.RecordRepository;
+
+class WeeklyReportPrecomputeJobTests {
+
+	@Test
+	void computesTheWeekThatEndedBeforeToday() {
+		// 일요일 시작: 토요일에 끝난 주 (일요일 당일은 방금 끝난 주, 토요일 당일은 그 전 주)
+		assertEquals(List.of(LocalDate.of(2024, 7, 7), LocalDate.of(2024, 7, 13)),
+				weekComputedOn(LocalDate.of(2024, 7, 14), DayOfWeek.SUNDAY));
+		assertEquals(List.of(LocalDate.of(2024, 7, 7), LocalDate.of(2024, 7, 13)),
+				weekComputedOn(LocalDate.of(2024, 7, 15), DayOfWeek.SUNDAY));
+		assertEquals(List.of(LocalDate.of(2024, 6, 30), LocalDate.of(2024, 7, 6)),
+				weekComputedOn(LocalDate.of(2024, 7, 13), DayOfWeek.SUNDAY));
+		// 월요일 시작: 일요일에 끝난 주
+		assertEquals(List.of(LocalDate.of(2024, 7, 8), LocalDate.of(2024, 7, 14)),
+				weekComputedOn(LocalDate.of(2024, 7, 15), DayOfWeek.MONDAY));
+		// 연도 경계
+		assertEquals(List.of(LocalDate.of(2023, 12, 31), LocalDate.of(2024, 1, 6)),
+				weekComputedOn(LocalDate.of(2024, 1, 7), DayOfWeek.SUNDAY));
+	}
+
+	@Test
+	void skipsUsersWhoseReportIsAlreadyCached() {
+		RecordRepository records = InMemoryRepositories.records();
+		LocalDate saturday = LocalDate.of(2024, 7, 13);
+		records.save(new Record("주말 산책", saturday, "user-1"));
+		records.save(new Record("늦잠", saturday, "user-2"));
+		StubReports reports = new StubReports();
+		reports.cachedUsers.add("user-1");
+		StubAnalysis analysis = new StubAnalysis();
+		WeeklyReportPrecomputeJob job = job(records, analysis, reports, DayOfWeek.SUNDAY, 60, 60_000);
+
+		try {
+			WeeklyReportPrecomputeJob.RunSummary summary = job.runFor(LocalDate.of(2024, 7, 14));
+			assertEquals(2, summary.users());
+			assertEquals(1, summary.skippedCached());
+			assertEquals(1, summary.computed());
+			assertEquals(1L, summary.flaskCalls());
+			assertEquals(List.of("user-2"), analysis.users);
+			assertEquals(List.of("user-2"), reports.computedUsers);
+		} finally {
+			job.stopExecutor();
+		}
+	}
+
+	@Test
+	void skipsUsersWhoCannotGetBudgetBeforeTheDeadline() {
+		RecordRepository records = InMemoryRepositories.records();
+		LocalDate saturday = LocalDate.of(2024, 7, 13);
+		records.save(new Record("첫 번째 사용자", saturday, "user-1"));
+		records.save(new Record("두 번째 사용자", saturday, "user-2"));
+		StubReports reports = new StubReports();
+		// 분당 1회 예산, 실행 제한 1초: 두 번째 사용자는 다음 분을 기다릴 수 없음
+		WeeklyReportPrecomputeJob job = job(records, new StubAnalysis(), reports, DayOfWeek.SUNDAY, 1, 1_000);
+
+		try {
+			WeeklyReportPrecomputeJob.RunSummary summary = job.runFor(LocalDate.of(2024, 7, 14));
+			assertEquals(1, summary.computed());
+			assertEquals(1, summary.skippedOverBudget());
+			assertEquals(1L, summary.flaskCalls());
+		} finally {
+			job.stopExecutor();
+		}
+	}
+
+	@Test
+	void budgetRollsOverPerWindowAndGivesUpPastTheDeadline() {
+		WeeklyReportPrecomputeJob job = new WeeklyReportPrecomputeJob(null, null, null, null,
+				true, DayOfWeek.SUNDAY, 1, 10, 0);
+		long start = 1_000_000;
+		long deadline = start + 300_000;
+
+		assertEquals(0L, job.reserveBudget(6, deadline, start));
+		assertEquals(0L, job.reserveBudget(4, deadline, start + 1_000));
+		// 이번 분의 예산을 다 써서 창이 끝날 때까지 대기
+		assertEquals(49_000L, job.reserveBudget(1, deadline, start + 11_000));
+		// 다음 창이 deadline 이후면 포기
+		assertEquals(-1L, job.reserveBudget(1, start + 30_000, start + 11_000));
+
+		// 새 창에서는 예산이 초기화되고, 예산보다 큰 요청은 빈 창 하나를 통째로 사용
+		assertEquals(0L, job.reserveBudget(25, deadline, start + 60_000));
+		assertEquals(60_000L, job.reserveBudget(1, deadline, start + 60_000));
+		assertEquals(0L, job.reserveBudget(1, deadline, start + 120_000));
+	}
+
+	@Test
+	void rerunWithIdenticalResultsWritesNothing() throws Exception {
+		RecordRepository records = InMemoryRepositories.records();
+		EmotionRepository emotions = InMemoryRepositories.emotions(records);
+		List<Object> events = Collections.synchronizedList(new ArrayList<>());
+		emotions.setApplicationEventPublisher(events::add);
+		EmotionResultCache resultCache = new EmotionResultCache("v1", 100);
+		EmotionAnalysisService service = new EmotionAnalysisService();
+		inject(service, "emotionRepository", emotions);
+		inject(service, "emotionResultCache", resultCache);
+		service.startWeeklyExecutor();
+
+		LocalDate start = LocalDate.of(2024, 7, 7);
+		LocalDate end = LocalDate.of(2024, 7, 13);
+		List<Record> week = List.of(
+				records.save(new Record("친구를 만났다", LocalDate.of(2024, 7, 8), "user-1")),
+				records.save(new Record("비가 와서 우울", LocalDate.of(2024, 7, 10), "user-1")));
+		// 캐시된 결과만 쓰므로 모델(배처)을 호출하지 않음
+		resultCache.put("친구를 만났다", new EmotionResult("행복", 0.9));
+		resultCache.put("비가 와서 우울", new EmotionResult("슬픔", 0.7));
+
+		try {
+			List<EmotionDto> first = service.analyzeWeeklyEmotions(week, "user-1", start, end);
+			assertEquals(2, first.size());
+			assertFalse(events.isEmpty());
+			List<Long> savedIds = ids(emotions.findEmotionsByUserIdAndDateRange("user-1", start, end));
+
+			events.clear();
+			List<EmotionDto> second = service.analyzeWeeklyEmotions(week, "user-1", start, end);
+			assertEquals(2, second.size());
+			assertEquals(List.of(), events);
+			assertEquals(savedIds, ids(emotions.findEmotionsByUserIdAndDateRange("user-1", start, end)));
+
+			// 결과가 바뀌면 다시 씀
+			resultCache.put("비가 와서 우울", new EmotionResult("평온", 0.6));
+			service.analyzeWeeklyEmotions(week, "user-1", start, end);
+			assertFalse(events.isEmpty());
+		} finally {
+			service.stopWeeklyExecutor();
+		}
+	}
+
+	private static List<LocalDate> weekComputedOn(LocalDate today, DayOfWeek weekStart) {
+		RecordRepository records = InMemoryRepositories.records();
+		for (int day = -14; day <= 0; day++) {
+			records.save(new Record("기록", today.plusDays(day), "user-1"));
+		}
+		StubReports reports = new StubReports();
+		WeeklyReportPrecomputeJob job = job(records, new StubAnalysis(), reports, weekStart, 60, 60_000);
+		try {
+			WeeklyReportPrecomputeJob.RunSummary summary = job.runFor(today);
+			assertEquals(List.of(summary.weekStart(), summary.weekEnd()), reports.weeks.get(0));
+			assertEquals(weekStart, summary.weekStart().getDayOfWeek());
+			return List.of(summary.weekStart(), summary.weekEnd());
+		} finally {
+			job.stopExecutor();
+		}
+	}
+
+	private static WeeklyReportPrecomputeJob job(RecordRepository records, EmotionAnalysisService analysis,
+			WeeklyReportService reports, DayOfWeek weekStart, int flaskCallsPerMinute, long maxRunMs) {
+		WeeklyReportPrecomputeJob job = new WeeklyReportPrecomputeJob(records, analysis,
+				new EmotionResultCache("v1", 100), reports, true, weekStart, 1, flaskCallsPerMinute, maxRunMs);
+		job.startExecutor();
+		return job;
+	}
+
+	private static List<Long> ids(List<Emotion> emotions) {
+		return emotions.stream().map(Emotion::getId).sorted().toList();
+	}
+
+	private static void inject(Object target, String name, Object value) throws ReflectiveOperationException {
+		Field field = target.getClass().getDeclaredField(name);
+		field.setAccessible(true);
+		field.set(target, value);
+	}
+
+	/**
+	 * 호출된 사용자만 기록하는 주간 감정분석
+	 */
+	private static final class StubAnalysis extends EmotionAnalysisService {
+		final List<String> users = Collections.synchronizedList(new ArrayList<>());
+
+		@Override
+		public List<EmotionDto> analyzeWeeklyEmotions(List<Record> records, String userId, LocalDate startDate, LocalDate endDate) {
+			users.add(userId);
+			return List.of();
+		}
+	}
+
+	/**
+	 * cachedUsers를 캐시된 것으로 보고, 계산 요청된 사용자와 기간을 기록하는 주간 리포트
+	 */
+	private static final class StubReports extends WeeklyReportService {
+		final Set<String> cachedUsers = ConcurrentHashMap.newKeySet();
+		final List<String> computedUsers = Collections.synchronizedList(new ArrayList<>());
+		final List<List<LocalDate>> weeks = Collections.synchronizedList(new ArrayList<>());
+
+		StubReports() {
+			super(null, null, null, null);
+		}
+
+		@Override
+		public boolean retainPrecomputed(String userId, LocalDate start, LocalDate end, String regionId) {
+			return cachedUsers.contains(userId);
+		}
+
+		@Override
+		public void precomputeWeeklyReport(String userId, LocalDate start, LocalDate end, String regionId) {
+			computedUsers.add(userId);
+			weeks.add(List.of(start, end));
+		}
+	}
+}
@@ -31,6 +31,41 @@ except:
         return_all_scores=True
     )
 
+# 감정 라벨 매핑
+emotion_mapping = {
+    'POSITIVE': '행복',
+    'NEGATIVE': '슬픔', 
+    'NEUTRAL': '중립',
+    'LABEL_0': '부정',
+    'LABEL_1': '중립',
+    'LABEL_2': '긍정'
+}
+
+def scores_to_result(scores):
+    """모델 점수 목록을 감정 결과로 변환"""
+    # 가장 높은 점수의 감정 찾기
+    best_result = max(scores, key=lambda x: x['score'])
+    
+    emotion_label = emotion_mapping.get(best_result['label'], best_result['label'])
+    confidence = int(best_result['score'] * 100)
+    
+    # 긍정을 행복으로, 부정을 슬픔으로 매핑
+    if emotion_label == '긍정':
+        emotion_label = '행복'
+    elif emotion_label == '부정':
+        emotion_label = '슬픔'
+        
+    return {
+        'emotion': emotion_label,
+        'confidence': confidence,
+        'all_scores': [
+            {
+                'emotion': emotion_mapping.get(score['label'], score['label']),
+                'score': int(score['score'] * 100)
+            } for score in scores
+        ]
+    }
+
 def analyze_emotion_with_ai(text):
     """AI 모델을 사용한 실제 감정분석"""
     try:
@@ -43,43 +78,22 @@ def analyze_emotion_with_ai(text):
         else:
             scores = results
             
-        # 감정 라벨 매핑
-        emotion_mapping = {
-            'POSITIVE': '행복',
-            'NEGATIVE': '슬픔', 
-            'NEUTRAL': '중립',
-            'LABEL_0': '부정',
-            'LABEL_1': '중립',
-            'LABEL_2': '긍정'
-        }
-        
-        # 가장 높은 점수의 감정 찾기
-        best_result = max(scores, key=lambda x: x['score'])
-        
-        emotion_label = emotion_mapping.get(best_result['label'], best_result['label'])
-        confidence = int(best_result['score'] * 100)
-        
-        # 긍정을 행복으로, 부정을 슬픔으로 매핑
-        if emotion_label == '긍정':
-            emotion_label = '행복'
-        elif emotion_label == '부정':
-            emotion_label = '슬픔'
-            
-        return {
-            'emotion': emotion_label,
-            'confidence': confidence,
-            'all_scores': [
-                {
-                    'emotion': emotion_mapping.get(score['label'], score['label']),
-                    'score': int(score['score'] * 100)
-                } for score in scores
-            ]
-        }
+        return scores_to_result(scores)
         
     except Exception as e:
         print(f"AI 분석 오류: {e}")
         return {'emotion': '중립', 'confidence': 50, 'error': str(e)}
 
+def analyze_emotions_with_ai_batch(texts):
+    """여러 텍스트를 한 번의 모델 호출로 분석 (배치 추론)"""
+    try:
+        batch_results = sentiment_pipeline(texts, batch_size=len(texts))
+        return [scores_to_result(scores) for scores in batch_results]
+    except Exception as e:
+        print(f"AI 배치 분석 오류: {e}")
+        # 배치 실패 시 개별 분석으로 대체
+        return [analyze_emotion_with_ai(text) for text in texts]
+
 def enhance_korean_analysis(text, ai_result):
     """한국어 특성을 고려한 감정 강화"""
     
@@ -154,6 +168,36 @@ def analyze_sentiment():
     except Exception as e:
         return jsonify({'error': f'분석 오류: {str(e)}'}), 500
 
+@app.route('/analyze/batch', methods=['POST'])
+def analyze_sentiment_batch():
+    """AI 기반 배치 감정분석 API (결과는 입력 순서와 같음)"""
+    try:
+        data = request.json or {}
+        texts = [str(text).strip() for text in data.get('texts', [])]
+        
+        if not texts:
+            return jsonify({'error': '텍스트 목록을 입력해주세요'}), 400
+        
+        # 빈 텍스트는 모델에 보내지 않음
+        valid_indexes = [i for i, text in enumerate(texts) if text]
+        ai_results = analyze_emotions_with_ai_batch([texts[i] for i in valid_indexes]) if valid_indexes else []
+        
+        results = [{'error': '텍스트를 입력해주세요'}] * len(texts)
+        for i, ai_result in zip(valid_indexes, ai_results):
+            final_result = enhance_korean_analysis(texts[i], ai_result)
+            results[i] = {
+                'emotion': final_result['emotion'],
+                'confidence': final_result['confidence'],
+                'analysis_method': final_result.get('method', 'ai'),
+                # 모델 추론 실패로 기본값(중립 50%)을 쓴 경우 (키워드로 직접 판정한 결과는 제외)
+                'fallback': 'error' in ai_result and final_result.get('method') != 'direct_korean_match'
+            }
+        
+        return jsonify({'results': results})
+        
+    except Exception as e:
+        return jsonify({'error': f'분석 오류: {str(e)}'}), 500
+
 @app.route('/test', methods=['GET'])
 def test_analysis():
     """테스트용 엔드포인트"""